@@ -0,0 +1,84 @@
+package org.recap.activemq;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.pool.PooledConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of sending request messages through a {@link JmsTemplate}, as the Camel producer templates do, to a local
+ * embedded broker over TCP, with the raw ActiveMQ connection factory opening a connection and session per message
+ * versus the pooled connection factory of {@link ActivemqRegistrar}. Messages are sent to a topic without subscribers so
+ * that the broker does not accumulate them. Run with {@code -prof gc} to report the allocation per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class JmsProducerBenchmark {
+
+    private static final String DESTINATION = "BenchmarkRequestItemTopic";
+    private static final String MESSAGE = "{\"itemBarcodes\":[\"33433001234567\"],\"requestType\":\"RETRIEVAL\",\"requestingInstitution\":\"PUL\",\"itemOwningInstitution\":\"PUL\"}";
+
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    private BrokerService brokerService;
+    private PooledConnectionFactory pooledConnectionFactory;
+    private JmsTemplate jmsTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        brokerService = new BrokerService();
+        brokerService.setPersistent(false);
+        brokerService.setUseJmx(false);
+        brokerService.setAdvisorySupport(false);
+        brokerService.addConnector("tcp://127.0.0.1:0");
+        brokerService.start();
+        brokerService.waitUntilStarted();
+        String brokerUrl = brokerService.getTransportConnectors().get(0).getPublishableConnectString();
+        ActiveMQConnectionFactory connectionFactory = ActivemqRegistrar.createConnectionFactory(brokerUrl, 100, 1000, false);
+        if (pooled) {
+            pooledConnectionFactory = ActivemqRegistrar.createPooledConnectionFactory(connectionFactory, 8, 500);
+            jmsTemplate = new JmsTemplate(pooledConnectionFactory);
+        } else {
+            jmsTemplate = new JmsTemplate(connectionFactory);
+        }
+        jmsTemplate.setPubSubDomain(true);
+        jmsTemplate.setExplicitQosEnabled(true);
+        jmsTemplate.setDeliveryPersistent(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (pooledConnectionFactory != null) {
+            pooledConnectionFactory.stop();
+        }
+        brokerService.stop();
+        brokerService.waitUntilStopped();
+    }
+
+    @Benchmark
+    public void send() {
+        jmsTemplate.convertAndSend(DESTINATION, MESSAGE);
+    }
+}
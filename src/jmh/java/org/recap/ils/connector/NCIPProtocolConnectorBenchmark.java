@@ -0,0 +1,102 @@
+package org.recap.ils.connector;
+
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.extensiblecatalog.ncip.v2.service.CheckInItemInitiationData;
+import org.extensiblecatalog.ncip.v2.service.CheckInItemResponseData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.ils.protocol.ncip.CheckinItem;
+import org.recap.ils.protocol.ncip.NCIPHttpClientPool;
+import org.recap.ils.protocol.ncip.StubNCIPServer;
+import org.recap.model.ILSConfigProperties;
+import org.recap.model.response.ItemCheckoutResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of the NCIP checkout, checkin and lookup user round trips of {@link NCIPProtocolConnector} against a
+ * local stub responder, opening a new connection per call versus using the pooled keep-alive connections of an
+ * institution. Run with {@code -prof gc} to report the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class NCIPProtocolConnectorBenchmark {
+
+    private static final String ITEM_BARCODE = "33433001234567";
+    private static final String PATRON_BARCODE = "45678912";
+
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    @Param({"0", "2"})
+    private long roundTripMillis;
+
+    private StubNCIPServer stubNCIPServer;
+    private NCIPHttpClientPool ncipHttpClientPool;
+    private CloseableHttpClient connectPerCallHttpClient;
+    private NCIPProtocolConnector ncipProtocolConnector;
+    private CheckinItem checkinItem;
+    private CheckInItemInitiationData checkInItemInitiationData;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubNCIPServer = new StubNCIPServer(roundTripMillis);
+        ncipHttpClientPool = new NCIPHttpClientPool("BENCH", 4, 60000, 5000);
+        connectPerCallHttpClient = HttpClients.custom().setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE).build();
+        ncipProtocolConnector = new NCIPProtocolConnector() {
+            @Override
+            public CloseableHttpClient buildCloseableHttpClient() {
+                return pooled ? ncipHttpClientPool.getHttpClient() : connectPerCallHttpClient;
+            }
+        };
+        ncipProtocolConnector.setInstitution("BENCH");
+        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
+        ilsConfigProperties.setHost(stubNCIPServer.getEndPointUrl());
+        ilsConfigProperties.setNcipAgencyId("BENCH");
+        ncipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        checkinItem = new CheckinItem();
+        checkInItemInitiationData = checkinItem.getCheckInItemInitiationData(ITEM_BARCODE, "BENCH");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ncipHttpClientPool.close();
+        connectPerCallHttpClient.close();
+        stubNCIPServer.close();
+    }
+
+    @Benchmark
+    public ItemCheckoutResponse checkOutItem() {
+        return ncipProtocolConnector.checkOutItem(ITEM_BARCODE, 1, PATRON_BARCODE);
+    }
+
+    @Benchmark
+    public CheckInItemResponseData checkInItem() {
+        return ncipProtocolConnector.getCheckinResponse(checkinItem, checkInItemInitiationData);
+    }
+
+    @Benchmark
+    public Object lookupUser() {
+        return ncipProtocolConnector.lookupPatron(PATRON_BARCODE);
+    }
+}
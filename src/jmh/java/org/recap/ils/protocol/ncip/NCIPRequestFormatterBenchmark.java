@@ -0,0 +1,103 @@
+package org.recap.ils.protocol.ncip;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.ils.protocol.ncip.util.NCIPRequestFormatter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning the NCIP toolkit request stream into the bytes of the HTTP entity for LookupUser and
+ * CheckOutItem messages in the layout the toolkit writes them, with {@code elements} repeated optional elements per
+ * message. {@code stringRewrite} reads the stream into a String and rewrites it with the regex and substring passes
+ * {@code CommonUtil.formatRequest} used, {@code singlePassRewrite} rewrites the bytes of the stream in one pass with
+ * {@link NCIPRequestFormatter}. Run with {@code -prof gc} to report the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class NCIPRequestFormatterBenchmark {
+
+    private static final String MESSAGE_START = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<NCIPMessage xmlns=\"http://www.niso.org/2008/ncip\" xmlns:ns2=\"http://www.niso.org/2008/ncip\" ns2:version=\"http://www.niso.org/schemas/ncip/v2_02/ncip_v2_02.xsd\">";
+    private static final String MESSAGE_END = "</NCIPMessage>";
+    private static final String AGENCY_SCHEME = "http://www.niso.org/ncip/v1_0/schemes/agencyidtype/agencyidtype.scm";
+    private static final String INITIATION_HEADER = "<InitiationHeader><FromAgencyId><AgencyId ns2:Scheme=\"" + AGENCY_SCHEME + "\">SCSB</AgencyId></FromAgencyId>"
+            + "<ToAgencyId><AgencyId ns2:Scheme=\"" + AGENCY_SCHEME + "\">BENCH</AgencyId></ToAgencyId>"
+            + "<ApplicationProfileType>SCSB</ApplicationProfileType></InitiationHeader>";
+    private static final String USER_ID = "<UserId><AgencyId>BENCH</AgencyId><UserIdentifierType>Barcode</UserIdentifierType><UserIdentifierValue>45678912</UserIdentifierValue></UserId>";
+    private static final String ITEM_ID = "<ItemId><AgencyId>BENCH</AgencyId><ItemIdentifierType>Barcode</ItemIdentifierType><ItemIdentifierValue>33433001234567</ItemIdentifierValue></ItemId>";
+
+    @Param({"LookupUser", "CheckOutItem"})
+    private String message;
+
+    @Param({"10", "500"})
+    private int elements;
+
+    private byte[] requestMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder request = new StringBuilder(MESSAGE_START);
+        if ("LookupUser".equals(message)) {
+            request.append("<LookupUser>").append(INITIATION_HEADER).append(USER_ID);
+            for (int i = 0; i < elements; i++) {
+                request.append("<UserElementType ns2:Scheme=\"http://www.niso.org/ncip/v1_0/schemes/userelementtype/userelementtype.scm\">Name Information</UserElementType>");
+                request.append("<LoanedItemsDesired/><RequestedItemsDesired/>");
+            }
+            request.append("</LookupUser>");
+        } else {
+            request.append("<CheckOutItem>").append(INITIATION_HEADER).append(USER_ID).append(ITEM_ID);
+            for (int i = 0; i < elements; i++) {
+                request.append("<ItemElementType ns2:Scheme=\"http://www.niso.org/ncip/v1_0/schemes/itemelementtype/itemelementtype.scm\">Bibliographic Description</ItemElementType>");
+                request.append("<Ext><RequestId><AgencyId>BENCH</AgencyId><RequestIdentifierValue>SCSB-").append(i).append("</RequestIdentifierValue></RequestId></Ext>");
+            }
+            request.append("<DesiredDateDue>2026-12-01T00:00:00.000-05:00</DesiredDateDue></CheckOutItem>");
+        }
+        requestMessage = request.append(MESSAGE_END).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] stringRewrite() throws IOException {
+        String requestBody = IOUtils.toString(new ByteArrayInputStream(requestMessage), StandardCharsets.UTF_8);
+        return formatRequest(requestBody).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] singlePassRewrite() throws IOException {
+        return NCIPRequestFormatter.format(new ByteArrayInputStream(requestMessage));
+    }
+
+    private static String formatRequest(String requestBody) {
+        String tempRequest = requestBody.replaceAll("</", "NfOBQ0");
+        for (int i = 1; i < tempRequest.length(); i++) {
+            if (tempRequest.charAt(i) == 60 && tempRequest.charAt(i + 1) > 64 && tempRequest.charAt(i + 1) <= 122) {
+                tempRequest = tempRequest.substring(0, i) + "<ns1:" + tempRequest.substring(i + 1);
+                i = i + 5;
+            }
+        }
+        tempRequest = tempRequest.replaceAll("NfOBQ0", "</ns1:");
+        tempRequest = tempRequest.replaceAll("ns[0-9]:version", "ns1:version");
+        tempRequest = tempRequest.replaceAll("ns[0-9]:Scheme", "ns1:Scheme");
+        return tempRequest.replaceAll("xmlns:ns[0-9]", "xmlns:ns1");
+    }
+}
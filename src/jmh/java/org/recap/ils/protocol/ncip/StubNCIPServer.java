@@ -0,0 +1,86 @@
+package org.recap.ils.protocol.ncip;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal NCIP responder answering CheckOutItem, CheckInItem and LookupUser messages with canned {@code ns1:} prefixed
+ * responses, optionally delaying every response to simulate the network round trip to an ILS.
+ */
+public class StubNCIPServer implements Closeable {
+
+    private static final String MESSAGE_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<ns1:NCIPMessage xmlns:ns1=\"http://www.niso.org/2008/ncip\" ns1:version=\"http://www.niso.org/schemas/ncip/v2_02/ncip_v2_02.xsd\">";
+    private static final String MESSAGE_END = "</ns1:NCIPMessage>";
+    private static final String ITEM_ID = "<ns1:ItemId><ns1:AgencyId>BENCH</ns1:AgencyId><ns1:ItemIdentifierValue>33433001234567</ns1:ItemIdentifierValue></ns1:ItemId>";
+    private static final String USER_ID = "<ns1:UserId><ns1:AgencyId>BENCH</ns1:AgencyId><ns1:UserIdentifierValue>45678912</ns1:UserIdentifierValue></ns1:UserId>";
+
+    static final byte[] CHECK_OUT_ITEM_RESPONSE = (MESSAGE_START + "<ns1:CheckOutItemResponse>" + ITEM_ID + USER_ID
+            + "<ns1:DateDue>2026-12-01T00:00:00.000-05:00</ns1:DateDue></ns1:CheckOutItemResponse>" + MESSAGE_END).getBytes(StandardCharsets.UTF_8);
+    static final byte[] CHECK_IN_ITEM_RESPONSE = (MESSAGE_START + "<ns1:CheckInItemResponse>" + ITEM_ID
+            + "</ns1:CheckInItemResponse>" + MESSAGE_END).getBytes(StandardCharsets.UTF_8);
+    static final byte[] LOOKUP_USER_RESPONSE = (MESSAGE_START + "<ns1:LookupUserResponse>" + USER_ID
+            + "<ns1:UserOptionalFields><ns1:NameInformation><ns1:PersonalNameInformation><ns1:StructuredPersonalUserName>"
+            + "<ns1:GivenName>Jane</ns1:GivenName><ns1:Surname>Doe</ns1:Surname>"
+            + "</ns1:StructuredPersonalUserName></ns1:PersonalNameInformation></ns1:NameInformation></ns1:UserOptionalFields>"
+            + "</ns1:LookupUserResponse>" + MESSAGE_END).getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-ncip-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long roundTripMillis;
+
+    public StubNCIPServer(long roundTripMillis) throws IOException {
+        this.roundTripMillis = roundTripMillis;
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/ncip", this::serve);
+        httpServer.setExecutor(executorService);
+        httpServer.start();
+    }
+
+    public String getEndPointUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort() + "/ncip";
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        byte[] response;
+        if (request.contains("CheckOutItem")) {
+            response = CHECK_OUT_ITEM_RESPONSE;
+        } else if (request.contains("CheckInItem")) {
+            response = CHECK_IN_ITEM_RESPONSE;
+        } else {
+            response = LOOKUP_USER_RESPONSE;
+        }
+        if (roundTripMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(roundTripMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+}
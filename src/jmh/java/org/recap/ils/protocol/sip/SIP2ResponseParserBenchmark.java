@@ -0,0 +1,130 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseValueException;
+import com.pkrete.jsip2.messages.SIP2MessageResponse;
+import com.pkrete.jsip2.messages.SIP2ResponseFactory;
+import com.pkrete.jsip2.parser.SIP2FieldTokenizer;
+import com.pkrete.jsip2.parser.SIP2ResponseParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-response cost of parsing the SIP2 responses of every command identifier handled by {@link SIP2ResponseFactory},
+ * over responses in the layout the ILS SIP servers send them. {@code regexFields} reads the common fields of the
+ * response with a pattern compiled and matched per field over a copy of the message, as the parsers did,
+ * {@code tokenizedFields} reads the same fields from one {@link SIP2FieldTokenizer} scan, and {@code create} runs the
+ * full factory parse. Run with {@code -prof gc} to report the allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class SIP2ResponseParserBenchmark {
+
+    private static final String DATE = "20261018    083000";
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+    private static final String[] FIELD_IDS = {"AO", "AA", "AB", "AJ", "AQ", "MA", "BV"};
+    private static final Map<String, String> RESPONSES = new HashMap<>();
+    private static final Map<String, Integer> FIELDS_OFFSETS = new HashMap<>();
+
+    static {
+        response("94", 3, "941AY0AZFDFC");
+        response("98", 36, "98YYYNYN01000320261018    0830002.00AOPUL|AMPrinceton University Library|BXYYYYYYYYYYYYYYYY|ANRECAP|AFOnline|AY1AZEAC5");
+        response("24", 37, "24              001" + DATE + "AOPUL|AA45678912|AEDoe, Jane|BLY|CQY|BHUSD|BV0.00|AFPatron status ok|AY2AZE1B3");
+        response("64", 61, "64              001" + DATE + "000000010003000000000000AOPUL|AA45678912|AEDoe, Jane|BZ0010|CA0005|CB0100|BLY|CQY|BHUSD|BV0.00|CC10.00|AU33433001234567|AU33433001234568|AU33433001234569|BEpatron@example.org|BF609-555-0100|PTFaculty|AFPatron information ok|AY3AZD2F1");
+        response("10", 24, "101YNN" + DATE + "AOPUL|AB33433001234567|AQRECAP|AJ" + TITLE + "|CLB1|AA45678912|CK001|CSF128 .H8|CTRECAP|AFItem checked in|AY4AZD8A0");
+        response("12", 24, "121YNN" + DATE + "AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|AH20261101    235900|BT01|CIN|BHUSD|BV0.00|CK001|BK12345|AFCheckout successful|AY5AZC1E2");
+        response("36", 21, "36Y" + DATE + "AOPUL|AA45678912|AFSession ended|AY6AZE9B1");
+        response("38", 21, "38Y" + DATE + "AOPUL|AA45678912|BK98765|AFFee paid|AY7AZE5C4");
+        response("18", 27, "181030001" + DATE + "CF00000|AB33433001234567|AJ" + TITLE + "|BGPUL|BHUSD|BV0.00|CK001|AQRECAP|APRECAP|CHDo not circulate|AFItem available|MA99123456|AY8AZC0D7");
+        response("20", 21, "201" + DATE + "AB33433001234567|AJ" + TITLE + "|CHDo not circulate|AFItem updated|AY9AZE2A1");
+        response("26", 37, "26              001" + DATE + "AOPUL|AA45678912|AEDoe, Jane|BLY|CQY|AFPatron enabled|AY0AZE3B2");
+        response("16", 22, "161N" + DATE + "BW20261201    235900|BR1|BSRECAP|AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|MA99123456|AFHold placed|AY1AZD9C3");
+        response("30", 24, "301YNN" + DATE + "AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|AH20261201    235900|BHUSD|BV0.00|AFRenewed|AY2AZD1E4");
+        response("66", 29, "6610001000020261018    083000AOPUL|BM33433001234567|BN33433001234568|AFRenew all|AY3AZE0F5");
+        response("82", 0, "821MJ8967832|MA99123456|AFBib created|AY4AZE6A6");
+        response("88", 22, "881N" + DATE + "BW20261201    235900|BSRECAP|AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|MA99123456|AFRecall placed|AY5AZD3B7");
+    }
+
+    @Param({"94", "98", "24", "64", "10", "12", "36", "38", "18", "20", "26", "16", "30", "66", "82", "88"})
+    private String code;
+
+    private String data;
+    private int fieldsOffset;
+    private RegexFieldReader regexFieldReader;
+
+    private static void response(String code, int fieldsOffset, String data) {
+        RESPONSES.put(code, data);
+        FIELDS_OFFSETS.put(code, fieldsOffset);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = RESPONSES.get(code);
+        fieldsOffset = FIELDS_OFFSETS.get(code);
+        regexFieldReader = new RegexFieldReader();
+    }
+
+    @Benchmark
+    public void regexFields(Blackhole blackhole) {
+        regexFieldReader.read(data, fieldsOffset, blackhole);
+    }
+
+    @Benchmark
+    public void tokenizedFields(Blackhole blackhole) {
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, fieldsOffset);
+        for (String fieldId : FIELD_IDS) {
+            blackhole.consume(fields.getValue(fieldId));
+        }
+        blackhole.consume(fields.getValues("AF"));
+        blackhole.consume(fields.getValues("AG"));
+        blackhole.consume(fields.getSequence());
+        blackhole.consume(fields.getChecksum());
+    }
+
+    @Benchmark
+    public SIP2MessageResponse create() throws InvalidSIP2ResponseException, InvalidSIP2ResponseValueException {
+        return SIP2ResponseFactory.getInstance().create(data);
+    }
+
+    /**
+     * Reads fields with the pattern based helpers of {@link SIP2ResponseParser}.
+     */
+    private static class RegexFieldReader extends SIP2ResponseParser {
+
+        void read(String data, int fieldsOffset, Blackhole blackhole) {
+            for (String fieldId : FIELD_IDS) {
+                blackhole.consume(parseVariable(fieldId, data.substring(fieldsOffset)));
+            }
+            blackhole.consume(parseVariableMulti("AF", data.substring(fieldsOffset)));
+            blackhole.consume(parseVariableMulti("AG", data.substring(fieldsOffset)));
+            blackhole.consume(parseSequence(data));
+            blackhole.consume(parseChecksum(data));
+        }
+
+        @Override
+        public SIP2MessageResponse parse(String data) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import com.pkrete.jsip2.messages.SIP2MessageResponse;
+import com.pkrete.jsip2.messages.requests.SIP2ItemInformationRequest;
+import com.pkrete.jsip2.messages.requests.SIP2LoginRequest;
+import com.pkrete.jsip2.messages.requests.SIP2SCStatusRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of a SIP2 item lookup (the message sequence of {@code SIPProtocolConnector.lookupItem})
+ * against a local stub server, opening and logging in a new connection per call versus borrowing a pooled session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class SIP2SessionPoolBenchmark {
+
+    private static final String ITEM_BARCODE = "33433001234567";
+
+    @Param({"0", "2"})
+    private long roundTripMillis;
+
+    private StubSIP2Server stubSIP2Server;
+    private SIP2SessionPool sessionPool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubSIP2Server = new StubSIP2Server(roundTripMillis);
+        sessionPool = new SIP2SessionPool("BENCH", "localhost", stubSIP2Server.getPort(), "operator", "password", "location", 4, 5000, 60000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sessionPool.close();
+        stubSIP2Server.close();
+    }
+
+    @Benchmark
+    public SIP2MessageResponse openPerCall() throws Exception {
+        SIP2SocketConnection connection = new SIP2SocketConnection("localhost", stubSIP2Server.getPort());
+        try {
+            connection.connect();
+            connection.send(new SIP2LoginRequest("operator", "password", "location"));
+            connection.send(new SIP2SCStatusRequest());
+            return connection.send(new SIP2ItemInformationRequest(ITEM_BARCODE));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public SIP2MessageResponse pooledSession() throws Exception {
+        SIP2SocketConnection connection = sessionPool.borrow();
+        try {
+            connection.send(new SIP2SCStatusRequest());
+            return connection.send(new SIP2ItemInformationRequest(ITEM_BARCODE));
+        } finally {
+            sessionPool.release(connection);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.recap.ils.protocol.sip;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal SIP2 server answering login, SC status and item information messages with canned responses,
+ * optionally delaying every response to simulate the network round trip to an ILS.
+ */
+public class StubSIP2Server implements Closeable {
+
+    static final String LOGIN_RESPONSE = "941";
+    static final String ACS_STATUS_RESPONSE = "98YYYNYN01000320261018    0830002.00AOinst|BXYYYYYYYYYYYYYYYY|";
+    static final String ITEM_INFORMATION_RESPONSE = "18103000120261018    083000AB33433001234567|AJA title|AQRECAP|";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-sip2-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long roundTripMillis;
+
+    public StubSIP2Server(long roundTripMillis) throws IOException {
+        this.roundTripMillis = roundTripMillis;
+        this.serverSocket = new ServerSocket(0);
+        executorService.execute(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executorService.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder message = new StringBuilder();
+            int character;
+            while ((character = in.read()) != -1) {
+                if (character != '\r') {
+                    message.append((char) character);
+                    continue;
+                }
+                String response = respond(message.toString());
+                message.setLength(0);
+                if (roundTripMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(roundTripMillis);
+                }
+                out.write(response);
+                out.write('\r');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String respond(String message) {
+        String code = message.length() >= 2 ? message.substring(0, 2) : "";
+        switch (code) {
+            case "93":
+                return LOGIN_RESPONSE;
+            case "17":
+                return ITEM_INFORMATION_RESPONSE;
+            default:
+                return ACS_STATUS_RESPONSE;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,197 @@
+package org.recap.request.service;
+
+import org.apache.camel.ProducerTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.ScsbCommonConstants;
+import org.recap.model.jpa.BulkRequestChunkEntity;
+import org.recap.model.jpa.BulkRequestItemEntity;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.jpa.ItemStatusEntity;
+import org.recap.model.request.BulkRequestItem;
+import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
+import org.recap.repository.jpa.BulkRequestProgressRepository;
+import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.request.util.ItemRequestServiceUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-file cost of the CPU-bound parts of a bulk request with {@code rows} barcodes. {@code parseBulkRequestFile} runs
+ * {@link BulkItemRequestService#bulkRequestItems} over the uploaded CSV file, with the repositories and the producer
+ * answered in memory, so it covers reading the rows, the duplicate and limit checks, the chunking and the validation of
+ * the looked up items. {@code buildCsvFormatData} writes the report rows of the same number of results with
+ * {@link ItemRequestServiceUtil#buildCsvFormatData}. Run with {@code -prof gc} to report the allocation per file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class BulkRequestCsvBenchmark {
+
+    private static final Integer BULK_REQUEST_ID = 1;
+    private static final Integer INSTITUTION_ID = 1;
+    private static final Integer IMS_LOCATION_ID = 1;
+    private static final String[] STATUSES = {"SUCCESS", "Item Barcode(s) not available in SCSB.", "Item doesn't belong to the requesting institution.",
+            "Request failed, \"ILS\" responded: Item not checked out", "Retrieval order successfully created in LAS."};
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private BulkItemRequestService bulkItemRequestService;
+    private ItemRequestServiceUtil itemRequestServiceUtil;
+    private List<BulkRequestItem> bulkRequestItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder bulkRequestFile = new StringBuilder("ITEM_BARCODE,CUSTOMER_CODE");
+        Map<String, ItemEntity> itemEntities = new HashMap<>();
+        bulkRequestItems = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String itemBarcode = String.format("3343300%07d", i % 50 == 49 ? i - 1 : i);
+            bulkRequestFile.append('\n').append(itemBarcode).append(",PA");
+            if (i % 20 != 19) {
+                itemEntities.put(itemBarcode, getItemEntity(itemBarcode, i % 25 == 24 ? ScsbCommonConstants.NOT_AVAILABLE : ScsbCommonConstants.AVAILABLE));
+            }
+            BulkRequestItem bulkRequestItem = new BulkRequestItem();
+            bulkRequestItem.setItemBarcode(itemBarcode);
+            bulkRequestItem.setCustomerCode("PA");
+            bulkRequestItem.setRequestId(String.valueOf(100000 + i));
+            bulkRequestItem.setRequestStatus("RETRIEVAL ORDER PLACED");
+            bulkRequestItem.setStatus(STATUSES[i % STATUSES.length]);
+            bulkRequestItems.add(bulkRequestItem);
+        }
+
+        BulkRequestItemEntity bulkRequestItemEntity = new BulkRequestItemEntity();
+        bulkRequestItemEntity.setId(BULK_REQUEST_ID);
+        bulkRequestItemEntity.setRequestingInstitutionId(INSTITUTION_ID);
+        bulkRequestItemEntity.setImsLocation(IMS_LOCATION_ID);
+        bulkRequestItemEntity.setBulkRequestFileData(bulkRequestFile.toString().getBytes(StandardCharsets.UTF_8));
+
+        itemRequestServiceUtil = new ItemRequestServiceUtil() {
+            @Override
+            public void updateStatusToBarcodes(List<BulkRequestItem> bulkRequestItems, Integer bulkRequestId) {
+                // The results are inserted with one JDBC batch per chunk, which is not part of the parse.
+            }
+        };
+        bulkItemRequestService = new BulkItemRequestService();
+        setField("bulkRequestItemCountLimit", rows);
+        setField("chunkSize", 100);
+        setField("itemRequestServiceUtil", itemRequestServiceUtil);
+        BulkRequestItemDetailsRepository.BulkRequestScope bulkRequestScope = stub(BulkRequestItemDetailsRepository.BulkRequestScope.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getId":
+                    return BULK_REQUEST_ID;
+                case "getRequestingInstitutionId":
+                    return INSTITUTION_ID;
+                default:
+                    return IMS_LOCATION_ID;
+            }
+        });
+        setField("bulkRequestItemDetailsRepository", stub(BulkRequestItemDetailsRepository.class, (proxy, method, args) ->
+                "findScopeById".equals(method.getName()) ? Optional.of(bulkRequestScope) : null));
+        ResultSet bulkRequestFileData = stub(ResultSet.class, (proxy, method, args) ->
+                "getBinaryStream".equals(method.getName()) ? new ByteArrayInputStream(bulkRequestItemEntity.getBulkRequestFileData()) : null);
+        setField("jdbcTemplate", new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler rowCallbackHandler, Object... args) {
+                try {
+                    rowCallbackHandler.processRow(bulkRequestFileData);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        setField("itemDetailsRepository", stub(ItemDetailsRepository.class, (proxy, method, args) -> {
+            List<ItemEntity> foundItemEntities = new ArrayList<>();
+            for (Object itemBarcode : (List<?>) args[0]) {
+                ItemEntity itemEntity = itemEntities.get(itemBarcode);
+                if (itemEntity != null) {
+                    foundItemEntities.add(itemEntity);
+                }
+            }
+            return foundItemEntities;
+        }));
+        setField("bulkRequestProgressRepository", stub(BulkRequestProgressRepository.class, (proxy, method, args) ->
+                "findById".equals(method.getName()) ? Optional.empty() : null));
+        setField("bulkRequestProgressService", new BulkRequestProgressService() {
+            @Override
+            public BulkRequestChunkEntity registerChunk(Integer bulkRequestId, int chunkIndex) {
+                BulkRequestChunkEntity bulkRequestChunkEntity = new BulkRequestChunkEntity();
+                bulkRequestChunkEntity.setId(chunkIndex);
+                bulkRequestChunkEntity.setBulkRequestId(bulkRequestId);
+                bulkRequestChunkEntity.setChunkIndex(chunkIndex);
+                return bulkRequestChunkEntity;
+            }
+
+            @Override
+            public boolean completeDispatch(Integer bulkRequestId) {
+                return false;
+            }
+        });
+        setField("producerTemplate", stub(ProducerTemplate.class, (proxy, method, args) -> null));
+    }
+
+    @Benchmark
+    public void parseBulkRequestFile() {
+        bulkItemRequestService.bulkRequestItems(BULK_REQUEST_ID);
+    }
+
+    @Benchmark
+    public String buildCsvFormatData() {
+        StringBuilder csvFormatDataBuilder = new StringBuilder();
+        itemRequestServiceUtil.buildCsvFormatData(bulkRequestItems, csvFormatDataBuilder);
+        return csvFormatDataBuilder.toString();
+    }
+
+    private static ItemEntity getItemEntity(String itemBarcode, String statusCode) {
+        ItemStatusEntity itemStatusEntity = new ItemStatusEntity();
+        itemStatusEntity.setStatusCode(statusCode);
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setBarcode(itemBarcode);
+        itemEntity.setCustomerCode("PA");
+        itemEntity.setItemStatusEntity(itemStatusEntity);
+        itemEntity.setOwningInstitutionId(INSTITUTION_ID);
+        itemEntity.setImsLocationId(IMS_LOCATION_ID);
+        return itemEntity;
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(BulkItemRequestService.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, bulkItemRequestService, value);
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler invocationHandler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+}
@@ -0,0 +1,74 @@
+package org.recap.request.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.model.jpa.ImsLocationEntity;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.search.SearchResultRow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of building the title identifier sent to the ILS and LAS with
+ * {@link ItemRequestService#getTitle} from the Solr title of the item, and of stripping the diacritics of a title and
+ * author with {@link ItemRequestService#removeDiacritical}, for plain ASCII titles, titles with diacritics and titles
+ * past the 126 characters the identifier is cut to. Run with {@code -prof gc} to report the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class RequestTitleBenchmark {
+
+    @Param({"ascii", "diacritics", "long"})
+    private String title;
+
+    private ItemRequestService itemRequestService;
+    private ItemEntity itemEntity;
+    private SearchResultRow searchResultRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemRequestService = new ItemRequestService();
+        ImsLocationEntity imsLocationEntity = new ImsLocationEntity();
+        imsLocationEntity.setImsLocationCode("RECAP");
+        itemEntity = new ItemEntity();
+        itemEntity.setBarcode("33433001234567");
+        itemEntity.setUseRestrictions("In Library Use");
+        itemEntity.setImsLocationEntity(imsLocationEntity);
+        searchResultRow = new SearchResultRow();
+        searchResultRow.setAuthor("Bégin, Joséphine Marie-Thérèse");
+        if ("ascii".equals(title)) {
+            searchResultRow.setTitle("The history of the Hudson River valley, from Cohoes to the sea");
+        } else if ("diacritics".equals(title)) {
+            searchResultRow.setTitle("Histoire de la littérature française : des origines à nos jours, édition révisée");
+        } else {
+            searchResultRow.setTitle("Über die Entwicklung der öffentlichen Bibliotheken in Mitteleuropa : Geschichte, Sammlungen, "
+                    + "Benutzung und Verwaltung der Bestände von der Aufklärung bis zur Gegenwart, mit einem Verzeichnis der Handschriften");
+        }
+    }
+
+    @Benchmark
+    public String getTitle() {
+        return itemRequestService.getTitle(null, itemEntity, searchResultRow);
+    }
+
+    @Benchmark
+    public String[] removeDiacritical() {
+        return new String[]{itemRequestService.removeDiacritical(searchResultRow.getTitle()), itemRequestService.removeDiacritical(searchResultRow.getAuthor())};
+    }
+}
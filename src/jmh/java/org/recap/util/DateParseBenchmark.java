@@ -0,0 +1,55 @@
+package org.recap.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.ScsbConstants;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of parsing the created and last updated dates of a LAS report record and an expiration date, creating
+ * a {@code SimpleDateFormat} per record and parsing the formatted LAS dates again, as the request data load and the
+ * request service did, versus the shared immutable formatters of {@link DateUtil}. Run with {@code -prof gc} to report
+ * the allocation per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class DateParseBenchmark {
+
+    private static final String CREATED_DATE = "03/14/2022 15:09:26";
+    private static final String LAST_UPDATED_DATE = "03/15/2022 08:30:00";
+    private static final String EXPIRATION_DATE = "03-14-2023 15:09:26";
+
+    @Benchmark
+    public Date[] simpleDateFormatPerRecord() throws ParseException {
+        SimpleDateFormat formatter = new SimpleDateFormat(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT);
+        Date createdDate = new SimpleDateFormat(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT).parse(CREATED_DATE);
+        Date lastUpdatedDate = new SimpleDateFormat(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT).parse(LAST_UPDATED_DATE);
+        Date expirationDate = new SimpleDateFormat(ScsbConstants.DATE_FORMAT).parse(EXPIRATION_DATE);
+        return new Date[]{formatter.parse(formatter.format(createdDate)), formatter.parse(formatter.format(lastUpdatedDate)), expirationDate};
+    }
+
+    @Benchmark
+    public Date[] sharedDateTimeFormatter() throws ParseException {
+        Date createdDate = DateUtil.parse(CREATED_DATE, DateUtil.REQUEST_DATA_LOAD_DATE_FORMATTER);
+        Date lastUpdatedDate = DateUtil.parse(LAST_UPDATED_DATE, DateUtil.REQUEST_DATA_LOAD_DATE_FORMATTER);
+        Date expirationDate = DateUtil.parse(EXPIRATION_DATE, DateUtil.DATE_FORMATTER);
+        return new Date[]{createdDate, lastUpdatedDate, expirationDate};
+    }
+}
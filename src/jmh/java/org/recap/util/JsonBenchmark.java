@@ -0,0 +1,95 @@
+package org.recap.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.model.request.RequestInformation;
+import org.recap.model.response.ItemInformationResponse;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of reading a request item queue message and writing the LAS status check message and the topic
+ * message of the request, creating an {@code ObjectMapper} per message, as the queue consumers and LAS processors did,
+ * versus the shared readers and writer of {@link JsonUtil}. Run with {@code -prof gc} to report the allocation per
+ * message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class JsonBenchmark {
+
+    private String itemRequestMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+        itemRequestInformation.setItemBarcodes(Collections.singletonList("33433001234567"));
+        itemRequestInformation.setTitleIdentifier("The history of the Hudson River valley, from Cohoes to the sea");
+        itemRequestInformation.setItemOwningInstitution("NYPL");
+        itemRequestInformation.setPatronBarcode("45678912");
+        itemRequestInformation.setEmailAddress("patron@example.org");
+        itemRequestInformation.setRequestingInstitution("PUL");
+        itemRequestInformation.setRequestType("RETRIEVAL");
+        itemRequestInformation.setDeliveryLocation("PA");
+        itemRequestInformation.setCustomerCode("NA");
+        itemRequestInformation.setRequestNotes("Please hold at circulation desk");
+        itemRequestInformation.setBibId("b10234567");
+        itemRequestInformation.setUsername("admin");
+        itemRequestInformation.setRequestId(123456);
+        itemRequestInformation.setImsLocationCode("RECAP");
+        itemRequestMessage = new ObjectMapper().writeValueAsString(itemRequestInformation);
+    }
+
+    @Benchmark
+    public String[] objectMapperPerMessage() throws JsonProcessingException {
+        ItemRequestInformation itemRequestInformation = new ObjectMapper().readValue(itemRequestMessage, ItemRequestInformation.class);
+        String lasStatusCheckMessage = new ObjectMapper().writeValueAsString(getRequestInformation(itemRequestInformation));
+        String topicMessage = new ObjectMapper().writeValueAsString(getItemInformationResponse(itemRequestInformation));
+        return new String[]{lasStatusCheckMessage, topicMessage};
+    }
+
+    @Benchmark
+    public String[] sharedReaderAndWriter() throws JsonProcessingException {
+        ItemRequestInformation itemRequestInformation = JsonUtil.ITEM_REQUEST_INFORMATION_READER.readValue(itemRequestMessage);
+        String lasStatusCheckMessage = JsonUtil.OBJECT_WRITER.writeValueAsString(getRequestInformation(itemRequestInformation));
+        String topicMessage = JsonUtil.OBJECT_WRITER.writeValueAsString(getItemInformationResponse(itemRequestInformation));
+        return new String[]{lasStatusCheckMessage, topicMessage};
+    }
+
+    private static RequestInformation getRequestInformation(ItemRequestInformation itemRequestInformation) {
+        RequestInformation requestInformation = new RequestInformation();
+        requestInformation.setItemRequestInfo(itemRequestInformation);
+        requestInformation.setItemResponseInformation(getItemInformationResponse(itemRequestInformation));
+        return requestInformation;
+    }
+
+    private static ItemInformationResponse getItemInformationResponse(ItemRequestInformation itemRequestInformation) {
+        ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        itemInformationResponse.setItemBarcode(itemRequestInformation.getItemBarcodes().get(0));
+        itemInformationResponse.setItemOwningInstitution(itemRequestInformation.getItemOwningInstitution());
+        itemInformationResponse.setRequestType(itemRequestInformation.getRequestType());
+        itemInformationResponse.setRequestId(itemRequestInformation.getRequestId());
+        itemInformationResponse.setImsLocationCode(itemRequestInformation.getImsLocationCode());
+        itemInformationResponse.setSuccess(true);
+        itemInformationResponse.setScreenMessage("Retrieval order successfully created in LAS.");
+        return itemInformationResponse;
+    }
+}
@@ -45,13 +45,17 @@ import com.pkrete.jsip2.parser.SIP2RenewResponseParser;
 import com.pkrete.jsip2.parser.SIP2ResponseParser;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
+import java.util.Map;
+
 
 /**
  * This class generates SIP2MessageResponse objects based on the data
  * received from the ILS SIP server. 
  * 
  * This class implements the Singleton design pattern, which means that 
- * only one instance is created at run time.
+ * only one instance is created at run time. The parsers are stateless and
+ * are created once, with the factory, and shared by all the responses.
  * 
  * @author Petteri Kivimäki
  */
@@ -61,23 +65,40 @@ public class SIP2ResponseFactory {
     /**
      * Reference to the singleton object.
      */
-    private static SIP2ResponseFactory ref;
+    private static final SIP2ResponseFactory ref = new SIP2ResponseFactory();
+
+    /**
+     * Parsers by the command identifier of the response.
+     */
+    private final Map<String, SIP2ResponseParser> parsers = new HashMap<>();
 
     /**
      * Constructs and initializes a new SIPResponseFactory object.
      */
     private SIP2ResponseFactory() {
+        parsers.put("94", new SIP2LoginResponseParser());
+        parsers.put("98", new SIP2ACSStatusResponseParser());
+        parsers.put("24", new SIP2PatronStatusResponseParser());
+        parsers.put("64", new SIP2PatronInformationResponseParser());
+        parsers.put("10", new SIP2CheckinResponseParser());
+        parsers.put("12", new SIP2CheckoutResponseParser());
+        parsers.put("36", new SIP2EndSessionResponseParser());
+        parsers.put("38", new SIP2FeePaidResponseParser());
+        parsers.put("18", new SIP2ItemInformationResponseParser());
+        parsers.put("20", new SIP2ItemStatusUpdateResponseParser());
+        parsers.put("26", new SIP2PatronEnableResponseParser());
+        parsers.put("16", new SIP2HoldResponseParser());
+        parsers.put("30", new SIP2RenewResponseParser());
+        parsers.put("66", new SIP2RenewAllResponseParser());
+        parsers.put("82", new SIP2CreateBibResponseParser());
+        parsers.put("88", new SIP2RecallResponseParser());
     }
 
     /**
-     * Returns a reference to the singleton object. The object is created when
-     * this method is called for the first time.
+     * Returns a reference to the singleton object.
      * @return reference to the singleton object
      */
     public static SIP2ResponseFactory getInstance() {
-        if (ref == null) {
-            ref = new SIP2ResponseFactory();
-        }
         return ref;
     }
 
@@ -100,62 +121,13 @@ public class SIP2ResponseFactory {
             throw new InvalidSIP2ResponseException("Response message is too short.");
         }
 
-        SIP2ResponseParser parser;
         // Get the command identifier
         String code = data.substring(0, 2);
-        log.info(data);
-        switch (code) {
-            case "94":
-                parser = new SIP2LoginResponseParser();
-                return parser.parse(data);
-            case "98":
-                parser = new SIP2ACSStatusResponseParser();
-                return parser.parse(data);
-            case "24":
-                parser = new SIP2PatronStatusResponseParser();
-                return parser.parse(data);
-            case "64":
-                parser = new SIP2PatronInformationResponseParser();
-                return parser.parse(data);
-            case "10":
-                parser = new SIP2CheckinResponseParser();
-                return parser.parse(data);
-            case "12":
-                parser = new SIP2CheckoutResponseParser();
-                return parser.parse(data);
-            case "36":
-                parser = new SIP2EndSessionResponseParser();
-                return parser.parse(data);
-            case "38":
-                parser = new SIP2FeePaidResponseParser();
-                return parser.parse(data);
-            case "18":
-                parser = new SIP2ItemInformationResponseParser();
-                return parser.parse(data);
-            case "20":
-                parser = new SIP2ItemStatusUpdateResponseParser();
-                return parser.parse(data);
-            case "26":
-                parser = new SIP2PatronEnableResponseParser();
-                return parser.parse(data);
-            case "16":
-                parser = new SIP2HoldResponseParser();
-                return parser.parse(data);
-            case "30":
-                parser = new SIP2RenewResponseParser();
-                return parser.parse(data);
-            case "66":
-                parser = new SIP2RenewAllResponseParser();
-                return parser.parse(data);
-            case "82":
-                parser = new SIP2CreateBibResponseParser();
-                return parser.parse(data);
-            case "88":
-                parser = new SIP2RecallResponseParser();
-                return parser.parse(data);
-            default:
-                //No Action
+        log.debug(data);
+        SIP2ResponseParser parser = parsers.get(code);
+        if (parser == null) {
+            throw new InvalidSIP2ResponseException("Unsupported responses type! Command identifier: " + code);
         }
-        throw new InvalidSIP2ResponseException("Unsupported responses type! Command identifier: " + code);
+        return parser.parse(data);
     }
 }
@@ -0,0 +1,92 @@
+/*
+ *  The MIT License
+ * 
+ *  Copyright 2012-2014 Petteri Kivimäki
+ * 
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ * 
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ * 
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseValueException;
+import com.pkrete.jsip2.messages.SIP2MessageResponse;
+import com.pkrete.jsip2.messages.responses.SIP2ACSStatusResponse;
+import com.pkrete.jsip2.variables.SupportedMessages;
+
+/**
+ * This class parses the ACS status response messages, reading the variable length fields through a
+ * {@link SIP2FieldTokenizer}.
+ *
+ * @author Petteri Kivimäki
+ */
+public class SIP2ACSStatusResponseParser extends SIP2ResponseParser {
+
+    private static final int FIELDS_OFFSET = 36;
+
+    @Override
+    public SIP2MessageResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
+        SIP2ACSStatusResponse response = new SIP2ACSStatusResponse(data);
+        try {
+            response.setOnLineStatus(this.charToBool(data.charAt(2)));
+            response.setCheckinOk(this.charToBool(data.charAt(3)));
+            response.setCheckoutOk(this.charToBool(data.charAt(4)));
+            response.setILSRenewalPolicy(this.charToBool(data.charAt(5)));
+            response.setStatusUpdateOk(this.charToBool(data.charAt(6)));
+            response.setOfflineOk(this.charToBool(data.charAt(7)));
+            response.setTimeoutPeriod(this.stringToInt(data.substring(8, 11)));
+            response.setRetriesAllowed(this.stringToInt(data.substring(11, 14)));
+            response.setDateTimeSync(data.substring(14, 32));
+            response.setProtocolVersion(data.substring(32, 36));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setInstitutionId(fields.getValue("AO"));
+            response.setLibraryName(fields.getValue("AM"));
+            String supported = fields.getValue("BX");
+            SupportedMessages messages = new SupportedMessages();
+            messages.setPatronStatusRequest(this.charToBool(supported.charAt(0)));
+            messages.setCheckout(this.charToBool(supported.charAt(1)));
+            messages.setCheckin(this.charToBool(supported.charAt(2)));
+            messages.setBlockPatron(this.charToBool(supported.charAt(3)));
+            messages.setSCILSStatus(this.charToBool(supported.charAt(4)));
+            messages.setRequestSCILSResend(this.charToBool(supported.charAt(5)));
+            messages.setLogin(this.charToBool(supported.charAt(6)));
+            messages.setPatronInformation(this.charToBool(supported.charAt(7)));
+            messages.setEndPatronSession(this.charToBool(supported.charAt(8)));
+            messages.setFeePaid(this.charToBool(supported.charAt(9)));
+            messages.setItemInformation(this.charToBool(supported.charAt(10)));
+            messages.setItemStatusUpdate(this.charToBool(supported.charAt(11)));
+            messages.setPatronEnable(this.charToBool(supported.charAt(12)));
+            messages.setHold(this.charToBool(supported.charAt(13)));
+            messages.setRenew(this.charToBool(supported.charAt(14)));
+            messages.setRenewAll(this.charToBool(supported.charAt(15)));
+            response.setSupportedMessages(messages);
+            response.setTerminalLocation(fields.getValue("AN"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
+            }
+            response.setCheckSum(fields.getChecksum());
+        } catch (InvalidSIP2ResponseValueException e) {
+            throw new InvalidSIP2ResponseValueException(e.getMessage() + " Response message string: \"" + data + "\"");
+        }
+        return response;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  The MIT License
+ * 
+ *  Copyright 2012-2014 Petteri Kivimäki
+ * 
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ * 
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ * 
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseValueException;
+import com.pkrete.jsip2.messages.responses.SIP2CheckinResponse;
+import com.pkrete.jsip2.variables.AlertTypeFactory;
+import com.pkrete.jsip2.variables.MediaTypeFactory;
+
+/**
+ * This class parses the checkin response messages, reading the variable length fields through a
+ * {@link SIP2FieldTokenizer}.
+ *
+ * @author Petteri Kivimäki
+ */
+public class SIP2CheckinResponseParser extends SIP2ResponseParser {
+
+    private static final int FIELDS_OFFSET = 24;
+
+    @Override
+    public SIP2CheckinResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
+        SIP2CheckinResponse response = new SIP2CheckinResponse(data);
+        try {
+            response.setOk(this.intToBool(data.charAt(2)));
+            response.setResensitize(this.charToBool(data.charAt(3)));
+            if (data.charAt(4) == 'U') {
+                response.setMagneticMediaSupported(false);
+                response.setMagneticMedia(false);
+            } else {
+                response.setMagneticMediaSupported(true);
+                response.setMagneticMedia(this.charToBool(data.charAt(4)));
+            }
+            response.setAlert(this.charToBool(data.charAt(5)));
+            response.setTransactionDate(data.substring(6, 24));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setInstitutionId(fields.getValue("AO"));
+            response.setItemIdentifier(fields.getValue("AB"));
+            response.setPermanentLocation(fields.getValue("AQ"));
+            response.setTitleIdentifier(fields.getValue("AJ"));
+            response.setSortBin(fields.getOptionalValue("CL"));
+            response.setPatronIdentifier(fields.getOptionalValue("AA"));
+            if (fields.hasValue("CK")) {
+                response.setMediaType(MediaTypeFactory.getInstance().getMediaType(fields.getValue("CK")));
+            }
+            response.setItemProperties(fields.getOptionalValue("CH"));
+            response.setCollectionCode(fields.getOptionalValue("CR"));
+            response.setCallNumber(fields.getOptionalValue("CS"));
+            response.setDestinationLocation(fields.getOptionalValue("CT"));
+            if (fields.hasValue("CV")) {
+                response.setAlertType(AlertTypeFactory.getInstance().getAlertType(fields.getValue("CV")));
+            }
+            response.setHoldPatronId(fields.getOptionalValue("CY"));
+            response.setHoldPatronName(fields.getOptionalValue("DA"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
+            }
+            response.setCheckSum(fields.getChecksum());
+        } catch (InvalidSIP2ResponseValueException e) {
+            throw new InvalidSIP2ResponseValueException(e.getMessage() + " Response message string: \"" + data + "\"");
+        }
+        return response;
+    }
+}
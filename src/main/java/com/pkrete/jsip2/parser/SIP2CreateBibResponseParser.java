@@ -29,16 +29,17 @@ public class SIP2CreateBibResponseParser extends  SIP2ResponseParser{
     public SIP2MessageResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
         SIP2CreateBibResponse response = new SIP2CreateBibResponse(data);
         try {
-            String[] strmsg = data.split("\\|");
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, 0);
             response.setOk(this.intToBool(data.charAt(2)));
             response.setItemIdentifier("");
-            response.setBibId(strmsg[1].substring(2));
-            response.setScreenMessage(Collections.singletonList(strmsg[2].substring(2)));
+            response.setBibId(fields.getSegmentValue(1));
+            response.setScreenMessage(Collections.singletonList(fields.getSegmentValue(2)));
 
-            if (!parseSequence(data).isEmpty()) {
-                response.setSequence(Integer.parseInt(parseSequence(data)));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
             }
-            response.setCheckSum(parseChecksum(data));
+            response.setCheckSum(fields.getChecksum());
         } catch (InvalidSIP2ResponseValueException e) {
             log.error(ScsbCommonConstants.LOG_ERROR ,e);
             throw new InvalidSIP2ResponseValueException(e.getMessage() + " Response message string: \"" + data + "\"");
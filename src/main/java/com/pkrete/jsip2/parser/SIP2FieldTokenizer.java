@@ -0,0 +1,210 @@
+package com.pkrete.jsip2.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tokenizes the variable length fields of a SIP2 response in a single scan of the message.
+ * <p>
+ * The tokenizer indexes the two character identifier and the offsets of every field over the original message, so the
+ * response parsers read the fields they need by identifier without copying the message or compiling a pattern per
+ * field. Field values are only copied out of the message when they are read.
+ * <p>
+ * A field is a segment that starts at the beginning of the variable length part of the message, or after a
+ * {@code |}, and ends with a {@code |}, as matched by the {@link SIP2ResponseParser} helpers. The trailing segment
+ * that carries the sequence number and the checksum is not a field.
+ */
+public class SIP2FieldTokenizer {
+
+    private static final char DELIMITER = '|';
+    private static final int ID_LENGTH = 2;
+    private static final int CHECKSUM_LENGTH = 4;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final String SEQUENCE_ID = "AY";
+    private static final String CHECKSUM_ID = "AZ";
+
+    private final String data;
+    private int[] fieldIds = new int[INITIAL_CAPACITY];
+    private int[] offsets = new int[INITIAL_CAPACITY * 2];
+    private int segmentCount;
+    private int fieldCount;
+
+    /**
+     * Tokenizes the fields of the given message.
+     *
+     * @param data         the response message
+     * @param fieldsOffset the offset of the first variable length field, after the fixed length part of the message
+     */
+    public SIP2FieldTokenizer(String data, int fieldsOffset) {
+        this.data = data;
+        int length = data.length();
+        int start = Math.min(fieldsOffset, length);
+        for (int i = start; i < length; i++) {
+            if (data.charAt(i) == DELIMITER) {
+                addSegment(start, i);
+                start = i + 1;
+            }
+        }
+        fieldCount = segmentCount;
+        addSegment(start, length);
+    }
+
+    /**
+     * Gets the value of the first field with the given identifier.
+     *
+     * @param fieldId the field identifier
+     * @return the value, or an empty string if the field is missing
+     */
+    public String getValue(String fieldId) {
+        int field = indexOf(fieldId);
+        return field < 0 ? "" : valueOf(field);
+    }
+
+    /**
+     * Gets the value of the first field with the given identifier, for the optional fields.
+     *
+     * @param fieldId the field identifier
+     * @return the value, or null if the field is missing or empty
+     */
+    public String getOptionalValue(String fieldId) {
+        String value = getValue(fieldId);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Gets the values of all the fields with the given identifier, for the repeatable fields.
+     *
+     * @param fieldId the field identifier
+     * @return the values in message order
+     */
+    public List<String> getValues(String fieldId) {
+        List<String> values = new ArrayList<>();
+        int fieldKey = keyOf(fieldId);
+        for (int field = 0; field < fieldCount; field++) {
+            if (fieldIds[field] == fieldKey) {
+                values.add(valueOf(field));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Checks whether the message has a field with the given identifier.
+     *
+     * @param fieldId the field identifier
+     * @return true if the field exists, even if it is empty
+     */
+    public boolean exists(String fieldId) {
+        return indexOf(fieldId) >= 0;
+    }
+
+    /**
+     * Checks whether the message has a non-empty field with the given identifier.
+     *
+     * @param fieldId the field identifier
+     * @return true if the field exists and has a value
+     */
+    public boolean hasValue(String fieldId) {
+        int field = indexOf(fieldId);
+        return field >= 0 && offsets[field * 2 + 1] > offsets[field * 2] + ID_LENGTH;
+    }
+
+    /**
+     * Gets the value of the segment at the given position, for the responses whose fields are read by position.
+     *
+     * @param position the position of the segment, from the fields offset
+     * @return the value without the field identifier, or an empty string if the segment is missing
+     */
+    public String getSegmentValue(int position) {
+        return position < segmentCount ? valueOf(position) : "";
+    }
+
+    /**
+     * Gets the sequence number of the AY error detection field, which follows a {@code |} or, in a response without
+     * variable length fields such as the login response, the fixed length part of the message.
+     *
+     * @return the sequence number, or an empty string if the message has none
+     */
+    public String getSequence() {
+        for (int segment = 0; segment < segmentCount; segment++) {
+            int start = offsets[segment * 2];
+            if (data.startsWith(SEQUENCE_ID, start) && isDigit(start + ID_LENGTH, offsets[segment * 2 + 1])) {
+                return data.substring(start + ID_LENGTH, start + ID_LENGTH + 1);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Gets the checksum of the AZ error detection field, which follows a {@code |}, the fixed length part of the message
+     * or the sequence number.
+     *
+     * @return the checksum, or an empty string if the message has none
+     */
+    public String getChecksum() {
+        for (int segment = 0; segment < segmentCount; segment++) {
+            int start = offsets[segment * 2];
+            int end = offsets[segment * 2 + 1];
+            if (data.startsWith(SEQUENCE_ID, start) && isDigit(start + ID_LENGTH, end)) {
+                start += ID_LENGTH + 1;
+            }
+            if (data.startsWith(CHECKSUM_ID, start) && isChecksum(start + ID_LENGTH, end)) {
+                return data.substring(start + ID_LENGTH, start + ID_LENGTH + CHECKSUM_LENGTH);
+            }
+        }
+        return "";
+    }
+
+    private void addSegment(int start, int end) {
+        if (segmentCount == fieldIds.length) {
+            fieldIds = Arrays.copyOf(fieldIds, segmentCount * 2);
+            offsets = Arrays.copyOf(offsets, segmentCount * 4);
+        }
+        fieldIds[segmentCount] = end - start >= ID_LENGTH ? (data.charAt(start) << 16) | data.charAt(start + 1) : -1;
+        offsets[segmentCount * 2] = start;
+        offsets[segmentCount * 2 + 1] = end;
+        segmentCount++;
+    }
+
+    private int indexOf(String fieldId) {
+        int fieldKey = keyOf(fieldId);
+        for (int field = 0; field < fieldCount; field++) {
+            if (fieldIds[field] == fieldKey) {
+                return field;
+            }
+        }
+        return -1;
+    }
+
+    private String valueOf(int segment) {
+        int start = offsets[segment * 2] + ID_LENGTH;
+        int end = offsets[segment * 2 + 1];
+        return start < end ? data.substring(start, end) : "";
+    }
+
+    private boolean isDigit(int index, int end) {
+        return index < end && isAsciiDigit(data.charAt(index));
+    }
+
+    private boolean isChecksum(int index, int end) {
+        if (index + CHECKSUM_LENGTH > end) {
+            return false;
+        }
+        for (int i = index; i < index + CHECKSUM_LENGTH; i++) {
+            char c = data.charAt(i);
+            if (!isAsciiDigit(c) && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int keyOf(String fieldId) {
+        return (fieldId.charAt(0) << 16) | fieldId.charAt(1);
+    }
+}
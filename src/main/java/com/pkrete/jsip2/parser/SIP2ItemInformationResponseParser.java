@@ -23,6 +23,7 @@ import org.recap.ScsbCommonConstants;
 @Slf4j
 public class SIP2ItemInformationResponseParser extends SIP2ResponseParser {
 
+    private static final int FIELDS_OFFSET = 27;
 
     @Override
     public SIP2ItemInformationResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
@@ -34,35 +35,37 @@ public class SIP2ItemInformationResponseParser extends SIP2ResponseParser {
             response.setSecurityMarker(SecurityMarkerFactory.getInstance().getSecurityMarker(data.substring(5, 7)));
             response.setFeeType(FeeTypeFactory.getInstance().getFeeType(data.substring(7, 9)));
             response.setTransactionDate(data.substring(9, 27));
-            response.setHoldQueueLength(this.parseVariableWithoutDelimiter("CF", data.substring(26), false));
-            response.setDueDate(this.parseVariableWithoutDelimiter("AH", data.substring(26), false));
-            response.setRecallDate(this.parseVariableWithoutDelimiter("CJ", data.substring(26), false));
-            response.setHoldPickupDate(this.parseVariableWithoutDelimiter("CM", data.substring(26), false));
-            response.setItemIdentifier(this.parseVariableWithoutDelimiter("AB", data.substring(26)));
-            response.setTitleIdentifier(this.parseVariable("AJ", data.substring(26)));
-            response.setOwner(this.parseVariable("BG", data.substring(26), false));
-            if (this.existsAndNotEmpty("BH", data.substring(26))) {
-                response.setCurrencyType(CurrencyTypeFactory.getInstance().getCurrencyType(this.parseVariable("BH", data.substring(26))));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setHoldQueueLength(fields.getOptionalValue("CF"));
+            response.setDueDate(fields.getOptionalValue("AH"));
+            response.setRecallDate(fields.getOptionalValue("CJ"));
+            response.setHoldPickupDate(fields.getOptionalValue("CM"));
+            response.setItemIdentifier(fields.getValue("AB"));
+            response.setTitleIdentifier(fields.getValue("AJ"));
+            response.setOwner(fields.getOptionalValue("BG"));
+            if (fields.hasValue("BH")) {
+                response.setCurrencyType(CurrencyTypeFactory.getInstance().getCurrencyType(fields.getValue("BH")));
             }
 
-            response.setFeeAmount(this.parseVariable("BV", data.substring(26), false));
-            if (this.existsAndNotEmpty("CK", data.substring(26))) {
-                response.setMediaType(MediaTypeFactory.getInstance().getMediaType(this.parseVariable("CK", data.substring(26))));
+            response.setFeeAmount(fields.getOptionalValue("BV"));
+            if (fields.hasValue("CK")) {
+                response.setMediaType(MediaTypeFactory.getInstance().getMediaType(fields.getValue("CK")));
             }
 
-            response.setPermanentLocation(this.parseVariable("AQ", data.substring(26), false));
-            response.setCurrentLocation(this.parseVariable("AP", data.substring(26), false));
-            response.setItemProperties(this.parseVariable("CH", data.substring(26), false));
-            response.setScreenMessage(this.parseVariableMulti("AF", data.substring(26)));
-            response.setPrintLine(this.parseVariableMulti("AG", data.substring(26)));
-            if(!this.parseVariableMulti("MA", data.substring(26)).isEmpty()) {
-                response.setBibId(this.parseVariableMulti("MA", data.substring(26)).get(0));
+            response.setPermanentLocation(fields.getOptionalValue("AQ"));
+            response.setCurrentLocation(fields.getOptionalValue("AP"));
+            response.setItemProperties(fields.getOptionalValue("CH"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            if (fields.exists("MA")) {
+                response.setBibId(fields.getValue("MA"));
             }
-            if (!this.parseSequence(data).isEmpty()) {
-                response.setSequence(Integer.parseInt(this.parseSequence(data)));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
             }
 
-            response.setCheckSum(this.parseChecksum(data));
+            response.setCheckSum(fields.getChecksum());
             return response;
         } catch (InvalidSIP2ResponseValueException var4) {
             log.error(ScsbCommonConstants.LOG_ERROR,var4);
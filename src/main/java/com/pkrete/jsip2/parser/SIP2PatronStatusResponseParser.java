@@ -0,0 +1,95 @@
+/*
+ *  The MIT License
+ * 
+ *  Copyright 2012-2014 Petteri Kivimäki
+ * 
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ * 
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ * 
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseValueException;
+import com.pkrete.jsip2.messages.SIP2MessageResponse;
+import com.pkrete.jsip2.messages.responses.SIP2PatronStatusResponse;
+import com.pkrete.jsip2.variables.CurrencyTypeFactory;
+import com.pkrete.jsip2.variables.LanguageFactory;
+import com.pkrete.jsip2.variables.PatronStatus;
+
+/**
+ * This class parses the patron status response messages, reading the variable length fields through a
+ * {@link SIP2FieldTokenizer}.
+ *
+ * @author Petteri Kivimäki
+ */
+public class SIP2PatronStatusResponseParser extends SIP2ResponseParser {
+
+    private static final int FIELDS_OFFSET = 37;
+
+    @Override
+    public SIP2MessageResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
+        SIP2PatronStatusResponse response = new SIP2PatronStatusResponse(data);
+        try {
+            PatronStatus status = new PatronStatus();
+            status.setChargePrivilegesDenied(this.charEmptyToBool(data.charAt(2)));
+            status.setRenewalPrivilegesDenied(this.charEmptyToBool(data.charAt(3)));
+            status.setRecallPrivilegesDenied(this.charEmptyToBool(data.charAt(4)));
+            status.setHoldPrivilegesDenied(this.charEmptyToBool(data.charAt(5)));
+            status.setCardReportedLost(this.charEmptyToBool(data.charAt(6)));
+            status.setTooManyItemsCharged(this.charEmptyToBool(data.charAt(7)));
+            status.setTooManyItemsOverdue(this.charEmptyToBool(data.charAt(8)));
+            status.setTooManyRenewals(this.charEmptyToBool(data.charAt(9)));
+            status.setTooManyClaimsOfItemsReturned(this.charEmptyToBool(data.charAt(10)));
+            status.setTooManyItemsLost(this.charEmptyToBool(data.charAt(11)));
+            status.setExcessiveOutstandingFines(this.charEmptyToBool(data.charAt(12)));
+            status.setExcessiveOutstandingFees(this.charEmptyToBool(data.charAt(13)));
+            status.setRecallOverdue(this.charEmptyToBool(data.charAt(14)));
+            status.setTooManyItemsBilled(this.charEmptyToBool(data.charAt(15)));
+            response.setStatus(status);
+            response.setLanguage(LanguageFactory.getInstance().getLanguage(data.substring(16, 19)));
+            response.setTransactionDate(data.substring(19, 37));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setInstitutionId(fields.getValue("AO"));
+            response.setPatronIdentifier(fields.getValue("AA"));
+            response.setPersonalName(fields.getValue("AE"));
+            if (fields.hasValue("BL")) {
+                response.setValidPatron(this.charToBool(fields.getValue("BL").charAt(0)));
+                response.setValidPatronUsed(true);
+            }
+            if (fields.hasValue("CQ")) {
+                response.setValidPatronPassword(this.charToBool(fields.getValue("CQ").charAt(0)));
+                response.setValidPatronPasswordUsed(true);
+            }
+            if (fields.hasValue("BH")) {
+                response.setCurrencyType(CurrencyTypeFactory.getInstance().getCurrencyType(fields.getValue("BH")));
+            }
+            response.setFeeAmount(fields.getOptionalValue("BV"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
+            }
+            response.setCheckSum(fields.getChecksum());
+        } catch (InvalidSIP2ResponseValueException e) {
+            throw new InvalidSIP2ResponseValueException(e.getMessage() + " Response message string: \"" + data + "\"");
+        }
+        return response;
+    }
+}
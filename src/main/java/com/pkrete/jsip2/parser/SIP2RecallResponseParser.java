@@ -14,6 +14,7 @@ import org.recap.ScsbCommonConstants;
 @Slf4j
 public class SIP2RecallResponseParser extends  SIP2ResponseParser{
 
+    private static final int FIELDS_OFFSET = 22;
 
     @Override
     public SIP2MessageResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
@@ -21,20 +22,22 @@ public class SIP2RecallResponseParser extends  SIP2ResponseParser{
         try {
             response.setOk(this.intToBool(data.charAt(2)));
             response.setTransactionDate(data.substring(4, 22));
-            response.setExpirationDate(this.parseVariableWithoutDelimiter("BW", data.substring(22), false));
-            response.setPickupLocation(this.parseVariableWithoutDelimiter("BS", data.substring(22), false));
-            response.setInstitutionId(this.parseVariableWithoutDelimiter("AO", data.substring(22)));
-            response.setPatronIdentifier(this.parseVariable("AA", data.substring(22)));
-            response.setItemIdentifier(this.parseVariable("AB", data.substring(22), false));
-            response.setTitleIdentifier(this.parseVariable("AJ", data.substring(22), false));
-            response.setBibId(this.parseVariable("MA", data.substring(22), false));
-            response.setScreenMessage(this.parseVariableMulti("AF", data.substring(22)));
-            response.setPrintLine(this.parseVariableMulti("AG", data.substring(22)));
-            if(!this.parseSequence(data).isEmpty()) {
-                response.setSequence(Integer.parseInt(this.parseSequence(data)));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setExpirationDate(fields.getOptionalValue("BW"));
+            response.setPickupLocation(fields.getOptionalValue("BS"));
+            response.setInstitutionId(fields.getValue("AO"));
+            response.setPatronIdentifier(fields.getValue("AA"));
+            response.setItemIdentifier(fields.getOptionalValue("AB"));
+            response.setTitleIdentifier(fields.getOptionalValue("AJ"));
+            response.setBibId(fields.getOptionalValue("MA"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
             }
 
-            response.setCheckSum(this.parseChecksum(data));
+            response.setCheckSum(fields.getChecksum());
         } catch (InvalidSIP2ResponseValueException e) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION,e);
         }
@@ -0,0 +1,99 @@
+/*
+ *  The MIT License
+ * 
+ *  Copyright 2012-2014 Petteri Kivimäki
+ * 
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ * 
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ * 
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseValueException;
+import com.pkrete.jsip2.messages.responses.SIP2RenewResponse;
+import com.pkrete.jsip2.variables.CurrencyTypeFactory;
+import com.pkrete.jsip2.variables.FeeTypeFactory;
+import com.pkrete.jsip2.variables.MediaTypeFactory;
+
+/**
+ * This class parses the renew response messages, reading the variable length fields through a
+ * {@link SIP2FieldTokenizer}.
+ *
+ * @author Petteri Kivimäki
+ */
+public class SIP2RenewResponseParser extends SIP2ResponseParser {
+
+    private static final int FIELDS_OFFSET = 24;
+
+    @Override
+    public SIP2RenewResponse parse(String data) throws InvalidSIP2ResponseValueException, InvalidSIP2ResponseException {
+        SIP2RenewResponse response = new SIP2RenewResponse(data);
+        try {
+            response.setOk(this.intToBool(data.charAt(2)));
+            response.setRenewalOk(this.charToBool(data.charAt(3)));
+            if (data.charAt(4) == 'U') {
+                response.setMagneticMediaSupported(false);
+                response.setMagneticMedia(false);
+            } else {
+                response.setMagneticMediaSupported(true);
+                response.setMagneticMedia(this.charToBool(data.charAt(4)));
+            }
+            if (data.charAt(5) == 'U') {
+                response.setDesensitizeSupported(false);
+                response.setDesensitize(false);
+            } else {
+                response.setDesensitizeSupported(true);
+                response.setDesensitize(this.charToBool(data.charAt(5)));
+            }
+            response.setTransactionDate(data.substring(6, 24));
+            SIP2FieldTokenizer fields = new SIP2FieldTokenizer(data, FIELDS_OFFSET);
+            response.setInstitutionId(fields.getValue("AO"));
+            response.setPatronIdentifier(fields.getValue("AA"));
+            response.setItemIdentifier(fields.getValue("AB"));
+            response.setTitleIdentifier(fields.getValue("AJ"));
+            response.setDueDate(fields.getValue("AH"));
+            if (fields.hasValue("BT")) {
+                response.setFeeType(FeeTypeFactory.getInstance().getFeeType(fields.getValue("BT")));
+            }
+            if (fields.hasValue("CI")) {
+                response.setSecurityInhibitUsed(true);
+                response.setSecurityInhibit(this.charToBool(fields.getValue("CI").charAt(0)));
+            }
+            if (fields.hasValue("BH")) {
+                response.setCurrencyType(CurrencyTypeFactory.getInstance().getCurrencyType(fields.getValue("BH")));
+            }
+            response.setFeeAmount(fields.getOptionalValue("BV"));
+            if (fields.hasValue("CK")) {
+                response.setMediaType(MediaTypeFactory.getInstance().getMediaType(fields.getValue("CK")));
+            }
+            response.setItemProperties(fields.getOptionalValue("CH"));
+            response.setTransactionId(fields.getOptionalValue("BK"));
+            response.setScreenMessage(fields.getValues("AF"));
+            response.setPrintLine(fields.getValues("AG"));
+            String sequence = fields.getSequence();
+            if (!sequence.isEmpty()) {
+                response.setSequence(Integer.parseInt(sequence));
+            }
+            response.setCheckSum(fields.getChecksum());
+        } catch (InvalidSIP2ResponseValueException e) {
+            throw new InvalidSIP2ResponseValueException(e.getMessage() + " Response message string: \"" + data + "\"");
+        }
+        return response;
+    }
+}
@@ -69,7 +69,14 @@ public final class ScsbConstants {
 
     // MQ URI
     public static final String REQUEST_ITEM_QUEUE = "scsbactivemq:queue:RequestItemQ?asyncConsumer=true&concurrentConsumers=10&destination.consumer.prefetchSize=20";
+    public static final String REQUEST_ITEM_QUEUE_PREFIX = "scsbactivemq:queue:RequestItem";
+    public static final String REQUEST_ITEM_QUEUE_SUFFIX = "Q";
+    public static final String REQUEST_OWNING_INSTITUTION_QUEUE_HEADER = "RequestOwningInstitution";
+    public static final String REQUEST_ITEM_DISPATCH_QUEUE_PROPERTY = "RequestItemDispatchQueue";
+    public static final String REQUEST_ITEM_SHARED_ROUTE = "direct:requestItemShared";
     public static final String BULK_REQUEST_ITEM_PROCESSING_QUEUE = "scsbactivemq:queue:BulkRequestItemProcessingQ";
+    public static final String BULK_REQUEST_ITEM_PROCESSING_QUEUE_PREFETCH = "&destination.consumer.prefetchSize=1";
+    public static final String BULK_REQUEST_CHUNK_ID = "BulkRequestChunkId";
     public static final String ASYNC_CONCURRENT_CONSUMERS = "?asyncConsumer=true&concurrentConsumers=";
     public static final String EMAIL_Q = "scsbactivemq:queue:CircEmailQ";
     public static final String SCSB_LAS_OUTGOING_QUEUE_PREFIX = "scsbactivemq:queue:scsb";
@@ -79,6 +86,8 @@ public final class ScsbConstants {
     public static final String BULK_REQUEST_ITEM_QUEUE_METHOD = "bulkRequestItemOnMessage";
     public static final String BULK_REQUEST_ITEM_PROCESSING_QUEUE_METHOD = "bulkRequestProcessItemOnMessage";
     public static final String REQUEST_ITEM_QUEUE_RETRIEVAL_METHOD = "requestItemOnMessage";
+    public static final String REQUEST_ITEM_QUEUE_RETRIEVAL_BATCH_METHOD = "requestItemBatchOnMessage";
+    public static final String REQUEST_ITEM_RETRIEVAL_BATCH_ROUTE = "direct:requestItemRetrievalBatch";
     public static final String REQUEST_ITEM_QUEUE_EDD_METHOD = "requestItemEDDOnMessage";
     public static final String REQUEST_ITEM_QUEUE_RECALL_METHOD = "requestItemRecallOnMessage";
     public static final String LAS_INCOMING_QUEUE_RETRIEVAL_METHOD = "lasResponseRetrievalOnMessage";
@@ -91,11 +100,16 @@ public final class ScsbConstants {
     public static final String LAS_OUTGOING_QUEUE = "scsbactivemq:queue:lasOutgoingQ";
     public static final String LAS_INCOMING_QUEUE = "scsbactivemq:queue:lasIncomingQ";
     public static final String REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE = "scsbactivemq:queue:RequestItemLasStatusCheckQ?asyncConsumer=true";
+    public static final String REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_PREFIX = "scsbactivemq:queue:RequestItemLasStatusCheck";
+    public static final String REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_SUFFIX = "Q?asyncConsumer=true";
 
     public static final String REQUEST_TOPIC_LISTENING_MESSAGES = "Request Topic - Listening to messages";
 
     //RoutId
     public static final String REQUEST_ITEM_QUEUE_ROUTEID = "RequestItemRouteId";
+    public static final String REQUEST_ITEM_RETRIEVAL_BATCH_ROUTEID = "RequestItemRetrievalBatchRouteId";
+    public static final String REQUEST_ITEM_SHARED_ROUTEID = "RequestItemSharedRouteId";
+    public static final String REQUEST_ITEM_INSTITUTION_QUEUE_ROUTEID = "RequestItemQueueRouteId";
     public static final String BULK_REQUEST_ITEM_QUEUE_ROUTEID = "BulkRequestItemRouteId";
     public static final String BULK_REQUEST_ITEM_PROCESSING_QUEUE_ROUTEID = "BulkRequestItemProcessingRouteId";
     public static final String EMAIL_ROUTE_ID = "RequestRecallEmailRouteId";
@@ -198,6 +212,7 @@ public final class ScsbConstants {
     public static final String GFA_RETRIVAL_ORDER_SUCCESSFUL = "Retrieval order successfully created in LAS.";
     public static final String GFA_RETRIVAL_ITEM_NOT_AVAILABLE = "LAS Exception : Item not available in LAS";
     public static final String GFA_ITEM_STATUS_CHECK_FAILED = "LAS Exception : Item status check failed to return valid response.";
+    public static final String GFA_ITEM_STATUS_CHECK_TIMED_OUT = "LAS Exception : Item status check timed out.";
     public static final String SCSB_REQUEST_EXCEPTION = "SCSB Exception : Error occurred at SCSB - ";
     public static final String REQUEST_CANCELLED_NO_REFILED = "canceled";
     public static final String REQUEST_CANCELLED_SUBJECT = "Cancel Request - ";
@@ -229,6 +244,7 @@ public final class ScsbConstants {
     public static final String INVALID_NO_RESPONSE_FROM_ILS = "Invalid/No Response from ILS";
     public static final String CHECK_IN_REQUEST_FAILED = "Check In Request Failed";
     public static final String ILS_LOGIN_FAILED = "Login Failed";
+    public static final String NO_SIP2_SESSION_AVAILABLE = "No SIP2 session available";
     public static final String ITEM_STATUS_REQUEST_FAILED = "Item Status Request Failed";
     public static final String RECALL_FAILED_NO_MESSAGE_RETURNED = "Recall failed, no message returned";
     public static final String RECALL_CANNOT_BE_PROCESSED_THE_ITEM_IS_NOT_CHECKED_OUT_IN_ILS = "Recall Cannot be processed, the item is not checked out in ILS";
@@ -323,6 +339,7 @@ public final class ScsbConstants {
     public static final String COUNT_OF_PURGED_ACCESSION_REQUESTS = "countOfPurgedAccessionRequests";
     public static final String STATUS_RECONCILIATION_CHANGE_LOG_OPERATION_TYPE = "StatusReconciliation-ItemAvailablityStatusChange";
     public static final String REQUEST_DATA_LOAD_DATE_FORMAT = "MM/dd/yyyy HH:mm:ss";
+    public static final String REQUEST_INITIAL_FILE_DATE_FORMAT = "ddMMMyyyy";
     public static final String REQUEST_INITIAL_LOAD_FS_FILE = "file:";
     public static final String REQUEST_INITIAL_LOAD_FS_ROUTE = "requestInitialLoadFsRoute";
     public static final String REQUEST_INITIAL_LOAD_FTP_ROUTE = "requestInitialLoadFTPRoute";
@@ -365,6 +382,7 @@ public final class ScsbConstants {
     public static final String REQUEST_RECALL = "RequestItem-Recall";
     public static final String REQUEST_RETRIEVAL = "RequestItem-Retrieval";
     public static final String PROCESSED = "PROCESSED";
+    public static final String FAILED = "FAILED";
     public static final String BULK_REQUEST_EMAIL_QUEUE = "BulkRequestEmailQueue";
     public static final String BULK_REQUEST_EMAIL_BODY_VM = "bulkRequestEmailBody.vm";
 
@@ -395,14 +413,6 @@ public final class ScsbConstants {
     public static final String EMAIL_SUBJECT_FOR_LAS_PENDING_STATUS = "Requests in LAS ITEM STATUS PENDING status";
     public static final String EMAIL_SUBJECT_FOR_PENDING_AND_LAS_STATUS = "Requests in PENDING and LAS ITEM STATUS PENDING status";
 
-    /**
-     * 0 = Initialise Polling Processess
-     * 1 = Started Polling Processess
-     * 2 = Finish Polling Processess
-     *
-     */
-    public static int LAS_ITEM_STATUS_REST_SERVICE_STATUS = 0;
-
     public static final String BULK_REQUEST_ID_TEXT = "Bulk Request Id : ";
 
     public static final String ITEM_STATUS_NOT_AVAILABLE = "Not Available";
@@ -460,15 +470,76 @@ public final class ScsbConstants {
     public static final String ILS_SOURCE_FOR_ITEM = "ils.source.for.item.";
     public static final String SOLR_SEARCH_ERROR = "Solr Search Error";
 
-    public static final String REPLACE_STRING = "NfOBQ0";
-    public static final String REGEX_VERSION = "ns"+"[0-9]"+":version";
-    public static final String REGEX_SCHEME = "ns"+"[0-9]"+":Scheme";
-    public static final String REGEX_XMLNS = "xmlns:ns"+"[0-9]";
-
-    public static final String VERSION = "ns1:version";
-    public static final String SCHEME = "ns1:Scheme";
-    public static final String XMLNS = "xmlns:ns1";
     public static final String SQL_EXCEPTION = "Exception captured at Database level while creating request.";
     public static final String NCIP_REQUEST_ID_PREFIX = "SCSB-";
 
+    public static final String ILS_SIP_POOL_ENABLED = "ils.sip.pool.enabled";
+    public static final String ILS_SIP_POOL_MAX_SIZE = "ils.sip.pool.max.size";
+    public static final String ILS_SIP_POOL_MAX_WAIT_MILLIS = "ils.sip.pool.max.wait.millis";
+    public static final String ILS_SIP_POOL_KEEP_ALIVE_SECONDS = "ils.sip.pool.keep.alive.seconds";
+    public static final int ILS_SIP_POOL_DEFAULT_MAX_SIZE = 5;
+    public static final long ILS_SIP_POOL_DEFAULT_MAX_WAIT_MILLIS = 5000;
+    public static final long ILS_SIP_POOL_DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+    public static final String ILS_NCIP_HTTP_MAX_CONNECTIONS = "ils.ncip.http.max.connections";
+    public static final String ILS_NCIP_HTTP_KEEP_ALIVE_SECONDS = "ils.ncip.http.keep.alive.seconds";
+    public static final String ILS_NCIP_HTTP_MAX_WAIT_MILLIS = "ils.ncip.http.max.wait.millis";
+    public static final int ILS_NCIP_HTTP_DEFAULT_MAX_CONNECTIONS = 10;
+    public static final long ILS_NCIP_HTTP_DEFAULT_KEEP_ALIVE_SECONDS = 60;
+    public static final int ILS_NCIP_HTTP_DEFAULT_MAX_WAIT_MILLIS = 5000;
+
+    public static final String METRIC_TAG_INSTITUTION = "institution";
+    public static final String METRIC_TAG_RESULT = "result";
+    public static final String OAUTH_TOKEN_CACHE_METRIC = "scsb.ils.rest.oauth.token";
+    public static final String OAUTH_TOKEN_CACHE_HIT = "hit";
+    public static final String OAUTH_TOKEN_CACHE_MISS = "miss";
+    public static final String OAUTH_TOKEN_CACHE_REFRESH = "refresh";
+    public static final String METRIC_TAG_TABLE = "table";
+    public static final String REFERENCE_DATA_CACHE_METRIC = "scsb.reference.data.cache";
+    public static final String REFERENCE_DATA_CACHE_SIZE_METRIC = "scsb.reference.data.cache.size";
+    public static final String REFERENCE_DATA_CACHE_REFRESH_METRIC = "scsb.reference.data.cache.refresh";
+    public static final String REFERENCE_DATA_CACHE_HIT = "hit";
+    public static final String REFERENCE_DATA_CACHE_MISS = "miss";
+    public static final String REFERENCE_DATA_CACHE_REFRESH_SUCCESS = "success";
+    public static final String REFERENCE_DATA_CACHE_REFRESH_FAILURE = "failure";
+    public static final String DEACCESSION_STAGE_METRIC = "scsb.deaccession.stage";
+    public static final String METRIC_TAG_STAGE = "stage";
+    public static final String DEACCESSION_STAGE_VALIDATE = "validate";
+    public static final String DEACCESSION_STAGE_LAS_STATUS_CHECK = "las-status-check";
+    public static final String DEACCESSION_STAGE_CANCEL_HOLDS = "cancel-holds";
+    public static final String DEACCESSION_STAGE_DB = "db";
+    public static final String DEACCESSION_STAGE_LAS_WITHDRAWAL = "las-withdrawal";
+    public static final String DEACCESSION_STAGE_ROLLBACK = "rollback";
+    public static final String DEACCESSION_STAGE_SOLR = "solr";
+    public static final String DEACCESSION_STAGE_REPORT = "report";
+    public static final String DEACCESSION_STAGE_CHANGE_LOG = "change-log";
+    public static final String REQUEST_STAGE_METRIC = "scsb.request.stage";
+    public static final String REQUEST_LIFECYCLE_METRIC = "scsb.request.lifecycle";
+    public static final String METRIC_TAG_OPERATION = "operation";
+    public static final String METRIC_TAG_OWNING_INSTITUTION = "owningInstitution";
+    public static final String METRIC_TAG_REQUESTING_INSTITUTION = "requestingInstitution";
+    public static final String METRIC_TAG_IMS_LOCATION = "imsLocation";
+    public static final String METRIC_TAG_PROTOCOL = "protocol";
+    public static final String METRIC_TAG_VALUE_NONE = "none";
+    public static final String METRIC_RESULT_SUCCESS = "success";
+    public static final String METRIC_RESULT_FAILURE = "failure";
+    public static final String METRIC_RESULT_ERROR = "error";
+    public static final String REQUEST_OPERATION_REFILE = "refile";
+    public static final String REQUEST_OPERATION_CANCEL = "cancel";
+    public static final String REQUEST_STAGE_DB = "db";
+    public static final String REQUEST_STAGE_SOLR = "solr";
+    public static final String REQUEST_STAGE_ILS_HOLD = "ils-hold";
+    public static final String REQUEST_STAGE_ILS_CANCEL_HOLD = "ils-cancel-hold";
+    public static final String REQUEST_STAGE_ILS_CHECKOUT = "ils-checkout";
+    public static final String REQUEST_STAGE_ILS_CHECKIN = "ils-checkin";
+    public static final String REQUEST_STAGE_ILS_RECALL = "ils-recall";
+    public static final String REQUEST_STAGE_ILS_CREATE_BIB = "ils-create-bib";
+    public static final String REQUEST_STAGE_ILS_ITEM_INFORMATION = "ils-item-information";
+    public static final String REQUEST_STAGE_LAS_STATUS_CHECK = "las-status-check";
+    public static final String REQUEST_STAGE_LAS_RETRIEVAL_ORDER = "las-retrieval-order";
+    public static final String REQUEST_STAGE_TOPIC_PUBLISH = "topic-publish";
+    public static final String REQUEST_STAGE_CHANGE_LOG = "change-log";
+
+    public static final long IMS_POLLING_DEFAULT_TIME_INTERVAL_MILLIS = 10000;
+
 }
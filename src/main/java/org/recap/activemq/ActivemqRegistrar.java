@@ -1,36 +1,158 @@
 package org.recap.activemq;
 
+import lombok.extern.slf4j.Slf4j;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
+import org.apache.activemq.pool.PooledConnectionFactory;
 import org.apache.camel.component.activemq.ActiveMQComponent;
 import org.apache.camel.CamelContext;
+import org.apache.commons.lang3.StringUtils;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.support.destination.DynamicDestinationResolver;
 import org.springframework.stereotype.Component;
 
-import javax.jms.ConnectionFactory;
+import javax.annotation.PreDestroy;
+import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
  * Created by premkb on 12/10/16.
+ * <p>
+ * The ActiveMQ component shares a pool of connections, with their sessions and producers, between all the routes and
+ * producer templates instead of opening a connection per message sent. Consumers prefetch
+ * {@code activemq.prefetch.queue} and {@code activemq.prefetch.topic} messages, or the size given for their destination
+ * in {@code activemq.prefetch.destinations}, as {@code RequestItemQ:20,lasIncomingQ:50}. High volume consumers can
+ * acknowledge their messages in batches with {@code activemq.batch.acknowledge}, or consume them in transactions with
+ * {@code activemq.transacted}.
  */
+@Slf4j
 @Component
 public class ActivemqRegistrar {
 
+    private final PooledConnectionFactory pooledConnectionFactory;
+
     /**
      * Register ActiveMQ queue service, with Camel context
      * @param camelContext
      * @param defaultBrokerURL
+     * @param maxConnections the pooled connections
+     * @param maxSessionsPerConnection the pooled sessions of each connection
+     * @param queuePrefetch the default queue prefetch size
+     * @param topicPrefetch the default topic prefetch size
+     * @param destinationPrefetch the prefetch sizes of destinations, as destination:size separated by commas
+     * @param cacheLevelName the cache level of the consumers
+     * @param batchAcknowledge whether consumers acknowledge their messages in batches
+     * @param transacted whether consumers consume their messages in transactions
      * @throws JMSException
      */
     @Autowired
-    public ActivemqRegistrar(CamelContext camelContext , @Value("${" + PropertyKeyConstants.ACTIVEMQ_BROKER_URL + "}") String defaultBrokerURL) throws JMSException {
-        ConnectionFactory connectionFactory = new ActiveMQConnectionFactory(defaultBrokerURL);
+    public ActivemqRegistrar(CamelContext camelContext, @Value("${" + PropertyKeyConstants.ACTIVEMQ_BROKER_URL + "}") String defaultBrokerURL,
+                             @Value("${activemq.pool.max.connections:8}") int maxConnections,
+                             @Value("${activemq.pool.max.sessions.per.connection:500}") int maxSessionsPerConnection,
+                             @Value("${activemq.prefetch.queue:100}") int queuePrefetch,
+                             @Value("${activemq.prefetch.topic:1000}") int topicPrefetch,
+                             @Value("${activemq.prefetch.destinations:}") String destinationPrefetch,
+                             @Value("${activemq.cache.level:CACHE_CONSUMER}") String cacheLevelName,
+                             @Value("${activemq.batch.acknowledge:false}") boolean batchAcknowledge,
+                             @Value("${activemq.transacted:false}") boolean transacted) throws JMSException {
+        pooledConnectionFactory = createPooledConnectionFactory(createConnectionFactory(defaultBrokerURL, queuePrefetch, topicPrefetch, batchAcknowledge), maxConnections, maxSessionsPerConnection);
         ActiveMQComponent activeMQComponent = new ActiveMQComponent();
-        activeMQComponent.setConnectionFactory(connectionFactory);
+        activeMQComponent.setConnectionFactory(pooledConnectionFactory);
         activeMQComponent.setTrustAllPackages(true);
+        activeMQComponent.setCacheLevelName(cacheLevelName);
+        activeMQComponent.setTransacted(transacted);
+        activeMQComponent.setDestinationResolver(new PrefetchDestinationResolver(parseDestinationPrefetch(destinationPrefetch)));
         camelContext.addComponent(ScsbCommonConstants.SCSB_ACTIVEMQ_COMPONENT_NAME, activeMQComponent);
+        log.info("ActiveMQ component registered with {} pooled connections, queue prefetch {}, topic prefetch {}, batch acknowledge {} and transacted {}", maxConnections, queuePrefetch, topicPrefetch, batchAcknowledge, transacted);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pooledConnectionFactory.stop();
+    }
+
+    PooledConnectionFactory getPooledConnectionFactory() {
+        return pooledConnectionFactory;
+    }
+
+    /**
+     * Creates the connection factory of the broker.
+     *
+     * @param brokerUrl        the broker url
+     * @param queuePrefetch    the default queue prefetch size
+     * @param topicPrefetch    the default topic prefetch size
+     * @param batchAcknowledge whether consumers acknowledge their messages in batches
+     * @return the connection factory
+     */
+    public static ActiveMQConnectionFactory createConnectionFactory(String brokerUrl, int queuePrefetch, int topicPrefetch, boolean batchAcknowledge) {
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(brokerUrl);
+        ActiveMQPrefetchPolicy prefetchPolicy = new ActiveMQPrefetchPolicy();
+        prefetchPolicy.setQueuePrefetch(queuePrefetch);
+        prefetchPolicy.setTopicPrefetch(topicPrefetch);
+        connectionFactory.setPrefetchPolicy(prefetchPolicy);
+        connectionFactory.setOptimizeAcknowledge(batchAcknowledge);
+        return connectionFactory;
+    }
+
+    /**
+     * Creates the pool of connections, sessions and producers of the connection factory.
+     *
+     * @param connectionFactory        the connection factory
+     * @param maxConnections           the pooled connections
+     * @param maxSessionsPerConnection the pooled sessions of each connection
+     * @return the pooled connection factory
+     */
+    public static PooledConnectionFactory createPooledConnectionFactory(ActiveMQConnectionFactory connectionFactory, int maxConnections, int maxSessionsPerConnection) {
+        PooledConnectionFactory pooledConnectionFactory = new PooledConnectionFactory(connectionFactory);
+        pooledConnectionFactory.setMaxConnections(Math.max(1, maxConnections));
+        pooledConnectionFactory.setMaximumActiveSessionPerConnection(Math.max(1, maxSessionsPerConnection));
+        pooledConnectionFactory.setBlockIfSessionPoolIsFull(true);
+        return pooledConnectionFactory;
+    }
+
+    static Map<String, Integer> parseDestinationPrefetch(String destinationPrefetch) {
+        if (StringUtils.isBlank(destinationPrefetch)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> prefetchByDestination = new HashMap<>();
+        for (String entry : destinationPrefetch.split(",")) {
+            String[] destinationAndPrefetch = entry.split(":");
+            if (destinationAndPrefetch.length == 2 && StringUtils.isNumeric(destinationAndPrefetch[1].trim())) {
+                prefetchByDestination.put(destinationAndPrefetch[0].trim(), Integer.valueOf(destinationAndPrefetch[1].trim()));
+            } else {
+                log.warn("Ignoring invalid destination prefetch {}", entry);
+            }
+        }
+        return prefetchByDestination;
+    }
+
+    /**
+     * Resolves the destinations with their configured prefetch size as a destination option, which only applies to
+     * the consumers of the destination.
+     */
+    static class PrefetchDestinationResolver extends DynamicDestinationResolver {
+
+        private final Map<String, Integer> prefetchByDestination;
+
+        PrefetchDestinationResolver(Map<String, Integer> prefetchByDestination) {
+            this.prefetchByDestination = prefetchByDestination;
+        }
+
+        @Override
+        public Destination resolveDestinationName(Session session, String destinationName, boolean pubSubDomain) throws JMSException {
+            Integer prefetch = prefetchByDestination.get(destinationName);
+            if (prefetch != null && !destinationName.contains("?")) {
+                return super.resolveDestinationName(session, destinationName + "?consumer.prefetchSize=" + prefetch, pubSubDomain);
+            }
+            return super.resolveDestinationName(session, destinationName, pubSubDomain);
+        }
     }
 }
@@ -13,6 +13,7 @@ import org.recap.camel.requestinitialdataload.RequestDataLoadCSVRecord;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.report.RequestInitialLoadBarcodesInLAS;
 import org.recap.service.requestdataload.RequestDataLoadService;
+import org.recap.util.DateUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
@@ -24,9 +25,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -104,8 +103,7 @@ public class RequestInitialDataLoadProcessor {
                 List<ItemEntity> itemsToIndex = (List<ItemEntity>) barcodesMap.get(ScsbConstants.REQUEST_INITIAL_BARCODES_TO_INDEX);
                 barcodesAvailableInLAS.addAll(itemEntityList);
                 barcodesToIndex.addAll(itemsToIndex);
-                SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMMyyyy");
-                Path filePath = Paths.get(requestInitialLoadFilePath+ScsbCommonConstants.PATH_SEPARATOR+institutionCode+ScsbCommonConstants.PATH_SEPARATOR+ ScsbConstants.REQUEST_INITIAL_FILE_NAME+institutionCode+simpleDateFormat.format(new Date())+".csv");
+                Path filePath = Paths.get(requestInitialLoadFilePath+ScsbCommonConstants.PATH_SEPARATOR+institutionCode+ScsbCommonConstants.PATH_SEPARATOR+ ScsbConstants.REQUEST_INITIAL_FILE_NAME+institutionCode+DateUtil.formatNow(DateUtil.REQUEST_INITIAL_FILE_DATE_FORMATTER)+".csv");
                 if (!filePath.toFile().exists()) {
                     Files.createDirectories(filePath.getParent());
                     Files.createFile(filePath);
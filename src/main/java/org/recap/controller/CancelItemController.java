@@ -11,12 +11,13 @@ import org.recap.model.CancelRequestResponse;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.jpa.RequestItemEntity;
-import org.recap.model.jpa.RequestStatusEntity;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
-import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.request.service.ItemRequestService;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.request.util.RequestLifecycleMetrics;
+import org.recap.util.DateUtil;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -25,8 +26,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Optional;
@@ -48,7 +47,7 @@ public class CancelItemController {
     private RequestItemDetailsRepository requestItemDetailsRepository;
 
     @Autowired
-    private RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
     private ItemRequestService itemRequestService;
@@ -62,6 +61,9 @@ public class CancelItemController {
     @Autowired
     private PropertyUtil propertyUtil;
 
+    @Autowired
+    private RequestLifecycleMetrics requestLifecycleMetrics;
+
     /**
      * This is rest service  method, for cancel requested item.
      *
@@ -72,13 +74,16 @@ public class CancelItemController {
      */
     @PostMapping(value = "/cancel", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public CancelRequestResponse cancelRequest(@RequestParam Integer requestId) {
+        long startTime = System.nanoTime();
         CancelRequestResponse cancelRequestResponse = new CancelRequestResponse();
         ItemHoldResponse itemCancelHoldResponse = null;
+        ItemRequestInformation itemRequestInformation = null;
         try {
-            Optional<RequestItemEntity> requestItemEntity = requestItemDetailsRepository.findById(requestId);
+            Optional<RequestItemEntity> requestItemEntity = requestLifecycleMetrics.recordStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_DB, null,
+                    () -> requestItemDetailsRepository.findById(requestId));
             if (requestItemEntity.isPresent()) {
                 ItemEntity itemEntity = requestItemEntity.get().getItemEntity();
-                ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+                itemRequestInformation = new ItemRequestInformation();
                 itemRequestInformation.setItemBarcodes(Collections.singletonList(itemEntity.getBarcode()));
                 itemRequestInformation.setItemOwningInstitution(itemEntity.getInstitutionEntity().getInstitutionCode());
                 itemRequestInformation.setBibId(itemEntity.getBibliographicEntities().get(0).getOwningInstitutionBibId());
@@ -86,9 +91,12 @@ public class CancelItemController {
                 itemRequestInformation.setRequestingInstitution(requestItemEntity.get().getInstitutionEntity().getInstitutionCode());
                 itemRequestInformation.setPatronBarcode(requestItemEntity.get().getPatronId());
                 itemRequestInformation.setDeliveryLocation(requestItemEntity.get().getStopCode());
+                itemRequestInformation.setImsLocationCode(itemEntity.getImsLocationEntity() != null ? itemEntity.getImsLocationEntity().getImsLocationCode() : null);
 
                 String requestStatus = requestItemEntity.get().getRequestStatusEntity().getRequestStatusCode();
-                ItemInformationResponse itemInformationResponse = (ItemInformationResponse) requestItemController.itemInformation(itemRequestInformation, itemRequestInformation.getRequestingInstitution());
+                ItemRequestInformation cancelRequestInformation = itemRequestInformation;
+                ItemInformationResponse itemInformationResponse = requestLifecycleMetrics.recordIlsStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_ILS_ITEM_INFORMATION, itemRequestInformation, itemRequestInformation.getRequestingInstitution(),
+                        () -> (ItemInformationResponse) requestItemController.itemInformation(cancelRequestInformation, cancelRequestInformation.getRequestingInstitution()));
                 itemRequestInformation.setBibId(itemInformationResponse.getBibID());
                 boolean isRequestTypeRetreivalAndFirstScan = requestItemEntity.get().getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL) && requestItemEntity.get().getRequestStatusEntity().getRequestStatusCode().equalsIgnoreCase(ScsbConstants.LAS_REFILE_REQUEST_PLACED);
                 boolean isRequestTypeRecallAndFirstScan = requestItemEntity.get().getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RECALL) && requestItemEntity.get().getRequestStatusEntity().getRequestStatusCode().equalsIgnoreCase(ScsbConstants.LAS_REFILE_REQUEST_PLACED);
@@ -120,6 +128,7 @@ public class CancelItemController {
             }
             cancelRequestResponse.setSuccess(itemCancelHoldResponse.isSuccess());
             cancelRequestResponse.setScreenMessage(itemCancelHoldResponse.getScreenMessage());
+            requestLifecycleMetrics.recordLifecycle(ScsbConstants.REQUEST_OPERATION_CANCEL, itemRequestInformation, startTime, itemCancelHoldResponse);
         }
         return cancelRequestResponse;
     }
@@ -128,9 +137,10 @@ public class CancelItemController {
         ItemHoldResponse itemCancelHoldResponse;
         String checkedOutCirculationStatuses = propertyUtil.getPropertyByInstitutionAndKey(itemRequestInformation.getRequestingInstitution(), PropertyKeyConstants.ILS.ILS_CHECKEDOUT_CIRCULATION_STATUS);
         if (getHoldQueueLength(itemInformationResponse) > 0 || (StringUtils.isNotBlank(checkedOutCirculationStatuses) && StringUtils.containsIgnoreCase(checkedOutCirculationStatuses, itemInformationResponse.getCirculationStatus()))) {
-            itemCancelHoldResponse = (ItemHoldResponse) requestItemController.cancelHoldItem(itemRequestInformation, itemRequestInformation.getRequestingInstitution());
+            itemCancelHoldResponse = cancelHoldItem(itemRequestInformation);
             if (itemCancelHoldResponse.isSuccess()) {
-                requestItemController.checkinItem(itemRequestInformation, itemRequestInformation.getItemOwningInstitution());
+                requestLifecycleMetrics.recordIlsStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_ILS_CHECKIN, itemRequestInformation, itemRequestInformation.getItemOwningInstitution(),
+                        () -> requestItemController.checkinItem(itemRequestInformation, itemRequestInformation.getItemOwningInstitution()));
                 changeRetrievalToCancelStatus(requestItemEntity, itemCancelHoldResponse);
             } else {
                 itemCancelHoldResponse.setSuccess(false);
@@ -144,6 +154,11 @@ public class CancelItemController {
         return itemCancelHoldResponse;
     }
 
+    private ItemHoldResponse cancelHoldItem(ItemRequestInformation itemRequestInformation) {
+        return requestLifecycleMetrics.recordIlsStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_ILS_CANCEL_HOLD, itemRequestInformation, itemRequestInformation.getRequestingInstitution(),
+                () -> (ItemHoldResponse) requestItemController.cancelHoldItem(itemRequestInformation, itemRequestInformation.getRequestingInstitution()));
+    }
+
     private void makeItemAvailableForFirstScanCancelRequest(RequestItemEntity requestItemEntity) {
         if (requestItemEntity.getRequestStatusEntity().getRequestStatusCode().equalsIgnoreCase(ScsbConstants.LAS_REFILE_REQUEST_PLACED)) {
             commonUtil.rollbackUpdateItemAvailabilityStatus(requestItemEntity.getItemEntity(), ScsbConstants.GUEST_USER);
@@ -156,7 +171,7 @@ public class CancelItemController {
         String checkedOutCirculationStatuses = propertyUtil.getPropertyByInstitutionAndKey(itemRequestInformation.getRequestingInstitution(), PropertyKeyConstants.ILS.ILS_CHECKEDOUT_CIRCULATION_STATUS);
         if (getHoldQueueLength(itemInformationResponse) > 0 || (StringUtils.isNotBlank(checkedOutCirculationStatuses) && StringUtils.containsIgnoreCase(checkedOutCirculationStatuses, itemInformationResponse.getCirculationStatus()))) {
             itemRequestInformation.setBibId(itemInformationResponse.getBibID());
-            itemCancelHoldResponse = (ItemHoldResponse) requestItemController.cancelHoldItem(itemRequestInformation, itemRequestInformation.getRequestingInstitution());
+            itemCancelHoldResponse = cancelHoldItem(itemRequestInformation);
             if (itemCancelHoldResponse.isSuccess()) {
                 changeRecallToCancelStatus(requestItemEntity, itemCancelHoldResponse);
             } else {
@@ -182,12 +197,15 @@ public class CancelItemController {
     }
 
     private void saveRequestAndChangeLog(RequestItemEntity requestItemEntity) {
-        RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_CANCELED);
-        requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+        requestItemEntity.setRequestStatusId(referenceDataCache.getRequestStatusIdsByCode().get(ScsbCommonConstants.REQUEST_STATUS_CANCELED));
         requestItemEntity.setLastUpdatedDate(new Date());
         requestItemEntity.setNotes(appendCancelMessageToNotes(requestItemEntity));
         RequestItemEntity savedRequestItemEntity = requestItemDetailsRepository.save(requestItemEntity);
-        itemRequestService.saveItemChangeLogEntity(savedRequestItemEntity.getId(), ScsbConstants.GUEST_USER, ScsbConstants.REQUEST_ITEM_CANCEL_ITEM_AVAILABILITY_STATUS, ScsbCommonConstants.REQUEST_STATUS_CANCELED + savedRequestItemEntity.getItemId());
+        ItemEntity itemEntity = requestItemEntity.getItemEntity();
+        String imsLocationCode = itemEntity.getImsLocationEntity() != null ? itemEntity.getImsLocationEntity().getImsLocationCode() : null;
+        requestLifecycleMetrics.recordStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_CHANGE_LOG,
+                itemEntity.getInstitutionEntity().getInstitutionCode(), requestItemEntity.getInstitutionEntity().getInstitutionCode(), imsLocationCode,
+                () -> itemRequestService.saveItemChangeLogEntity(savedRequestItemEntity.getId(), ScsbConstants.GUEST_USER, ScsbConstants.REQUEST_ITEM_CANCEL_ITEM_AVAILABILITY_STATUS, ScsbCommonConstants.REQUEST_STATUS_CANCELED + savedRequestItemEntity.getItemId()));
     }
 
     private int getHoldQueueLength(ItemInformationResponse itemInformationResponse) {
@@ -218,7 +236,6 @@ public class CancelItemController {
     }
 
     private String appendCancelMessageToNotes(RequestItemEntity requestItemEntity) {
-        DateFormat cancelRequestDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return requestItemEntity.getNotes() + "\nCancel requested ["+cancelRequestDateFormat.format(new Date())+"]";
+        return requestItemEntity.getNotes() + "\nCancel requested ["+DateUtil.formatNow(DateUtil.CANCEL_REQUEST_DATE_FORMATTER)+"]";
     }
 }
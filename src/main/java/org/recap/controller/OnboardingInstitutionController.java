@@ -71,6 +71,7 @@ public class OnboardingInstitutionController {
         try {
             commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.SCSB_LAS_OUTGOING_QUEUE_PREFIX + imsLocationCode + ScsbConstants.OUTGOING_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.SCSB_OUTGOING_ROUTE_ID, "Message Received in SCSB OUTGOING QUEUE for " + imsLocationCode, applicationContext.getBean(LasHeartBeatCheckPollingProcessor.class), ScsbConstants.SCSB_LAS_OUTGOING_QUEUE_METHOD);
             commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.LAS_OUTGOING_QUEUE_PREFIX + imsLocationCode + ScsbConstants.OUTGOING_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.LAS_OUTGOING_ROUTE_ID, "Message Received in LAS OUTGOING QUEUE for " + imsLocationCode, applicationContext.getBean(GFALasService.class), ScsbConstants.LAS_OUTGOING_QUEUE_METHOD);
+            commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_PREFIX + imsLocationCode + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID, "Message Received in REQUEST ITEM LAS STATUS CHECK QUEUE for " + imsLocationCode, new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_LAS_ITEM_STATUS_QUEUE_METHOD);
         } catch (Exception e) {
             log.error("Failed to create Queues for IMS Location - {} : {}", imsLocationCode, e);
             responseStatus = ScsbCommonConstants.FAILURE;
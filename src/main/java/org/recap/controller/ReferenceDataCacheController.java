@@ -0,0 +1,33 @@
+package org.recap.controller;
+
+import org.recap.ScsbCommonConstants;
+import org.recap.service.common.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/referenceDataCache")
+public class ReferenceDataCacheController {
+
+    @Autowired
+    ReferenceDataCache referenceDataCache;
+
+    @PostMapping(value = "/refresh")
+    public String refresh() {
+        if (referenceDataCache.refresh()) {
+            return ScsbCommonConstants.SUCCESS;
+        } else {
+            return ScsbCommonConstants.FAILURE;
+        }
+    }
+
+    @GetMapping(value = "/sizes")
+    public Map<String, Integer> getSizes() {
+        return referenceDataCache.getSizes();
+    }
+}
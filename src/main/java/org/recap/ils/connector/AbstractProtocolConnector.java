@@ -35,6 +35,10 @@ public abstract class AbstractProtocolConnector {
         return ilsConfigProperties.getOperatorLocation();
     }
 
+    public String getProtocol() {
+        return ilsConfigProperties != null ? ilsConfigProperties.getProtocol() : null;
+    }
+
     /**
      * Lookup item abstract response item.
      *
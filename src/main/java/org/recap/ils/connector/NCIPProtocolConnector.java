@@ -1,13 +1,11 @@
 package org.recap.ils.connector;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
@@ -25,6 +23,9 @@ import org.extensiblecatalog.ncip.v2.service.RecallItemResponseData;
 import org.json.JSONObject;
 
 import org.recap.PropertyKeyConstants;
+import org.recap.ils.protocol.ncip.NCIPHttpClientManager;
+import org.recap.ils.protocol.ncip.util.NCIPRequestFormatter;
+import org.recap.ils.protocol.ncip.util.NCIPResponseInputStream;
 import org.recap.ils.protocol.ncip.util.NCIPToolKitUtil;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.request.ItemRequestInformation;
@@ -50,7 +51,7 @@ import org.recap.ils.protocol.rest.util.RestApiResponseUtil;
 import org.recap.model.ILSConfigProperties;
 import org.recap.model.AbstractResponseItem;
 import org.recap.repository.jpa.ItemDetailsRepository;
-import org.recap.util.CommonUtil;
+import org.recap.util.DateUtil;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -62,11 +63,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -98,7 +98,7 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
     PropertyUtil propertyUtil;
 
     @Autowired
-    CommonUtil commonUtil;
+    NCIPHttpClientManager ncipHttpClientManager;
 
 
     @Override
@@ -166,6 +166,9 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
     }
 
     public CloseableHttpClient buildCloseableHttpClient(){
+        if (ncipHttpClientManager != null && institutionCode != null) {
+            return ncipHttpClientManager.getHttpClient(institutionCode);
+        }
         return HttpClients.custom().build();
     }
 
@@ -254,8 +257,7 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
         CheckInItemResponseData checkinItemResponse = new CheckInItemResponseData();
         try {
             NCIPToolKitUtil ncipToolkitUtil = NCIPToolKitUtil.getInstance();
-            String requestBody = checkInItem.getRequestBody(ncipToolkitUtil, checkInItemInitiationData);
-            requestBody = commonUtil.formatRequest(requestBody);
+            byte[] requestBody = checkInItem.getRequestBody(ncipToolkitUtil, checkInItemInitiationData);
             HttpUriRequest request = getHttpRequest(requestBody);
             CloseableHttpClient client = buildCloseableHttpClient();
 
@@ -263,22 +265,24 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
             HttpResponse response = client.execute(request);
 
             HttpEntity entity = response.getEntity();
-            responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
-            responseString = commonUtil.formatResponse(responseString);
+            NCIPResponseData responseData;
+            try {
+                log.info(ncipRequest);
+                logRequestBody(requestBody);
+                log.info(ncipResponse);
+                log.info(String.valueOf(response.getStatusLine()));
+                int responseCode = response.getStatusLine().getStatusCode();
+                if (responseCode > 399) {
+                    responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, httpCallTo + getEndPointUrl() + returnedResponseCode + responseCode + responseBody + responseString);
+                }
 
-            log.info(ncipRequest);
-            log.info(requestBody);
-            log.info(ncipResponse);
-            log.info(responseString);
-            int responseCode = response.getStatusLine().getStatusCode();
-            if (responseCode > 399) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, httpCallTo + getEndPointUrl() + returnedResponseCode + responseCode + responseBody + responseString);
+                //transforms the NCIP xml response into NCIP Objects
+                responseData = ncipToolkitUtil.translator.createResponseData(ncipToolkitUtil.serviceContext, new NCIPResponseInputStream(entity.getContent()));
+            } finally {
+                EntityUtils.consumeQuietly(entity);
             }
 
-            //transforms the NCIP xml response into NCIP Objects
-            InputStream stream = new ByteArrayInputStream(responseString.getBytes(StandardCharsets.UTF_8));
-            NCIPResponseData responseData = ncipToolkitUtil.translator.createResponseData(ncipToolkitUtil.serviceContext, stream);
-
             //transforms the NCIP Objects into a JSON response object
             checkinItemResponse = (CheckInItemResponseData) responseData;
             checkInItem.getCheckInResponse(checkinItemResponse);
@@ -568,9 +572,7 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
             itemRecallResponse.setPatronIdentifier(recallItemResponse.getUserId() != null ? recallItemResponse.getUserId().getUserIdentifierValue() : "");
             itemRecallResponse.setItemBarcode(recallItemResponse.getItemId().getItemIdentifierValue());
             itemRecallResponse.setItemOwningInstitution(institutionId);
-            Date expirationDateforRecall = DateUtils.addYears(new Date(), 1);
-            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-            itemRecallResponse.setExpirationDate(simpleDateFormat.format(expirationDateforRecall));
+            itemRecallResponse.setExpirationDate(DateUtil.DATE_FORMATTER.format(LocalDateTime.now().plusYears(1)));
 
             itemRecallResponse.setSuccess(Boolean.TRUE);
             itemRecallResponse.setScreenMessage(ScsbCommonConstants.SUCCESS);
@@ -596,14 +598,20 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
         return null;
     }
 
-    public HttpUriRequest getHttpRequest(String requestBody) {
+    public HttpUriRequest getHttpRequest(byte[] requestBody) {
         return RequestBuilder.post()
                 .setUri(getEndPointUrl())
-                .setEntity(new StringEntity(requestBody, StandardCharsets.UTF_8))
+                .setEntity(new ByteArrayEntity(requestBody))
                 .setHeader("Content-Type", "application/xml")
                 .build();
     }
 
+    private static void logRequestBody(byte[] requestBody) {
+        if (log.isDebugEnabled()) {
+            log.debug(new String(requestBody, StandardCharsets.UTF_8));
+        }
+    }
+
     public String getEndPointUrl() {
         return ilsConfigProperties.getHost();
     }
@@ -678,9 +686,7 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
             itemHoldResponse.setInstitutionID(getInstitution());
             itemHoldResponse.setCreatedDate(new Date().toString());
             itemHoldResponse.setUpdatedDate(new Date().toString());
-            Date expirationDateforHold = DateUtils.addYears(new Date(), 1);
-            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-            itemHoldResponse.setExpirationDate(simpleDateFormat.format(expirationDateforHold));
+            itemHoldResponse.setExpirationDate(DateUtil.DATE_FORMATTER.format(LocalDateTime.now().plusYears(1)));
         } catch (HttpClientErrorException httpException) {
             log.error(ScsbCommonConstants.LOG_ERROR, httpException);
             itemHoldResponse.setSuccess(false);
@@ -695,15 +701,18 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
     private HttpResponse executeRequest(InputStream requestMessageStream)
     {
         try {
-            String requestBody = IOUtils.toString(requestMessageStream, StandardCharsets.UTF_8);
-            requestBody = commonUtil.formatRequest(requestBody);
+            byte[] requestBody = NCIPRequestFormatter.format(requestMessageStream);
             CloseableHttpClient client = buildCloseableHttpClient();
 
             HttpUriRequest request = getHttpRequest(requestBody);
             HttpResponse response = client.execute(request);
             log.info(ncipRequest);
-            log.info(requestBody);
+            logRequestBody(requestBody);
             log.info(ncipResponse);
+            log.info(String.valueOf(response.getStatusLine()));
+            if (response.getStatusLine().getStatusCode() > 399) {
+                EntityUtils.consumeQuietly(response.getEntity());
+            }
             return response;
         }
         catch (Exception e) {
@@ -712,20 +721,16 @@ public class NCIPProtocolConnector extends AbstractProtocolConnector {
     }
     private NCIPResponseData getResponseString(HttpResponse response, NCIPToolKitUtil ncipToolKitUtil, NCIPResponseData responseData)
     {
-        String responseString = null;
         HttpEntity entity = response.getEntity();
         try {
-            responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
-
-            responseString = commonUtil.formatResponse(responseString);
-            InputStream stream = new ByteArrayInputStream(responseString.getBytes(StandardCharsets.UTF_8));
-            responseData = ncipToolKitUtil.translator.createResponseData(ncipToolKitUtil.serviceContext, stream);
-
-            log.info(responseString);
+            responseData = ncipToolKitUtil.translator.createResponseData(ncipToolKitUtil.serviceContext, new NCIPResponseInputStream(entity.getContent()));
         }
         catch (Exception ex) {
             return null;
         }
+        finally {
+            EntityUtils.consumeQuietly(entity);
+        }
         return responseData;
     }
 
@@ -26,6 +26,7 @@ import org.springframework.web.client.RestTemplate;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @Service
 @Slf4j
@@ -199,15 +200,13 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             String source = getRestApiResponseUtil().getRestApiSourceForInstitution(this.institutionCode, owningInstitution);
             itemIdentifier = getRestApiResponseUtil().getNormalizedItemIdForRestProtocolApi(itemIdentifier);
             String apiUrl = getApiUrl(source, itemIdentifier);
-            String authorization = "Bearer " + getRestOauthTokenApiService().generateAccessTokenForRestApi(getOauthTokenApiUrl(), getOperatorUserId(), getOperatorPassword());
-
-            HttpHeaders headers = getHttpHeader();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-            headers.set("Authorization", authorization);
-
-            HttpEntity requestEntity = getHttpEntity(headers);
-            ResponseEntity<ItemResponse> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.GET, requestEntity, ItemResponse.class);
+            ResponseEntity<ItemResponse> responseEntity = exchange(apiUrl, HttpMethod.GET, () -> {
+                HttpHeaders headers = getHttpHeader();
+                headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+                headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+                headers.set("Authorization", getAuthorization());
+                return getHttpEntity(headers);
+            }, ItemResponse.class);
             ItemResponse itemResponse = responseEntity.getBody();
             itemInformationResponse = getRestApiResponseUtil().buildItemInformationResponse(itemResponse);
         } catch (HttpClientErrorException httpException) {
@@ -241,8 +240,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             checkoutRequest.setItemBarcode(itemIdentifier);
             checkoutRequest.setDesiredDateDue(getRestApiResponseUtil().getExpirationDateForRest());
 
-            HttpEntity<CheckoutRequest> requestEntity = new HttpEntity<>(checkoutRequest, getHttpHeaders());
-            ResponseEntity<CheckoutResponse> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.POST, requestEntity, CheckoutResponse.class);
+            ResponseEntity<CheckoutResponse> responseEntity = exchange(apiUrl, HttpMethod.POST, () -> new HttpEntity<>(checkoutRequest, getHttpHeaders()), CheckoutResponse.class);
             CheckoutResponse checkoutResponse = responseEntity.getBody();
             itemCheckoutResponse = getRestApiResponseUtil().buildItemCheckoutResponse(checkoutResponse);
             CheckoutData checkoutData = checkoutResponse != null ? checkoutResponse.getData() : null;
@@ -296,8 +294,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             CheckinRequest checkinRequest = getCheckInRequest();
             checkinRequest.setItemBarcode(itemRequestInformation.getItemBarcodes().get(0));
 
-            HttpEntity<CheckinRequest> requestEntity = new HttpEntity<>(checkinRequest, getHttpHeaders());
-            ResponseEntity<CheckinResponse> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.POST, requestEntity, CheckinResponse.class);
+            ResponseEntity<CheckinResponse> responseEntity = exchange(apiUrl, HttpMethod.POST, () -> new HttpEntity<>(checkinRequest, getHttpHeaders()), CheckinResponse.class);
             CheckinResponse checkinResponse = responseEntity.getBody();
             itemCheckinResponse = getRestApiResponseUtil().buildItemCheckinResponse(checkinResponse);
             CheckinData checkinData = checkinResponse != null ? checkinResponse.getData() : null;
@@ -372,8 +369,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             description.setCallNumber(callNumber);
             createHoldRequest.setDescription(description);
 
-            HttpEntity<CreateHoldRequest> requestEntity = new HttpEntity<>(createHoldRequest, getHttpHeaders());
-            ResponseEntity<CreateHoldResponse> responseEntity = restTemplate.exchange(recapHoldApiUrl, HttpMethod.POST, requestEntity, CreateHoldResponse.class);
+            ResponseEntity<CreateHoldResponse> responseEntity = exchange(recapHoldApiUrl, HttpMethod.POST, () -> new HttpEntity<>(createHoldRequest, getHttpHeaders()), CreateHoldResponse.class);
             CreateHoldResponse createHoldResponse = responseEntity.getBody();
             itemHoldResponse = getRestApiResponseUtil().buildItemHoldResponse(createHoldResponse);
             CreateHoldData createHoldData = createHoldResponse != null ? createHoldResponse.getData() : null;
@@ -440,8 +436,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             cancelHoldRequest.setItemBarcode(itemIdentifier);
             cancelHoldRequest.setPatronBarcode(patronIdentifier);
 
-            HttpEntity<CancelHoldRequest> requestEntity = new HttpEntity<>(cancelHoldRequest, getHttpHeaders());
-            ResponseEntity<CancelHoldResponse> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.POST, requestEntity, CancelHoldResponse.class);
+            ResponseEntity<CancelHoldResponse> responseEntity = exchange(apiUrl, HttpMethod.POST, () -> new HttpEntity<>(cancelHoldRequest, getHttpHeaders()), CancelHoldResponse.class);
             CancelHoldResponse cancelHoldResponse = responseEntity.getBody();
             itemHoldResponse = getRestApiResponseUtil().buildItemCancelHoldResponse(cancelHoldResponse);
             CancelHoldData cancelHoldData = cancelHoldResponse!= null ? cancelHoldResponse.getData() : null;
@@ -487,8 +482,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
      */
     public JobResponse queryForJob(String jobId) throws Exception {
         String apiUrl = getRestDataApiUrl() + "/jobs/" + jobId;
-        HttpEntity requestEntity = new HttpEntity<>(getHttpHeaders());
-        ResponseEntity<JobResponse> jobResponseEntity = restTemplate.exchange(apiUrl, HttpMethod.GET, requestEntity, JobResponse.class);
+        ResponseEntity<JobResponse> jobResponseEntity = exchange(apiUrl, HttpMethod.GET, () -> new HttpEntity<>(getHttpHeaders()), JobResponse.class);
         return jobResponseEntity.getBody();
     }
 
@@ -501,9 +495,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
      */
     private RestHoldResponse queryHoldResponseByTrackingId(String trackingId) throws Exception {
         String apiUrl = getRestDataApiUrl() + "/hold-requests/" + trackingId;
-        HttpHeaders headers = getHttpHeaders();
-        HttpEntity requestEntity = getHttpEntity(headers);
-        ResponseEntity<RestHoldResponse> jobResponseEntity = restTemplate.exchange(apiUrl, HttpMethod.GET, requestEntity, RestHoldResponse.class);
+        ResponseEntity<RestHoldResponse> jobResponseEntity = exchange(apiUrl, HttpMethod.GET, () -> getHttpEntity(getHttpHeaders()), RestHoldResponse.class);
         return jobResponseEntity.getBody();
     }
 
@@ -514,14 +506,44 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
      * @throws Exception
      */
     private HttpHeaders getHttpHeaders() throws Exception {
-        String authorization = "Bearer " + getRestOauthTokenApiService().generateAccessTokenForRestApi(getOauthTokenApiUrl(), getOperatorUserId(), getOperatorPassword());
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        headers.set("Authorization", authorization);
+        headers.set("Authorization", getAuthorization());
         return headers;
     }
 
+    /**
+     * Builds the bearer authorization from the cached access token of the institution.
+     *
+     * @return
+     * @throws Exception
+     */
+    private String getAuthorization() throws Exception {
+        return "Bearer " + getRestOauthTokenApiService().getAccessTokenForRestApi(this.institutionCode, getOauthTokenApiUrl(), getOperatorUserId(), getOperatorPassword());
+    }
+
+    /**
+     * Calls the REST API with a request entity carrying the cached access token. When the API rejects the token with
+     * 401 Unauthorized, the token is dropped and the call is retried once with a new token.
+     *
+     * @param apiUrl
+     * @param httpMethod
+     * @param requestEntitySupplier
+     * @param responseType
+     * @return
+     * @throws Exception
+     */
+    private <T> ResponseEntity<T> exchange(String apiUrl, HttpMethod httpMethod, Callable<HttpEntity<?>> requestEntitySupplier, Class<T> responseType) throws Exception {
+        try {
+            return restTemplate.exchange(apiUrl, httpMethod, requestEntitySupplier.call(), responseType);
+        } catch (HttpClientErrorException.Unauthorized unauthorized) {
+            log.info("Access token rejected by {}, retrying with a new token", this.institutionCode);
+            getRestOauthTokenApiService().invalidateAccessToken(this.institutionCode);
+            return restTemplate.exchange(apiUrl, httpMethod, requestEntitySupplier.call(), responseType);
+        }
+    }
+
     /**
      * This method initiates the hold request on REST API end to get the tracking id and use it in recap hold request subsequently.
      *
@@ -546,8 +568,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
         restHoldRequest.setNumberOfCopies(1);
         restHoldRequest.setNeededBy(restApiResponseUtil.getExpirationDateForRest());
 
-        HttpEntity<RestHoldRequest> requestEntity = new HttpEntity<>(restHoldRequest, getHttpHeaders());
-        ResponseEntity<RestHoldResponse> responseEntity = restTemplate.exchange(restHoldApiUrl, HttpMethod.POST, requestEntity, RestHoldResponse.class);
+        ResponseEntity<RestHoldResponse> responseEntity = exchange(restHoldApiUrl, HttpMethod.POST, () -> new HttpEntity<>(restHoldRequest, getHttpHeaders()), RestHoldResponse.class);
         RestHoldResponse restHoldResponse = responseEntity.getBody();
         RestHoldData restHoldData = restHoldResponse != null ? restHoldResponse.getData() : null;
         if (null != restHoldData) {
@@ -584,8 +605,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
     private RestPatronResponse queryForPatronResponse(String patronIdentifier) throws Exception {
         String apiUrl = getRestDataApiUrl() + ScsbConstants.REST_PATRON_BY_BARCODE_URL + patronIdentifier;
         log.info("{} patron response url : {}" , this.institutionCode, apiUrl);
-        HttpEntity requestEntity = new HttpEntity<>(getHttpHeaders());
-        ResponseEntity<RestPatronResponse> jobResponseEntity = restTemplate.exchange(apiUrl, HttpMethod.GET, requestEntity, RestPatronResponse.class);
+        ResponseEntity<RestPatronResponse> jobResponseEntity = exchange(apiUrl, HttpMethod.GET, () -> new HttpEntity<>(getHttpHeaders()), RestPatronResponse.class);
         return jobResponseEntity.getBody();
     }
 
@@ -626,8 +646,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             recallRequest.setOwningInstitutionId(restApiResponseUtil.getItemOwningInstitutionByItemBarcode(itemIdentifier));
             recallRequest.setItemBarcode(itemIdentifier);
 
-            HttpEntity<RecallRequest> requestEntity = new HttpEntity(recallRequest, getHttpHeaders());
-            ResponseEntity<RecallResponse> responseEntity = getRestTemplate().exchange(apiUrl, HttpMethod.POST, requestEntity, RecallResponse.class);
+            ResponseEntity<RecallResponse> responseEntity = exchange(apiUrl, HttpMethod.POST, () -> new HttpEntity<>(recallRequest, getHttpHeaders()), RecallResponse.class);
             RecallResponse recallResponse = responseEntity.getBody();
             itemRecallResponse = getNyplApiResponseUtil().buildItemRecallResponse(recallResponse);
             RecallData recallData = recallResponse.getData();
@@ -683,8 +702,7 @@ public class RestProtocolConnector extends AbstractProtocolConnector {
             RefileRequest refileRequest = new RefileRequest();
             refileRequest.setItemBarcode(itemIdentifier);
 
-            HttpEntity<RefileRequest> requestEntity = new HttpEntity<>(refileRequest, getHttpHeaders());
-            ResponseEntity<RefileResponse> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.POST, requestEntity, RefileResponse.class);
+            ResponseEntity<RefileResponse> responseEntity = exchange(apiUrl, HttpMethod.POST, () -> new HttpEntity<>(refileRequest, getHttpHeaders()), RefileResponse.class);
             RefileResponse refileResponse = responseEntity.getBody();
             itemRefileResponse = getRestApiResponseUtil().buildItemRefileResponse(refileResponse, this.institutionCode);
             RefileData refileData = refileResponse != null ? refileResponse.getData() : null;
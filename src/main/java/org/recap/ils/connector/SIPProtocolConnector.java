@@ -10,16 +10,18 @@ import com.pkrete.jsip2.variables.HoldMode;
 import lombok.extern.slf4j.Slf4j;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
+import org.recap.ils.protocol.sip.SIP2SessionPoolManager;
 import org.recap.model.AbstractResponseItem;
 import org.recap.model.ILSConfigProperties;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.response.*;
+import org.recap.util.DateUtil;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.List;
 
@@ -28,6 +30,9 @@ import java.util.List;
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class SIPProtocolConnector extends AbstractProtocolConnector {
 
+    @Autowired
+    private SIP2SessionPoolManager sip2SessionPoolManager;
+
     @Override
     public boolean supports(String protocol) {
         return ScsbConstants.SIP2_PROTOCOL.equalsIgnoreCase(protocol);
@@ -43,7 +48,15 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         this.ilsConfigProperties = ilsConfigProperties;
     }
 
+    /**
+     * Borrows a session from the pool of the institution when pooling is enabled, else opens a new connection.
+     *
+     * @return the connection, or null if no pooled session is available
+     */
     private SIP2SocketConnection getSocketConnection() {
+        if (isSessionPoolingEnabled()) {
+            return sip2SessionPoolManager.borrow(institutionCode, ilsConfigProperties);
+        }
         SIP2SocketConnection connection = new SIP2SocketConnection(getHost(), getPort());
         try {
             log.info("Host: {}", getHost());
@@ -55,39 +68,108 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         return connection;
     }
 
+    private boolean isSessionPoolingEnabled() {
+        return sip2SessionPoolManager != null && sip2SessionPoolManager.isPoolingEnabled(institutionCode);
+    }
+
+    private boolean isPooledSession(SIP2SocketConnection connection) {
+        return sip2SessionPoolManager != null && sip2SessionPoolManager.isPooled(institutionCode, connection);
+    }
+
+    /**
+     * Pooled sessions are already connected.
+     */
+    private boolean connect(SIP2SocketConnection connection) {
+        return isPooledSession(connection) || connection.connect();
+    }
+
+    /**
+     * Pooled sessions are logged in when they are opened, so the login exchange is only sent on unpooled connections.
+     */
+    private boolean login(SIP2SocketConnection connection) throws InvalidSIP2ResponseException, InvalidSIP2ResponseValueException {
+        return isPooledSession(connection) || sendLogin(connection).isOk();
+    }
+
+    private SIP2LoginResponse sendLogin(SIP2SocketConnection connection) throws InvalidSIP2ResponseException, InvalidSIP2ResponseValueException {
+        SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
+        return (SIP2LoginResponse) connection.send(login);
+    }
+
+    private void logNoSessionAvailable() {
+        log.error("{} for institution {}", ScsbConstants.NO_SIP2_SESSION_AVAILABLE, institutionCode);
+    }
+
+    private <T extends AbstractResponseItem> T noSessionAvailable(T responseItem) {
+        logNoSessionAvailable();
+        responseItem.setSuccess(false);
+        responseItem.setScreenMessage(ScsbConstants.NO_SIP2_SESSION_AVAILABLE);
+        return responseItem;
+    }
+
+    private void releaseConnection(SIP2SocketConnection connection) {
+        if (isPooledSession(connection)) {
+            sip2SessionPoolManager.release(institutionCode, connection);
+        } else if (!isSessionPoolingEnabled()) {
+            connection.close();
+        }
+    }
+
+    private void invalidateConnection(SIP2SocketConnection connection) {
+        if (isPooledSession(connection)) {
+            sip2SessionPoolManager.invalidate(institutionCode, connection);
+        }
+    }
+
     public boolean checkSocketConnection() {
-        return getSocketConnection().connected();
+        SIP2SocketConnection connection = getSocketConnection();
+        if (connection == null) {
+            logNoSessionAvailable();
+            return false;
+        }
+        try {
+            return isPooledSession(connection) || connection.connected();
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     /**
-     * Jsip login boolean.
+     * Jsip login boolean. When no connection is given, a connection is borrowed and released again before returning.
      *
      * @param connection       the connection
      * @param patronIdentifier the patron identifier
      * @return the boolean
      */
     public boolean jSIPLogin(SIP2SocketConnection connection, String patronIdentifier) {
-        SIP2LoginRequest login;
         boolean loginPatronStatus = false;
+        boolean borrowed = connection == null;
         try {
-            if (connection == null) {
+            if (borrowed) {
                 connection = getSocketConnection();
             }
-            if (connection.connect()) {
-                login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
+            if (connection == null) {
+                logNoSessionAvailable();
+            } else if (connect(connection)) {
                 log.info("username = {}", getOperatorUserId());
                 log.info("location = {}", getOperatorLocation());
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
+                boolean loggedIn = login(connection);
                 SIP2PatronInformationRequest request = new SIP2PatronInformationRequest(patronIdentifier);
                 SIP2PatronInformationResponse response = (SIP2PatronInformationResponse) connection.send(request);
-                loginPatronStatus = loginResponse.isOk() && response.isValidPatron() && response.isValidPatronPassword();
+                loginPatronStatus = loggedIn && response.isValidPatron() && response.isValidPatronPassword();
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
         } catch (Exception e) {
+            invalidateConnection(connection);
             log.error(ScsbCommonConstants.LOG_ERROR, e);
+        } finally {
+            if (borrowed && connection != null) {
+                releaseConnection(connection);
+            }
         }
         return loginPatronStatus;
     }
@@ -96,31 +178,34 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
     public boolean patronValidation(String institutionId, String patronIdentifier) {
         boolean loginPatronStatus = false;
         SIP2SocketConnection connection = getSocketConnection();
+        if (connection == null) {
+            logNoSessionAvailable();
+            return false;
+        }
         try {
-            SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-            SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
+            boolean loggedIn = login(connection);
             SIP2PatronInformationRequest request = new SIP2PatronInformationRequest(institutionId, patronIdentifier, getOperatorPassword());
             SIP2PatronInformationResponse response = (SIP2PatronInformationResponse) connection.send(request);
-            loginPatronStatus = loginResponse.isOk() && response.isValidPatron() && response.isValidPatronPassword();
+            loginPatronStatus = loggedIn && response.isValidPatron() && response.isValidPatronPassword();
         } catch (RuntimeException | InvalidSIP2ResponseException | InvalidSIP2ResponseValueException ex) {
+            invalidateConnection(connection);
             log.error(ScsbCommonConstants.LOG_ERROR, ex);
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return loginPatronStatus;
     }
 
     @Override
     public AbstractResponseItem lookupItem(String itemIdentifier) {
-        SIP2LoginRequest login;
         SIP2SocketConnection connection = getSocketConnection();
         SIP2ItemInformationResponse sip2ItemInformationResponse;
         ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemInformationResponse);
+        }
         try {
-            login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-            log.info(login.getData());
-            SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-            if (loginResponse.isOk()) {
+            if (login(connection)) {
                 sendAcsStatus(connection);
                 SIP2ItemInformationRequest itemRequest = new SIP2ItemInformationRequest(itemIdentifier);
                 itemInformationResponse.setEsipDataIn(itemRequest.getData());
@@ -156,20 +241,23 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 log.info(itemInformationResponse.getScreenMessage());
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
             itemInformationResponse.setSuccess(false);
             itemInformationResponse.setScreenMessage(ScsbConstants.INVALID_NO_RESPONSE_FROM_ILS);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
             itemInformationResponse.setSuccess(false);
             itemInformationResponse.setScreenMessage(ScsbConstants.SCREEN_MESSAGE_ITEM_BARCODE_NOT_FOUND);
             itemInformationResponse.setCirculationStatus(ScsbConstants.ITEM_BARCODE_NOT_FOUND);
         } catch (Exception e) {
+            invalidateConnection(connection);
             log.error(ScsbCommonConstants.LOG_ERROR, e);
             itemInformationResponse.setSuccess(false);
             itemInformationResponse.setScreenMessage("SCSB Exception: {}" + ScsbConstants.ILS_CONNECTION_FAILED);
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemInformationResponse;
     }
@@ -190,8 +278,12 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
     public SIP2PatronStatusResponse lookupUser(String institutionId, String patronIdentifier) {
         SIP2SocketConnection connection = getSocketConnection();
         SIP2PatronStatusResponse patronStatusResponse = null;
+        if (connection == null) {
+            logNoSessionAvailable();
+            return null;
+        }
         try {
-            if (connection.connect()) {
+            if (connect(connection)) {
                 SIP2PatronStatusRequest patronStatusRequest = new SIP2PatronStatusRequest(institutionId, patronIdentifier);
                 log.info(patronStatusRequest.getData());
                 patronStatusResponse = (SIP2PatronStatusResponse) connection.send(patronStatusRequest);
@@ -199,13 +291,16 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 log.info(ScsbConstants.ITEM_REQUEST_FAILED);
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
         } catch (Exception e) {
+            invalidateConnection(connection);
             log.error(ScsbCommonConstants.LOG_ERROR, e);
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return patronStatusResponse;
     }
@@ -215,8 +310,11 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2SocketConnection connection = getSocketConnection();
         SIP2CheckoutResponse checkoutResponse = null;
         ItemCheckoutResponse itemCheckoutResponse = new ItemCheckoutResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemCheckoutResponse);
+        }
         try {
-            if (connection.connect()) {
+            if (connect(connection)) {
                 if (jSIPLogin(connection, patronIdentifier)) {
                     SIP2SCStatusRequest status = new SIP2SCStatusRequest();
                     SIP2ACSStatusResponse statusResponse = (SIP2ACSStatusResponse) connection.send(status);
@@ -254,19 +352,22 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 }
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
             itemCheckoutResponse.setScreenMessage(e.getMessage());
             itemCheckoutResponse.setSuccess(false);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
             itemCheckoutResponse.setScreenMessage(e.getMessage());
             itemCheckoutResponse.setSuccess(false);
         } catch (Exception e) {
+            invalidateConnection(connection);
             log.error(ScsbCommonConstants.LOG_ERROR, e);
             itemCheckoutResponse.setScreenMessage(e.getMessage());
             itemCheckoutResponse.setSuccess(false);
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemCheckoutResponse;
     }
@@ -276,11 +377,12 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2SocketConnection connection = getSocketConnection();
         SIP2CheckinResponse checkinResponse = null;
         ItemCheckinResponse itemCheckinResponse = new ItemCheckinResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemCheckinResponse);
+        }
         try {
-            if (connection.connect()) { // Connect to the SIP Server - Princton, Voyager, ILS
-                SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-                if (loginResponse.isOk()) {
+            if (connect(connection)) { // Connect to the SIP Server - Princton, Voyager, ILS
+                if (login(connection)) {
                     SIP2SCStatusRequest status = new SIP2SCStatusRequest();
                     SIP2ACSStatusResponse statusResponse = (SIP2ACSStatusResponse) connection.send(status);
                     if (statusResponse.getSupportedMessages().isCheckin()) {
@@ -325,11 +427,16 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 }
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
+        } catch (RuntimeException e) {
+            invalidateConnection(connection);
+            throw e;
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemCheckinResponse;
     }
@@ -348,13 +455,13 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2SocketConnection connection = getSocketConnection();
         SIP2HoldResponse holdResponse = null;
         ItemHoldResponse itemHoldResponse = new ItemHoldResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemHoldResponse);
+        }
         try {
-            if (connection.connect()) { // Connect to the SIP Server - Princton, Voyager, ILS
-                SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-
+            if (connect(connection)) { // Connect to the SIP Server - Princton, Voyager, ILS
                 /* Check the response*/
-                if (loginResponse.isOk()) {
+                if (login(connection)) {
                     /* The patron must be validated before placing a hold */
                     SIP2PatronInformationRequest request = new SIP2PatronInformationRequest(institutionId, patronIdentifier, getOperatorPassword());
                     SIP2PatronInformationResponse response = (SIP2PatronInformationResponse) connection.send(request);
@@ -402,15 +509,20 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 log.error(itemHoldResponse.getScreenMessage());
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
             holdResponse = new SIP2HoldResponse("");
             holdResponse.setScreenMessage(Collections.singletonList(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE));
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
             holdResponse = new SIP2HoldResponse("");
             holdResponse.setScreenMessage(Collections.singletonList(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE));
+        } catch (RuntimeException e) {
+            invalidateConnection(connection);
+            throw e;
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemHoldResponse;
     }
@@ -420,11 +532,12 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2SocketConnection connection = getSocketConnection();
         SIP2CreateBibResponse createBibResponse = null;
         ItemCreateBibResponse itemCreateBibResponse = new ItemCreateBibResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemCreateBibResponse);
+        }
         try {
-            if (connection.connect()) {
-                SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-                if (loginResponse.isOk()) {
+            if (connect(connection)) {
+                if (login(connection)) {
                     SIP2SCStatusRequest status = new SIP2SCStatusRequest();
                     connection.send(status);
                     SIP2PatronInformationRequest request = new SIP2PatronInformationRequest(institutionId, patronIdentifier, getOperatorPassword());
@@ -457,15 +570,17 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 log.error(itemCreateBibResponse.getScreenMessage());
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
             itemCreateBibResponse.setSuccess(false);
             itemCreateBibResponse.setScreenMessage(e.getMessage());
         } catch (Exception e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
             itemCreateBibResponse.setSuccess(false);
             itemCreateBibResponse.setScreenMessage(e.getMessage());
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemCreateBibResponse;
 
@@ -477,12 +592,14 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2PatronInformationRequest sip2PatronInformationRequest;
         SIP2PatronInformationResponse sip2PatronInformationResponse;
         PatronInformationResponse patronInformationResponse = new PatronInformationResponse();
+        if (connection == null) {
+            return noSessionAvailable(patronInformationResponse);
+        }
         try {
-            if (connection.connect()) {
-                SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
-
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-                if (loginResponse.isOk()) {
+            if (connect(connection)) {
+                // Pooled sessions are already logged in
+                SIP2LoginResponse loginResponse = isPooledSession(connection) ? null : sendLogin(connection);
+                if (loginResponse == null || loginResponse.isOk()) {
                     sip2PatronInformationRequest = new SIP2PatronInformationRequest(patronIdentifier);
                     patronInformationResponse.setEsipDataIn(sip2PatronInformationRequest.getData());
                     sip2PatronInformationResponse = (SIP2PatronInformationResponse) connection.send(sip2PatronInformationRequest);
@@ -536,9 +653,10 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 patronInformationResponse.setScreenMessage(ScsbConstants.ILS_CONNECTION_FAILED);
             }
         } catch (RuntimeException | InvalidSIP2ResponseException | InvalidSIP2ResponseValueException ex) {
+            invalidateConnection(connection);
             log.error("", ex);
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return patronInformationResponse;
     }
@@ -548,16 +666,15 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
         SIP2RecallResponse sip2RecallResponse = null;
         SIP2SocketConnection connection = getSocketConnection();
         ItemRecallResponse itemRecallResponse = new ItemRecallResponse();
+        if (connection == null) {
+            return noSessionAvailable(itemRecallResponse);
+        }
         try {
-            if (connection.connect()) { // Connect to the SIP Server - Princton, Voyager, ILS
+            if (connect(connection)) { // Connect to the SIP Server - Princton, Voyager, ILS
                 /* Login to the ILS */
-                /* Create a login request */
-                SIP2LoginRequest login = new SIP2LoginRequest(getOperatorUserId(), getOperatorPassword(), getOperatorLocation());
                 /* Send the request */
-                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(login);
-
                 /* Check the response*/
-                if (loginResponse.isOk()) {
+                if (login(connection)) {
                     /* Send SCStatusRequest */
                     SIP2SCStatusRequest status = new SIP2SCStatusRequest();
                     connection.send(status);
@@ -605,23 +722,24 @@ public class SIPProtocolConnector extends AbstractProtocolConnector {
                 log.error(itemRecallResponse.getScreenMessage());
             }
         } catch (InvalidSIP2ResponseException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE, e);
         } catch (InvalidSIP2ResponseValueException e) {
+            invalidateConnection(connection);
             log.error(ScsbConstants.REQUEST_INVALID_SIP2_RESPONSE_VALUE, e);
+        } catch (RuntimeException e) {
+            invalidateConnection(connection);
+            throw e;
         } finally {
-            connection.close();
+            releaseConnection(connection);
         }
         return itemRecallResponse;
     }
 
     private String formatFromSipDate(String sipDate) {
-        SimpleDateFormat sipFormat = new SimpleDateFormat("yyyyMMdd    HHmmss");
-        SimpleDateFormat requiredFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
         String reformattedStr = "";
         try {
-            if (sipDate != null && sipDate.trim().length() > 0) {
-                reformattedStr = requiredFormat.format(sipFormat.parse(sipDate));
-            }
+            reformattedStr = DateUtil.reformat(sipDate, DateUtil.SIP_DATE_TIME_FORMATTER, DateUtil.DATE_FORMATTER);
         } catch (ParseException e) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
         }
@@ -0,0 +1,129 @@
+package org.recap.ils.connector.factory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.recap.PropertyKeyConstants;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.ils.connector.AbstractProtocolConnector;
+import org.recap.ils.connector.NCIPProtocolConnector;
+import org.recap.ils.connector.RestProtocolConnector;
+import org.recap.ils.connector.SIPProtocolConnector;
+import org.recap.model.ILSConfigProperties;
+import org.recap.util.PropertyUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds one fully configured ILS protocol connector per institution.
+ * <p>
+ * Every connector is a new prototype bean configured with the ILS properties of its institution when it is created and
+ * never reconfigured afterwards, so connectors of different institutions run in parallel without sharing state and a
+ * lookup is a read of a concurrent map. When the config server properties change, the connectors of the institutions
+ * in use are rebuilt into new maps which then replace the current ones, so a lookup sees either the old or the new
+ * connector of an institution and never a partly configured one.
+ */
+@Slf4j
+@Component
+public class ILSProtocolConnectorRegistry {
+
+    @Autowired
+    private PropertyUtil propertyUtil;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private volatile Map<String, AbstractProtocolConnector> connectors = new ConcurrentHashMap<>();
+    private volatile Map<String, RestProtocolConnector> restPollingConnectors = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the connector of the institution, creating it on first use.
+     *
+     * @param institution the institution code
+     * @return the connector, or null if the institution has no supported ILS protocol
+     */
+    public AbstractProtocolConnector getConnector(String institution) {
+        return getOrCreate(connectors, institution, this::createConnector);
+    }
+
+    /**
+     * Gets the connector that polls the REST job status of the institution, creating it on first use.
+     *
+     * @param institution the institution code
+     * @return the connector
+     */
+    public RestProtocolConnector getRestPollingConnector(String institution) {
+        return getOrCreate(restPollingConnectors, institution, this::createRestPollingConnector);
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent environmentChangeEvent) {
+        rebuild();
+    }
+
+    /**
+     * Recreates the connectors of the institutions in use from the current ILS properties.
+     */
+    public void rebuild() {
+        connectors = rebuild(connectors, this::createConnector);
+        restPollingConnectors = rebuild(restPollingConnectors, this::createRestPollingConnector);
+        log.info("Rebuilt ILS protocol connectors for institutions {}", connectors.keySet());
+    }
+
+    private static <T> T getOrCreate(Map<String, T> connectorsByInstitution, String institution, Function<String, T> connectorFactory) {
+        T connector = connectorsByInstitution.get(institution);
+        return connector != null ? connector : connectorsByInstitution.computeIfAbsent(institution, connectorFactory);
+    }
+
+    private static <T> Map<String, T> rebuild(Map<String, T> connectorsByInstitution, Function<String, T> connectorFactory) {
+        Map<String, T> rebuiltConnectors = new ConcurrentHashMap<>();
+        for (String institution : connectorsByInstitution.keySet()) {
+            try {
+                T connector = connectorFactory.apply(institution);
+                if (connector != null) {
+                    rebuiltConnectors.put(institution, connector);
+                }
+            } catch (RuntimeException e) {
+                log.error("Unable to rebuild the ILS protocol connector of {}", institution);
+                log.error(ScsbCommonConstants.LOG_ERROR, e);
+            }
+        }
+        return rebuiltConnectors;
+    }
+
+    private AbstractProtocolConnector createConnector(String institution) {
+        ILSConfigProperties ilsConfigProperties = propertyUtil.getILSConfigProperties(institution);
+        String protocol = ilsConfigProperties.getProtocol();
+        AbstractProtocolConnector connector = null;
+        if (ScsbConstants.SIP2_PROTOCOL.equalsIgnoreCase(protocol)) {
+            connector = applicationContext.getBean(SIPProtocolConnector.class);
+        } else if (ScsbConstants.REST_PROTOCOL.equalsIgnoreCase(protocol)) {
+            connector = applicationContext.getBean(RestProtocolConnector.class);
+        } else if (ScsbConstants.NCIP_PROTOCOL.equalsIgnoreCase(protocol)) {
+            connector = applicationContext.getBean(NCIPProtocolConnector.class);
+        }
+        if (connector != null) {
+            connector.setInstitution(institution);
+            connector.setIlsConfigProperties(ilsConfigProperties);
+        }
+        return connector;
+    }
+
+    private RestProtocolConnector createRestPollingConnector(String institution) {
+        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
+        ilsConfigProperties.setIlsRestDataApi(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_DATA_API));
+        ilsConfigProperties.setOauthTokenApiUrl(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_OAUTH_TOKEN_API_URL));
+        ilsConfigProperties.setOperatorUserId(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_SERVER_OPERATOR_USER_ID));
+        ilsConfigProperties.setOperatorPassword(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_SERVER_OPERATOR_PASSWORD));
+        RestProtocolConnector restProtocolConnector = applicationContext.getBean(RestProtocolConnector.class);
+        restProtocolConnector.setInstitution(institution);
+        restProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        return restProtocolConnector;
+    }
+}
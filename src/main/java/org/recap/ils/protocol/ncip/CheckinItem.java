@@ -12,8 +12,7 @@ import org.extensiblecatalog.ncip.v2.service.OnBehalfOfAgency;
 import org.json.JSONObject;
 import org.recap.ScsbConstants;
 import org.recap.model.jpa.ItemEntity;
-
-import java.text.SimpleDateFormat;
+import org.recap.util.DateUtil;
 
 @Slf4j
 public class CheckinItem extends ScsbNCIP {
@@ -63,9 +62,7 @@ public class CheckinItem extends ScsbNCIP {
 
         String dueDateString = "";
         if(checkinItemResponse.getItemOptionalFields() != null && checkinItemResponse.getItemOptionalFields().getDateDue() != null) {
-                SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-                formatter.setCalendar(checkinItemResponse.getItemOptionalFields().getDateDue());
-                dueDateString = formatter.format(checkinItemResponse.getItemOptionalFields().getDateDue().getTime());
+                dueDateString = DateUtil.NCIP_DUE_DATE_FORMATTER.format(checkinItemResponse.getItemOptionalFields().getDateDue().toZonedDateTime());
         }
         String itemId = checkinItemResponse.getItemId().getItemIdentifierValue();
         returnJson.put(ScsbConstants.ITEM_ID, itemId);
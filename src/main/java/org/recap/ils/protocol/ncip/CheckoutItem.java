@@ -11,8 +11,8 @@ import org.extensiblecatalog.ncip.v2.service.RequestId;
 import org.extensiblecatalog.ncip.v2.service.UserId;
 import org.json.JSONObject;
 import org.recap.ScsbConstants;
+import org.recap.util.DateUtil;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -62,9 +62,7 @@ public class CheckoutItem extends ScsbNCIP {
 
         String dueDateString = "";
         if (checkoutItemResponse.getDateDue() != null) {
-            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-            formatter.setCalendar(checkoutItemResponse.getDateDue());
-            dueDateString = formatter.format(checkoutItemResponse.getDateDue().getTime());
+            dueDateString = DateUtil.NCIP_DUE_DATE_FORMATTER.format(checkoutItemResponse.getDateDue().toZonedDateTime());
         }
         returnJson.put(ScsbConstants.ITEM_BARCODE, checkoutItemResponse.getItemId().getItemIdentifierValue());
         returnJson.put(ScsbConstants.PATRON_IDENTIFIER, checkoutItemResponse.getUserId().getUserIdentifierValue());
@@ -0,0 +1,94 @@
+package org.recap.ils.protocol.ncip;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.util.PropertyUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one {@link NCIPHttpClientPool} per institution and runs the eviction of expired and idle connections for all
+ * of them. The pools are sized per institution with the {@code ils.ncip.http.*} properties.
+ */
+@Slf4j
+@Component
+public class NCIPHttpClientManager {
+
+    @Autowired
+    private PropertyUtil propertyUtil;
+
+    @Value("${ils.ncip.http.eviction.interval.millis:10000}")
+    private long evictionIntervalMillis;
+
+    private final Map<String, NCIPHttpClientPool> httpClientPools = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService evictionScheduler;
+
+    @PostConstruct
+    public void startEviction() {
+        evictionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ncip-connection-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictionScheduler.scheduleWithFixedDelay(this::evictConnections, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictionScheduler != null) {
+            evictionScheduler.shutdownNow();
+        }
+        httpClientPools.values().forEach(NCIPHttpClientPool::close);
+        httpClientPools.clear();
+    }
+
+    /**
+     * Gets the pooled HTTP client of the institution.
+     *
+     * @param institutionCode the institution code
+     * @return the shared HTTP client, which must not be closed by the caller
+     */
+    public CloseableHttpClient getHttpClient(String institutionCode) {
+        return getHttpClientPool(institutionCode).getHttpClient();
+    }
+
+    public NCIPHttpClientPool getHttpClientPool(String institutionCode) {
+        return httpClientPools.computeIfAbsent(institutionCode, this::createHttpClientPool);
+    }
+
+    private NCIPHttpClientPool createHttpClientPool(String institutionCode) {
+        int maxConnections = NumberUtils.toInt(getProperty(institutionCode, ScsbConstants.ILS_NCIP_HTTP_MAX_CONNECTIONS), ScsbConstants.ILS_NCIP_HTTP_DEFAULT_MAX_CONNECTIONS);
+        long keepAliveSeconds = NumberUtils.toLong(getProperty(institutionCode, ScsbConstants.ILS_NCIP_HTTP_KEEP_ALIVE_SECONDS), ScsbConstants.ILS_NCIP_HTTP_DEFAULT_KEEP_ALIVE_SECONDS);
+        int maxWaitMillis = NumberUtils.toInt(getProperty(institutionCode, ScsbConstants.ILS_NCIP_HTTP_MAX_WAIT_MILLIS), ScsbConstants.ILS_NCIP_HTTP_DEFAULT_MAX_WAIT_MILLIS);
+        log.info("Creating NCIP http client pool for institution {} with {} connections and keep-alive {} s", institutionCode, maxConnections, keepAliveSeconds);
+        return new NCIPHttpClientPool(institutionCode, Math.max(1, maxConnections), TimeUnit.SECONDS.toMillis(keepAliveSeconds), maxWaitMillis);
+    }
+
+    private String getProperty(String institutionCode, String key) {
+        return StringUtils.trimToNull(propertyUtil.getPropertyByInstitutionAndKey(institutionCode, key));
+    }
+
+    private void evictConnections() {
+        for (NCIPHttpClientPool httpClientPool : httpClientPools.values()) {
+            try {
+                httpClientPool.evictConnections();
+            } catch (RuntimeException e) {
+                log.error(ScsbCommonConstants.LOG_ERROR, e);
+            }
+        }
+    }
+}
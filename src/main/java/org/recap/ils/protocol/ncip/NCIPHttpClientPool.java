@@ -0,0 +1,89 @@
+package org.recap.ils.protocol.ncip;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.recap.ScsbCommonConstants;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client of one NCIP institution over a bounded pool of keep-alive connections. The client is shared: callers
+ * must not close it, and must consume the entity of every response so that the connection goes back to the pool.
+ */
+@Slf4j
+public class NCIPHttpClientPool {
+
+    private final String institutionCode;
+    private final int maxConnections;
+    private final long keepAliveMillis;
+    private final int maxWaitMillis;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    public NCIPHttpClientPool(String institutionCode, int maxConnections, long keepAliveMillis, int maxWaitMillis) {
+        this.institutionCode = institutionCode;
+        this.maxConnections = maxConnections;
+        this.keepAliveMillis = keepAliveMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.connectionManager = new PoolingHttpClientConnectionManager(keepAliveMillis, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom().setConnectionRequestTimeout(maxWaitMillis).build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? Math.min(keepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                .build();
+    }
+
+    public String getInstitutionCode() {
+        return institutionCode;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public int getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public int getLeasedConnectionCount() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    public int getAvailableConnectionCount() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Closes connections that are past their keep-alive or have been idle for longer than the keep-alive.
+     */
+    public void evictConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+        }
+    }
+}
@@ -7,8 +7,7 @@ import org.extensiblecatalog.ncip.v2.service.RecallItemResponseData;
 import org.extensiblecatalog.ncip.v2.service.UserId;
 import org.json.JSONObject;
 import org.recap.ScsbConstants;
-
-import java.text.SimpleDateFormat;
+import org.recap.util.DateUtil;
 
 public class RecallItem extends ScsbNCIP {
 
@@ -37,9 +36,7 @@ public class RecallItem extends ScsbNCIP {
 
         String dueDateString = "";
         if (recallItemResponseData.getDateDue() != null) {
-            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-            formatter.setCalendar(recallItemResponseData.getDateDue());
-            dueDateString = formatter.format(recallItemResponseData.getDateDue().getTime());
+            dueDateString = DateUtil.NCIP_DUE_DATE_FORMATTER.format(recallItemResponseData.getDateDue().toZonedDateTime());
         }
 
         returnJson.put(ScsbConstants.ITEM_ID, recallItemResponseData.getItemId().getItemIdentifierValue());
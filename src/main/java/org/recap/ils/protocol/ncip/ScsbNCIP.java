@@ -1,7 +1,6 @@
 package org.recap.ils.protocol.ncip;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.extensiblecatalog.ncip.v2.service.AgencyId;
 import org.extensiblecatalog.ncip.v2.service.ApplicationProfileType;
 import org.extensiblecatalog.ncip.v2.service.FromAgencyId;
@@ -15,11 +14,11 @@ import org.extensiblecatalog.ncip.v2.service.ValidationException;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.recap.ScsbConstants;
+import org.recap.ils.protocol.ncip.util.NCIPRequestFormatter;
 import org.recap.ils.protocol.ncip.util.NCIPToolKitUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 @Slf4j
@@ -42,12 +41,14 @@ public class ScsbNCIP {
         returnJson.put("problems", array);
         return returnJson;
     }
-    public String getRequestBody(NCIPToolKitUtil ncipToolkitUtil, NCIPInitiationData ncipInitiationData) throws ServiceException, ValidationException, IOException
+    /**
+     * Gets the request message of the initiation data, formatted for the ILS by {@link NCIPRequestFormatter} while it is
+     * read from the toolkit stream.
+     */
+    public byte[] getRequestBody(NCIPToolKitUtil ncipToolkitUtil, NCIPInitiationData ncipInitiationData) throws ServiceException, ValidationException, IOException
     {
-        String requestBody = "";
-            InputStream requestMessageStream = ncipToolkitUtil.translator.createInitiationMessageStream(ncipToolkitUtil.serviceContext, ncipInitiationData);
-            requestBody = IOUtils.toString(requestMessageStream, StandardCharsets.UTF_8);
-        return requestBody;
+        InputStream requestMessageStream = ncipToolkitUtil.translator.createInitiationMessageStream(ncipToolkitUtil.serviceContext, ncipInitiationData);
+        return NCIPRequestFormatter.format(requestMessageStream);
     }
 
     public ApplicationProfileType getApplicationProfileType() {
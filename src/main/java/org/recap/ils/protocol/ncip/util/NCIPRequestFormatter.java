@@ -0,0 +1,120 @@
+package org.recap.ils.protocol.ncip.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Rewrites an NCIP request message from the toolkit into the form the ILS expects in one pass over the bytes of the
+ * message, the equivalent of the former {@code CommonUtil.formatRequest} string passes. Element tags get the
+ * {@code ns1:} prefix, and the {@code xmlns:nsN} declarations and the {@code nsN:version} and {@code nsN:Scheme}
+ * attributes are renamed to {@code ns1}. The message is read straight from the toolkit stream into the bytes of the
+ * HTTP entity, without building a String of the message.
+ */
+public final class NCIPRequestFormatter {
+
+    private static final byte[] START_TAG = {'<', 'n', 's', '1', ':'};
+    private static final byte[] END_TAG = {'<', '/', 'n', 's', '1', ':'};
+    private static final byte[] XMLNS = {'x', 'm', 'l', 'n', 's', ':', 'n', 's'};
+    private static final byte[] VERSION = {'v', 'e', 'r', 's', 'i', 'o', 'n'};
+    private static final byte[] SCHEME = {'S', 'c', 'h', 'e', 'm', 'e'};
+    private static final byte PREFIX_NUMBER = '1';
+    private static final int MAX_REWRITE_LENGTH = XMLNS.length + 1;
+
+    private NCIPRequestFormatter() {
+    }
+
+    /**
+     * Formats the request message.
+     *
+     * @param requestMessageStream the request message stream of the NCIP toolkit
+     * @return the formatted request message
+     * @throws IOException if the stream cannot be read
+     */
+    public static byte[] format(InputStream requestMessageStream) throws IOException {
+        return format(requestMessageStream.readAllBytes());
+    }
+
+    /**
+     * Formats the request message.
+     *
+     * @param requestBody the request message
+     * @return the formatted request message
+     */
+    public static String format(String requestBody) {
+        return new String(format(requestBody.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats the request message.
+     *
+     * @param message the UTF-8 encoded request message
+     * @return the formatted request message
+     */
+    public static byte[] format(byte[] message) {
+        int length = message.length;
+        byte[] formatted = new byte[length + length / 4 + MAX_REWRITE_LENGTH];
+        int size = 0;
+        int i = 0;
+        while (i < length) {
+            if (formatted.length - size < MAX_REWRITE_LENGTH) {
+                formatted = Arrays.copyOf(formatted, formatted.length * 2);
+            }
+            byte current = message[i];
+            if (current == '<' && i + 1 < length && message[i + 1] == '/') {
+                System.arraycopy(END_TAG, 0, formatted, size, END_TAG.length);
+                size += END_TAG.length;
+                i += 2;
+            } else if (current == '<' && i > 0 && i + 1 < length && isTagNameStart(message[i + 1])) {
+                System.arraycopy(START_TAG, 0, formatted, size, START_TAG.length);
+                size += START_TAG.length;
+                i++;
+            } else if (current == 'x' && startsWith(message, i, XMLNS) && isDigitAt(message, i + XMLNS.length)) {
+                System.arraycopy(XMLNS, 0, formatted, size, XMLNS.length);
+                size += XMLNS.length;
+                formatted[size++] = PREFIX_NUMBER;
+                i += XMLNS.length + 1;
+            } else if (current == 'n' && isNumberedAttribute(message, i)) {
+                formatted[size++] = 'n';
+                formatted[size++] = 's';
+                formatted[size++] = PREFIX_NUMBER;
+                i += 3;
+            } else {
+                formatted[size++] = current;
+                i++;
+            }
+        }
+        return Arrays.copyOf(formatted, size);
+    }
+
+    /**
+     * Matches the {@code nsN:version} and {@code nsN:Scheme} attribute names at the index.
+     */
+    private static boolean isNumberedAttribute(byte[] message, int index) {
+        if (index + 4 >= message.length || message[index + 1] != 's' || !isDigitAt(message, index + 2) || message[index + 3] != ':') {
+            return false;
+        }
+        return startsWith(message, index + 4, VERSION) || startsWith(message, index + 4, SCHEME);
+    }
+
+    private static boolean isTagNameStart(byte value) {
+        return value > 64 && value <= 122;
+    }
+
+    private static boolean isDigitAt(byte[] message, int index) {
+        return index < message.length && message[index] >= '0' && message[index] <= '9';
+    }
+
+    private static boolean startsWith(byte[] message, int index, byte[] prefix) {
+        if (index + prefix.length > message.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (message[index + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
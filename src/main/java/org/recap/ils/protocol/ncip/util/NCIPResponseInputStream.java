@@ -0,0 +1,113 @@
+package org.recap.ils.protocol.ncip.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Streams an NCIP response with the {@code ns1:} prefix removed from element tags, the streaming equivalent of
+ * {@code CommonUtil.formatResponse}. The response can then be handed to the NCIP toolkit translator straight from the
+ * socket, without copying the body into a String first.
+ */
+public class NCIPResponseInputStream extends FilterInputStream {
+
+    private static final byte[] PREFIX = {'n', 's', '1', ':'};
+    private static final int LOOK_AHEAD = PREFIX.length + 1;
+
+    private final PushbackInputStream pushbackInputStream;
+    private final byte[] lookAhead = new byte[LOOK_AHEAD];
+
+    public NCIPResponseInputStream(InputStream inputStream) {
+        this(new PushbackInputStream(inputStream, LOOK_AHEAD));
+    }
+
+    private NCIPResponseInputStream(PushbackInputStream pushbackInputStream) {
+        super(pushbackInputStream);
+        this.pushbackInputStream = pushbackInputStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int current = pushbackInputStream.read();
+        if (current == '<') {
+            stripPrefix();
+        }
+        return current;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < length) {
+            int current = read();
+            if (current == -1) {
+                return count == 0 ? -1 : count;
+            }
+            buffer[offset + count++] = (byte) current;
+            if (pushbackInputStream.available() == 0) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && read() != -1) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        // mark is not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void stripPrefix() throws IOException {
+        int read = 0;
+        while (read < LOOK_AHEAD) {
+            int count = pushbackInputStream.read(lookAhead, read, LOOK_AHEAD - read);
+            if (count == -1) {
+                break;
+            }
+            read += count;
+        }
+        int prefixStart = read > 0 && lookAhead[0] == '/' ? 1 : 0;
+        if (hasPrefixAt(prefixStart, read)) {
+            int remaining = read - prefixStart - PREFIX.length;
+            System.arraycopy(lookAhead, prefixStart + PREFIX.length, lookAhead, prefixStart, remaining);
+            read = prefixStart + remaining;
+        }
+        if (read > 0) {
+            pushbackInputStream.unread(lookAhead, 0, read);
+        }
+    }
+
+    private boolean hasPrefixAt(int start, int read) {
+        if (read - start < PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < PREFIX.length; i++) {
+            if (lookAhead[start + i] != PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,35 +3,42 @@ package org.recap.ils.protocol.rest.processor;
 import lombok.extern.slf4j.Slf4j;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
-import org.recap.ils.protocol.rest.callable.RestJobResponsePollingCallable;
 import org.recap.ils.connector.RestProtocolConnector;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
 import org.recap.ils.protocol.rest.model.JobData;
 import org.recap.ils.protocol.rest.model.response.JobResponse;
 import org.recap.ils.protocol.rest.util.RestApiResponseUtil;
-import org.recap.model.ILSConfigProperties;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by rajeshbabuk on 08/Jan/2021
+ *
+ * Polls the job status of all outstanding REST ILS jobs from one shared scheduler. Every tick the due jobs are grouped
+ * by institution and each group is polled as one batch, spread over up to {@code ils.rest.polling.concurrency.per.institution}
+ * concurrent polls on the shared polling threads; unfinished jobs are polled again after a growing interval and jobs
+ * still running after {@code ILS_REST_POLLING_MAX_TIMEOUT} seconds are timed out.
+ * <p>
+ * No thread is held per job by the poller itself. {@link #pollRestApiRequestItemJobResponse} still makes its caller wait
+ * for the job, as the ILS connector operations return their response synchronously; {@link #submitRestApiRequestItemJob}
+ * returns the future for callers which must not wait.
  */
 @Slf4j
 @Component
 public class RestProtocolJobResponsePollingProcessor {
 
-
-    private Integer pollingMaxTimeOut;
-    private Integer pollingTimeInterval;
-
-    /**
-     * The Rest api service connector.
-     */
-    @Autowired
-    RestProtocolConnector restProtocolConnector;
-
     /**
      * The Rest api response util.
      */
@@ -41,59 +48,238 @@ public class RestProtocolJobResponsePollingProcessor {
     @Autowired
     PropertyUtil propertyUtil;
 
+    @Autowired
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @Value("${ils.rest.polling.threads:16}")
+    private int pollingThreads;
+
+    @Value("${ils.rest.polling.concurrency.per.institution:8}")
+    private int pollingConcurrencyPerInstitution;
+
+    @Value("${ils.rest.polling.tick.millis:100}")
+    private long pollingTickMillis;
+
+    @Value("${ils.rest.polling.batch.size:100}")
+    private int pollingBatchSize;
+
+    @Value("${ils.rest.polling.backoff.multiplier:1.5}")
+    private double pollingBackoffMultiplier;
+
+    @Value("${ils.rest.polling.backoff.max.millis:10000}")
+    private long pollingBackoffMaxMillis;
+
+    private final Map<String, PollingJob> pollingJobs = new ConcurrentHashMap<>();
+    private final Set<String> institutionsInPoll = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService pollingScheduler;
+    private ExecutorService pollingExecutor;
+
+    @PostConstruct
+    public void startPolling() {
+        AtomicInteger threadCount = new AtomicInteger();
+        pollingExecutor = Executors.newFixedThreadPool(Math.max(1, pollingThreads), runnable -> {
+            Thread thread = new Thread(runnable, "rest-job-poller-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollingScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rest-job-poll-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollingScheduler.scheduleWithFixedDelay(this::pollDueJobs, pollingTickMillis, pollingTickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pollingScheduler != null) {
+            pollingScheduler.shutdownNow();
+        }
+        if (pollingExecutor != null) {
+            pollingExecutor.shutdownNow();
+        }
+        pollingJobs.values().forEach(pollingJob -> pollingJob.getJobResponse().cancel(false));
+        pollingJobs.clear();
+    }
+
     /**
-     * Poll rest request item job response job response.
+     * Poll rest request item job response job response. The calling thread waits until the job is finished or timed out.
      *
      * @param jobId the job id
      * @return the job response
      */
     public JobResponse pollRestApiRequestItemJobResponse(String jobId, String institution) {
         JobResponse jobResponse = new JobResponse();
-        ExecutorService executor = Executors.newSingleThreadExecutor();
         try {
-            ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
-            ilsConfigProperties.setIlsRestDataApi(propertyUtil.getPropertyByInstitutionAndKey(institution,PropertyKeyConstants.ILS.ILS_REST_DATA_API));
-            ilsConfigProperties.setOauthTokenApiUrl(propertyUtil.getPropertyByInstitutionAndKey(institution,PropertyKeyConstants.ILS.ILS_OAUTH_TOKEN_API_URL));
-            ilsConfigProperties.setOperatorUserId(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_SERVER_OPERATOR_USER_ID));
-            ilsConfigProperties.setOperatorPassword(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_SERVER_OPERATOR_PASSWORD));
-            pollingMaxTimeOut = Integer.valueOf(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT));
-            pollingTimeInterval = Integer.valueOf(propertyUtil.getPropertyByInstitutionAndKey(institution,PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL));
-            restProtocolConnector.setInstitution(institution);
-            restProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
-            Future<JobResponse> future = executor.submit(new RestJobResponsePollingCallable(jobId, pollingTimeInterval, restProtocolConnector));
-            log.info("Polling on job id {} started", jobId);
-            jobResponse = future.get(pollingMaxTimeOut, TimeUnit.SECONDS);
+            jobResponse = getJobResponse(submitRestApiRequestItemJob(jobId, institution));
             JobData jobData = jobResponse.getData();
             if (null != jobData) {
                 jobResponse.setStatusMessage(restApiResponseUtil.getJobStatusMessage(jobData));
             }
-            executor.shutdown();
             return jobResponse;
         } catch (InterruptedException e) {
             log.error("{} job response interrupted for job id -> {} ", institution, jobId);
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
             Thread.currentThread().interrupt();
-            executor.shutdownNow();
             jobResponse.setStatusMessage(institution + " job response interrupted : " + e.getMessage());
             return jobResponse;
         } catch (ExecutionException e) {
             log.error("{} job response execution failed for job id -> {} ", institution, jobId);
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
-            executor.shutdownNow();
             jobResponse.setStatusMessage(institution + " job response execution failed : " + e.getMessage());
             return jobResponse;
         } catch (TimeoutException e) {
             log.error("{} job response polling timed out for job id -> {} ",institution, jobId);
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
-            executor.shutdownNow();
             jobResponse.setStatusMessage(institution + " job response polling timed out : " + e.getMessage());
             return jobResponse;
         } catch (Exception e) {
             log.error("{} job response polling failed for job id -> {} ", institution, jobId);
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
-            executor.shutdownNow();
             jobResponse.setStatusMessage(institution + " job response polling failed : " + e.getMessage());
             return jobResponse;
         }
     }
+
+    /**
+     * Registers the job for polling without waiting for it to finish.
+     *
+     * @param jobId       the job id
+     * @param institution the institution
+     * @return the future completed with the response of the finished job, or exceptionally with a {@link TimeoutException}
+     * when the job does not finish within the polling max timeout of the institution
+     */
+    public CompletableFuture<JobResponse> submitRestApiRequestItemJob(String jobId, String institution) {
+        long pollingTimeInterval = Long.parseLong(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL));
+        long pollingMaxTimeOut = Long.parseLong(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT));
+        if (pollingScheduler == null || pollingScheduler.isShutdown()) {
+            throw new RejectedExecutionException("REST job poller is not running");
+        }
+        String pollingJobKey = institution + ":" + jobId;
+        PollingJob pollingJob = new PollingJob(jobId, institution, pollingTimeInterval);
+        PollingJob outstandingJob = pollingJobs.putIfAbsent(pollingJobKey, pollingJob);
+        if (outstandingJob != null) {
+            return outstandingJob.getJobResponse();
+        }
+        pollingJob.getJobResponse()
+                .orTimeout(pollingMaxTimeOut, TimeUnit.SECONDS)
+                .whenComplete((jobResponse, throwable) -> pollingJobs.remove(pollingJobKey, pollingJob));
+        log.info("Polling on job id {} started", jobId);
+        return pollingJob.getJobResponse();
+    }
+
+    public int getOutstandingJobCount() {
+        return (int) pollingJobs.values().stream().filter(pollingJob -> !pollingJob.getJobResponse().isDone()).count();
+    }
+
+    private void pollDueJobs() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, List<PollingJob>> dueJobsByInstitution = new HashMap<>();
+            for (PollingJob pollingJob : pollingJobs.values()) {
+                if (pollingJob.isDue(now) && !institutionsInPoll.contains(pollingJob.getInstitution())) {
+                    List<PollingJob> dueJobs = dueJobsByInstitution.computeIfAbsent(pollingJob.getInstitution(), institution -> new ArrayList<>());
+                    if (dueJobs.size() < pollingBatchSize) {
+                        dueJobs.add(pollingJob);
+                    }
+                }
+            }
+            dueJobsByInstitution.forEach((institution, dueJobs) -> {
+                if (institutionsInPoll.add(institution)) {
+                    pollBatch(institution, dueJobs);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+        }
+    }
+
+    /**
+     * Spreads the due jobs of the institution over its concurrent polls, each polling its jobs one after another on the
+     * polling threads, and lets the next batch of the institution start once all of them are done.
+     */
+    private void pollBatch(String institution, List<PollingJob> dueJobs) {
+        try {
+            RestProtocolConnector restProtocolConnector = ilsProtocolConnectorRegistry.getRestPollingConnector(institution);
+            int concurrentPolls = Math.max(1, Math.min(pollingConcurrencyPerInstitution, dueJobs.size()));
+            List<CompletableFuture<Void>> polls = new ArrayList<>(concurrentPolls);
+            for (int concurrentPoll = 0; concurrentPoll < concurrentPolls; concurrentPoll++) {
+                List<PollingJob> pollingJobs = new ArrayList<>();
+                for (int index = concurrentPoll; index < dueJobs.size(); index += concurrentPolls) {
+                    pollingJobs.add(dueJobs.get(index));
+                }
+                polls.add(CompletableFuture.runAsync(() -> pollingJobs.forEach(pollingJob -> poll(restProtocolConnector, pollingJob)), pollingExecutor));
+            }
+            CompletableFuture.allOf(polls.toArray(new CompletableFuture[0])).whenComplete((result, throwable) -> institutionsInPoll.remove(institution));
+        } catch (Exception e) {
+            log.error("{} job response polling failed", institution);
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            dueJobs.forEach(pollingJob -> pollingJob.getJobResponse().completeExceptionally(e));
+            institutionsInPoll.remove(institution);
+        }
+    }
+
+    private void poll(RestProtocolConnector restProtocolConnector, PollingJob pollingJob) {
+        if (pollingJob.getJobResponse().isDone()) {
+            return;
+        }
+        try {
+            JobResponse jobResponse = restProtocolConnector.queryForJob(pollingJob.getJobId());
+            if (Boolean.TRUE.equals(jobResponse.getData().getFinished())) {
+                pollingJob.getJobResponse().complete(jobResponse);
+            } else {
+                pollingJob.backOff(System.currentTimeMillis(), pollingBackoffMultiplier, pollingBackoffMaxMillis);
+            }
+        } catch (Exception e) {
+            pollingJob.getJobResponse().completeExceptionally(e);
+        }
+    }
+
+    private static JobResponse getJobResponse(CompletableFuture<JobResponse> jobResponseFuture) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return jobResponseFuture.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class PollingJob {
+        private final String jobId;
+        private final String institution;
+        private final CompletableFuture<JobResponse> jobResponse = new CompletableFuture<>();
+        private volatile long pollingInterval;
+        private volatile long nextPollAt;
+
+        private PollingJob(String jobId, String institution, long pollingInterval) {
+            this.jobId = jobId;
+            this.institution = institution;
+            this.pollingInterval = pollingInterval;
+            this.nextPollAt = System.currentTimeMillis();
+        }
+
+        private String getJobId() {
+            return jobId;
+        }
+
+        private String getInstitution() {
+            return institution;
+        }
+
+        private CompletableFuture<JobResponse> getJobResponse() {
+            return jobResponse;
+        }
+
+        private boolean isDue(long now) {
+            return now >= nextPollAt && !jobResponse.isDone();
+        }
+
+        private void backOff(long now, double multiplier, long maxPollingInterval) {
+            nextPollAt = now + pollingInterval;
+            pollingInterval = Math.max(pollingInterval, Math.min(maxPollingInterval, (long) (pollingInterval * multiplier)));
+        }
+    }
 }
@@ -1,22 +1,119 @@
 package org.recap.ils.protocol.rest.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.codehaus.jettison.json.JSONObject;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Base64Utils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created by rajeshbabuk on 08/Jan/2021
  */
+@Slf4j
 @Service
 public class RestOauthTokenApiService {
 
     @Autowired
     RestTemplate restTemplate;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${ils.rest.oauth.token.refresh.before.expiry.seconds:60}")
+    long refreshBeforeExpirySeconds;
+
+    @Value("${ils.rest.oauth.token.default.expiry.seconds:300}")
+    long defaultExpirySeconds;
+
+    Clock clock = Clock.systemUTC();
+
+    private final Map<String, OauthAccessToken> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<OauthAccessToken>> tokenRefreshes = new ConcurrentHashMap<>();
+
     public String generateAccessTokenForRestApi(String oauthTokenApiUrl, String operatorUserId, String operatorPassword) throws Exception {
+        return requestAccessToken(oauthTokenApiUrl, operatorUserId, operatorPassword).getAccessToken();
+    }
+
+    /**
+     * Gets the cached access token of the institution, requesting a new one when there is none or it has expired.
+     * A token close to expiry is refreshed by one caller while concurrent callers keep using the current token.
+     *
+     * @param institutionCode  the institution code
+     * @param oauthTokenApiUrl the oauth token api url
+     * @param operatorUserId   the operator user id
+     * @param operatorPassword the operator password
+     * @return the access token
+     * @throws Exception the exception
+     */
+    public String getAccessTokenForRestApi(String institutionCode, String oauthTokenApiUrl, String operatorUserId, String operatorPassword) throws Exception {
+        long now = clock.millis();
+        OauthAccessToken accessToken = accessTokens.get(institutionCode);
+        if (accessToken != null && accessToken.isIssuedFor(oauthTokenApiUrl, operatorUserId) && !accessToken.isExpired(now)) {
+            if (accessToken.isDueForRefresh(now) && !tokenRefreshes.containsKey(institutionCode)) {
+                try {
+                    return refreshAccessToken(institutionCode, oauthTokenApiUrl, operatorUserId, operatorPassword).getAccessToken();
+                } catch (Exception e) {
+                    log.error(ScsbCommonConstants.LOG_ERROR, e);
+                }
+            }
+            incrementCounter(institutionCode, ScsbConstants.OAUTH_TOKEN_CACHE_HIT);
+            return accessToken.getAccessToken();
+        }
+        incrementCounter(institutionCode, ScsbConstants.OAUTH_TOKEN_CACHE_MISS);
+        return refreshAccessToken(institutionCode, oauthTokenApiUrl, operatorUserId, operatorPassword).getAccessToken();
+    }
+
+    /**
+     * Drops the cached access token of the institution, e.g. after the REST API rejected it.
+     *
+     * @param institutionCode the institution code
+     */
+    public void invalidateAccessToken(String institutionCode) {
+        accessTokens.remove(institutionCode);
+    }
+
+    private OauthAccessToken refreshAccessToken(String institutionCode, String oauthTokenApiUrl, String operatorUserId, String operatorPassword) throws Exception {
+        CompletableFuture<OauthAccessToken> tokenRefresh = new CompletableFuture<>();
+        CompletableFuture<OauthAccessToken> inFlightRefresh = tokenRefreshes.putIfAbsent(institutionCode, tokenRefresh);
+        if (inFlightRefresh != null) {
+            try {
+                return inFlightRefresh.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (Exception) e.getCause();
+            }
+        }
+        try {
+            OauthAccessToken accessToken = requestAccessToken(oauthTokenApiUrl, operatorUserId, operatorPassword);
+            accessTokens.put(institutionCode, accessToken);
+            incrementCounter(institutionCode, ScsbConstants.OAUTH_TOKEN_CACHE_REFRESH);
+            tokenRefresh.complete(accessToken);
+            return accessToken;
+        } catch (Exception | Error e) {
+            tokenRefresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            tokenRefreshes.remove(institutionCode, tokenRefresh);
+        }
+    }
+
+    private OauthAccessToken requestAccessToken(String oauthTokenApiUrl, String operatorUserId, String operatorPassword) throws Exception {
         String authorization = "Basic " + new String(Base64Utils.encode((operatorUserId + ":" + operatorPassword).getBytes()));
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
@@ -25,6 +122,47 @@ public class RestOauthTokenApiService {
         HttpEntity<String> requestEntity = new HttpEntity<>("grant_type=client_credentials", headers);
         ResponseEntity<String> responseEntity = restTemplate.exchange(oauthTokenApiUrl, HttpMethod.POST, requestEntity, String.class);
         JSONObject jsonObject = new JSONObject(responseEntity.getBody());
-        return (String) jsonObject.get("access_token");
+        long expiresInSeconds = jsonObject.optLong("expires_in", defaultExpirySeconds);
+        long expiresInMillis = TimeUnit.SECONDS.toMillis(expiresInSeconds);
+        long refreshBeforeExpiryMillis = Math.min(TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds), expiresInMillis / 2);
+        long issuedAt = clock.millis();
+        return new OauthAccessToken((String) jsonObject.get("access_token"), oauthTokenApiUrl, operatorUserId,
+                issuedAt + expiresInMillis, issuedAt + expiresInMillis - refreshBeforeExpiryMillis);
+    }
+
+    private void incrementCounter(String institutionCode, String result) {
+        meterRegistry.counter(ScsbConstants.OAUTH_TOKEN_CACHE_METRIC, ScsbConstants.METRIC_TAG_INSTITUTION, String.valueOf(institutionCode), ScsbConstants.METRIC_TAG_RESULT, result).increment();
+    }
+
+    private static class OauthAccessToken {
+        private final String accessToken;
+        private final String oauthTokenApiUrl;
+        private final String operatorUserId;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        private OauthAccessToken(String accessToken, String oauthTokenApiUrl, String operatorUserId, long expiresAt, long refreshAt) {
+            this.accessToken = accessToken;
+            this.oauthTokenApiUrl = oauthTokenApiUrl;
+            this.operatorUserId = operatorUserId;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        private String getAccessToken() {
+            return accessToken;
+        }
+
+        private boolean isIssuedFor(String oauthTokenApiUrl, String operatorUserId) {
+            return Objects.equals(this.oauthTokenApiUrl, oauthTokenApiUrl) && Objects.equals(this.operatorUserId, operatorUserId);
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private boolean isDueForRefresh(long now) {
+            return now >= refreshAt;
+        }
     }
 }
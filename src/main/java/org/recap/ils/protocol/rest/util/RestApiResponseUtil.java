@@ -3,7 +3,6 @@ package org.recap.ils.protocol.rest.util;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbConstants;
 import org.recap.ScsbCommonConstants;
@@ -31,6 +30,7 @@ import org.recap.model.response.ItemRecallResponse;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.response.ItemRefileResponse;
 import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.util.DateUtil;
 import org.recap.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +38,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 
@@ -101,15 +101,11 @@ public class RestApiResponseUtil {
     }
 
     private String formatFromSipDate(String sipDate) {
-        SimpleDateFormat sipFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-        SimpleDateFormat requiredFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-        return requiredFormattedDate(sipDate, sipFormat, requiredFormat);
+        return requiredFormattedDate(sipDate, DateUtil.REST_DATE_TIME_FORMATTER, DateUtil.DATE_FORMATTER);
     }
 
     private String formatDueDate(String sipDate) {
-        SimpleDateFormat sipFormat = new SimpleDateFormat("yyyy-MM-dd");
-        SimpleDateFormat requiredFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-        return requiredFormattedDate(sipDate, sipFormat, requiredFormat);
+        return requiredFormattedDate(sipDate, DateUtil.REST_HOLD_DATE_FORMATTER, DateUtil.DATE_FORMATTER);
     }
 
     /**
@@ -279,15 +275,11 @@ public class RestApiResponseUtil {
      * @throws Exception the exception
      */
     public String getExpirationDateForRest() throws Exception {
-        Date expirationDate = DateUtils.addYears(new Date(), 1);
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(ScsbConstants.REST_HOLD_DATE_FORMAT);
-        return simpleDateFormat.format(expirationDate);
+        return DateUtil.REST_HOLD_DATE_FORMATTER.format(LocalDateTime.now().plusYears(1));
     }
 
     public String expirationDateForRest() throws Exception {
-        Date expirationDate = DateUtils.addYears(new Date(), 1);
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-        return simpleDateFormat.format(expirationDate);
+        return DateUtil.DATE_FORMATTER.format(LocalDateTime.now().plusYears(1));
     }
 
     /**
@@ -309,13 +301,11 @@ public class RestApiResponseUtil {
         return institutionCode;
     }
     
-    private String requiredFormattedDate(String sipDate, SimpleDateFormat sipFormat, SimpleDateFormat requiredFormat)
+    private String requiredFormattedDate(String sipDate, DateTimeFormatter sipFormat, DateTimeFormatter requiredFormat)
     {
         String reformattedStr = "";
         try {
-            if (sipDate != null && sipDate.trim().length() > 0) {
-                reformattedStr = requiredFormat.format(sipFormat.parse(sipDate));
-            }
+            reformattedStr = DateUtil.reformat(sipDate, sipFormat, requiredFormat);
         } catch (ParseException e) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
         }
@@ -0,0 +1,259 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import com.pkrete.jsip2.messages.requests.SIP2LoginRequest;
+import com.pkrete.jsip2.messages.requests.SIP2SCStatusRequest;
+import com.pkrete.jsip2.messages.responses.SIP2LoginResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.recap.ScsbCommonConstants;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of connected and logged-in SIP2 sessions for a single institution.
+ * A session is borrowed for one circulation operation and returned afterwards, so the TCP connect and
+ * SIP2 login handshake are paid once per session instead of once per operation.
+ */
+@Slf4j
+public class SIP2SessionPool {
+
+    @Getter
+    private final String institutionCode;
+    @Getter
+    private final String host;
+    @Getter
+    private final int port;
+    @Getter
+    private final String operatorUserId;
+    @Getter
+    private final String operatorPassword;
+    @Getter
+    private final String operatorLocation;
+    @Getter
+    private final int maxSize;
+    @Getter
+    private final long maxWaitMillis;
+    @Getter
+    private final long keepAliveMillis;
+
+    private final Semaphore permits;
+    private final BlockingDeque<IdleSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Set<SIP2SocketConnection> borrowedSessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public SIP2SessionPool(String institutionCode, String host, int port, String operatorUserId, String operatorPassword,
+                           String operatorLocation, int maxSize, long maxWaitMillis, long keepAliveMillis) {
+        this.institutionCode = institutionCode;
+        this.host = host;
+        this.port = port;
+        this.operatorUserId = operatorUserId;
+        this.operatorPassword = operatorPassword;
+        this.operatorLocation = operatorLocation;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.keepAliveMillis = keepAliveMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a logged-in session, waiting up to the configured wait timeout for one to become available.
+     *
+     * @return the session, or null if none could be borrowed or opened in time
+     */
+    public SIP2SocketConnection borrow() {
+        if (closed) {
+            return null;
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {} ms waiting for a SIP2 session for institution {}", maxWaitMillis, institutionCode);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            IdleSession idleSession;
+            while ((idleSession = idleSessions.pollFirst()) != null) {
+                if (isHealthy(idleSession.getConnection())) {
+                    return lend(idleSession.getConnection());
+                }
+                closeQuietly(idleSession.getConnection());
+            }
+            SIP2SocketConnection connection = openSession();
+            if (connection != null) {
+                return lend(connection);
+            }
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+        }
+        permits.release();
+        return null;
+    }
+
+    /**
+     * Hands out a session, unless the pool was closed while it was being borrowed: a closed pool may already have been
+     * forgotten by its manager, so nothing would return the session to it.
+     */
+    private SIP2SocketConnection lend(SIP2SocketConnection connection) {
+        borrowedSessions.add(connection);
+        if (closed) {
+            invalidate(connection);
+            return null;
+        }
+        return connection;
+    }
+
+    /**
+     * Returns a borrowed session to the pool. Sessions whose socket is no longer usable are closed instead.
+     *
+     * @param connection the connection
+     */
+    public void release(SIP2SocketConnection connection) {
+        if (!borrowedSessions.remove(connection)) {
+            return;
+        }
+        if (closed || !isHealthy(connection)) {
+            closeQuietly(connection);
+        } else {
+            idleSessions.offerFirst(new IdleSession(connection, System.currentTimeMillis()));
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes a borrowed session and frees its slot, e.g. after an invalid or missing SIP2 response left the
+     * session in an unknown state.
+     *
+     * @param connection the connection
+     */
+    public void invalidate(SIP2SocketConnection connection) {
+        if (borrowedSessions.remove(connection)) {
+            closeQuietly(connection);
+            permits.release();
+        }
+    }
+
+    public boolean isBorrowed(SIP2SocketConnection connection) {
+        return borrowedSessions.contains(connection);
+    }
+
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    public int getBorrowedCount() {
+        return borrowedSessions.size();
+    }
+
+    /**
+     * Sends an SC status message on every session that has been idle longer than the keep-alive interval,
+     * discarding the ones that no longer answer.
+     */
+    public void keepAlive() {
+        long now = System.currentTimeMillis();
+        List<IdleSession> staleSessions = new ArrayList<>();
+        for (IdleSession idleSession : idleSessions) {
+            if (now - idleSession.getIdleSince() >= keepAliveMillis) {
+                staleSessions.add(idleSession);
+            }
+        }
+        for (IdleSession idleSession : staleSessions) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                if (idleSessions.remove(idleSession)) {
+                    SIP2SocketConnection connection = idleSession.getConnection();
+                    if (ping(connection)) {
+                        idleSessions.offerLast(new IdleSession(connection, System.currentTimeMillis()));
+                    } else {
+                        log.info("Discarding unresponsive SIP2 session for institution {}", institutionCode);
+                        closeQuietly(connection);
+                    }
+                }
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Closes the idle sessions and stops lending new ones. Sessions that are still borrowed are closed when they are
+     * released or invalidated.
+     */
+    public void close() {
+        closed = true;
+        IdleSession idleSession;
+        while ((idleSession = idleSessions.pollFirst()) != null) {
+            closeQuietly(idleSession.getConnection());
+        }
+    }
+
+    protected SIP2SocketConnection createConnection() {
+        return new SIP2SocketConnection(host, port);
+    }
+
+    private SIP2SocketConnection openSession() {
+        SIP2SocketConnection connection = createConnection();
+        try {
+            if (connection.connect()) {
+                SIP2LoginResponse loginResponse = (SIP2LoginResponse) connection.send(new SIP2LoginRequest(operatorUserId, operatorPassword, operatorLocation));
+                if (loginResponse.isOk()) {
+                    log.info("Opened SIP2 session for institution {} on {}:{}", institutionCode, host, port);
+                    return connection;
+                }
+                log.error("SIP2 login failed while opening a pooled session for institution {}", institutionCode);
+            }
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+        }
+        closeQuietly(connection);
+        return null;
+    }
+
+    private boolean ping(SIP2SocketConnection connection) {
+        try {
+            return isHealthy(connection) && connection.send(new SIP2SCStatusRequest()) != null;
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+            return false;
+        }
+    }
+
+    private static boolean isHealthy(SIP2SocketConnection connection) {
+        Socket socket = connection.getSocket();
+        return socket != null && socket.isConnected() && !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
+    private static void closeQuietly(SIP2SocketConnection connection) {
+        try {
+            if (connection.getSocket() != null) {
+                connection.close();
+            }
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+        }
+    }
+
+    @Getter
+    private static class IdleSession {
+        private final SIP2SocketConnection connection;
+        private final long idleSince;
+
+        private IdleSession(SIP2SocketConnection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.model.ILSConfigProperties;
+import org.recap.util.PropertyUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one {@link SIP2SessionPool} per institution and runs the idle keep-alive for all of them.
+ * Pooling is switched on per institution with the {@code ils.sip.pool.enabled} property; the pool is rebuilt
+ * when the host, port or operator credentials of the institution change. A replaced pool is retired rather than
+ * dropped: its idle sessions are closed at once, and the sessions still borrowed from it are closed as they are
+ * returned, after which the pool is forgotten.
+ */
+@Slf4j
+@Component
+public class SIP2SessionPoolManager {
+
+    @Autowired
+    private PropertyUtil propertyUtil;
+
+    @Value("${ils.sip.pool.keep.alive.check.interval.millis:10000}")
+    private long keepAliveCheckIntervalMillis;
+
+    private final Map<String, SIP2SessionPool> sessionPools = new ConcurrentHashMap<>();
+
+    private final Set<SIP2SessionPool> retiredSessionPools = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService keepAliveScheduler;
+
+    @PostConstruct
+    public void startKeepAlive() {
+        keepAliveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sip2-session-keep-alive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        keepAliveScheduler.scheduleWithFixedDelay(this::keepAlive, keepAliveCheckIntervalMillis, keepAliveCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (keepAliveScheduler != null) {
+            keepAliveScheduler.shutdownNow();
+        }
+        sessionPools.values().forEach(SIP2SessionPool::close);
+        sessionPools.clear();
+        retiredSessionPools.clear();
+    }
+
+    public boolean isPoolingEnabled(String institutionCode) {
+        return institutionCode != null && Boolean.parseBoolean(propertyUtil.getPropertyByInstitutionAndKey(institutionCode, ScsbConstants.ILS_SIP_POOL_ENABLED));
+    }
+
+    /**
+     * Borrows a logged-in session for the institution.
+     *
+     * @param institutionCode     the institution code
+     * @param ilsConfigProperties the ils config properties
+     * @return the session, or null if the pool is exhausted or the ILS cannot be reached
+     */
+    public SIP2SocketConnection borrow(String institutionCode, ILSConfigProperties ilsConfigProperties) {
+        return getSessionPool(institutionCode, ilsConfigProperties).borrow();
+    }
+
+    public boolean isPooled(String institutionCode, SIP2SocketConnection connection) {
+        return getOwningSessionPool(institutionCode, connection) != null;
+    }
+
+    public void release(String institutionCode, SIP2SocketConnection connection) {
+        SIP2SessionPool sessionPool = getOwningSessionPool(institutionCode, connection);
+        if (sessionPool != null) {
+            sessionPool.release(connection);
+            forgetIfDrained(sessionPool);
+        }
+    }
+
+    public void invalidate(String institutionCode, SIP2SocketConnection connection) {
+        SIP2SessionPool sessionPool = getOwningSessionPool(institutionCode, connection);
+        if (sessionPool != null) {
+            sessionPool.invalidate(connection);
+            forgetIfDrained(sessionPool);
+        }
+    }
+
+    public SIP2SessionPool getSessionPool(String institutionCode, ILSConfigProperties ilsConfigProperties) {
+        return sessionPools.compute(institutionCode, (institution, sessionPool) -> {
+            if (sessionPool != null && isSameServer(sessionPool, ilsConfigProperties)) {
+                return sessionPool;
+            }
+            if (sessionPool != null) {
+                log.info("SIP2 server settings changed for institution {}, rebuilding session pool", institution);
+                retire(sessionPool);
+            }
+            return createSessionPool(institution, ilsConfigProperties);
+        });
+    }
+
+    public int getRetiredSessionPoolCount() {
+        return retiredSessionPools.size();
+    }
+
+    /**
+     * Closes the idle sessions of a replaced pool. Sessions still borrowed from it are closed when they are returned,
+     * so the pool is kept until the last one comes back.
+     */
+    private void retire(SIP2SessionPool sessionPool) {
+        sessionPool.close();
+        retiredSessionPools.add(sessionPool);
+        forgetIfDrained(sessionPool);
+    }
+
+    private void forgetIfDrained(SIP2SessionPool sessionPool) {
+        if (sessionPool.getBorrowedCount() == 0 && retiredSessionPools.remove(sessionPool)) {
+            log.info("Retired SIP2 session pool for institution {} on {}:{} is drained", sessionPool.getInstitutionCode(), sessionPool.getHost(), sessionPool.getPort());
+        }
+    }
+
+    private SIP2SessionPool getOwningSessionPool(String institutionCode, SIP2SocketConnection connection) {
+        SIP2SessionPool sessionPool = institutionCode != null ? sessionPools.get(institutionCode) : null;
+        if (sessionPool != null && sessionPool.isBorrowed(connection)) {
+            return sessionPool;
+        }
+        for (SIP2SessionPool retiredSessionPool : retiredSessionPools) {
+            if (retiredSessionPool.isBorrowed(connection)) {
+                return retiredSessionPool;
+            }
+        }
+        return null;
+    }
+
+    private SIP2SessionPool createSessionPool(String institutionCode, ILSConfigProperties ilsConfigProperties) {
+        int maxSize = NumberUtils.toInt(getProperty(institutionCode, ScsbConstants.ILS_SIP_POOL_MAX_SIZE), ScsbConstants.ILS_SIP_POOL_DEFAULT_MAX_SIZE);
+        long maxWaitMillis = NumberUtils.toLong(getProperty(institutionCode, ScsbConstants.ILS_SIP_POOL_MAX_WAIT_MILLIS), ScsbConstants.ILS_SIP_POOL_DEFAULT_MAX_WAIT_MILLIS);
+        long keepAliveSeconds = NumberUtils.toLong(getProperty(institutionCode, ScsbConstants.ILS_SIP_POOL_KEEP_ALIVE_SECONDS), ScsbConstants.ILS_SIP_POOL_DEFAULT_KEEP_ALIVE_SECONDS);
+        log.info("Creating SIP2 session pool for institution {} with max size {} and max wait {} ms", institutionCode, maxSize, maxWaitMillis);
+        return new SIP2SessionPool(institutionCode, ilsConfigProperties.getHost(), ilsConfigProperties.getPort(),
+                ilsConfigProperties.getOperatorUserId(), ilsConfigProperties.getOperatorPassword(), ilsConfigProperties.getOperatorLocation(),
+                Math.max(1, maxSize), maxWaitMillis, TimeUnit.SECONDS.toMillis(keepAliveSeconds));
+    }
+
+    private String getProperty(String institutionCode, String key) {
+        return StringUtils.trimToNull(propertyUtil.getPropertyByInstitutionAndKey(institutionCode, key));
+    }
+
+    private static boolean isSameServer(SIP2SessionPool sessionPool, ILSConfigProperties ilsConfigProperties) {
+        return Objects.equals(sessionPool.getHost(), ilsConfigProperties.getHost())
+                && sessionPool.getPort() == ilsConfigProperties.getPort()
+                && Objects.equals(sessionPool.getOperatorUserId(), ilsConfigProperties.getOperatorUserId())
+                && Objects.equals(sessionPool.getOperatorPassword(), ilsConfigProperties.getOperatorPassword())
+                && Objects.equals(sessionPool.getOperatorLocation(), ilsConfigProperties.getOperatorLocation());
+    }
+
+    private void keepAlive() {
+        for (SIP2SessionPool sessionPool : sessionPools.values()) {
+            try {
+                sessionPool.keepAlive();
+            } catch (RuntimeException e) {
+                log.error(ScsbCommonConstants.LOG_ERROR, e);
+            }
+        }
+    }
+}
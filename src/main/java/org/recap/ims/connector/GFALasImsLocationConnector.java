@@ -1,14 +1,15 @@
 package org.recap.ims.connector;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
 import org.recap.ims.util.GFALasServiceUtil;
 import org.recap.ims.model.*;
 import org.recap.model.IMSConfigProperties;
 import org.recap.model.gfa.GFAItemStatusCheckResponse;
+import org.recap.util.JsonUtil;
 import org.springframework.http.*;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -24,8 +25,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Slf4j
 public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector {
 
+    private static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+
     private GFALasServiceUtil gfaLasServiceUtil;
 
+    private RestTemplate restTemplate;
+
     @Override
     public boolean supports(String imsLocationCode) {
         return true;
@@ -42,12 +47,29 @@ public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector
     }
 
     /**
-     * Gets rest template.
+     * Sets the rest template shared by all calls to the LAS of this location.
+     *
+     * @param restTemplate the rest template backed by the pooled HTTP client of the location
+     */
+    public void setRestTemplate(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Gets rest template. Without a rest template set by the connector factory, a rest template is created which times
+     * out connecting to and reading from the LAS after the IMS server response timeout of the location.
      *
      * @return the rest template
      */
     public RestTemplate getRestTemplate() {
-        return new RestTemplate();
+        if (null == restTemplate) {
+            int timeoutMillis = NumberUtils.toInt(null == imsConfigProperties ? null : imsConfigProperties.getImsServerResponseTimeoutMillis(), DEFAULT_TIMEOUT_MILLIS);
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(timeoutMillis);
+            requestFactory.setReadTimeout(timeoutMillis);
+            restTemplate = new RestTemplate(requestFactory);
+        }
+        return restTemplate;
     }
 
     /**
@@ -81,18 +103,15 @@ public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector
      */
     @Override
     public GFALasStatusCheckResponse heartBeatCheck(GFALasStatusCheckRequest gfaLasStatusCheckRequest) {
-        ObjectMapper objectMapper = new ObjectMapper();
         String filterParamValue = "";
         GFALasStatusCheckResponse gfaLasStatusCheckResponse = null;
         try {
-            filterParamValue = objectMapper.writeValueAsString(gfaLasStatusCheckRequest);
+            filterParamValue = JsonUtil.OBJECT_WRITER.writeValueAsString(gfaLasStatusCheckRequest);
             log.info("Las Heart Beat Request at {} : {}", this.imsLocationCode, filterParamValue);
 
             RestTemplate restTemplate = getRestTemplate();
             HttpEntity<HttpHeaders> requestEntity = new HttpEntity<>(new HttpHeaders());
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(this.imsConfigProperties.getImsServerStatusEndpoint()).queryParam(ScsbConstants.GFA_SERVICE_PARAM, filterParamValue);
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setConnectTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setReadTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
             ResponseEntity<GFALasStatusCheckResponse> responseEntity = restTemplate.exchange(builder.build().encode().toUri(), HttpMethod.GET, requestEntity, GFALasStatusCheckResponse.class);
             if (responseEntity.getBody() != null) {
                 gfaLasStatusCheckResponse = responseEntity.getBody();
@@ -114,18 +133,15 @@ public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector
      */
     @Override
     public GFAItemStatusCheckResponse itemStatusCheck(GFAItemStatusCheckRequest gfaItemStatusCheckRequest) {
-        ObjectMapper objectMapper = new ObjectMapper();
         String filterParamValue = "";
         GFAItemStatusCheckResponse gfaItemStatusCheckResponse = null;
         try {
-            filterParamValue = objectMapper.writeValueAsString(gfaItemStatusCheckRequest);
+            filterParamValue = JsonUtil.OBJECT_WRITER.writeValueAsString(gfaItemStatusCheckRequest);
             log.info("Las Item Status Request at {} : {}", this.imsLocationCode, filterParamValue);
 
             RestTemplate restTemplate = getRestTemplate();
             HttpEntity<HttpHeaders> requestEntity = new HttpEntity<>(new HttpHeaders());
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(this.imsConfigProperties.getImsItemStatusEndpoint()).queryParam(ScsbConstants.GFA_SERVICE_PARAM, filterParamValue);
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setConnectTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setReadTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
             ResponseEntity<GFAItemStatusCheckResponse> responseEntity = restTemplate.exchange(builder.build().encode().toUri(), HttpMethod.GET, requestEntity, GFAItemStatusCheckResponse.class);
             if (responseEntity.getBody() != null) {
                 gfaItemStatusCheckResponse = responseEntity.getBody();
@@ -223,8 +239,6 @@ public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector
             HttpEntity<GFAPwdRequest> requestEntity = new HttpEntity<>(gfaPwdRequest, getHttpHeaders());
             log.info("GFA PWD Request at {} : {}", this.imsLocationCode, getGfaLasServiceUtil().convertJsonToString(requestEntity.getBody()));
             RestTemplate restTemplate = getRestTemplate();
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setConnectTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setReadTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
             ResponseEntity<GFAPwdResponse> responseEntity = restTemplate.exchange(this.imsConfigProperties.getImsPermanentWithdrawalDirectEndpoint(), HttpMethod.POST, requestEntity, GFAPwdResponse.class);
             gfaPwdResponse = responseEntity.getBody();
             log.info("GFA PWD Response Status Code at {} : {}", this.imsLocationCode, responseEntity.getStatusCode());
@@ -249,8 +263,6 @@ public class GFALasImsLocationConnector extends AbstractLASImsLocationConnector
             HttpEntity<GFAPwiRequest> requestEntity = new HttpEntity<>(gfaPwiRequest, getHttpHeaders());
             log.info("GFA PWI Request at {} : {}", this.imsLocationCode, getGfaLasServiceUtil().convertJsonToString(requestEntity.getBody()));
             RestTemplate restTemplate = getRestTemplate();
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setConnectTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
-            ((SimpleClientHttpRequestFactory) restTemplate.getRequestFactory()).setReadTimeout(Integer.parseInt(this.imsConfigProperties.getImsServerResponseTimeoutMillis()));
             ResponseEntity<GFAPwiResponse> responseEntity = restTemplate.exchange(this.imsConfigProperties.getImsPermanentWithdrawalIndirectEndpoint(), HttpMethod.POST, requestEntity, GFAPwiResponse.class);
             gfaPwiResponse = responseEntity.getBody();
             log.info("GFA PWI Response Status Code at {} : {}", this.imsLocationCode, responseEntity.getStatusCode());
@@ -1,25 +1,173 @@
 package org.recap.ims.connector.factory;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.recap.ScsbCommonConstants;
 import org.recap.ims.connector.AbstractLASImsLocationConnector;
 import org.recap.ims.connector.GFALasImsLocationConnector;
+import org.recap.model.IMSConfigProperties;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by rajeshbabuk on 20/Jan/2021
+ * <p>
+ * Connectors are cached per IMS location, each with its own pooled HTTP client. A connector is rebuilt when the LAS
+ * endpoints or the response timeout of its location change. The connector it replaces may still be in use by the
+ * threads which got it before, so its HTTP client is retired rather than closed, and only closed once its response
+ * timeout has passed and it has no connection leased. Retired clients are checked whenever a connector is looked up.
  */
+@Slf4j
 @Component
 public class LASImsLocationConnectorFactory extends BaseLASImsLocationConnectorFactory {
 
     @Autowired
     private PropertyUtil propertyUtil;
 
+    @Value("${ims.las.http.max.connections:20}")
+    private int maxConnections;
+
+    @Value("${ims.las.http.keep.alive.millis:30000}")
+    private long keepAliveMillis;
+
+    @Value("${ims.las.http.default.timeout.millis:30000}")
+    private int defaultTimeoutMillis;
+
+    private final Map<String, LasImsLocationClient> clients = new ConcurrentHashMap<>();
+
+    private final Queue<LasImsLocationClient> retiredClients = new ConcurrentLinkedQueue<>();
+
     @Override
     public AbstractLASImsLocationConnector getLasImsLocationConnector(String imsLocationCode) {
+        IMSConfigProperties imsConfigProperties = propertyUtil.getIMSConfigProperties(imsLocationCode);
+        int timeoutMillis = NumberUtils.toInt(null == imsConfigProperties ? null : imsConfigProperties.getImsServerResponseTimeoutMillis(), defaultTimeoutMillis);
+        List<Object> settings = getSettings(imsConfigProperties, timeoutMillis);
+        LasImsLocationClient lasImsLocationClient = clients.compute(imsLocationCode, (locationCode, client) -> {
+            if (client != null && client.settings.equals(settings)) {
+                return client;
+            }
+            if (client != null) {
+                log.info("IMS config properties changed for {}, rebuilding LAS connector", locationCode);
+                client.retiredMillis = System.currentTimeMillis();
+                retiredClients.add(client);
+            }
+            return createClient(locationCode, imsConfigProperties, timeoutMillis, settings);
+        });
+        closeRetiredClients();
+        return lasImsLocationClient.connector;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(LasImsLocationClient::close);
+        clients.clear();
+        retiredClients.forEach(LasImsLocationClient::close);
+        retiredClients.clear();
+    }
+
+    public int getRetiredClientCount() {
+        return retiredClients.size();
+    }
+
+    /**
+     * The config values the HTTP client and connector of an IMS location are built from.
+     */
+    private static List<Object> getSettings(IMSConfigProperties imsConfigProperties, int timeoutMillis) {
+        if (null == imsConfigProperties) {
+            return Collections.singletonList(timeoutMillis);
+        }
+        return Arrays.asList(imsConfigProperties.getImsItemStatusEndpoint(), imsConfigProperties.getImsItemRetrievalOrderEndpoint(),
+                imsConfigProperties.getImsItemEddOrderEndpoint(), imsConfigProperties.getImsServerStatusEndpoint(),
+                imsConfigProperties.getImsPermanentWithdrawalDirectEndpoint(), imsConfigProperties.getImsPermanentWithdrawalIndirectEndpoint(),
+                timeoutMillis);
+    }
+
+    private void closeRetiredClients() {
+        long now = System.currentTimeMillis();
+        retiredClients.removeIf(client -> {
+            if (now - client.retiredMillis < client.timeoutMillis || client.connectionManager.getTotalStats().getLeased() > 0) {
+                return false;
+            }
+            log.info("Closing retired LAS connector for {}", client.imsLocationCode);
+            client.close();
+            return true;
+        });
+    }
+
+    private LasImsLocationClient createClient(String imsLocationCode, IMSConfigProperties imsConfigProperties, int timeoutMillis, List<Object> settings) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity((int) Math.min(keepAliveMillis, Integer.MAX_VALUE));
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? Math.min(keepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                .build();
         GFALasImsLocationConnector connector = new GFALasImsLocationConnector();
         connector.setImsLocationCode(imsLocationCode);
-        connector.setImsConfigProperties(propertyUtil.getIMSConfigProperties(imsLocationCode));
-        return connector;
+        connector.setImsConfigProperties(imsConfigProperties);
+        connector.setRestTemplate(new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+        log.info("Created LAS connector for {} with {} pooled connections and {} ms timeout", imsLocationCode, maxConnections, timeoutMillis);
+        return new LasImsLocationClient(imsLocationCode, settings, timeoutMillis, connector, connectionManager, httpClient);
+    }
+
+    private static final class LasImsLocationClient {
+
+        private final String imsLocationCode;
+        private final List<Object> settings;
+        private final int timeoutMillis;
+        private final GFALasImsLocationConnector connector;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+        private volatile long retiredMillis;
+
+        private LasImsLocationClient(String imsLocationCode, List<Object> settings, int timeoutMillis, GFALasImsLocationConnector connector,
+                                     PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient) {
+            this.imsLocationCode = imsLocationCode;
+            this.settings = settings;
+            this.timeoutMillis = timeoutMillis;
+            this.connector = connector;
+            this.connectionManager = connectionManager;
+            this.httpClient = httpClient;
+        }
+
+        private void close() {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            }
+        }
     }
 }
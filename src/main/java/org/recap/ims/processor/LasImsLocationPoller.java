@@ -0,0 +1,206 @@
+package org.recap.ims.processor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.commons.lang3.BooleanUtils;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.ims.connector.AbstractLASImsLocationConnector;
+import org.recap.ims.connector.factory.LASImsLocationConnectorFactory;
+import org.recap.ims.model.GFAItemStatus;
+import org.recap.ims.model.GFAItemStatusCheckRequest;
+import org.recap.ims.model.GFALasStatus;
+import org.recap.ims.model.GFALasStatusCheckRequest;
+import org.recap.ims.model.GFALasStatusCheckResponse;
+import org.recap.model.gfa.GFAItemStatusCheckResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Polls the LAS of one IMS location from its own scheduler thread.
+ * <p>
+ * Barcodes waiting for the LAS item status service are coalesced into one {@code itemStatusCheck} call per tick. While
+ * barcodes are waiting, the request item LAS status check route of the location is stopped; it is started again once
+ * the LAS answers. Callers waiting for the LAS heart beat share a single {@code heartBeatCheck} call, which is repeated
+ * every tick until the LAS reports success.
+ */
+@Slf4j
+public class LasImsLocationPoller {
+
+    private final String imsLocationCode;
+    private final long pollingTimeIntervalMillis;
+    private final LASImsLocationConnectorFactory lasImsLocationConnectorFactory;
+    private final CamelContext camelContext;
+    private final ScheduledExecutorService pollingScheduler;
+
+    private final Set<String> pendingItemBarcodes = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<CompletableFuture<Void>> routeStopped = new AtomicReference<>(CompletableFuture.completedFuture(null));
+    private final AtomicReference<CompletableFuture<GFALasStatusCheckResponse>> heartBeat = new AtomicReference<>();
+    private final AtomicBoolean itemStatusServiceAvailable = new AtomicBoolean(true);
+
+    public LasImsLocationPoller(String imsLocationCode, long pollingTimeIntervalMillis, LASImsLocationConnectorFactory lasImsLocationConnectorFactory, CamelContext camelContext) {
+        this.imsLocationCode = imsLocationCode;
+        this.pollingTimeIntervalMillis = pollingTimeIntervalMillis;
+        this.lasImsLocationConnectorFactory = lasImsLocationConnectorFactory;
+        this.camelContext = camelContext;
+        this.pollingScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "las-poller-" + imsLocationCode);
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollingScheduler.scheduleWithFixedDelay(this::poll, pollingTimeIntervalMillis, pollingTimeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public String getImsLocationCode() {
+        return imsLocationCode;
+    }
+
+    public long getPollingTimeIntervalMillis() {
+        return pollingTimeIntervalMillis;
+    }
+
+    /**
+     * Adds the barcode to the item status polling. The first barcode of an outage stops the request item LAS status
+     * check route of the location on the polling thread; the other barcodes of the outage share that stop.
+     *
+     * @param barcode the item barcode
+     * @return the future completed once the route of the location is stopped
+     */
+    public synchronized CompletableFuture<Void> pollItemStatus(String barcode) {
+        pendingItemBarcodes.add(barcode);
+        if (itemStatusServiceAvailable.compareAndSet(true, false)) {
+            log.info("LAS item status service unavailable at {}, polling started", imsLocationCode);
+            CompletableFuture<Void> stopped = new CompletableFuture<>();
+            routeStopped.set(stopped);
+            pollingScheduler.execute(() -> {
+                controlRoute(false);
+                stopped.complete(null);
+            });
+        }
+        return routeStopped.get();
+    }
+
+    /**
+     * Checks the LAS heart beat, joining the check already in progress if there is one.
+     *
+     * @return the future completed with the first successful heart beat response
+     */
+    public CompletableFuture<GFALasStatusCheckResponse> checkHeartBeat() {
+        CompletableFuture<GFALasStatusCheckResponse> newHeartBeat = new CompletableFuture<>();
+        CompletableFuture<GFALasStatusCheckResponse> pendingHeartBeat = heartBeat.compareAndExchange(null, newHeartBeat);
+        if (pendingHeartBeat != null) {
+            return pendingHeartBeat;
+        }
+        pollingScheduler.execute(this::pollHeartBeat);
+        return newHeartBeat;
+    }
+
+    public boolean isItemStatusServiceAvailable() {
+        return itemStatusServiceAvailable.get();
+    }
+
+    public int getPendingItemBarcodeCount() {
+        return pendingItemBarcodes.size();
+    }
+
+    public void shutdown() {
+        pollingScheduler.shutdownNow();
+        routeStopped.get().cancel(false);
+        pendingItemBarcodes.clear();
+        CompletableFuture<GFALasStatusCheckResponse> pendingHeartBeat = heartBeat.getAndSet(null);
+        if (pendingHeartBeat != null) {
+            pendingHeartBeat.cancel(false);
+        }
+    }
+
+    private void poll() {
+        pollHeartBeat();
+        pollItemStatuses();
+    }
+
+    private void pollHeartBeat() {
+        CompletableFuture<GFALasStatusCheckResponse> pendingHeartBeat = heartBeat.get();
+        if (pendingHeartBeat == null) {
+            return;
+        }
+        try {
+            GFALasStatusCheckRequest gfaLasStatusCheckRequest = new GFALasStatusCheckRequest();
+            GFALasStatus lasStatus = new GFALasStatus();
+            lasStatus.setImsLocationCode(imsLocationCode);
+            gfaLasStatusCheckRequest.setLasStatus(Collections.singletonList(lasStatus));
+            GFALasStatusCheckResponse gfaLasStatusCheckResponse = getLasImsLocationConnector().heartBeatCheck(gfaLasStatusCheckRequest);
+            if (null != gfaLasStatusCheckResponse
+                    && null != gfaLasStatusCheckResponse.getDsitem()
+                    && null != gfaLasStatusCheckResponse.getDsitem().getTtitem()
+                    && !gfaLasStatusCheckResponse.getDsitem().getTtitem().isEmpty()
+                    && BooleanUtils.toBoolean(gfaLasStatusCheckResponse.getDsitem().getTtitem().get(0).getSuccess())) {
+                heartBeat.compareAndSet(pendingHeartBeat, null);
+                pendingHeartBeat.complete(gfaLasStatusCheckResponse);
+            }
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
+    }
+
+    private void pollItemStatuses() {
+        if (pendingItemBarcodes.isEmpty()) {
+            return;
+        }
+        Set<String> barcodes = new HashSet<>(pendingItemBarcodes);
+        try {
+            GFAItemStatusCheckRequest gfaItemStatusCheckRequest = new GFAItemStatusCheckRequest();
+            List<GFAItemStatus> gfaItemStatuses = new ArrayList<>();
+            for (String barcode : barcodes) {
+                GFAItemStatus gfaItemStatus = new GFAItemStatus();
+                gfaItemStatus.setItemBarCode(barcode);
+                gfaItemStatuses.add(gfaItemStatus);
+            }
+            gfaItemStatusCheckRequest.setItemStatus(gfaItemStatuses);
+            log.info("LAS item status polling at {} for {} barcodes", imsLocationCode, gfaItemStatuses.size());
+            GFAItemStatusCheckResponse gfaItemStatusCheckResponse = getLasImsLocationConnector().itemStatusCheck(gfaItemStatusCheckRequest);
+            if (gfaItemStatusCheckResponse != null
+                    && gfaItemStatusCheckResponse.getDsitem() != null
+                    && gfaItemStatusCheckResponse.getDsitem().getTtitem() != null && !gfaItemStatusCheckResponse.getDsitem().getTtitem().isEmpty()) {
+                pendingItemBarcodes.removeAll(barcodes);
+                if (itemStatusServiceAvailable.compareAndSet(false, true)) {
+                    log.info("LAS item status service available at {}, polling ended", imsLocationCode);
+                    controlRoute(true);
+                }
+            }
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Runs on the polling thread so that a route can be stopped by a message that is being processed by the route itself,
+     * which a graceful stop would otherwise wait for.
+     */
+    private void controlRoute(boolean start) {
+        String routeId = imsLocationCode + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID;
+        try {
+            if (start) {
+                camelContext.getRouteController().startRoute(routeId);
+            } else {
+                camelContext.getRouteController().stopRoute(routeId);
+            }
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
+    }
+
+    private AbstractLASImsLocationConnector getLasImsLocationConnector() {
+        return lasImsLocationConnectorFactory.getLasImsLocationConnector(imsLocationCode);
+    }
+}
@@ -0,0 +1,51 @@
+package org.recap.ims.processor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.recap.PropertyKeyConstants;
+import org.recap.ScsbConstants;
+import org.recap.ims.connector.factory.LASImsLocationConnectorFactory;
+import org.recap.util.PropertyUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link LasImsLocationPoller} per IMS location, so that outages of different LAS are polled and tracked
+ * independently. A poller is created on first use with the {@code IMS_POLLING_TIME_INTERVAL} of its location.
+ */
+@Slf4j
+@Component
+public class LasImsLocationPollerManager {
+
+    @Autowired
+    private LASImsLocationConnectorFactory lasImsLocationConnectorFactory;
+
+    @Autowired
+    private PropertyUtil propertyUtil;
+
+    @Autowired
+    private CamelContext camelContext;
+
+    private final Map<String, LasImsLocationPoller> pollers = new ConcurrentHashMap<>();
+
+    public LasImsLocationPoller getPoller(String imsLocationCode) {
+        return pollers.computeIfAbsent(imsLocationCode, this::createPoller);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollers.values().forEach(LasImsLocationPoller::shutdown);
+        pollers.clear();
+    }
+
+    private LasImsLocationPoller createPoller(String imsLocationCode) {
+        long pollingTimeInterval = NumberUtils.toLong(propertyUtil.getPropertyByImsLocationAndKey(imsLocationCode, PropertyKeyConstants.IMS.IMS_POLLING_TIME_INTERVAL), ScsbConstants.IMS_POLLING_DEFAULT_TIME_INTERVAL_MILLIS);
+        log.info("Creating LAS poller for IMS location {} with polling interval {} ms", imsLocationCode, pollingTimeInterval);
+        return new LasImsLocationPoller(imsLocationCode, Math.max(1, pollingTimeInterval), lasImsLocationConnectorFactory, camelContext);
+    }
+}
@@ -37,21 +37,39 @@ import org.recap.ims.processor.LasItemStatusCheckPollingProcessor;
 import org.recap.repository.jpa.ItemDetailsRepository;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.request.service.ItemRequestService;
 import org.recap.util.CommonUtil;
+import org.recap.util.JsonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.request.util.RequestLifecycleMetrics;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
 import java.io.BufferedReader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by sudhishk on 27/1/17.
@@ -72,6 +90,9 @@ public class GFALasService {
     @Autowired
     RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
 
+    @Autowired
+    ReferenceDataCache referenceDataCache;
+
     @Autowired
     private LasItemStatusCheckPollingProcessor lasItemStatusCheckPollingProcessor;
 
@@ -93,6 +114,40 @@ public class GFALasService {
     @Autowired
     private CommonUtil commonUtil;
 
+    @Autowired
+    private RequestLifecycleMetrics requestLifecycleMetrics;
+
+    @Value("${las.item.status.check.threads.per.location:4}")
+    private int itemStatusCheckThreadsPerLocation;
+
+    @Value("${las.item.status.check.timeout.millis:30000}")
+    private long itemStatusCheckTimeoutMillis;
+
+    @Value("${las.item.status.check.page.size:500}")
+    private int itemStatusCheckPageSize;
+
+    private final Map<String, ExecutorService> itemStatusCheckExecutors = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void stopItemStatusCheckExecutor() {
+        itemStatusCheckExecutors.values().forEach(ExecutorService::shutdownNow);
+        itemStatusCheckExecutors.clear();
+    }
+
+    private ExecutorService getItemStatusCheckExecutor(String imsLocation) {
+        return itemStatusCheckExecutors.computeIfAbsent(imsLocation, locationCode -> {
+            AtomicInteger threadCount = new AtomicInteger();
+            int threads = Math.max(1, itemStatusCheckThreadsPerLocation);
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "las-item-status-check-" + locationCode + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            return threadPoolExecutor;
+        });
+    }
+
     /**
      * Gets rest template.
      *
@@ -108,7 +163,7 @@ public class GFALasService {
      * @return the object mapper
      */
     public ObjectMapper getObjectMapper() {
-        return new ObjectMapper();
+        return JsonUtil.OBJECT_MAPPER;
     }
 
     /**
@@ -132,6 +187,7 @@ public class GFALasService {
         GFAItemStatusCheckResponse gfaItemStatusCheckResponse;
         String itemStatus;
         String gfaOnlyStatus;
+        String operation = RequestLifecycleMetrics.operation(itemRequestInfo);
         try {
             GFAItemStatus gfaItemStatus001 = new GFAItemStatus();
             gfaItemStatus001.setItemBarCode(itemRequestInfo.getItemBarcodes().get(0));
@@ -139,7 +195,8 @@ public class GFALasService {
             gfaItemStatuses.add(gfaItemStatus001);
             gfaItemStatusCheckRequest.setItemStatus(gfaItemStatuses);
             log.info("Before Item Status Check - Request Type: {} Barcode: {} IMS Location: {}", itemRequestInfo.getRequestType(), gfaItemStatus001.getItemBarCode(), itemRequestInfo.getImsLocationCode());
-            gfaItemStatusCheckResponse = lasImsLocationConnectorFactory.getLasImsLocationConnector(itemRequestInfo.getImsLocationCode()).itemStatusCheck(gfaItemStatusCheckRequest);
+            gfaItemStatusCheckResponse = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_LAS_STATUS_CHECK, itemRequestInfo,
+                    () -> lasImsLocationConnectorFactory.getLasImsLocationConnector(itemRequestInfo.getImsLocationCode()).itemStatusCheck(gfaItemStatusCheckRequest));
             if (gfaItemStatusCheckResponse != null
                     && gfaItemStatusCheckResponse.getDsitem() != null
                     && gfaItemStatusCheckResponse.getDsitem().getTtitem() != null && !gfaItemStatusCheckResponse.getDsitem().getTtitem().isEmpty()) {
@@ -161,10 +218,13 @@ public class GFALasService {
                     itemResponseInformation.setSuccess(true);
                     itemResponseInformation.setScreenMessage(ScsbConstants.GFA_RETRIVAL_ORDER_SUCCESSFUL);
                 } else if (commonUtil.checkIfImsItemStatusIsAvailableOrNotAvailable(itemRequestInfo.getImsLocationCode(), gfaOnlyStatus, true)) {
+                    ItemInformationResponse retrievalItemResponseInformation = itemResponseInformation;
                     if (itemRequestInfo.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL)) {
-                        itemResponseInformation = callItemRetrievable(itemRequestInfo, itemResponseInformation);
+                        itemResponseInformation = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_LAS_RETRIEVAL_ORDER, itemRequestInfo,
+                                () -> callItemRetrievable(itemRequestInfo, retrievalItemResponseInformation));
                     } else if (itemRequestInfo.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_EDD)) {
-                        itemResponseInformation = callItemEDDRetrievable(itemRequestInfo, itemResponseInformation);
+                        itemResponseInformation = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_LAS_RETRIEVAL_ORDER, itemRequestInfo,
+                                () -> callItemEDDRetrievable(itemRequestInfo, retrievalItemResponseInformation));
                     }
                 } else {
                     itemResponseInformation.setSuccess(false);
@@ -262,8 +322,7 @@ public class GFALasService {
             }
 
             if (isUseQueueLasCall(itemRequestInfo.getImsLocationCode())) { // Queue
-                ObjectMapper objectMapper = new ObjectMapper();
-                String json = objectMapper.writeValueAsString(gfaRetrieveItemResponse);
+                String json = JsonUtil.OBJECT_WRITER.writeValueAsString(gfaRetrieveItemResponse);
                 producerTemplate.sendBodyAndHeader(ScsbConstants.LAS_INCOMING_QUEUE, json, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInfo.getRequestType());
             }
         } catch (Exception e) {
@@ -377,8 +436,7 @@ public class GFALasService {
             }
 
             if (isUseQueueLasCall(itemRequestInfo.getImsLocationCode())) { // Queue
-                ObjectMapper objectMapper = getObjectMapper();
-                String json = objectMapper.writeValueAsString(gfaEddItemResponse);
+                String json = JsonUtil.OBJECT_WRITER.writeValueAsString(gfaEddItemResponse);
                 producerTemplate.sendBodyAndHeader(ScsbConstants.LAS_INCOMING_QUEUE, json, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInfo.getRequestType());
             }
         } catch (Exception e) {
@@ -397,9 +455,8 @@ public class GFALasService {
      */
     public ItemInformationResponse processLASRetrieveResponse(String body) {
         ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
-        ObjectMapper om = new ObjectMapper();
         try {
-            GFARetrieveItemResponse gfaRetrieveItemResponse = om.readValue(body, GFARetrieveItemResponse.class);
+            GFARetrieveItemResponse gfaRetrieveItemResponse = JsonUtil.GFA_RETRIEVE_ITEM_RESPONSE_READER.readValue(body);
             gfaRetrieveItemResponse = gfaLasServiceUtil.getLASRetrieveResponse(gfaRetrieveItemResponse);
             if (gfaRetrieveItemResponse.isSuccess()) {
                 itemInformationResponse.setRequestId(gfaRetrieveItemResponse.getDsitem().getTtitem().get(0).getRequestId());
@@ -424,9 +481,8 @@ public class GFALasService {
      */
     public ItemInformationResponse processLASEDDRetrieveResponse(String body) {
         ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
-        ObjectMapper om = new ObjectMapper();
         try {
-            GFAEddItemResponse gfaEddItemResponse = om.readValue(body, GFAEddItemResponse.class);
+            GFAEddItemResponse gfaEddItemResponse = JsonUtil.GFA_EDD_ITEM_RESPONSE_READER.readValue(body);
             gfaEddItemResponse = getLASEddRetrieveResponse(gfaEddItemResponse);
             if (null != gfaEddItemResponse && gfaEddItemResponse.isSuccess()) {
                 itemInformationResponse.setRequestId(gfaEddItemResponse.getDsitem().getTtitem().get(0).getRequestId());
@@ -466,29 +522,24 @@ public class GFALasService {
     private void lasPolling(ItemRequestInformation itemRequestInfo, ItemInformationResponse itemResponseInformation) {
         // Update Request_item_t table with new status - each Item
         try {
-            RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.REQUEST_STATUS_LAS_ITEM_STATUS_PENDING);
             RequestItemEntity requestItemEntity = requestItemDetailsRepository.findRequestItemById(itemRequestInfo.getRequestId());
-            requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+            requestItemEntity.setRequestStatusId(referenceDataCache.getRequestStatusIdsByCode().get(ScsbConstants.REQUEST_STATUS_LAS_ITEM_STATUS_PENDING));
             requestItemEntity.setLastUpdatedDate(new Date());
             requestItemDetailsRepository.save(requestItemEntity);
             log.info("lasPolling Saved {}", requestItemEntity.getRequestStatusEntity().getRequestStatusCode());
-            ObjectMapper objectMapper = getObjectMapper();
-            String json = null;
             RequestInformation requestInformation = new RequestInformation();
             requestInformation.setItemRequestInfo(itemRequestInfo);
             requestInformation.setItemResponseInformation(itemResponseInformation);
-            json = objectMapper.writeValueAsString(requestInformation);
+            String json = JsonUtil.OBJECT_WRITER.writeValueAsString(requestInformation);
             log.info(json);
-            log.info("Rest Service Status -> {}", ScsbConstants.LAS_ITEM_STATUS_REST_SERVICE_STATUS);
-            if (ScsbConstants.LAS_ITEM_STATUS_REST_SERVICE_STATUS == 0) {
-                producerTemplate.getCamelContext().getRouteController().stopRoute(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID);
-            }
-            producerTemplate.sendBodyAndHeader(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE, json, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInfo.getRequestType());
+            // The status check message is only published once the route of the location is stopped, so that it waits in the queue for the LAS
+            startPolling(itemRequestInfo.getItemBarcodes().get(0), itemRequestInfo.getImsLocationCode())
+                    .thenRun(() -> producerTemplate.sendBodyAndHeader(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_PREFIX + itemRequestInfo.getImsLocationCode() + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_SUFFIX, json, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInfo.getRequestType()))
+                    .exceptionally(throwable -> {
+                        log.error("Exception ", throwable);
+                        return null;
+                    });
             itemRequestServiceUtil.updateSolrIndex(requestItemEntity.getItemEntity());
-            if (ScsbConstants.LAS_ITEM_STATUS_REST_SERVICE_STATUS == 0) {
-                // Start Polling program - Once
-                startPolling(itemRequestInfo.getItemBarcodes().get(0), itemRequestInfo.getImsLocationCode());
-            }
         } catch (JsonProcessingException e) {
             log.error("JsonProcessingException ", e);
         } catch (Exception e) {
@@ -496,13 +547,19 @@ public class GFALasService {
         }
     }
 
-    public void startPolling(String barcode, String imsLocationCode) {
+    /**
+     * Starts the LAS item status polling for the barcode.
+     *
+     * @param barcode         the item barcode
+     * @param imsLocationCode the ims location code
+     * @return the future completed once the request item LAS status check route of the location is stopped
+     */
+    public CompletableFuture<Void> startPolling(String barcode, String imsLocationCode) {
         try {
-            log.info("Start Polling Process Once");
-            ScsbConstants.LAS_ITEM_STATUS_REST_SERVICE_STATUS = 1;
-            lasItemStatusCheckPollingProcessor.pollLasItemStatusJobResponse(barcode, imsLocationCode, producerTemplate.getCamelContext());
+            return lasItemStatusCheckPollingProcessor.pollLasItemStatusJobResponse(barcode, imsLocationCode);
         } catch (Exception e) {
             log.error("Exception ", e);
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -622,45 +679,126 @@ public class GFALasService {
     }
 
     /**
-     * For the given item barcodes this method checks status with LAS.
+     * For the given item barcodes this method checks status with LAS. The barcodes of each IMS location are checked in
+     * pages of {@code las.item.status.check.page.size} barcodes. Each location has its own pool of
+     * {@code las.item.status.check.threads.per.location} threads, so the locations are checked concurrently and a slow
+     * LAS only queues the pages of its own location. A page which fails or does not answer within
+     * {@code las.item.status.check.timeout.millis} returns its barcodes with the failure as item status, without holding
+     * back the other locations. Cancelling such a page does not abort a call already waiting on LAS, that call ends at
+     * the read timeout of the LAS connector of the location. The response lists the locations in the order of their
+     * first barcode in the request.
      *
      * @param itemsStatusCheckModel the item status requests
      * @return the gfa item status check response
      */
     public List<ScsbLasItemStatusCheckModel> getGFAItemStatusCheckResponseByBarcodesAndImsLocationList(List<ScsbLasItemStatusCheckModel> itemsStatusCheckModel) {
+        return checkItemStatuses(itemsStatusCheckModel, true);
+    }
+
+    /**
+     * Checks the status of the given item barcodes with LAS the way
+     * {@link #getGFAItemStatusCheckResponseByBarcodesAndImsLocationList(List)} does.
+     *
+     * @param itemsStatusCheckModel the item barcodes and their IMS locations
+     * @return the LAS item status by item barcode, without the barcodes whose check failed or which LAS did not return
+     */
+    public Map<String, String> callGfaItemStatuses(List<ScsbLasItemStatusCheckModel> itemsStatusCheckModel) {
+        Map<String, String> gfaItemStatuses = new HashMap<>();
+        for (ScsbLasItemStatusCheckModel itemStatusCheckModel : checkItemStatuses(itemsStatusCheckModel, false)) {
+            gfaItemStatuses.putIfAbsent(itemStatusCheckModel.getItemBarcode(), itemStatusCheckModel.getItemStatus());
+        }
+        return gfaItemStatuses;
+    }
+
+    private List<ScsbLasItemStatusCheckModel> checkItemStatuses(List<ScsbLasItemStatusCheckModel> itemsStatusCheckModel, boolean includeFailures) {
         List<ScsbLasItemStatusCheckModel> itemsStatusCheckModelResponse = new ArrayList<>();
         if (itemsStatusCheckModel != null) {
-            Map<String, List<GFAItemStatus>> itemStatusCheckRequestMap = new HashMap<>();
+            Map<String, List<GFAItemStatus>> itemStatusCheckRequestMap = new LinkedHashMap<>();
             for (ScsbLasItemStatusCheckModel itemsStatusCheckModelObj : itemsStatusCheckModel) {
-                String imsLocation = itemsStatusCheckModelObj.getImsLocation();
                 GFAItemStatus gfaItemStatusRequest = new GFAItemStatus();
                 gfaItemStatusRequest.setItemBarCode(itemsStatusCheckModelObj.getItemBarcode());
-                if (itemStatusCheckRequestMap.containsKey(imsLocation)) {
-                    itemStatusCheckRequestMap.get(imsLocation).add(gfaItemStatusRequest);
-                } else {
-                    List<GFAItemStatus> gfaItemStatusList = new ArrayList<>();
-                    gfaItemStatusList.add(gfaItemStatusRequest);
-                    itemStatusCheckRequestMap.put(imsLocation, gfaItemStatusList);
-                }
+                itemStatusCheckRequestMap.computeIfAbsent(itemsStatusCheckModelObj.getImsLocation(), imsLocation -> new ArrayList<>()).add(gfaItemStatusRequest);
             }
+            List<ItemStatusCheckPage> itemStatusCheckPages = new ArrayList<>();
             for (Map.Entry<String, List<GFAItemStatus>> mapEntry : itemStatusCheckRequestMap.entrySet()) {
-                String imsLocation = mapEntry.getKey();
-                GFAItemStatusCheckRequest gfaItemStatusCheckRequest = new GFAItemStatusCheckRequest();
-                gfaItemStatusCheckRequest.setItemStatus(mapEntry.getValue());
-                GFAItemStatusCheckResponse gfaItemStatusCheckResponse = lasImsLocationConnectorFactory.getLasImsLocationConnector(imsLocation).itemStatusCheck(gfaItemStatusCheckRequest);
-                if (gfaItemStatusCheckResponse != null && gfaItemStatusCheckResponse.getDsitem() != null && gfaItemStatusCheckResponse.getDsitem().getTtitem() != null) {
-                    List<Ttitem> ttitemList = gfaItemStatusCheckResponse.getDsitem().getTtitem();
-                    for (Ttitem ttitem : ttitemList) {
-                        ScsbLasItemStatusCheckModel itemStatusCheckModelResponseItem = new ScsbLasItemStatusCheckModel();
-                        itemStatusCheckModelResponseItem.setItemBarcode(ttitem.getItemBarcode());
-                        itemStatusCheckModelResponseItem.setImsLocation(imsLocation);
-                        itemStatusCheckModelResponseItem.setItemStatus(ttitem.getItemStatus());
-                        itemsStatusCheckModelResponse.add(itemStatusCheckModelResponseItem);
-                    }
+                List<GFAItemStatus> gfaItemStatusList = mapEntry.getValue();
+                int pageSize = itemStatusCheckPageSize > 0 ? itemStatusCheckPageSize : gfaItemStatusList.size();
+                for (int fromIndex = 0; fromIndex < gfaItemStatusList.size(); fromIndex += pageSize) {
+                    List<GFAItemStatus> page = gfaItemStatusList.subList(fromIndex, Math.min(fromIndex + pageSize, gfaItemStatusList.size()));
+                    itemStatusCheckPages.add(new ItemStatusCheckPage(mapEntry.getKey(), page, submitItemStatusCheck(mapEntry.getKey(), page)));
                 }
             }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(itemStatusCheckTimeoutMillis);
+            for (ItemStatusCheckPage itemStatusCheckPage : itemStatusCheckPages) {
+                itemsStatusCheckModelResponse.addAll(getItemStatusCheckResponse(itemStatusCheckPage, deadline, includeFailures));
+            }
         }
         return itemsStatusCheckModelResponse;
     }
 
+    private Future<GFAItemStatusCheckResponse> submitItemStatusCheck(String imsLocation, List<GFAItemStatus> gfaItemStatusList) {
+        GFAItemStatusCheckRequest gfaItemStatusCheckRequest = new GFAItemStatusCheckRequest();
+        gfaItemStatusCheckRequest.setItemStatus(new ArrayList<>(gfaItemStatusList));
+        Callable<GFAItemStatusCheckResponse> itemStatusCheck = () -> lasImsLocationConnectorFactory.getLasImsLocationConnector(imsLocation).itemStatusCheck(gfaItemStatusCheckRequest);
+        return getItemStatusCheckExecutor(imsLocation).submit(itemStatusCheck);
+    }
+
+    private List<ScsbLasItemStatusCheckModel> getItemStatusCheckResponse(ItemStatusCheckPage itemStatusCheckPage, long deadline, boolean includeFailures) {
+        String imsLocation = itemStatusCheckPage.imsLocation;
+        List<ScsbLasItemStatusCheckModel> itemsStatusCheckModelResponse = new ArrayList<>();
+        GFAItemStatusCheckResponse gfaItemStatusCheckResponse;
+        try {
+            gfaItemStatusCheckResponse = itemStatusCheckTimeoutMillis > 0
+                    ? itemStatusCheckPage.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    : itemStatusCheckPage.response.get();
+        } catch (TimeoutException e) {
+            itemStatusCheckPage.response.cancel(true);
+            log.error("LAS item status check of {} barcodes at {} took more than {} ms", itemStatusCheckPage.gfaItemStatusList.size(), imsLocation, itemStatusCheckTimeoutMillis);
+            return includeFailures ? getFailedItemStatusCheckResponse(itemStatusCheckPage, ScsbConstants.GFA_ITEM_STATUS_CHECK_TIMED_OUT) : itemsStatusCheckModelResponse;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            itemStatusCheckPage.response.cancel(true);
+            return includeFailures ? getFailedItemStatusCheckResponse(itemStatusCheckPage, ScsbConstants.GFA_ITEM_STATUS_CHECK_FAILED) : itemsStatusCheckModelResponse;
+        } catch (ExecutionException e) {
+            log.error("LAS item status check of {} barcodes at {} failed", itemStatusCheckPage.gfaItemStatusList.size(), imsLocation, e.getCause());
+            return includeFailures ? getFailedItemStatusCheckResponse(itemStatusCheckPage, ScsbConstants.REQUEST_LAS_EXCEPTION + e.getCause().getMessage()) : itemsStatusCheckModelResponse;
+        }
+        if (gfaItemStatusCheckResponse != null && gfaItemStatusCheckResponse.getDsitem() != null && gfaItemStatusCheckResponse.getDsitem().getTtitem() != null) {
+            List<Ttitem> ttitemList = gfaItemStatusCheckResponse.getDsitem().getTtitem();
+            for (Ttitem ttitem : ttitemList) {
+                itemsStatusCheckModelResponse.add(getItemStatusCheckModel(ttitem.getItemBarcode(), imsLocation, ttitem.getItemStatus()));
+            }
+        }
+        return itemsStatusCheckModelResponse;
+    }
+
+    private List<ScsbLasItemStatusCheckModel> getFailedItemStatusCheckResponse(ItemStatusCheckPage itemStatusCheckPage, String failure) {
+        List<ScsbLasItemStatusCheckModel> itemsStatusCheckModelResponse = new ArrayList<>();
+        for (GFAItemStatus gfaItemStatus : itemStatusCheckPage.gfaItemStatusList) {
+            itemsStatusCheckModelResponse.add(getItemStatusCheckModel(gfaItemStatus.getItemBarCode(), itemStatusCheckPage.imsLocation, failure));
+        }
+        return itemsStatusCheckModelResponse;
+    }
+
+    private ScsbLasItemStatusCheckModel getItemStatusCheckModel(String itemBarcode, String imsLocation, String itemStatus) {
+        ScsbLasItemStatusCheckModel itemStatusCheckModelResponseItem = new ScsbLasItemStatusCheckModel();
+        itemStatusCheckModelResponseItem.setItemBarcode(itemBarcode);
+        itemStatusCheckModelResponseItem.setImsLocation(imsLocation);
+        itemStatusCheckModelResponseItem.setItemStatus(itemStatus);
+        return itemStatusCheckModelResponseItem;
+    }
+
+    private static final class ItemStatusCheckPage {
+
+        private final String imsLocation;
+        private final List<GFAItemStatus> gfaItemStatusList;
+        private final Future<GFAItemStatusCheckResponse> response;
+
+        private ItemStatusCheckPage(String imsLocation, List<GFAItemStatus> gfaItemStatusList, Future<GFAItemStatusCheckResponse> response) {
+            this.imsLocation = imsLocation;
+            this.gfaItemStatusList = gfaItemStatusList;
+            this.response = response;
+        }
+    }
+
 }
@@ -1,13 +1,13 @@
 package org.recap.ims.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.recap.ims.model.GFAEddItemResponse;
 import org.recap.ims.model.GFARetrieveItemResponse;
 import org.recap.ims.model.TtitemEDDResponse;
 import org.recap.model.gfa.Ttitem;
+import org.recap.util.JsonUtil;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -74,9 +74,8 @@ public class GFALasServiceUtil {
 
     public String convertJsonToString(Object objJson) {
         String strJson = "";
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            strJson = objectMapper.writeValueAsString(objJson);
+            strJson = JsonUtil.OBJECT_WRITER.writeValueAsString(objJson);
         } catch (JsonProcessingException e) {
             log.error("", e);
         }
@@ -0,0 +1,35 @@
+package org.recap.model.jpa;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A chunk of barcodes published for a bulk request. A chunk is marked as processed once, so that a redelivered chunk
+ * message neither places its requests again nor counts twice towards the completion of the bulk request.
+ */
+@Data
+@Entity
+@Table(name = "bulk_request_chunk_t", catalog = "")
+public class BulkRequestChunkEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "CHUNK_ID")
+    private Integer id;
+
+    @Column(name = "BULK_REQUEST_ID")
+    private Integer bulkRequestId;
+
+    @Column(name = "CHUNK_INDEX")
+    private Integer chunkIndex;
+
+    @Column(name = "PROCESSED")
+    private boolean processed;
+
+}
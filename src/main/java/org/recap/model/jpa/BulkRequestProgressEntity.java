@@ -0,0 +1,32 @@
+package org.recap.model.jpa;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * The number of chunks of a bulk request which are still to be processed. The count includes one chunk for the
+ * dispatch of the bulk request itself, so that it cannot reach zero before every chunk has been published, and is set
+ * to -1 by whoever claims the completion of the bulk request. The dispatch flag is set once every chunk has been
+ * published; a bulk request whose dispatch was interrupted is dispatched again. The table is defined in
+ * {@code db/scsb-circ-schema.sql}.
+ */
+@Data
+@Entity
+@Table(name = "bulk_request_progress_t", catalog = "")
+public class BulkRequestProgressEntity {
+
+    @Id
+    @Column(name = "BULK_REQUEST_ID")
+    private Integer bulkRequestId;
+
+    @Column(name = "PENDING_CHUNKS")
+    private Integer pendingChunks;
+
+    @Column(name = "DISPATCHED")
+    private boolean dispatched;
+
+}
@@ -2,6 +2,7 @@ package org.recap.mqconsumer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Body;
 import org.apache.camel.Exchange;
@@ -15,10 +16,13 @@ import org.recap.request.service.BulkItemRequestProcessService;
 import org.recap.request.service.BulkItemRequestService;
 import org.recap.request.service.ItemEDDRequestService;
 import org.recap.request.service.ItemRequestService;
+import org.recap.util.JsonUtil;
 import org.slf4j.Logger;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by sudhishk on 29/11/16.
@@ -144,7 +148,16 @@ public class RequestItemQueueConsumer {
      * @return the object mapper
      */
     public ObjectMapper getObjectMapper() {
-        return new ObjectMapper();
+        return JsonUtil.OBJECT_MAPPER;
+    }
+
+    /**
+     * Gets the reader of the request item messages.
+     *
+     * @return the item request information reader
+     */
+    public ObjectReader getItemRequestInformationReader() {
+        return JsonUtil.ITEM_REQUEST_INFORMATION_READER;
     }
 
     /**
@@ -165,12 +178,34 @@ public class RequestItemQueueConsumer {
      * @throws IOException the io exception
      */
     public void requestItemOnMessage(@Body String body, Exchange exchange) throws IOException {
-        ObjectMapper om = getObjectMapper();
-        ItemRequestInformation itemRequestInformation = om.readValue(body, ItemRequestInformation.class);
+        ItemRequestInformation itemRequestInformation = getItemRequestInformationReader().readValue(body);
         getLogger().info("Item Barcode Received for Processing Request -> {}", itemRequestInformation.getItemBarcodes().get(0));
         getItemRequestService().requestItem(itemRequestInformation, exchange);
     }
 
+    /**
+     * Request items of a batch of retrieval messages.
+     *
+     * @param bodies   the bodies
+     * @param exchange the exchange
+     */
+    public void requestItemBatchOnMessage(@Body List<String> bodies, Exchange exchange) {
+        ObjectReader itemRequestInformationReader = getItemRequestInformationReader();
+        List<ItemRequestInformation> itemRequestInformations = new ArrayList<>();
+        for (String body : bodies) {
+            try {
+                ItemRequestInformation itemRequestInformation = itemRequestInformationReader.readValue(body);
+                getLogger().info("Item Barcode Received for Processing Request -> {}", itemRequestInformation.getItemBarcodes().get(0));
+                itemRequestInformations.add(itemRequestInformation);
+            } catch (IOException e) {
+                getLogger().error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            }
+        }
+        if (!itemRequestInformations.isEmpty()) {
+            getItemRequestService().requestItems(itemRequestInformations, exchange);
+        }
+    }
+
     /**
      * Request item edd on message.
      *
@@ -179,8 +214,7 @@ public class RequestItemQueueConsumer {
      * @throws IOException the io exception
      */
     public void requestItemEDDOnMessage(@Body String body, Exchange exchange) throws IOException {
-        ObjectMapper om = getObjectMapper();
-        ItemRequestInformation itemRequestInformation = om.readValue(body, ItemRequestInformation.class);
+        ItemRequestInformation itemRequestInformation = getItemRequestInformationReader().readValue(body);
         getLogger().info("Item Barcode Received for Processing EDD -> {}", itemRequestInformation.getItemBarcodes().get(0));
         getItemEDDRequestService().eddRequestItem(itemRequestInformation, exchange);
     }
@@ -207,16 +241,16 @@ public class RequestItemQueueConsumer {
      */
     public void bulkRequestProcessItemOnMessage(@Body String body, Exchange exchange) throws IOException {
         Integer bulkRequestId = (Integer) exchange.getIn().getHeaders().get(ScsbCommonConstants.BULK_REQUEST_ID);
-        getLogger().info("Bulk item request barcode received for bulk request id -> {} is -> {}", bulkRequestId, body);
-        getBulkItemRequestProcessService().processBulkRequestItem(body, bulkRequestId);
+        getLogger().info("Bulk item request barcodes received for bulk request id -> {} is -> {}", bulkRequestId, body);
+        Integer chunkId = (Integer) exchange.getIn().getHeaders().get(ScsbConstants.BULK_REQUEST_CHUNK_ID);
+        getBulkItemRequestProcessService().processBulkRequestItem(body, bulkRequestId, chunkId);
     }
 
     public void requestItemLasStatusCheckOnMessage(@Body String body, Exchange exchange) throws IOException {
-        ObjectMapper om = new ObjectMapper();
         RequestInformation requestInformation = null;
         try {
             log.info(body);
-            requestInformation = om.readValue(body, RequestInformation.class);
+            requestInformation = JsonUtil.REQUEST_INFORMATION_READER.readValue(body);
         } catch (Exception e) {
             log.error(e.getMessage());
         }
@@ -234,8 +268,7 @@ public class RequestItemQueueConsumer {
      * @throws IOException the io exception
      */
     public void requestItemBorrowDirectOnMessage(@Body String body, Exchange exchange) throws IOException {
-        ObjectMapper om = getObjectMapper();
-        ItemRequestInformation itemRequestInformation = om.readValue(body, ItemRequestInformation.class);
+        ItemRequestInformation itemRequestInformation = getItemRequestInformationReader().readValue(body);
         getLogger().info("Item Barcode Received for Processing Borrow Direct -> {}", itemRequestInformation.getItemBarcodes().get(0));
         getItemRequestService().requestItem(itemRequestInformation, exchange);
     }
@@ -248,8 +281,7 @@ public class RequestItemQueueConsumer {
      * @throws IOException the io exception
      */
     public void requestItemRecallOnMessage(@Body String body, Exchange exchange) throws IOException {
-        ObjectMapper om = getObjectMapper();
-        ItemRequestInformation itemRequestInformation = om.readValue(body, ItemRequestInformation.class);
+        ItemRequestInformation itemRequestInformation = getItemRequestInformationReader().readValue(body);
         getLogger().info("Item Barcode Received for Processing Recall -> {}", itemRequestInformation.getItemBarcodes().get(0));
         getItemRequestService().recallItem(itemRequestInformation, exchange);
     }
@@ -346,10 +378,9 @@ public class RequestItemQueueConsumer {
 
     private void setTopicMessageToDb(String body, String operationType) {
         if (StringUtils.isNotBlank(body)) {
-            ObjectMapper om = new ObjectMapper();
             ItemInformationResponse itemInformationResponse = null;
             try {
-                itemInformationResponse = om.readValue(body, ItemInformationResponse.class);
+                itemInformationResponse = JsonUtil.ITEM_INFORMATION_RESPONSE_READER.readValue(body);
                 if (!getItemRequestService().isUseQueueLasCall(itemInformationResponse.getImsLocationCode())) {
                     getItemRequestService().updateChangesToDb(itemInformationResponse, operationType);
                 }
@@ -0,0 +1,44 @@
+package org.recap.repository.jpa;
+
+import org.recap.model.jpa.BulkRequestChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * The chunks of barcodes published for the bulk requests.
+ */
+public interface BulkRequestChunkRepository extends JpaRepository<BulkRequestChunkEntity, Integer> {
+
+    /**
+     * Checks whether the chunk is already processed.
+     *
+     * @param chunkId the chunk id
+     * @return true when the chunk is processed
+     */
+    boolean existsByIdAndProcessedTrue(Integer chunkId);
+
+    /**
+     * Finds the chunk of the bulk request at the given position of its file.
+     *
+     * @param bulkRequestId the bulk request id
+     * @param chunkIndex    the chunk index
+     * @return the chunk
+     */
+    Optional<BulkRequestChunkEntity> findByBulkRequestIdAndChunkIndex(Integer bulkRequestId, Integer chunkIndex);
+
+    /**
+     * Marks the chunk as processed, unless it already is.
+     *
+     * @param chunkId the chunk id
+     * @return 1 when the chunk is marked by the caller, otherwise 0
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkRequestChunkEntity chunk SET chunk.processed = true WHERE chunk.id = :chunkId AND chunk.processed = false")
+    int markChunkProcessed(@Param("chunkId") Integer chunkId);
+}
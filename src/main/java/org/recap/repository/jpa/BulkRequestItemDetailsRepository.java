@@ -1,9 +1,34 @@
 package org.recap.repository.jpa;
 
 import org.recap.model.jpa.BulkRequestItemEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 /**
  * Created by rajeshbabuk on 10/10/17.
  */
 public interface BulkRequestItemDetailsRepository extends BaseRepository<BulkRequestItemEntity> {
+
+    /**
+     * Finds the requesting institution and storage location of the bulk request, without loading its file data.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return the scope of the bulk request
+     */
+    @Query("SELECT bulkRequestItem.id AS id, bulkRequestItem.requestingInstitutionId AS requestingInstitutionId, bulkRequestItem.imsLocation AS imsLocation FROM BulkRequestItemEntity bulkRequestItem WHERE bulkRequestItem.id = :bulkRequestId")
+    Optional<BulkRequestScope> findScopeById(@Param("bulkRequestId") Integer bulkRequestId);
+
+    /**
+     * The requesting institution and storage location of a bulk request.
+     */
+    interface BulkRequestScope {
+
+        Integer getId();
+
+        Integer getRequestingInstitutionId();
+
+        Integer getImsLocation();
+    }
 }
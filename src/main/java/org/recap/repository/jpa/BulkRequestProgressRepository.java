@@ -0,0 +1,58 @@
+package org.recap.repository.jpa;
+
+import org.recap.model.jpa.BulkRequestProgressEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counts the chunks of each bulk request which are still to be processed.
+ */
+public interface BulkRequestProgressRepository extends JpaRepository<BulkRequestProgressEntity, Integer> {
+
+    /**
+     * Adds a chunk to be processed to the bulk request.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return the number of updated rows
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkRequestProgressEntity progress SET progress.pendingChunks = progress.pendingChunks + 1 WHERE progress.bulkRequestId = :bulkRequestId AND progress.pendingChunks > 0")
+    int incrementPendingChunks(@Param("bulkRequestId") Integer bulkRequestId);
+
+    /**
+     * Marks a chunk of the bulk request as processed.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return the number of updated rows
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkRequestProgressEntity progress SET progress.pendingChunks = progress.pendingChunks - 1 WHERE progress.bulkRequestId = :bulkRequestId AND progress.pendingChunks > 0")
+    int decrementPendingChunks(@Param("bulkRequestId") Integer bulkRequestId);
+
+    /**
+     * Claims the completion of the bulk request once all its chunks are processed. Only one caller gets an updated row.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return 1 when the completion is claimed by the caller, otherwise 0
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkRequestProgressEntity progress SET progress.pendingChunks = -1 WHERE progress.bulkRequestId = :bulkRequestId AND progress.pendingChunks = 0")
+    int claimCompletion(@Param("bulkRequestId") Integer bulkRequestId);
+
+    /**
+     * Marks every chunk of the bulk request as published, unless it already is.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return 1 when the dispatch is marked by the caller, otherwise 0
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkRequestProgressEntity progress SET progress.dispatched = true WHERE progress.bulkRequestId = :bulkRequestId AND progress.dispatched = false")
+    int markDispatched(@Param("bulkRequestId") Integer bulkRequestId);
+}
@@ -185,6 +185,30 @@ public interface ItemDetailsRepository extends BaseRepository<ItemEntity> {
     @Query("UPDATE ItemEntity item SET item.itemAvailabilityStatusId = :itemAvailabilityStatusId , item.lastUpdatedBy = :lastUpdatedBy where item.barcode IN (:barcode)")
     int updateAvailabilityStatus(@Param("itemAvailabilityStatusId") Integer itemAvailabilityStatusId,@Param("lastUpdatedBy") String lastUpdatedBy,@Param("barcode") String barcode);
 
+    /**
+     * Gets the item availability status id of the item.
+     *
+     * @param itemId the item id
+     * @return the item availability status id
+     */
+    @Query("select item.itemAvailabilityStatusId from ItemEntity item where item.id = :itemId")
+    Integer findItemAvailabilityStatusIdById(@Param("itemId") Integer itemId);
+
+    /**
+     * Updates the item availability status and last updated by of the item only if its availability status is still the
+     * expected one, so that of two concurrent updates from the same expected status only one is applied.
+     *
+     * @param itemId                           the item id
+     * @param expectedItemAvailabilityStatusId the expected item availability status id
+     * @param itemAvailabilityStatusId         the item availability status id
+     * @param lastUpdatedBy                    the last updated by
+     * @return 1 if the item was updated, 0 if its availability status was not the expected one
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ItemEntity item SET item.itemAvailabilityStatusId = :itemAvailabilityStatusId , item.lastUpdatedBy = :lastUpdatedBy where item.id = :itemId and item.itemAvailabilityStatusId = :expectedItemAvailabilityStatusId")
+    int compareAndUpdateAvailabilityStatus(@Param("itemId") Integer itemId, @Param("expectedItemAvailabilityStatusId") Integer expectedItemAvailabilityStatusId, @Param("itemAvailabilityStatusId") Integer itemAvailabilityStatusId, @Param("lastUpdatedBy") String lastUpdatedBy);
+
     /**
      * Gets item entities for the given barcode and status code.
      *
@@ -114,6 +114,16 @@ public interface RequestItemDetailsRepository extends BaseRepository<RequestItem
     @Query(value = "select request from RequestItemEntity request inner join request.itemEntity item where item.barcode in :itemBarcodes")
     List<RequestItemEntity> findByItemBarcodes(@Param("itemBarcodes")List<String> itemBarcodes);
 
+    /**
+     * Find the requests placed for the bulk request on the item barcodes.
+     *
+     * @param bulkRequestId the bulk request id
+     * @param itemBarcodes  the item barcodes
+     * @return the list
+     */
+    @Query(value = "select request from RequestItemEntity request inner join request.itemEntity item where request.bulkRequestItemEntity.id = :bulkRequestId and item.barcode in :itemBarcodes")
+    List<RequestItemEntity> findByBulkRequestIdAndItemBarcodes(@Param("bulkRequestId") Integer bulkRequestId, @Param("itemBarcodes") List<String> itemBarcodes);
+
     @Query(value =  "SELECT request FROM RequestItemEntity as request inner join request.requestStatusEntity as rse WHERE rse.requestStatusCode in :pendingLASStatusList AND request.id not in (select requestId from PendingRequestEntity)")
     List<RequestItemEntity> findPendingAndLASReqNotNotified(@Param("pendingLASStatusList")List<String> pendingLASStatusList);
 }
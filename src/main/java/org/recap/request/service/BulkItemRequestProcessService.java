@@ -1,7 +1,6 @@
 package org.recap.request.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.recap.ScsbConstants;
 import org.recap.ScsbCommonConstants;
@@ -14,18 +13,24 @@ import org.recap.model.jpa.BulkRequestItemEntity;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.jpa.RequestItemEntity;
+import org.recap.repository.jpa.BulkRequestChunkRepository;
 import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Created by rajeshbabuk on 10/10/17.
@@ -57,66 +62,131 @@ public class BulkItemRequestProcessService {
     @Autowired
     private CommonUtil commonUtil;
 
+    @Autowired
+    private BulkRequestProgressService bulkRequestProgressService;
+
+    @Autowired
+    private BulkRequestChunkRepository bulkRequestChunkRepository;
+
+    @Autowired
+    private RequestItemDetailsRepository requestItemDetailsRepository;
+
     /**
-     * Process bulk request item.
+     * Process bulk request item. The message is either a chunk of comma separated item barcodes, whose items are looked
+     * up at once, or the completion of the bulk request. A chunk already processed by an earlier delivery of its message
+     * is skipped, and a chunk is marked as processed only once all its barcodes have been processed, so that a delivery
+     * which fails is processed again on redelivery. A barcode which already has a request or a result for the bulk
+     * request is not requested again.
      *
-     * @param itemBarcode   the item barcode
+     * @param itemBarcodes  the comma separated item barcodes
      * @param bulkRequestId the bulk request id
+     * @param chunkId       the chunk id, or null for a message published before chunks were recorded
      */
-    public void processBulkRequestItem(String itemBarcode, Integer bulkRequestId) {
+    public void processBulkRequestItem(String itemBarcodes, Integer bulkRequestId, Integer chunkId) {
+        if (ScsbConstants.COMPLETE.equals(itemBarcodes)) {
+            completeBulkRequest(bulkRequestId);
+            return;
+        }
+        if (chunkId != null && bulkRequestChunkRepository.existsByIdAndProcessedTrue(chunkId)) {
+            log.info("Chunk {} of bulk request id {} is already processed", chunkId, bulkRequestId);
+            return;
+        }
         Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
-        if (ScsbConstants.COMPLETE.equals(itemBarcode)) {
-            try {
-                Thread.sleep(5000);
-            } catch (InterruptedException e) {
-                log.error("Interrupted Exception {0}", e);
-                Thread.currentThread().interrupt();
+        if (bulkRequestItemEntity.isPresent()) {
+            List<String> barcodes = Arrays.asList(itemBarcodes.split(","));
+            Set<String> barcodesWithStatus = itemRequestServiceUtil.findBarcodesWithStatus(barcodes, bulkRequestId);
+            Map<String, Integer> placedRequestIdMap = new HashMap<>();
+            for (RequestItemEntity requestItemEntity : requestItemDetailsRepository.findByBulkRequestIdAndItemBarcodes(bulkRequestId, barcodes)) {
+                placedRequestIdMap.merge(requestItemEntity.getItemEntity().getBarcode(), requestItemEntity.getId(), Math::max);
             }
-            bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
-            if (bulkRequestItemEntity.isPresent()) {
-                bulkRequestItemEntity.get().setBulkRequestStatus(ScsbConstants.PROCESSED);
-                bulkRequestItemEntity.get().setLastUpdatedDate(new Date());
-                BulkRequestItemEntity savedBulkRequestItemEntity = bulkRequestItemDetailsRepository.save(bulkRequestItemEntity.get());
-                List<RequestItemEntity> requestItemEntities = savedBulkRequestItemEntity.getRequestItemEntities();
-                if (CollectionUtils.isNotEmpty(requestItemEntities)) {
-                    List<BulkRequestItem> bulkRequestItems = new ArrayList<>();
-                    for (RequestItemEntity requestItemEntity : requestItemEntities) {
-                        BulkRequestItem bulkRequestItem = new BulkRequestItem();
-                        bulkRequestItem.setItemBarcode(requestItemEntity.getItemEntity().getBarcode());
-                        bulkRequestItem.setCustomerCode(requestItemEntity.getItemEntity().getCustomerCode());
-                        bulkRequestItem.setRequestId(String.valueOf(requestItemEntity.getId()));
-                        bulkRequestItem.setRequestStatus(requestItemEntity.getRequestStatusEntity().getRequestStatusDescription());
-                        if (requestItemEntity.getRequestStatusEntity().getRequestStatusCode().equals(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED)
-                                || requestItemEntity.getRequestStatusEntity().getRequestStatusCode().equals(ScsbConstants.REQUEST_STATUS_PENDING)) {
-                            bulkRequestItem.setStatus(ScsbCommonConstants.SUCCESS);
-                        } else {
-                            bulkRequestItem.setStatus(StringUtils.substringAfter(requestItemEntity.getNotes(), "Exception : "));
-                        }
-                        bulkRequestItems.add(bulkRequestItem);
-                    }
-                    itemRequestServiceUtil.updateStatusToBarcodes(bulkRequestItems, savedBulkRequestItemEntity);
+            Map<String, List<ItemEntity>> itemEntityMap = new HashMap<>();
+            for (ItemEntity itemEntity : itemDetailsRepository.findByBarcodeIn(barcodes)) {
+                itemEntityMap.computeIfAbsent(itemEntity.getBarcode(), barcode -> new ArrayList<>()).add(itemEntity);
+            }
+            List<Integer> requestIds = new ArrayList<>();
+            List<BulkRequestItem> failedBulkRequestItems = new ArrayList<>();
+            for (String itemBarcode : barcodes) {
+                Integer requestId;
+                if (barcodesWithStatus.contains(itemBarcode)) {
+                    log.info("Barcode {} of bulk request id {} is already processed", itemBarcode, bulkRequestId);
+                    requestId = null;
+                } else if (placedRequestIdMap.containsKey(itemBarcode)) {
+                    log.info("Barcode {} of bulk request id {} is already requested", itemBarcode, bulkRequestId);
+                    requestId = placedRequestIdMap.get(itemBarcode);
+                } else {
+                    requestId = processBulkRequestForBarcode(itemBarcode, itemEntityMap.get(itemBarcode), bulkRequestItemEntity.get(), failedBulkRequestItems);
+                }
+                if (requestId != null) {
+                    requestIds.add(requestId);
                 }
-                itemRequestServiceUtil.generateReportAndSendEmail(bulkRequestId);
-                log.info("Bulk request processing completed for bulk request id : {}", bulkRequestId);
             }
-        } else {
-            bulkRequestItemEntity.ifPresent(requestItemEntity -> processBulkRequestForBarcode(itemBarcode, requestItemEntity));
+            List<BulkRequestItem> bulkRequestItems = buildBulkRequestItems(requestItemDetailsRepository.findAllById(requestIds));
+            bulkRequestItems.addAll(failedBulkRequestItems);
+            itemRequestServiceUtil.updateStatusToBarcodes(bulkRequestItems, bulkRequestId);
+        }
+        boolean lastChunk = chunkId != null ? bulkRequestProgressService.completeChunk(bulkRequestId, chunkId) : bulkRequestProgressService.completeDispatch(bulkRequestId);
+        if (lastChunk) {
+            completeBulkRequest(bulkRequestId);
+        }
+    }
+
+    /**
+     * Marks the bulk request as processed and reports the status of its requests.
+     *
+     * @param bulkRequestId the bulk request id
+     */
+    private void completeBulkRequest(Integer bulkRequestId) {
+        Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
+        if (bulkRequestItemEntity.isPresent()) {
+            bulkRequestItemEntity.get().setBulkRequestStatus(ScsbConstants.PROCESSED);
+            bulkRequestItemEntity.get().setLastUpdatedDate(new Date());
+            bulkRequestItemDetailsRepository.save(bulkRequestItemEntity.get());
+            itemRequestServiceUtil.generateReportAndSendEmail(bulkRequestId);
+            log.info("Bulk request processing completed for bulk request id : {}", bulkRequestId);
+        }
+    }
+
+    /**
+     * Builds the bulk request items reporting the status of the requests.
+     *
+     * @param requestItemEntities
+     * @return
+     */
+    private static List<BulkRequestItem> buildBulkRequestItems(List<RequestItemEntity> requestItemEntities) {
+        List<BulkRequestItem> bulkRequestItems = new ArrayList<>();
+        for (RequestItemEntity requestItemEntity : requestItemEntities) {
+            BulkRequestItem bulkRequestItem = new BulkRequestItem();
+            bulkRequestItem.setItemBarcode(requestItemEntity.getItemEntity().getBarcode());
+            bulkRequestItem.setCustomerCode(requestItemEntity.getItemEntity().getCustomerCode());
+            bulkRequestItem.setRequestId(String.valueOf(requestItemEntity.getId()));
+            bulkRequestItem.setRequestStatus(requestItemEntity.getRequestStatusEntity().getRequestStatusDescription());
+            if (requestItemEntity.getRequestStatusEntity().getRequestStatusCode().equals(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED)
+                    || requestItemEntity.getRequestStatusEntity().getRequestStatusCode().equals(ScsbConstants.REQUEST_STATUS_PENDING)) {
+                bulkRequestItem.setStatus(ScsbCommonConstants.SUCCESS);
+            } else {
+                bulkRequestItem.setStatus(StringUtils.substringAfter(requestItemEntity.getNotes(), "Exception : "));
+            }
+            bulkRequestItems.add(bulkRequestItem);
         }
+        return bulkRequestItems;
     }
 
     /**
      * Process request for each barcode.
      *
      * @param itemBarcode
+     * @param itemEntities
      * @param bulkRequestItemEntity
+     * @param failedBulkRequestItems the results of the barcodes which failed with an exception, to be reported as failed
+     * @return the request id, or null when no request was placed or processing the barcode failed
      */
-    private void processBulkRequestForBarcode(String itemBarcode, BulkRequestItemEntity bulkRequestItemEntity) {
+    private Integer processBulkRequestForBarcode(String itemBarcode, List<ItemEntity> itemEntities, BulkRequestItemEntity bulkRequestItemEntity, List<BulkRequestItem> failedBulkRequestItems) {
+        Integer requestId = null;
         try {
-            List<ItemEntity> itemEntities = itemDetailsRepository.findByBarcode(itemBarcode);
             ItemEntity itemEntity = itemEntities.get(0);
             ItemRequestInformation itemRequestInformation = buildItemRequestInformation(bulkRequestItemEntity);
             itemRequestDBService.updateItemAvailabilityStatus(itemEntities, bulkRequestItemEntity.getCreatedBy());
-            Integer requestId = itemRequestDBService.updateRecapRequestItem(itemRequestInformation, itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING, bulkRequestItemEntity);
+            requestId = itemRequestDBService.updateRecapRequestItem(itemRequestInformation, itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING, bulkRequestItemEntity);
             itemRequestInformation.setRequestId(requestId);
             itemRequestInformation.setItemBarcodes(Collections.singletonList(itemEntity.getBarcode()));
             itemRequestInformation.setCustomerCode(itemEntity.getCustomerCode());
@@ -153,8 +223,16 @@ public class BulkItemRequestProcessService {
             itemRequestServiceUtil.updateSolrIndex(itemEntity);
             log.info("Request processing completed for barcode : {}", itemBarcode);
         } catch (Exception ex) {
-            log.error(ScsbCommonConstants.LOG_ERROR, itemBarcode);
+            log.error(ScsbCommonConstants.LOG_ERROR, itemBarcode, ex);
+            BulkRequestItem bulkRequestItem = new BulkRequestItem();
+            bulkRequestItem.setItemBarcode(itemBarcode);
+            bulkRequestItem.setCustomerCode(itemEntities != null && !itemEntities.isEmpty() ? itemEntities.get(0).getCustomerCode() : null);
+            bulkRequestItem.setRequestId(requestId != null ? String.valueOf(requestId) : null);
+            bulkRequestItem.setStatus(ScsbConstants.INTERNAL_ERROR_DURING_REQUEST);
+            failedBulkRequestItems.add(bulkRequestItem);
+            return null;
         }
+        return requestId;
     }
 
     /**
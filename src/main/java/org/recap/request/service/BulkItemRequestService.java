@@ -2,28 +2,38 @@ package org.recap.request.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.ProducerTemplate;
-import org.apache.commons.collections.CollectionUtils;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbConstants;
 import org.recap.ScsbCommonConstants;
 import org.recap.model.request.BulkRequestItem;
+import org.recap.model.jpa.BulkRequestChunkEntity;
 import org.recap.model.jpa.BulkRequestItemEntity;
+import org.recap.model.jpa.BulkRequestProgressEntity;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
+import org.recap.repository.jpa.BulkRequestProgressRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
 import org.recap.request.util.ItemRequestServiceUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
-import java.io.StringReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Created by rajeshbabuk on 10/10/17.
@@ -32,6 +42,7 @@ import java.util.Set;
 @Component
 public class BulkItemRequestService {
 
+    static final String BULK_REQUEST_FILE_DATA_SELECT = "SELECT BULK_REQUEST_FILE_DATA FROM bulk_request_item_t WHERE BULK_REQUEST_ID = ?";
 
     @Value("${" + PropertyKeyConstants.BULK_REQUEST_ITEM_COUNT_LIMIT + "}")
     private Integer bulkRequestItemCountLimit;
@@ -45,93 +56,197 @@ public class BulkItemRequestService {
     @Autowired
     private ItemRequestServiceUtil itemRequestServiceUtil;
 
+    @Autowired
+    private BulkRequestProgressRepository bulkRequestProgressRepository;
+
+    @Autowired
+    private BulkRequestProgressService bulkRequestProgressService;
+
     @Autowired
     private ProducerTemplate producerTemplate;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bulk.request.chunk.size:100}")
+    private int chunkSize;
+
     /**
-     * Bulk request items.
+     * Bulk request items. The barcodes of the uploaded file are streamed from the database line by line and looked up in
+     * chunks of {@code bulk.request.chunk.size}; the valid barcodes of each chunk are published as one message, to be
+     * processed by the concurrent consumers of the processing queue, and the completion of the bulk request is claimed
+     * by whoever processes its last chunk. A failure to stream the file marks the bulk request as failed and is rethrown,
+     * and a redelivery dispatches the bulk request again until its dispatch is marked as finished. The chunks recorded
+     * by an interrupted dispatch are not counted again and the barcodes which already have a status are skipped.
      *
      * @param bulkRequestId the bulk request id
      */
     public void bulkRequestItems(Integer bulkRequestId) {
-        LinkedList<String> bulkRequestItemBarcodeList = new LinkedList<>();
-        Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
-        if(bulkRequestItemEntity.isPresent()) {
-            String requestData = new String(bulkRequestItemEntity.get().getBulkRequestFileData());
-            new BufferedReader(new StringReader(requestData)).lines().forEach(barcodeRow -> bulkRequestItemBarcodeList.add(barcodeRow.split(",")[0]));
-            bulkRequestItemBarcodeList.remove(0);
+        Optional<BulkRequestItemDetailsRepository.BulkRequestScope> bulkRequestScope = bulkRequestItemDetailsRepository.findScopeById(bulkRequestId);
+        if (!bulkRequestScope.isPresent()) {
+            return;
+        }
+        Optional<BulkRequestProgressEntity> bulkRequestProgress = bulkRequestProgressRepository.findById(bulkRequestId);
+        if (bulkRequestProgress.isPresent() && bulkRequestProgress.get().isDispatched()) {
+            log.info("Bulk request with id {} is already dispatched", bulkRequestId);
+            return;
         }
-        Integer bulkRequestItemBarcodeCount = bulkRequestItemBarcodeList.size();
-        log.info("Total number of barcodes received for bulk request with id {} is - {}", bulkRequestId, bulkRequestItemBarcodeCount);
-        Set<String> nonDuplicateBarcodeList = removeDuplicates(bulkRequestItemBarcodeList);
-        log.info("Duplicate barcodes count : {}", bulkRequestItemBarcodeCount - nonDuplicateBarcodeList.size());
-        bulkRequestItemBarcodeList.clear();
-        bulkRequestItemBarcodeList.addAll(nonDuplicateBarcodeList);
-        List<String> bulkRequestItemBarcodeLimitedList = new ArrayList<>();
-        List<String> bulkRequestItemBarcodeExcessList = new ArrayList<>();
-        if (bulkRequestItemBarcodeCount > bulkRequestItemCountLimit) {
-            bulkRequestItemBarcodeLimitedList.addAll(bulkRequestItemBarcodeList.subList(0, bulkRequestItemCountLimit));
-            bulkRequestItemBarcodeExcessList.addAll(bulkRequestItemBarcodeList.subList(bulkRequestItemCountLimit, nonDuplicateBarcodeList.size()));
+        if (bulkRequestProgress.isPresent()) {
+            log.info("Resuming the interrupted dispatch of bulk request with id {}", bulkRequestId);
         } else {
-            bulkRequestItemBarcodeLimitedList.addAll(bulkRequestItemBarcodeList.subList(0, bulkRequestItemBarcodeList.size()));
-            bulkRequestItemBarcodeList.clear();
+            BulkRequestProgressEntity bulkRequestProgressEntity = new BulkRequestProgressEntity();
+            bulkRequestProgressEntity.setBulkRequestId(bulkRequestId);
+            bulkRequestProgressEntity.setPendingChunks(1);
+            bulkRequestProgressRepository.save(bulkRequestProgressEntity);
         }
-        List<BulkRequestItem> exceptionBulkRequestItems = new ArrayList<>();
-        for (String itemBarcode : bulkRequestItemBarcodeLimitedList) {
-            List<ItemEntity> itemEntities = itemDetailsRepository.findByBarcode(itemBarcode);
-            if (CollectionUtils.isNotEmpty(itemEntities)) {
-                ItemEntity itemEntity = itemEntities.get(0);
-                if (itemEntity.getItemStatusEntity().getStatusCode().equalsIgnoreCase(ScsbCommonConstants.NOT_AVAILABLE)) {
-                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), ScsbConstants.RETRIEVAL_NOT_FOR_UNAVAILABLE_ITEM));
-                } else if (!itemEntity.getOwningInstitutionId().equals(bulkRequestItemEntity.get().getRequestingInstitutionId())) {
-                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), "Item doesn't belong to the requesting institution."));
-                } else if(!itemEntity.getImsLocationId().equals(bulkRequestItemEntity.get().getImsLocation())) {
-                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), "Item doesn't belong to the requesting storage location."));
+        BarcodeDispatch barcodeDispatch = new BarcodeDispatch(bulkRequestScope.get(), bulkRequestProgress.isPresent());
+        try {
+            jdbcTemplate.query(BULK_REQUEST_FILE_DATA_SELECT, (RowCallbackHandler) resultSet -> {
+                InputStream bulkRequestFileData = resultSet.getBinaryStream(1);
+                if (bulkRequestFileData == null) {
+                    return;
                 }
-                else {
-                    producerTemplate.sendBodyAndHeader(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, itemBarcode, ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestId);
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(bulkRequestFileData))) {
+                    String barcodeRow;
+                    reader.readLine();
+                    while ((barcodeRow = reader.readLine()) != null) {
+                        barcodeDispatch.add(barcodeRow.split(",")[0]);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-            } else {
-                exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, null, ScsbConstants.WRONG_ITEM_BARCODE));
-            }
+            }, bulkRequestId);
+            barcodeDispatch.publishChunk();
+            barcodeDispatch.updateExcessStatus();
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            markBulkRequestFailed(bulkRequestId);
+            throw e;
+        } finally {
+            log.info("Total number of barcodes received for bulk request with id {} is - {}, duplicate barcodes count : {}, chunks : {}", bulkRequestId, barcodeDispatch.barcodeCount, barcodeDispatch.duplicateBarcodeCount, barcodeDispatch.chunkCount);
         }
-        for (String itemBarcode : bulkRequestItemBarcodeExcessList) {
-            exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, null, "Item barcode ignored. Limit of bulk request exceeded."));
+        if (bulkRequestProgressService.completeDispatch(bulkRequestId)) {
+            producerTemplate.sendBodyAndHeader(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, ScsbConstants.COMPLETE, ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestId);
         }
-        nonDuplicateBarcodeList.clear();
-        bulkRequestItemBarcodeLimitedList.clear();
-        bulkRequestItemBarcodeExcessList.clear();
-        updateStatusToBarcodes(exceptionBulkRequestItems, bulkRequestId);
-        producerTemplate.sendBodyAndHeader(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, ScsbConstants.COMPLETE, ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestId);
     }
 
     /**
-     * Updates process status to each barcode in csv format.
-     * @param exceptionBulkRequestItems
-     * @param bulkRequestId
+     * Marks the bulk request as failed, to be dispatched again on the redelivery of its message.
+     *
+     * @param bulkRequestId the bulk request id
      */
-    private void updateStatusToBarcodes(List<BulkRequestItem> exceptionBulkRequestItems, Integer bulkRequestId) {
-       Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
-       if(bulkRequestItemEntity.isPresent()) {
-           if (!ScsbConstants.PROCESSED.equals(bulkRequestItemEntity.get().getBulkRequestStatus())) {
-               StringBuilder csvFormatDataBuilder = new StringBuilder();
-               csvFormatDataBuilder.append("BARCODE,CUSTOMER CODE,REQUEST ID,REQUEST STATUS,STATUS");
-               itemRequestServiceUtil.buildCsvFormatData(exceptionBulkRequestItems, csvFormatDataBuilder);
-               bulkRequestItemEntity.get().setBulkRequestFileData(csvFormatDataBuilder.toString().getBytes());
-               bulkRequestItemDetailsRepository.save(bulkRequestItemEntity.get());
-           } else {
-               itemRequestServiceUtil.updateStatusToBarcodes(exceptionBulkRequestItems, bulkRequestItemEntity.get());
-           }
-       }
+    private void markBulkRequestFailed(Integer bulkRequestId) {
+        try {
+            Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
+            if (bulkRequestItemEntity.isPresent()) {
+                bulkRequestItemEntity.get().setBulkRequestStatus(ScsbConstants.FAILED);
+                bulkRequestItemEntity.get().setLastUpdatedDate(new Date());
+                bulkRequestItemDetailsRepository.save(bulkRequestItemEntity.get());
+            }
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
     }
 
     /**
-     * Removes duplicates from list.
-     * @param bulkRequestItemBarcodeList
-     * @return
+     * Collects the barcodes of a bulk request in file order, up to the bulk request limit, and publishes them in chunks.
      */
-    private static Set<String> removeDuplicates(List<String> bulkRequestItemBarcodeList) {
-        return new HashSet<>(bulkRequestItemBarcodeList);
+    private class BarcodeDispatch {
+
+        private final BulkRequestItemDetailsRepository.BulkRequestScope bulkRequestScope;
+        private final boolean resumed;
+        private final Set<String> requestedBarcodes = new HashSet<>();
+        private List<String> chunkBarcodes = new ArrayList<>();
+        private List<BulkRequestItem> excessBulkRequestItems = new ArrayList<>();
+        private int barcodeCount;
+        private int duplicateBarcodeCount;
+        private int chunkCount;
+
+        private BarcodeDispatch(BulkRequestItemDetailsRepository.BulkRequestScope bulkRequestScope, boolean resumed) {
+            this.bulkRequestScope = bulkRequestScope;
+            this.resumed = resumed;
+        }
+
+        private void add(String itemBarcode) {
+            barcodeCount++;
+            if (requestedBarcodes.contains(itemBarcode)) {
+                duplicateBarcodeCount++;
+            } else if (requestedBarcodes.size() >= bulkRequestItemCountLimit) {
+                excessBulkRequestItems.add(buildBulkRequestItem(itemBarcode, null, "Item barcode ignored. Limit of bulk request exceeded."));
+                if (excessBulkRequestItems.size() >= Math.max(1, chunkSize)) {
+                    updateExcessStatus();
+                }
+            } else {
+                requestedBarcodes.add(itemBarcode);
+                chunkBarcodes.add(itemBarcode);
+                if (chunkBarcodes.size() >= Math.max(1, chunkSize)) {
+                    publishChunk();
+                }
+            }
+        }
+
+        private void updateExcessStatus() {
+            updateStatus(excessBulkRequestItems);
+            excessBulkRequestItems = new ArrayList<>();
+        }
+
+        /**
+         * Appends the status of the barcodes to the results of the bulk request, leaving out the barcodes which already
+         * got a status from an interrupted dispatch.
+         */
+        private void updateStatus(List<BulkRequestItem> bulkRequestItems) {
+            if (resumed && !bulkRequestItems.isEmpty()) {
+                Set<String> barcodesWithStatus = itemRequestServiceUtil.findBarcodesWithStatus(bulkRequestItems.stream().map(BulkRequestItem::getItemBarcode).collect(Collectors.toList()), bulkRequestScope.getId());
+                bulkRequestItems.removeIf(bulkRequestItem -> barcodesWithStatus.contains(bulkRequestItem.getItemBarcode()));
+            }
+            itemRequestServiceUtil.updateStatusToBarcodes(bulkRequestItems, bulkRequestScope.getId());
+        }
+
+        /**
+         * Looks up the items of the collected barcodes, publishes the barcodes which can be requested as one chunk and
+         * appends the status of the others to the results of the bulk request. A chunk which an interrupted dispatch
+         * has recorded is published again unless it is processed already.
+         */
+        private void publishChunk() {
+            if (chunkBarcodes.isEmpty()) {
+                return;
+            }
+            List<String> barcodes = chunkBarcodes;
+            chunkBarcodes = new ArrayList<>();
+            int chunkIndex = ++chunkCount;
+            List<BulkRequestItem> exceptionBulkRequestItems = new ArrayList<>();
+            Map<String, ItemEntity> itemEntityMap = new HashMap<>();
+            for (ItemEntity itemEntity : itemDetailsRepository.findByBarcodeIn(barcodes)) {
+                itemEntityMap.putIfAbsent(itemEntity.getBarcode(), itemEntity);
+            }
+            List<String> validBarcodes = new ArrayList<>();
+            for (String itemBarcode : barcodes) {
+                ItemEntity itemEntity = itemEntityMap.get(itemBarcode);
+                if (itemEntity == null) {
+                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, null, ScsbConstants.WRONG_ITEM_BARCODE));
+                } else if (itemEntity.getItemStatusEntity().getStatusCode().equalsIgnoreCase(ScsbCommonConstants.NOT_AVAILABLE)) {
+                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), ScsbConstants.RETRIEVAL_NOT_FOR_UNAVAILABLE_ITEM));
+                } else if (!itemEntity.getOwningInstitutionId().equals(bulkRequestScope.getRequestingInstitutionId())) {
+                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), "Item doesn't belong to the requesting institution."));
+                } else if (!itemEntity.getImsLocationId().equals(bulkRequestScope.getImsLocation())) {
+                    exceptionBulkRequestItems.add(buildBulkRequestItem(itemBarcode, itemEntity.getCustomerCode(), "Item doesn't belong to the requesting storage location."));
+                } else {
+                    validBarcodes.add(itemBarcode);
+                }
+            }
+            updateStatus(exceptionBulkRequestItems);
+            if (validBarcodes.isEmpty()) {
+                return;
+            }
+            BulkRequestChunkEntity bulkRequestChunkEntity = bulkRequestProgressService.registerChunk(bulkRequestScope.getId(), chunkIndex);
+            if (bulkRequestChunkEntity.isProcessed()) {
+                return;
+            }
+            Map<String, Object> headers = new HashMap<>();
+            headers.put(ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestScope.getId());
+            headers.put(ScsbConstants.BULK_REQUEST_CHUNK_ID, bulkRequestChunkEntity.getId());
+            producerTemplate.sendBodyAndHeaders(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, String.join(",", validBarcodes), headers);
+        }
     }
 
     /**
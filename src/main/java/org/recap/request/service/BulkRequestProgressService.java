@@ -0,0 +1,77 @@
+package org.recap.request.service;
+
+import org.recap.model.jpa.BulkRequestChunkEntity;
+import org.recap.repository.jpa.BulkRequestChunkRepository;
+import org.recap.repository.jpa.BulkRequestProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Keeps the count of the chunks of a bulk request which are still to be processed in step with its chunks, so that the
+ * completion of the bulk request is claimed exactly once.
+ */
+@Service
+public class BulkRequestProgressService {
+
+    @Autowired
+    private BulkRequestProgressRepository bulkRequestProgressRepository;
+
+    @Autowired
+    private BulkRequestChunkRepository bulkRequestChunkRepository;
+
+    /**
+     * Records the chunk of the bulk request at the given position of its file and adds it to the chunks to be
+     * processed. A chunk already recorded by an interrupted dispatch of the bulk request is returned as is.
+     *
+     * @param bulkRequestId the bulk request id
+     * @param chunkIndex    the chunk index
+     * @return the chunk
+     */
+    @Transactional
+    public BulkRequestChunkEntity registerChunk(Integer bulkRequestId, int chunkIndex) {
+        Optional<BulkRequestChunkEntity> recordedChunk = bulkRequestChunkRepository.findByBulkRequestIdAndChunkIndex(bulkRequestId, chunkIndex);
+        if (recordedChunk.isPresent()) {
+            return recordedChunk.get();
+        }
+        BulkRequestChunkEntity bulkRequestChunkEntity = new BulkRequestChunkEntity();
+        bulkRequestChunkEntity.setBulkRequestId(bulkRequestId);
+        bulkRequestChunkEntity.setChunkIndex(chunkIndex);
+        bulkRequestChunkEntity = bulkRequestChunkRepository.save(bulkRequestChunkEntity);
+        bulkRequestProgressRepository.incrementPendingChunks(bulkRequestId);
+        return bulkRequestChunkEntity;
+    }
+
+    /**
+     * Marks a chunk of the bulk request as processed and claims the completion of the bulk request when it was the
+     * last chunk. A chunk already marked as processed, e.g. by an earlier delivery of its message, is not counted again.
+     *
+     * @param bulkRequestId the bulk request id
+     * @param chunkId       the chunk id
+     * @return true when the caller has to complete the bulk request
+     */
+    @Transactional
+    public boolean completeChunk(Integer bulkRequestId, Integer chunkId) {
+        if (bulkRequestChunkRepository.markChunkProcessed(chunkId) == 1) {
+            bulkRequestProgressRepository.decrementPendingChunks(bulkRequestId);
+        }
+        return bulkRequestProgressRepository.claimCompletion(bulkRequestId) == 1;
+    }
+
+    /**
+     * Marks the dispatch of the bulk request as finished and claims the completion of the bulk request when all its
+     * chunks are already processed. A dispatch already marked as finished is not counted again.
+     *
+     * @param bulkRequestId the bulk request id
+     * @return true when the caller has to complete the bulk request
+     */
+    @Transactional
+    public boolean completeDispatch(Integer bulkRequestId) {
+        if (bulkRequestProgressRepository.markDispatched(bulkRequestId) == 1) {
+            bulkRequestProgressRepository.decrementPendingChunks(bulkRequestId);
+        }
+        return bulkRequestProgressRepository.claimCompletion(bulkRequestId) == 1;
+    }
+}
@@ -18,6 +18,7 @@ import org.recap.repository.jpa.ItemDetailsRepository;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.repository.jpa.RequestTypeDetailsRepository;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.request.util.RequestLifecycleMetrics;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -56,6 +57,9 @@ public class ItemEDDRequestService {
     @Autowired
     private PropertyUtil propertyUtil;
 
+    @Autowired
+    private RequestLifecycleMetrics requestLifecycleMetrics;
+
     /**
      * Gets item details repository.
      *
@@ -101,22 +105,22 @@ public class ItemEDDRequestService {
      */
     public ItemInformationResponse eddRequestItem(ItemRequestInformation itemRequestInfo, Exchange exchange) {
 
+        long startTime = System.nanoTime();
+        String operation = RequestLifecycleMetrics.operation(itemRequestInfo);
         List<ItemEntity> itemEntities;
         ItemEntity itemEntity = null;
         ItemInformationResponse itemResponseInformation = getItemInformationResponse();
         Integer requestId;
         try {
-            itemEntities = getItemDetailsRepository().findByBarcodeIn(itemRequestInfo.getItemBarcodes());
+            itemEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, itemRequestInfo, () -> getItemDetailsRepository().findByBarcodeIn(itemRequestInfo.getItemBarcodes()));
             if (itemEntities != null && !itemEntities.isEmpty()) {
                 log.info("Item Exists in SCSB Database");
                 itemEntity = itemEntities.get(0);
                 if (itemEntity.getBibliographicEntities().get(0).getOwningInstitutionBibId().trim().length() <= 0) {
                     itemRequestInfo.setBibId(itemEntity.getBibliographicEntities().get(0).getOwningInstitutionBibId());
                 }
-                SearchResultRow searchResultRow = getItemRequestService().searchRecords(itemEntity);
-                if (searchResultRow == null) {
-                    searchResultRow = getItemRequestService().searchRecords(itemEntity);
-                }
+                ItemEntity searchItemEntity = itemEntity;
+                SearchResultRow searchResultRow = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_SOLR, itemRequestInfo, () -> getItemRequestService().searchRecords(searchItemEntity));
                 if(searchResultRow != null) {
                     itemRequestInfo.setItemOwningInstitution(itemEntity.getInstitutionEntity().getInstitutionCode());
                     itemRequestInfo.setImsLocationCode(itemEntity.getImsLocationEntity().getImsLocationCode());
@@ -127,11 +131,8 @@ public class ItemEDDRequestService {
                     itemRequestInfo.setEddNotes(itemRequestInfo.getRequestNotes());
                     // Add EDD Information to notes to be saved in database
                     itemRequestInfo.setRequestNotes(getNotes(itemRequestInfo));
-                    boolean isItemStatusAvailable;
-                    synchronized (this) {
-                        // Change Item Availability
-                        isItemStatusAvailable = getItemRequestService().updateItemAvailabilityStatus(itemEntities, itemRequestInfo.getUsername());
-                    }
+                    // Change Item Availability
+                    boolean isItemStatusAvailable = getItemRequestService().updateItemAvailabilityStatus(itemEntities, itemRequestInfo.getUsername());
                     requestId = getItemRequestService().updateRecapRequestItem(itemRequestInfo, itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING);
                     itemRequestInfo.setRequestId(requestId);
                     itemResponseInformation.setRequestId(requestId);
@@ -185,7 +186,8 @@ public class ItemEDDRequestService {
                             getItemRequestService().rollbackUpdateItemAvailabilityStatus(itemEntity, ScsbConstants.GUEST_USER);
                         } else {
                             log.info("Patron and Institution info before CheckOut Call in EDD : patron - {} , institution - {}", itemRequestInfo.getPatronBarcode(), itemRequestInfo.getItemOwningInstitution());
-                            ItemCheckoutResponse itemCheckoutResponse = (ItemCheckoutResponse) requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
+                            ItemCheckoutResponse itemCheckoutResponse = requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_CHECKOUT, itemRequestInfo, itemRequestInfo.getItemOwningInstitution(),
+                                    () -> (ItemCheckoutResponse) requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution()));
                             if (itemCheckoutResponse.isSuccess()) {
                                 itemResponseInformation.setEddSuccessResponseScreenMsg(itemCheckoutResponse.getScreenMessage());
                             } else {
@@ -231,6 +233,7 @@ public class ItemEDDRequestService {
         } catch (Exception ex) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, ex);
         }
+        requestLifecycleMetrics.recordLifecycle(operation, itemRequestInfo, startTime, itemResponseInformation);
         return itemResponseInformation;
     }
 
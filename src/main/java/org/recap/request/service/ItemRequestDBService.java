@@ -8,7 +8,9 @@ import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.response.ItemInformationResponse;
 import org.recap.model.jpa.*;
 import org.recap.repository.jpa.*;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
+import org.recap.util.DateUtil;
 import org.recap.util.SecurityUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -31,7 +34,6 @@ public class ItemRequestDBService {
 
 
 
-    private final SimpleDateFormat simpleDateFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
 
     @Autowired
     private ItemDetailsRepository itemDetailsRepository;
@@ -42,23 +44,11 @@ public class ItemRequestDBService {
     @Autowired
     ItemChangeLogDetailsRepository itemChangeLogDetailsRepository;
 
-    @Autowired
-    private RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
-
-    @Autowired
-    private InstitutionDetailsRepository institutionDetailsRepository;
-
-    @Autowired
-    private RequestTypeDetailsRepository requestTypeDetailsRepository;
-
     @Autowired
     private OwnerCodeDetailsRepository ownerCodeDetailsRepository;
 
     @Autowired
-    private DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
-
-    @Autowired
-    private ItemStatusDetailsRepository itemStatusDetailsRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
     private SecurityUtil securityUtil;
@@ -84,31 +74,17 @@ public class ItemRequestDBService {
         RequestItemEntity savedItemRequest;
         Integer requestId = 0;
         try {
-            RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(requestStatusCode);
-            InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getRequestingInstitution());
-            RequestTypeEntity requestTypeEntity = requestTypeDetailsRepository.findByrequestTypeCode(itemRequestInformation.getRequestType());
+            Integer requestStatusId = referenceDataCache.getRequestStatusIdsByCode().get(requestStatusCode);
+            Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInformation.getRequestingInstitution());
+            Integer requestTypeId = referenceDataCache.getRequestTypeIdsByCode().get(itemRequestInformation.getRequestType());
             //Request Item
             if (itemRequestInformation.getRequestId() != null && itemRequestInformation.getRequestId() > 0) {
                 requestItemEntity = requestItemDetailsRepository.findById(itemRequestInformation.getRequestId()).orElse(requestItemEntity);
                 requestItemEntity.setRequestExpirationDate(getExpirationDate(itemRequestInformation.getExpirationDate()));
                 requestItemEntity.setLastUpdatedDate(new Date());
-                requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                requestItemEntity.setRequestStatusId(requestStatusId);
             } else {
-                requestItemEntity.setItemId(itemEntity.getId());
-                requestItemEntity.setRequestingInstitutionId(institutionEntity.getId());
-                requestItemEntity.setRequestTypeId(requestTypeEntity.getId());
-                requestItemEntity.setRequestExpirationDate(getExpirationDate(itemRequestInformation.getExpirationDate()));
-                requestItemEntity.setCreatedBy(commonUtil.getUser(itemRequestInformation.getUsername()));
-                requestItemEntity.setCreatedDate(new Date());
-                requestItemEntity.setLastUpdatedDate(new Date());
-                requestItemEntity.setPatronId(itemRequestInformation.getPatronBarcode());
-                requestItemEntity.setStopCode(itemRequestInformation.getDeliveryLocation());
-                requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
-                if(StringUtils.isNotBlank(itemRequestInformation.getEmailAddress()) && null == bulkRequestItemEntity){
-                    requestItemEntity.setEmailId(securityUtil.getEncryptedValue(itemRequestInformation.getEmailAddress()));
-                }else {
-                    requestItemEntity.setEmailId(itemRequestInformation.getEmailAddress());
-                }
+                populateNewRequestItemEntity(requestItemEntity, itemRequestInformation, itemEntity, requestStatusId, institutionId, requestTypeId, bulkRequestItemEntity);
             }
             requestItemEntity.setNotes(itemRequestInformation.getRequestNotes());
             savedItemRequest = requestItemDetailsRepository.saveAndFlush(requestItemEntity);
@@ -123,6 +99,85 @@ public class ItemRequestDBService {
         return requestId;
     }
 
+    /**
+     * Inserts the request rows of a batch of new requests with one save, in one transaction and one flush instead of a
+     * transaction per request. The request ids are generated by the database, so Hibernate still sends one insert per
+     * row. Requests that update an existing row go through {@link #updateRecapRequestItem}, as does every request of the
+     * batch if the batch save fails.
+     *
+     * @param itemRequestInformations the item request informations
+     * @param itemEntities            the requested item of each request
+     * @param requestStatusCode       the request status code
+     * @return the request ids in the order of the requests, 0 for a request whose row could not be saved
+     */
+    public List<Integer> updateRecapRequestItems(List<ItemRequestInformation> itemRequestInformations, List<ItemEntity> itemEntities, String requestStatusCode) {
+        Integer[] requestIds = new Integer[itemRequestInformations.size()];
+        Arrays.fill(requestIds, 0);
+        List<Integer> batchIndexes = new ArrayList<>();
+        List<RequestItemEntity> batchRequestItemEntities = new ArrayList<>();
+        try {
+            Integer requestStatusId = referenceDataCache.getRequestStatusIdsByCode().get(requestStatusCode);
+            for (int index = 0; index < itemRequestInformations.size(); index++) {
+                ItemRequestInformation itemRequestInformation = itemRequestInformations.get(index);
+                if (itemRequestInformations.size() == 1 || (itemRequestInformation.getRequestId() != null && itemRequestInformation.getRequestId() > 0)) {
+                    requestIds[index] = updateRecapRequestItem(itemRequestInformation, itemEntities.get(index), requestStatusCode, null);
+                    continue;
+                }
+                try {
+                    Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInformation.getRequestingInstitution());
+                    Integer requestTypeId = referenceDataCache.getRequestTypeIdsByCode().get(itemRequestInformation.getRequestType());
+                    RequestItemEntity requestItemEntity = new RequestItemEntity();
+                    populateNewRequestItemEntity(requestItemEntity, itemRequestInformation, itemEntities.get(index), requestStatusId, institutionId, requestTypeId, null);
+                    requestItemEntity.setNotes(itemRequestInformation.getRequestNotes());
+                    batchRequestItemEntities.add(requestItemEntity);
+                    batchIndexes.add(index);
+                } catch (ParseException e) {
+                    log.error(ScsbConstants.REQUEST_PARSE_EXCEPTION, e);
+                } catch (Exception e) {
+                    log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+                }
+            }
+            if (!batchRequestItemEntities.isEmpty()) {
+                List<RequestItemEntity> savedItemRequests = requestItemDetailsRepository.saveAll(batchRequestItemEntities);
+                for (int batchIndex = 0; batchIndex < savedItemRequests.size(); batchIndex++) {
+                    requestIds[batchIndexes.get(batchIndex)] = savedItemRequests.get(batchIndex).getId();
+                }
+                log.info("SCSB DB Update Successful for {} requests", savedItemRequests.size());
+                for (int batchIndex = 0; batchIndex < savedItemRequests.size(); batchIndex++) {
+                    RequestItemEntity savedItemRequest = savedItemRequests.get(batchIndex);
+                    commonUtil.saveItemChangeLogEntity(savedItemRequest.getId(), commonUtil.getUser(itemRequestInformations.get(batchIndexes.get(batchIndex)).getUsername()), ScsbConstants.REQUEST_ITEM_INSERT, savedItemRequest.getItemId() + " - " + savedItemRequest.getPatronId());
+                }
+            }
+        } catch (Exception e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            for (Integer index : batchIndexes) {
+                if (requestIds[index] == 0) {
+                    requestIds[index] = updateRecapRequestItem(itemRequestInformations.get(index), itemEntities.get(index), requestStatusCode, null);
+                }
+            }
+        }
+        return Arrays.asList(requestIds);
+    }
+
+    private void populateNewRequestItemEntity(RequestItemEntity requestItemEntity, ItemRequestInformation itemRequestInformation, ItemEntity itemEntity, Integer requestStatusId,
+                                              Integer institutionId, Integer requestTypeId, BulkRequestItemEntity bulkRequestItemEntity) throws ParseException {
+        requestItemEntity.setItemId(itemEntity.getId());
+        requestItemEntity.setRequestingInstitutionId(institutionId);
+        requestItemEntity.setRequestTypeId(requestTypeId);
+        requestItemEntity.setRequestExpirationDate(getExpirationDate(itemRequestInformation.getExpirationDate()));
+        requestItemEntity.setCreatedBy(commonUtil.getUser(itemRequestInformation.getUsername()));
+        requestItemEntity.setCreatedDate(new Date());
+        requestItemEntity.setLastUpdatedDate(new Date());
+        requestItemEntity.setPatronId(itemRequestInformation.getPatronBarcode());
+        requestItemEntity.setStopCode(itemRequestInformation.getDeliveryLocation());
+        requestItemEntity.setRequestStatusId(requestStatusId);
+        if(StringUtils.isNotBlank(itemRequestInformation.getEmailAddress()) && null == bulkRequestItemEntity){
+            requestItemEntity.setEmailId(securityUtil.getEncryptedValue(itemRequestInformation.getEmailAddress()));
+        }else {
+            requestItemEntity.setEmailId(itemRequestInformation.getEmailAddress());
+        }
+    }
+
     /**
      * Update recap request item item information response.
      *
@@ -133,26 +188,27 @@ public class ItemRequestDBService {
 
         RequestItemEntity requestItemEntity;
         RequestItemEntity savedItemRequest;
-        RequestStatusEntity requestStatusEntity=null;
+        String requestStatusCode = null;
         Integer requestId = 0;
         try {
             if (!itemInformationResponse.isSuccess()) {
-                requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.REQUEST_STATUS_EXCEPTION);
+                requestStatusCode = ScsbConstants.REQUEST_STATUS_EXCEPTION;
             }else {
                 if (itemInformationResponse.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL)){
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED;
                 }else if (itemInformationResponse.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_EDD)){
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_EDD);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_EDD;
                 }else if (itemInformationResponse.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RECALL)){
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_RECALLED);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_RECALLED;
                 }
             }
+            Integer requestStatusId = referenceDataCache.getRequestStatusIdsByCode().get(requestStatusCode);
 
             if (itemInformationResponse.getRequestId() != null && itemInformationResponse.getRequestId() > 0) {
                 requestItemEntity = requestItemDetailsRepository.findById(itemInformationResponse.getRequestId()).orElse(null);
                 if(requestItemEntity != null) {
-                    if (requestStatusEntity != null) {
-                        requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                    if (requestStatusId != null) {
+                        requestItemEntity.setRequestStatusId(requestStatusId);
                     }
                     requestItemEntity.setRequestExpirationDate(getExpirationDate(itemInformationResponse.getExpirationDate()));
                     requestItemEntity.setNotes(itemInformationResponse.getRequestNotes());
@@ -160,21 +216,21 @@ public class ItemRequestDBService {
                 }
             } else {
                 requestItemEntity = new RequestItemEntity();
-                RequestTypeEntity requestTypeEntity = requestTypeDetailsRepository.findByrequestTypeCode(itemInformationResponse.getRequestType());
-                InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemInformationResponse.getRequestingInstitution());
+                Integer requestTypeId = referenceDataCache.getRequestTypeIdsByCode().get(itemInformationResponse.getRequestType());
+                Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemInformationResponse.getRequestingInstitution());
 
                 //Request Item
                 requestItemEntity.setItemId(itemInformationResponse.getItemId());
-                requestItemEntity.setRequestingInstitutionId(institutionEntity.getId());
-                requestItemEntity.setRequestTypeId(requestTypeEntity.getId());
+                requestItemEntity.setRequestingInstitutionId(institutionId);
+                requestItemEntity.setRequestTypeId(requestTypeId);
                 requestItemEntity.setRequestExpirationDate(getExpirationDate(itemInformationResponse.getExpirationDate()));
                 requestItemEntity.setCreatedBy(commonUtil.getUser(itemInformationResponse.getUsername()));
                 requestItemEntity.setCreatedDate(new Date());
                 requestItemEntity.setLastUpdatedDate(new Date());
                 requestItemEntity.setPatronId(itemInformationResponse.getPatronBarcode());
                 requestItemEntity.setStopCode(itemInformationResponse.getDeliveryLocation());
-                if(requestStatusEntity != null) {
-                    requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                if(requestStatusId != null) {
+                    requestItemEntity.setRequestStatusId(requestStatusId);
                 }
                 if (StringUtils.isNotBlank(itemInformationResponse.getEmailAddress())){
                     requestItemEntity.setEmailId(securityUtil.getEncryptedValue(itemInformationResponse.getEmailAddress()));
@@ -205,7 +261,7 @@ public class ItemRequestDBService {
      * @return the item information response
      */
     public ItemInformationResponse updateRecapRequestStatus(ItemInformationResponse itemInformationResponse) {
-        RequestStatusEntity requestStatusEntity=null;
+        String requestStatusCode = null;
         Optional<RequestItemEntity> requestItemEntity = requestItemDetailsRepository.findById(itemInformationResponse.getRequestId());
         if(requestItemEntity.isPresent()) {
             BulkRequestItemEntity bulkRequestItemEntity = requestItemEntity.get().getBulkRequestItemEntity();
@@ -217,15 +273,15 @@ public class ItemRequestDBService {
             requestItemEntity.get().setNotes(notes);
             if (itemInformationResponse.isSuccess()) {
                 if (requestItemEntity.get().getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL)) {
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED;
                 } else if (requestItemEntity.get().getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_EDD)) {
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_EDD);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_EDD;
                 } else if (requestItemEntity.get().getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RECALL)) {
                     // This change is to update the Recall order to Retrieval order upon refile of the existing retrieval order from LAS.
-                    requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED);
+                    requestStatusCode = ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED;
                 }
             } else {
-                requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.REQUEST_STATUS_EXCEPTION);
+                requestStatusCode = ScsbConstants.REQUEST_STATUS_EXCEPTION;
                 if (itemInformationResponse.isBulk()) {
                     if (null != bulkRequestItemEntity) {
                         requestItemEntity.get().setNotes(notes + "\n" + ScsbConstants.REQUEST_LAS_EXCEPTION + ScsbConstants.REQUEST_ITEM_GFA_FAILURE + errorNote + itemInformationResponse.getScreenMessage() + "\n" + ScsbConstants.BULK_REQUEST_ID_TEXT + bulkRequestItemEntity.getId());
@@ -236,14 +292,53 @@ public class ItemRequestDBService {
                 }
                 requestItemEntity.get().setNotes(notes + "\n" + ScsbConstants.REQUEST_LAS_EXCEPTION + ScsbConstants.REQUEST_ITEM_GFA_FAILURE + errorNote + itemInformationResponse.getScreenMessage());
             }
-            if(requestStatusEntity != null) {
-                requestItemEntity.get().setRequestStatusId(requestStatusEntity.getId());
+            Integer requestStatusId = referenceDataCache.getRequestStatusIdsByCode().get(requestStatusCode);
+            if(requestStatusId != null) {
+                requestItemEntity.get().setRequestStatusId(requestStatusId);
             }
             requestItemDetailsRepository.save(requestItemEntity.get());
         }
         return itemInformationResponse;
     }
 
+    /**
+     * Marks the items as not available if none of them is not available already. Each item is switched with a
+     * conditional update on the availability status read just before, so that of concurrent requests for the same item,
+     * from this or any other instance, only one wins the row. Items already switched by a request that loses one of its
+     * items are switched back to their previous status.
+     *
+     * @param itemEntities the item entities
+     * @param userName     the user name
+     * @return true if all items were switched to not available
+     */
+    public boolean updateItemAvailabilityStatusIfAvailable(List<ItemEntity> itemEntities, String userName) {
+        Integer notAvailableStatusId = referenceDataCache.getItemStatusIdsByCode().get(ScsbCommonConstants.NOT_AVAILABLE);
+        String user = commonUtil.getUser(userName);
+        List<ItemEntity> updatedItemEntities = new ArrayList<>();
+        List<Integer> previousItemAvailabilityStatusIds = new ArrayList<>();
+        for (ItemEntity itemEntity : itemEntities) {
+            Integer itemAvailabilityStatusId = itemDetailsRepository.findItemAvailabilityStatusIdById(itemEntity.getId());
+            if (itemAvailabilityStatusId == null || notAvailableStatusId.equals(itemAvailabilityStatusId)
+                    || itemDetailsRepository.compareAndUpdateAvailabilityStatus(itemEntity.getId(), itemAvailabilityStatusId, notAvailableStatusId, user) == 0) {
+                log.info("Item {} is not available", itemEntity.getBarcode());
+                for (int index = 0; index < updatedItemEntities.size(); index++) {
+                    ItemEntity updatedItemEntity = updatedItemEntities.get(index);
+                    itemDetailsRepository.compareAndUpdateAvailabilityStatus(updatedItemEntity.getId(), notAvailableStatusId, previousItemAvailabilityStatusIds.get(index), user);
+                    updatedItemEntity.setItemAvailabilityStatusId(previousItemAvailabilityStatusIds.get(index));
+                }
+                return false;
+            }
+            itemEntity.setItemAvailabilityStatusId(notAvailableStatusId); // Not Available
+            itemEntity.setLastUpdatedBy(user);
+            updatedItemEntities.add(itemEntity);
+            previousItemAvailabilityStatusIds.add(itemAvailabilityStatusId);
+        }
+        for (ItemEntity itemEntity : updatedItemEntities) {
+            commonUtil.saveItemChangeLogEntity(itemEntity.getId(), user, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_UPDATE, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_DATA_UPDATE);
+        }
+        return true;
+    }
+
     /**
      * Update item availabiluty status.
      *
@@ -251,9 +346,9 @@ public class ItemRequestDBService {
      * @param userName     the user name
      */
     public void updateItemAvailabilityStatus(List<ItemEntity> itemEntities, String userName) {
-        ItemStatusEntity itemStatusEntity = itemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.NOT_AVAILABLE);
+        Integer notAvailableStatusId = referenceDataCache.getItemStatusIdsByCode().get(ScsbCommonConstants.NOT_AVAILABLE);
         for (ItemEntity itemEntity : itemEntities) {
-            itemEntity.setItemAvailabilityStatusId(itemStatusEntity.getId()); // Not Available
+            itemEntity.setItemAvailabilityStatusId(notAvailableStatusId); // Not Available
             itemEntity.setLastUpdatedBy(commonUtil.getUser(userName));
 
             commonUtil.saveItemChangeLogEntity(itemEntity.getId(), commonUtil.getUser(userName), ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_UPDATE, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_DATA_UPDATE);
@@ -267,7 +362,7 @@ public class ItemRequestDBService {
         if (StringUtils.isNotBlank(expirationDate)) {
             log.info("Expiration date from response : {}", expirationDate);
             try {
-                return simpleDateFormat.parse(expirationDate);
+                return DateUtil.parse(expirationDate, DateUtil.DATE_FORMATTER);
             } catch (Exception ex) {
                 log.error(ScsbCommonConstants.REQUEST_EXCEPTION, ex);
             }
@@ -285,14 +380,14 @@ public class ItemRequestDBService {
         ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
         Optional<RequestItemEntity> requestItemEntity = requestItemDetailsRepository.findById(itemInformationResponse.getRequestId());
         if(requestItemEntity.isPresent()) {
-            DeliveryCodeEntity deliveryCodeEntity= deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive( requestItemEntity.get().getStopCode(), requestItemEntity.get().getRequestingInstitutionId(),'Y');
+            ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(requestItemEntity.get().getStopCode(), requestItemEntity.get().getRequestingInstitutionId());
             commonUtil.rollbackUpdateItemAvailabilityStatus(requestItemEntity.get().getItemEntity(), ScsbConstants.GUEST_USER);
             commonUtil.saveItemChangeLogEntity(itemInformationResponse.getRequestId(), requestItemEntity.get().getCreatedBy(), ScsbConstants.REQUEST_ITEM_GFA_FAILURE, ScsbConstants.REQUEST_ITEM_GFA_FAILURE + itemInformationResponse.getScreenMessage());
             itemRequestInformation.setBibId(requestItemEntity.get().getItemEntity().getBibliographicEntities().get(0).getOwningInstitutionBibId());
             itemRequestInformation.setPatronBarcode(requestItemEntity.get().getPatronId());
             itemRequestInformation.setItemBarcodes(Collections.singletonList(requestItemEntity.get().getItemEntity().getBarcode()));
-            if(deliveryCodeEntity != null) {
-                itemRequestInformation.setPickupLocation(deliveryCodeEntity.getPickupLocation());
+            if(deliveryCode != null) {
+                itemRequestInformation.setPickupLocation(deliveryCode.getPickupLocation());
             }
             itemRequestInformation.setItemOwningInstitution(requestItemEntity.get().getItemEntity().getInstitutionEntity().getInstitutionCode());
             itemRequestInformation.setRequestingInstitution(requestItemEntity.get().getInstitutionEntity().getInstitutionCode());
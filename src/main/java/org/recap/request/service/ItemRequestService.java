@@ -1,7 +1,6 @@
 package org.recap.request.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.FluentProducerTemplate;
@@ -25,9 +24,15 @@ import org.recap.model.jpa.*;
 import org.recap.model.response.ItemRefileResponse;
 import org.recap.model.search.SearchResultRow;
 import org.recap.repository.jpa.*;
+import org.recap.routebuilder.RequestItemConsumerPools;
 import org.recap.service.RestHeaderService;
+import org.recap.service.common.BibliographicMetadataCache;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.request.util.RequestLifecycleMetrics;
+import org.recap.util.DateUtil;
+import org.recap.util.JsonUtil;
 import org.recap.util.PropertyUtil;
 import org.recap.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,15 +50,21 @@ import java.io.BufferedReader;
 import java.io.StringReader;
 import java.text.Normalizer;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 /**
  * Class for Request Item Service
@@ -77,17 +88,19 @@ public class ItemRequestService {
     private RequestItemDetailsRepository requestItemDetailsRepository;
 
     @Autowired
-    private DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
+    private ReferenceDataCache referenceDataCache;
 
+    @Autowired
+    private RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
 
     @Autowired
-    RestTemplate restTemplate;
+    private BibliographicMetadataCache bibliographicMetadataCache;
 
     @Autowired
-    private EmailService emailService;
+    RestTemplate restTemplate;
 
     @Autowired
-    private RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+    private EmailService emailService;
 
     @Autowired
     private GFALasService gfaLasService;
@@ -98,12 +111,6 @@ public class ItemRequestService {
     @Autowired
     private OwnerCodeDetailsRepository ownerCodeDetailsRepository;
 
-    @Autowired
-    private InstitutionDetailsRepository institutionDetailsRepository;
-
-
-    @Autowired
-    private ItemStatusDetailsRepository itemStatusDetailsRepository;
 
     @Autowired
     private RestHeaderService restHeaderService;
@@ -117,9 +124,6 @@ public class ItemRequestService {
     @Autowired
     private RequestParamaterValidatorService requestParamaterValidatorService;
 
-    @Autowired
-    private DeliveryCodeTranslationDetailsRepository deliveryCodeTranslationDetailsRepository;
-
 
     @Autowired
     private ItemValidatorService itemValidatorService;
@@ -139,6 +143,12 @@ public class ItemRequestService {
     @Autowired
     private PropertyUtil propertyUtil;
 
+    @Autowired
+    private RequestItemConsumerPools requestItemConsumerPools;
+
+    @Autowired
+    private RequestLifecycleMetrics requestLifecycleMetrics;
+
     /**
      * @return
      */
@@ -168,37 +178,102 @@ public class ItemRequestService {
      * @return the item information response
      */
     public ItemInformationResponse requestItem(ItemRequestInformation itemRequestInfo, Exchange exchange) {
+        long startTime = System.nanoTime();
+        RetrievalRequest retrievalRequest = prepareRetrievalRequests(Collections.singletonList(itemRequestInfo)).get(0);
+        if (retrievalRequest.isToBeCompleted()) {
+            completeRetrievalRequest(retrievalRequest, exchange);
+        }
+        requestLifecycleMetrics.recordLifecycle(RequestLifecycleMetrics.operation(itemRequestInfo), itemRequestInfo, startTime, retrievalRequest.itemResponseInformation);
+        return retrievalRequest.getItemResponseInformation();
+    }
 
-        List<ItemEntity> itemEntities;
-        ItemEntity itemEntity;
-        ItemInformationResponse itemResponseInformation = new ItemInformationResponse();
-        try {
-            itemEntities = itemDetailsRepository.findByBarcodeIn(itemRequestInfo.getItemBarcodes());
+    /**
+     * Processes a batch of retrieval requests drained from the request item queue. Items, institutions, delivery codes,
+     * translations and Solr records are looked up once for the whole batch and the new request rows are inserted together,
+     * while each request still succeeds or fails on its own and is published to its topic as if it was requested alone.
+     * <p>
+     * The requests are then placed with their owning institution ILS and LAS on the retrieval thread pool of their
+     * owning institution in {@link RequestItemConsumerPools}, so a slow ILS only holds back the requests it owns. The
+     * calling thread does not wait for them: each request completes its own future, and when the thread pool of an
+     * owning institution is full the calling thread places the request itself.
+     *
+     * @param itemRequestInfos the item request infos
+     * @param exchange         the exchange
+     * @return the futures of the item information responses, in the order of the requests
+     */
+    public List<CompletableFuture<ItemInformationResponse>> requestItems(List<ItemRequestInformation> itemRequestInfos, Exchange exchange) {
+        long startTime = System.nanoTime();
+        List<RetrievalRequest> retrievalRequests = prepareRetrievalRequests(itemRequestInfos);
+        Map<String, List<RetrievalRequest>> requestsToCompleteByOwningInstitution = retrievalRequests.stream()
+                .filter(RetrievalRequest::isToBeCompleted)
+                .collect(Collectors.groupingBy(retrievalRequest -> StringUtils.defaultString(retrievalRequest.itemRequestInfo.getItemOwningInstitution()), LinkedHashMap::new, Collectors.toList()));
+        Map<RetrievalRequest, CompletableFuture<Void>> completions = new IdentityHashMap<>();
+        requestsToCompleteByOwningInstitution.forEach((owningInstitution, requestsToComplete) -> {
+            ExecutorService retrievalExecutor = requestItemConsumerPools.getExecutor(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL, owningInstitution);
+            for (RetrievalRequest retrievalRequest : requestsToComplete) {
+                completions.put(retrievalRequest, CompletableFuture.runAsync(() -> completeRetrievalRequest(retrievalRequest, exchange), retrievalExecutor));
+            }
+        });
+        return retrievalRequests.stream()
+                .map(retrievalRequest -> completions.getOrDefault(retrievalRequest, CompletableFuture.completedFuture(null)).thenApply(completed -> {
+                    requestLifecycleMetrics.recordLifecycle(RequestLifecycleMetrics.operation(retrievalRequest.itemRequestInfo), retrievalRequest.itemRequestInfo, startTime, retrievalRequest.itemResponseInformation);
+                    return retrievalRequest.getItemResponseInformation();
+                }))
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Resolves and saves the requests of a batch, looking up their items and reference data once for the whole batch.
+     */
+    private List<RetrievalRequest> prepareRetrievalRequests(List<ItemRequestInformation> itemRequestInfos) {
+        List<RetrievalRequest> retrievalRequests = new ArrayList<>();
+        for (ItemRequestInformation itemRequestInfo : itemRequestInfos) {
+            retrievalRequests.add(new RetrievalRequest(itemRequestInfo));
+        }
+        RetrievalRequestLookup retrievalRequestLookup = new RetrievalRequestLookup(itemRequestInfos);
+        List<RetrievalRequest> requestsToSave = new ArrayList<>();
+        for (RetrievalRequest retrievalRequest : retrievalRequests) {
+            if (prepareRetrievalRequest(retrievalRequest, retrievalRequestLookup)) {
+                requestsToSave.add(retrievalRequest);
+            }
+        }
+        saveRetrievalRequests(requestsToSave);
+        return retrievalRequests;
+    }
+
+    /**
+     * Resolves the item, delivery location and Solr record of the request and changes the item availability.
+     *
+     * @return true if a request row has to be saved for the request
+     */
+    private boolean prepareRetrievalRequest(RetrievalRequest retrievalRequest, RetrievalRequestLookup retrievalRequestLookup) {
+        ItemRequestInformation itemRequestInfo = retrievalRequest.itemRequestInfo;
+        ItemInformationResponse itemResponseInformation = retrievalRequest.itemResponseInformation;
+        try {
+            String operation = RequestLifecycleMetrics.operation(itemRequestInfo);
+            List<ItemEntity> itemEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, itemRequestInfo, () -> retrievalRequestLookup.getItemEntities(itemRequestInfo));
             if (itemEntities != null && !itemEntities.isEmpty()) {
-                itemEntity = itemEntities.get(0);
+                ItemEntity itemEntity = itemEntities.get(0);
+                retrievalRequest.itemEntity = itemEntity;
                 if (StringUtils.isBlank(itemRequestInfo.getBibId())) {
                     itemRequestInfo.setBibId(itemEntity.getBibliographicEntities().get(0).getOwningInstitutionBibId());
                 }
                 itemRequestInfo.setItemOwningInstitution(itemEntity.getInstitutionEntity().getInstitutionCode());
                 itemRequestInfo.setImsLocationCode(itemEntity.getImsLocationEntity().getImsLocationCode());
 
-                InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInfo.getRequestingInstitution());
-                DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(itemRequestInfo.getDeliveryLocation(), institutionEntity.getId(), 'Y');
+                Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInfo.getRequestingInstitution());
+                ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(itemRequestInfo.getDeliveryLocation(), institutionId);
 
-                DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(institutionEntity.getId(), deliveryCodeEntity.getId(), itemEntity.getImsLocationEntity().getId());
-                if (deliveryCodeTranslationEntity != null && deliveryCodeTranslationEntity.getImsLocationDeliveryCode() != null) {
-                    log.info("Translation Code >>>> {} ", deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
-                    itemRequestInfo.setTranslatedDeliveryLocation(deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
+                String imsLocationDeliveryCode = referenceDataCache.getImsLocationDeliveryCode(institutionId, deliveryCode.getId(), itemEntity.getImsLocationEntity().getId());
+                if (imsLocationDeliveryCode != null) {
+                    log.info("Translation Code >>>> {} ", imsLocationDeliveryCode);
+                    itemRequestInfo.setTranslatedDeliveryLocation(imsLocationDeliveryCode);
                 } else {
                     itemResponseInformation.setScreenMessage(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.INVALID_TRANSLATED_CODE);
                     itemResponseInformation.setSuccess(false);
                 }
                 log.info("itemEntity.getImsLocationEntity().getImsLocationCode() >>>> {} ", itemEntity.getImsLocationEntity().getImsLocationCode());
-                SearchResultRow searchResultRow = searchRecords(itemEntity); //Solr
-                if (searchResultRow == null) {
-                    searchResultRow = searchRecords(itemEntity);
-                }
+                SearchResultRow searchResultRow = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_SOLR, itemRequestInfo, () -> searchRecords(itemEntity)); //Solr
                 if (searchResultRow != null) {
                     itemRequestInfo.setTitleIdentifier(getTitle(itemRequestInfo.getTitleIdentifier(), itemEntity, searchResultRow));
                     itemRequestInfo.setAuthor(searchResultRow.getAuthor());
@@ -208,43 +283,15 @@ public class ItemRequestService {
                     }
                     itemResponseInformation.setItemId(itemEntity.getId());
 
-                    boolean isItemStatusAvailable;
-                    synchronized (this) {
-                        // Change Item Availablity
-                        isItemStatusAvailable = updateItemAvailabilityStatus(itemEntities, itemRequestInfo.getUsername());
-                    }
-
-                    Integer requestId = updateRecapRequestItem(itemRequestInfo, itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING);
-                    itemRequestInfo.setRequestId(requestId);
-                    itemResponseInformation.setRequestId(requestId);
-
-                    if (requestId == 0) {
-                        rollbackUpdateItemAvailabilityStatus(itemEntity, itemRequestInfo.getUsername());
-                        itemResponseInformation.setScreenMessage(ScsbCommonConstants.REQUEST_EXCEPTION + ScsbConstants.INTERNAL_ERROR_DURING_REQUEST);
-                        itemResponseInformation.setSuccess(false);
-                    } else if (!isItemStatusAvailable) {
-                        itemResponseInformation.setScreenMessage(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.RETRIEVAL_NOT_FOR_UNAVAILABLE_ITEM);
-                        itemResponseInformation.setSuccess(false);
-                    } else {
-                        // Process
-                        itemResponseInformation = checkOwningInstitution(itemRequestInfo, itemResponseInformation, itemEntity);
-                    }
+                    // Change Item Availablity
+                    retrievalRequest.itemStatusAvailable = updateItemAvailabilityStatus(itemEntities, itemRequestInfo.getUsername());
+                    return true;
                 } else {
                     itemResponseInformation.setScreenMessage(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.WRONG_ITEM_BARCODE);
                     itemResponseInformation.setSuccess(false);
                 }
-                setItemResponseInformation(itemRequestInfo, itemResponseInformation);
-                log.info("itemRequestInfo.getImsLocationCode() before LAS Call >>>> {} ", itemRequestInfo.getImsLocationCode());
-                if (isUseQueueLasCall(itemRequestInfo.getImsLocationCode()) && (StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_ILS_EXCEPTION)
-                        || StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_SCSB_EXCEPTION)
-                        || StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_LAS_EXCEPTION))) {
-                    updateChangesToDb(itemResponseInformation, ScsbConstants.REQUEST_RETRIEVAL + "-" + itemResponseInformation.getRequestingInstitution());
-                }
-                // Update Topics
-                sendMessageToTopic(itemRequestInfo.getRequestingInstitution(), itemRequestInfo.getRequestType(), itemResponseInformation, exchange);
-                log.info(ScsbConstants.FINISH_PROCESSING);
-            }
-            else {
+                retrievalRequest.toBeCompleted = true;
+            } else {
                 itemResponseInformation.setScreenMessage(ScsbConstants.SOLR_SEARCH_ERROR);
                 itemResponseInformation.setSuccess(false);
             }
@@ -253,7 +300,69 @@ public class ItemRequestService {
         } catch (Exception ex) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, ex);
         }
-        return itemResponseInformation;
+        return false;
+    }
+
+    private void saveRetrievalRequests(List<RetrievalRequest> retrievalRequests) {
+        if (retrievalRequests.isEmpty()) {
+            return;
+        }
+        List<Integer> requestIds;
+        if (retrievalRequests.size() == 1) {
+            RetrievalRequest retrievalRequest = retrievalRequests.get(0);
+            requestIds = Collections.singletonList(updateRecapRequestItem(retrievalRequest.itemRequestInfo, retrievalRequest.itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING));
+        } else {
+            requestIds = itemRequestDBService.updateRecapRequestItems(
+                    retrievalRequests.stream().map(retrievalRequest -> retrievalRequest.itemRequestInfo).collect(Collectors.toList()),
+                    retrievalRequests.stream().map(retrievalRequest -> retrievalRequest.itemEntity).collect(Collectors.toList()),
+                    ScsbConstants.REQUEST_STATUS_PROCESSING);
+        }
+        for (int index = 0; index < retrievalRequests.size(); index++) {
+            RetrievalRequest retrievalRequest = retrievalRequests.get(index);
+            Integer requestId = requestIds.get(index);
+            retrievalRequest.itemRequestInfo.setRequestId(requestId);
+            retrievalRequest.itemResponseInformation.setRequestId(requestId);
+            retrievalRequest.saved = true;
+            retrievalRequest.toBeCompleted = true;
+        }
+    }
+
+    /**
+     * Places the request with the owning institution and LAS, then updates the request and publishes it to the topic.
+     */
+    private void completeRetrievalRequest(RetrievalRequest retrievalRequest, Exchange exchange) {
+        ItemRequestInformation itemRequestInfo = retrievalRequest.itemRequestInfo;
+        ItemInformationResponse itemResponseInformation = retrievalRequest.itemResponseInformation;
+        try {
+            if (!retrievalRequest.saved) {
+                log.debug("No request saved for barcode {}", itemRequestInfo.getItemBarcodes().get(0));
+            } else if (itemRequestInfo.getRequestId() == 0) {
+                rollbackUpdateItemAvailabilityStatus(retrievalRequest.itemEntity, itemRequestInfo.getUsername());
+                itemResponseInformation.setScreenMessage(ScsbCommonConstants.REQUEST_EXCEPTION + ScsbConstants.INTERNAL_ERROR_DURING_REQUEST);
+                itemResponseInformation.setSuccess(false);
+            } else if (!retrievalRequest.itemStatusAvailable) {
+                itemResponseInformation.setScreenMessage(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.RETRIEVAL_NOT_FOR_UNAVAILABLE_ITEM);
+                itemResponseInformation.setSuccess(false);
+            } else {
+                // Process
+                itemResponseInformation = checkOwningInstitution(itemRequestInfo, itemResponseInformation, retrievalRequest.itemEntity);
+                retrievalRequest.itemResponseInformation = itemResponseInformation;
+            }
+            setItemResponseInformation(itemRequestInfo, itemResponseInformation);
+            log.info("itemRequestInfo.getImsLocationCode() before LAS Call >>>> {} ", itemRequestInfo.getImsLocationCode());
+            if (isUseQueueLasCall(itemRequestInfo.getImsLocationCode()) && (StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_ILS_EXCEPTION)
+                    || StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_SCSB_EXCEPTION)
+                    || StringUtils.containsIgnoreCase(itemResponseInformation.getScreenMessage(), ScsbConstants.REQUEST_LAS_EXCEPTION))) {
+                updateChangesToDb(itemResponseInformation, ScsbConstants.REQUEST_RETRIEVAL + "-" + itemResponseInformation.getRequestingInstitution());
+            }
+            // Update Topics
+            sendMessageToTopic(itemRequestInfo.getRequestingInstitution(), itemRequestInfo.getRequestType(), itemResponseInformation, exchange);
+            log.info(ScsbConstants.FINISH_PROCESSING);
+        } catch (RestClientException ex) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION_REST, ex);
+        } catch (Exception ex) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, ex);
+        }
     }
 
     /**
@@ -264,7 +373,9 @@ public class ItemRequestService {
      */
     public void updateChangesToDb(ItemInformationResponse itemResponseInformation, String operationType) {
         if (itemResponseInformation.getRequestId() != null && itemResponseInformation.getRequestId() > 0) {
-            saveItemChangeLogEntity(itemResponseInformation.getRequestId(), getUser(itemResponseInformation.getUsername()), operationType, itemResponseInformation.getRequestNotes());
+            requestLifecycleMetrics.recordStage(RequestLifecycleMetrics.operation(itemResponseInformation.getRequestType()), ScsbConstants.REQUEST_STAGE_CHANGE_LOG,
+                    itemResponseInformation.getItemOwningInstitution(), itemResponseInformation.getRequestingInstitution(), itemResponseInformation.getImsLocationCode(),
+                    () -> saveItemChangeLogEntity(itemResponseInformation.getRequestId(), getUser(itemResponseInformation.getUsername()), operationType, itemResponseInformation.getRequestNotes()));
             updateRecapRequestItem(itemResponseInformation);
         }
     }
@@ -278,27 +389,27 @@ public class ItemRequestService {
      */
     public ItemInformationResponse recallItem(ItemRequestInformation itemRequestInfo, Exchange exchange) {
 
+        long startTime = System.nanoTime();
+        String operation = RequestLifecycleMetrics.operation(itemRequestInfo);
         List<ItemEntity> itemEntities;
         ItemEntity itemEntity;
         ItemInformationResponse itemResponseInformation = new ItemInformationResponse();
         try {
-            itemEntities = itemDetailsRepository.findByBarcodeIn(itemRequestInfo.getItemBarcodes());
-            RequestItemEntity requestItemEntity = requestItemDetailsRepository.findByItemBarcodeAndRequestStaCode(itemRequestInfo.getItemBarcodes().get(0), ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED);
+            itemEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, itemRequestInfo, () -> itemDetailsRepository.findByBarcodeIn(itemRequestInfo.getItemBarcodes()));
+            RequestItemEntity requestItemEntity = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, itemRequestInfo,
+                    () -> requestItemDetailsRepository.findByItemBarcodeAndRequestStaCode(itemRequestInfo.getItemBarcodes().get(0), ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED));
             if (requestItemEntity != null) {
                 if (itemEntities != null && !itemEntities.isEmpty()) {
                     itemEntity = itemEntities.get(0);
-                    SearchResultRow searchResultRow = searchRecords(itemEntity); //Solr
-                    if (searchResultRow == null) {
-                        searchResultRow = searchRecords(itemEntity);
-                    }
+                    SearchResultRow searchResultRow = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_SOLR, itemRequestInfo, () -> searchRecords(itemEntity)); //Solr
                     if (searchResultRow != null) {
                         itemRequestInfo.setTitleIdentifier(getTitle(itemRequestInfo.getTitleIdentifier(), itemEntity, searchResultRow));
                         itemRequestInfo.setAuthor(searchResultRow.getAuthor());
                         itemRequestInfo.setBibId(itemEntity.getBibliographicEntities().get(0).getOwningInstitutionBibId());
                         itemRequestInfo.setItemOwningInstitution(itemEntity.getInstitutionEntity().getInstitutionCode());
                         itemRequestInfo.setImsLocationCode(itemEntity.getImsLocationEntity().getImsLocationCode());
-                        InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInfo.getRequestingInstitution());
-                        itemRequestInfo.setPickupLocation(getPickupLocation(institutionEntity.getId(), itemRequestInfo.getDeliveryLocation()));
+                        Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInfo.getRequestingInstitution());
+                        itemRequestInfo.setPickupLocation(getPickupLocation(institutionId, itemRequestInfo.getDeliveryLocation()));
                         itemResponseInformation.setItemId(itemEntity.getId());
                         Integer requestId = updateRecapRequestItem(itemRequestInfo, itemEntity, ScsbConstants.REQUEST_STATUS_PROCESSING);
                         itemRequestInfo.setRequestId(requestId);
@@ -340,6 +451,7 @@ public class ItemRequestService {
             itemResponseInformation.setScreenMessage(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.INTERNAL_ERROR_DURING_REQUEST);
             itemResponseInformation.setSuccess(false);
         }
+        requestLifecycleMetrics.recordLifecycle(operation, itemRequestInfo, startTime, itemResponseInformation);
         return itemResponseInformation;
     }
 
@@ -351,19 +463,23 @@ public class ItemRequestService {
      */
     public ItemRefileResponse reFileItem(ItemRefileRequest itemRefileRequest, ItemRefileResponse itemRefileResponse) {
 
+        long startTime = System.nanoTime();
+        String operation = ScsbConstants.REQUEST_OPERATION_REFILE;
         log.info("Processing received Refile request");
         log.info("Refile Request Information : Barcodes {} , Request Id's : {}", itemRefileRequest.getItemBarcodes(), itemRefileRequest.getRequestIds());
         // Change Response for this Method
         String itemBarcode;
         ItemEntity itemEntity;
         List<String> requestItemStatusList = Arrays.asList(ScsbCommonConstants.REQUEST_STATUS_RETRIEVAL_ORDER_PLACED, ScsbCommonConstants.REQUEST_STATUS_EDD, ScsbCommonConstants.REQUEST_STATUS_CANCELED, ScsbCommonConstants.REQUEST_STATUS_INITIAL_LOAD);
-        List<RequestItemEntity> requestEntities = requestItemDetailsRepository.findByIdsAndStatusCodes(itemRefileRequest.getRequestIds(), requestItemStatusList);
-        List<RequestItemEntity> requestItemEntities = requestItemDetailsRepository.findByItemBarcodes(itemRefileRequest.getItemBarcodes());
+        List<RequestItemEntity> requestEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, null,
+                () -> requestItemDetailsRepository.findByIdsAndStatusCodes(itemRefileRequest.getRequestIds(), requestItemStatusList));
+        List<RequestItemEntity> requestItemEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, null,
+                () -> requestItemDetailsRepository.findByItemBarcodes(itemRefileRequest.getItemBarcodes()));
         if (requestEntities != null && !requestEntities.isEmpty()) {
             for (RequestItemEntity requestItemEntity : requestEntities) {
                 itemEntity = requestItemEntity.getItemEntity();
-                RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_REFILED);
-                String gfaItemStatus = gfaLasService.callGfaItemStatus(itemEntity.getBarcode());
+                Integer refiledStatusId = referenceDataCache.getRequestStatusIdsByCode().get(ScsbCommonConstants.REQUEST_STATUS_REFILED);
+                String gfaItemStatus = callGfaItemStatus(operation, requestItemEntity);
                 log.info("GFA Item Status {} for the barcode {} received on Refile", gfaItemStatus, itemEntity.getBarcode());
                 if (itemEntity.getItemAvailabilityStatusId() == 2) { // Only Item Not Availability, Status is Processed
                     itemBarcode = itemEntity.getBarcode();
@@ -374,7 +490,7 @@ public class ItemRequestService {
                     itemRequestInfo.setRequestType(requestItemEntity.getRequestTypeEntity().getRequestTypeCode());
                     RequestItemEntity requestItemEntityRecalled = requestItemDetailsRepository.findByItemBarcodeAndRequestStaCode(itemBarcode, ScsbCommonConstants.REQUEST_STATUS_RECALLED);
                     if (requestItemEntityRecalled == null) { // Recall Request Does not Exist
-                        requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                        requestItemEntity.setRequestStatusId(refiledStatusId);
                         requestItemEntity.setLastUpdatedDate(new Date());
                         requestItemDetailsRepository.save(requestItemEntity);
                         rollbackUpdateItemAvailabilityStatus(itemEntity, ScsbConstants.GUEST_USER);
@@ -382,9 +498,9 @@ public class ItemRequestService {
                         itemRefileResponse.setSuccess(true);
                     } else { // Recall Request Exist
                         if (requestItemEntityRecalled.getRequestingInstitutionId().intValue() == requestItemEntity.getRequestingInstitutionId().intValue()) { // Borrowed Inst same as Recall Requesting Inst
-                            requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                            requestItemEntity.setRequestStatusId(refiledStatusId);
                             requestItemEntity.setLastUpdatedDate(new Date());
-                            requestItemEntityRecalled.setRequestStatusId(requestStatusEntity.getId());
+                            requestItemEntityRecalled.setRequestStatusId(refiledStatusId);
                             requestItemEntityRecalled.setLastUpdatedDate(new Date());
                             requestItemDetailsRepository.save(requestItemEntity);
                             requestItemDetailsRepository.save(requestItemEntityRecalled);
@@ -393,20 +509,20 @@ public class ItemRequestService {
                             itemRefileResponse.setSuccess(true);
                             itemRefileResponse.setScreenMessage("Successfully Refiled");
                         } else { // Borrowed Inst not same as Recall Requesting Inst, Change Retrieval Order Status to Refiled.
-                            requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+                            requestItemEntity.setRequestStatusId(refiledStatusId);
                             requestItemDetailsRepository.save(requestItemEntity);
                             // Checkout the item based on the institution for the Recall order
                             if(itemRequestInfo.getRequestType().equalsIgnoreCase(ScsbConstants.EDD_REQUEST)) {
                                 //Checkout for EDD patron
                                 itemRequestInfo.setPatronBarcode(itemRequestServiceUtil.getPatronIdBorrowingInstitution(itemRequestInfo.getRequestingInstitution() ,itemRequestInfo.getItemOwningInstitution(), ScsbCommonConstants.REQUEST_TYPE_EDD));
-                                requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
+                                checkoutItem(operation, itemRequestInfo);
                             } else {
                                 if (!requestItemEntityRecalled.getInstitutionEntity().getInstitutionCode().equalsIgnoreCase(requestItemEntityRecalled.getItemEntity().getInstitutionEntity().getInstitutionCode())) {
                                     itemRequestInfo.setPatronBarcode(itemRequestServiceUtil.getPatronIdBorrowingInstitution(requestItemEntityRecalled.getInstitutionEntity().getInstitutionCode(), requestItemEntityRecalled.getItemEntity().getInstitutionEntity().getInstitutionCode(), ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL));
                                 } else {
                                     itemRequestInfo.setPatronBarcode(requestItemEntityRecalled.getPatronId());
                                 }
-                                requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
+                                checkoutItem(operation, itemRequestInfo);
                             }
                             itemRequestInfo.setRequestingInstitution(requestItemEntityRecalled.getInstitutionEntity().getInstitutionCode());
                             setItemRequestInfoForRequest(itemEntity, itemRequestInfo, requestItemEntityRecalled);
@@ -434,9 +550,11 @@ public class ItemRequestService {
                     String isRefileForCheckin = propertyUtil.getPropertyByInstitutionAndKey(itemRequestInfo.getRequestingInstitution(), PropertyKeyConstants.ILS.ILS_USE_REFILE_FOR_CHECKIN);
                     if(!itemRequestInfo.getRequestType().equalsIgnoreCase(ScsbConstants.EDD_REQUEST)) {
                         if (Boolean.TRUE.toString().equalsIgnoreCase(isRefileForCheckin)) {
-                            requestItemController.getIlsProtocolConnectorFactory().getIlsProtocolConnector(itemRequestInfo.getRequestingInstitution()).refileItem(itemBarcode);
+                            String refileBarcode = itemBarcode;
+                            requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_CHECKIN, itemRequestInfo, itemRequestInfo.getRequestingInstitution(),
+                                    () -> requestItemController.getIlsProtocolConnectorFactory().getIlsProtocolConnector(itemRequestInfo.getRequestingInstitution()).refileItem(refileBarcode));
                         } else {
-                            requestItemController.checkinItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution());
+                            checkinItem(operation, itemRequestInfo, itemRequestInfo.getRequestingInstitution());
                         }
                     }
                     if (!itemRequestInfo.isOwningInstitutionItem() || ((itemRequestInfo.getRequestType().equalsIgnoreCase(ScsbConstants.EDD_REQUEST))
@@ -448,7 +566,7 @@ public class ItemRequestService {
                         else {
                             itemRequestInfo.setPatronBarcode(itemRequestServiceUtil.getPatronIdBorrowingInstitution(itemRequestInfo.getRequestingInstitution(), itemRequestInfo.getItemOwningInstitution(), ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL));
                         }
-                        requestItemController.checkinItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
+                        checkinItem(operation, itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
                     }
                 }
                 itemRefileResponse.setScreenMessage("Cannot refile a already available Item");
@@ -461,7 +579,7 @@ public class ItemRequestService {
                     ItemRequestInformation itemRequestInfo = new ItemRequestInformation();
                     itemEntity = requestItemEntity.getItemEntity();
                     itemBarcode = itemEntity.getBarcode();
-                    String gfaItemStatus = gfaLasService.callGfaItemStatus(itemBarcode);
+                    String gfaItemStatus = callGfaItemStatus(operation, requestItemEntity);
                     log.info("Gfa status received during refile : {}",gfaItemStatus);
                     log.info("GFA Item Status {} for the barcode {} received on Refile where Request Id : {}", gfaItemStatus, itemEntity.getBarcode(),requestItemEntity.getId());
                     log.info("Rejecting the Refile for the barcode {} where Request ID : {} and Request Status : {}", itemEntity.getBarcode(), requestItemEntity.getId(), requestItemEntity.getRequestStatusEntity().getRequestStatusCode());
@@ -489,9 +607,19 @@ public class ItemRequestService {
                 }
             }
         }
+        requestLifecycleMetrics.recordLifecycle(operation, null, startTime, itemRefileResponse);
         return itemRefileResponse;
     }
 
+    private String callGfaItemStatus(String operation, RequestItemEntity requestItemEntity) {
+        ItemEntity itemEntity = requestItemEntity.getItemEntity();
+        String owningInstitution = itemEntity.getInstitutionEntity() != null ? itemEntity.getInstitutionEntity().getInstitutionCode() : null;
+        String requestingInstitution = requestItemEntity.getInstitutionEntity() != null ? requestItemEntity.getInstitutionEntity().getInstitutionCode() : null;
+        String imsLocationCode = itemEntity.getImsLocationEntity() != null ? itemEntity.getImsLocationEntity().getImsLocationCode() : null;
+        return requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_LAS_STATUS_CHECK, owningInstitution, requestingInstitution, imsLocationCode,
+                () -> gfaLasService.callGfaItemStatus(itemEntity.getBarcode()));
+    }
+
     private void setItemRequestInfoForRequest(ItemEntity itemEntity, ItemRequestInformation itemRequestInfo, RequestItemEntity requestItemEntity) {
         if(requestItemEntity.getRequestTypeEntity().getRequestTypeCode().equalsIgnoreCase(ScsbConstants.EDD_REQUEST)) {
             String notes = requestItemEntity.getNotes();
@@ -520,12 +648,12 @@ public class ItemRequestService {
         else{
                 itemRequestInfo.setRequestType(ScsbCommonConstants.RETRIEVAL);
                 if (null == requestItemEntity.getBulkRequestItemEntity()) {
-                    InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(requestItemEntity.getInstitutionEntity().getInstitutionCode());
-                    DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(requestItemEntity.getStopCode(), institutionEntity.getId(), 'Y');
-                    DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(institutionEntity.getId(), deliveryCodeEntity.getId(), itemEntity.getImsLocationEntity().getId());
-                    if (deliveryCodeTranslationEntity != null && deliveryCodeTranslationEntity.getImsLocationDeliveryCode() != null) {
-                        log.info("Translation Code >>>> {} ", deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
-                        itemRequestInfo.setTranslatedDeliveryLocation(deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
+                    Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(requestItemEntity.getInstitutionEntity().getInstitutionCode());
+                    ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(requestItemEntity.getStopCode(), institutionId);
+                    String imsLocationDeliveryCode = referenceDataCache.getImsLocationDeliveryCode(institutionId, deliveryCode.getId(), itemEntity.getImsLocationEntity().getId());
+                    if (imsLocationDeliveryCode != null) {
+                        log.info("Translation Code >>>> {} ", imsLocationDeliveryCode);
+                        itemRequestInfo.setTranslatedDeliveryLocation(imsLocationDeliveryCode);
                     }
                 } else {
                     itemRequestInfo.setTranslatedDeliveryLocation(requestItemEntity.getStopCode());
@@ -584,10 +712,9 @@ public class ItemRequestService {
         } else if (requestType.equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RECALL)) {
             selectTopic = propertyUtil.getPropertyByInstitutionAndKey(owningInstituteId, PropertyKeyConstants.ILS.ILS_TOPIC_RECALL_REQUEST);
         }
-        ObjectMapper objectMapper = new ObjectMapper();
         String json = "";
         try {
-            json = objectMapper.writeValueAsString(itemResponseInfo);
+            json = JsonUtil.OBJECT_WRITER.writeValueAsString(itemResponseInfo);
             log.info("Topic logs : {}" , json);
         } catch (JsonProcessingException e) {
             log.error(ScsbConstants.REQUEST_PARSE_EXCEPTION, e);
@@ -596,7 +723,8 @@ public class ItemRequestService {
         fluentProducerTemplate
                 .to(selectTopic)
                 .withBody(json);
-        fluentProducerTemplate.send();
+        requestLifecycleMetrics.recordStage(RequestLifecycleMetrics.operation(requestType), ScsbConstants.REQUEST_STAGE_TOPIC_PUBLISH,
+                itemResponseInfo.getItemOwningInstitution(), itemResponseInfo.getRequestingInstitution(), itemResponseInfo.getImsLocationCode(), fluentProducerTemplate::send);
     }
 
     private ItemInformationResponse setItemResponseInformation(ItemRequestInformation itemRequestInfo, ItemInformationResponse itemResponseInfo) {
@@ -651,20 +779,15 @@ public class ItemRequestService {
         return itemRequestDBService.updateRecapRequestStatus(itemInformationResponse);
     }
 
+    /**
+     * Marks the items as not available unless one of them is not available already.
+     *
+     * @param itemEntities the item entities
+     * @param username     the username
+     * @return true if the items were available and are now marked not available
+     */
     public boolean updateItemAvailabilityStatus(List<ItemEntity> itemEntities, String username) {
-        ItemStatusEntity itemStatusEntity = itemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.NOT_AVAILABLE);
-        for (ItemEntity itemEntity : itemEntities) {
-            Optional<ItemEntity> optionalItemEntity = itemDetailsRepository.findById(itemEntity.getId());
-             if(optionalItemEntity.isPresent()) {
-                 ItemEntity itemEntityByItemId = optionalItemEntity.get();
-                 log.info("Item status : {}", itemEntityByItemId.getItemStatusEntity().getStatusCode());
-                 if (itemStatusEntity.getId().equals(itemEntityByItemId.getItemAvailabilityStatusId())) {  //Condition should be checked with equals not == ?
-                     return false;
-                 }
-             }
-        }
-        itemRequestDBService.updateItemAvailabilityStatus(itemEntities, username);
-        return true;
+        return itemRequestDBService.updateItemAvailabilityStatusIfAvailable(itemEntities, username);
     }
 
     public void rollbackUpdateItemAvailabilityStatus(ItemEntity itemEntity, String username) {
@@ -727,7 +850,7 @@ public class ItemRequestService {
                 ItemCreateBibResponse createBibResponse;
                 String isCreateBibEnabled = propertyUtil.getPropertyByInstitutionAndKey(itemRequestInfo.getRequestingInstitution(), PropertyKeyConstants.ILS.ILS_CREATE_BIB_API_ENABLED);
                 if (Boolean.TRUE.toString().equalsIgnoreCase(isCreateBibEnabled)) {
-                    createBibResponse = (ItemCreateBibResponse) requestItemController.createBibliogrphicItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution());
+                    createBibResponse = createBib(itemRequestInfo);
                 } else {
                     createBibResponse = new ItemCreateBibResponse();
                     createBibResponse.setSuccess(true);
@@ -769,7 +892,7 @@ public class ItemRequestService {
                         }
                     }
                     log.info("Performing CheckOut using the generic patron : {} in Owning Institution : {}",itemRequestInfo.getPatronBarcode(), itemRequestInfo.getItemOwningInstitution());
-                    requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution());
+                    checkoutItem(RequestLifecycleMetrics.operation(itemRequestInfo), itemRequestInfo);
                 } catch (RuntimeException e) {
                     log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
                     log.error("Cross Partner Request Item Checkout Failed. Own Ins: {}, Req Ins: {}, Cross PatronId: {}", itemResponseInformation.getItemOwningInstitution(), itemRequestInfo.getRequestingInstitution(), itemRequestInfo.getPatronBarcode());
@@ -783,7 +906,8 @@ public class ItemRequestService {
     }
 
     private ItemInformationResponse holdItem(String callingInst, ItemRequestInformation itemRequestInfo, ItemInformationResponse itemResponseInformation, ItemEntity itemEntity) {
-        ItemHoldResponse itemHoldResponse = (ItemHoldResponse) requestItemController.holdItem(itemRequestInfo, callingInst);
+        ItemHoldResponse itemHoldResponse = requestLifecycleMetrics.recordIlsStage(RequestLifecycleMetrics.operation(itemRequestInfo), ScsbConstants.REQUEST_STAGE_ILS_HOLD, itemRequestInfo, callingInst,
+                () -> (ItemHoldResponse) requestItemController.holdItem(itemRequestInfo, callingInst));
         if (itemHoldResponse.isSuccess()) { // IF Hold command is successfully
             itemResponseInformation.setExpirationDate(itemHoldResponse.getExpirationDate());
             itemRequestInfo.setExpirationDate(itemHoldResponse.getExpirationDate());
@@ -825,11 +949,13 @@ public class ItemRequestService {
         log.info("Borrowed   Inst = {}" , requestItemEntity.getInstitutionEntity().getInstitutionCode());
         log.info("Requesting Inst = {}" , itemRequestInfo.getRequestingInstitution());
         String instToGetItemInfo = requestItemEntity.getInstitutionEntity().getInstitutionCode();
-        ItemInformationResponse itemInformation = (ItemInformationResponse) requestItemController.itemInformation(itemRequestInfo, instToGetItemInfo);
+        String operation = RequestLifecycleMetrics.operation(itemRequestInfo);
+        ItemInformationResponse itemInformation = requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_ITEM_INFORMATION, itemRequestInfo, instToGetItemInfo,
+                () -> (ItemInformationResponse) requestItemController.itemInformation(itemRequestInfo, instToGetItemInfo));
         String checkedOutCirculationStatuses = propertyUtil.getPropertyByInstitutionAndKey(instToGetItemInfo, PropertyKeyConstants.ILS.ILS_CHECKEDOUT_CIRCULATION_STATUS);
         if (StringUtils.isNotBlank(checkedOutCirculationStatuses) && StringUtils.containsIgnoreCase(checkedOutCirculationStatuses, itemInformation.getCirculationStatus())) {
             if (requestItemEntity.getInstitutionEntity().getInstitutionCode().equalsIgnoreCase(itemRequestInfo.getRequestingInstitution())) {
-                ItemRecallResponse itemRecallResponse = (ItemRecallResponse) requestItemController.recallItem(itemRequestInfo, requestItemEntity.getInstitutionEntity().getInstitutionCode());
+                ItemRecallResponse itemRecallResponse = recallItem(operation, itemRequestInfo, requestItemEntity.getInstitutionEntity().getInstitutionCode());
                 if (itemRecallResponse.isSuccess()) {
                     // Update Recap DB
                     itemRequestInfo.setExpirationDate(itemRecallResponse.getExpirationDate());
@@ -850,10 +976,10 @@ public class ItemRequestService {
                     if (Boolean.TRUE.toString().equalsIgnoreCase(useGenericPatronRetrievalForCross)) {
                         try {
                             itemRequestInfo.setPatronBarcode(itemRequestServiceUtil.getPatronIdBorrowingInstitution(itemRequestInfo.getRequestingInstitution(), requestItemEntity.getInstitutionEntity().getInstitutionCode(), ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL));
-                            InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInfo.getRequestingInstitution());
-                            itemRequestInfo.setPickupLocation(getPickupLocation(institutionEntity.getId(), requestItemEntity.getStopCode()));
+                            Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInfo.getRequestingInstitution());
+                            itemRequestInfo.setPickupLocation(getPickupLocation(institutionId, requestItemEntity.getStopCode()));
                             itemRequestInfo.setBibId(itemInformation.getBibID());
-                            itemRecallResponse = (ItemRecallResponse) requestItemController.recallItem(itemRequestInfo, requestItemEntity.getInstitutionEntity().getInstitutionCode());
+                            itemRecallResponse = recallItem(operation, itemRequestInfo, requestItemEntity.getInstitutionEntity().getInstitutionCode());
                         } catch (RuntimeException e) {
                             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
                             itemRecallResponse.setSuccess(false);
@@ -868,7 +994,8 @@ public class ItemRequestService {
                     } else {
                         messagePublish = recallError(itemRecallResponse);
                         bsuccess = false;
-                        requestItemController.cancelHoldItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution());
+                        requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_CANCEL_HOLD, itemRequestInfo, itemRequestInfo.getRequestingInstitution(),
+                                () -> requestItemController.cancelHoldItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution()));
                         saveItemChangeLogEntity(itemEntity.getId(), getUser(itemRequestInfo.getUsername()), ScsbConstants.REQUEST_ITEM_HOLD_FAILURE, itemRequestInfo.getPatronBarcode() + " - " + itemResponseInformation.getScreenMessage());
                     }
                 } else { // If Hold command Failure
@@ -885,6 +1012,26 @@ public class ItemRequestService {
         return itemResponseInformation;
     }
 
+    private ItemCreateBibResponse createBib(ItemRequestInformation itemRequestInfo) {
+        return requestLifecycleMetrics.recordIlsStage(RequestLifecycleMetrics.operation(itemRequestInfo), ScsbConstants.REQUEST_STAGE_ILS_CREATE_BIB, itemRequestInfo, itemRequestInfo.getRequestingInstitution(),
+                () -> (ItemCreateBibResponse) requestItemController.createBibliogrphicItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution()));
+    }
+
+    private ItemRecallResponse recallItem(String operation, ItemRequestInformation itemRequestInfo, String callInstitution) {
+        return requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_RECALL, itemRequestInfo, callInstitution,
+                () -> (ItemRecallResponse) requestItemController.recallItem(itemRequestInfo, callInstitution));
+    }
+
+    private void checkoutItem(String operation, ItemRequestInformation itemRequestInfo) {
+        requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_CHECKOUT, itemRequestInfo, itemRequestInfo.getItemOwningInstitution(),
+                () -> requestItemController.checkoutItem(itemRequestInfo, itemRequestInfo.getItemOwningInstitution()));
+    }
+
+    private void checkinItem(String operation, ItemRequestInformation itemRequestInfo, String callInstitution) {
+        requestLifecycleMetrics.recordIlsStage(operation, ScsbConstants.REQUEST_STAGE_ILS_CHECKIN, itemRequestInfo, callInstitution,
+                () -> requestItemController.checkinItem(itemRequestInfo, callInstitution));
+    }
+
     private static String recallError(ItemRecallResponse itemRecallResponse) {
         if (itemRecallResponse.getScreenMessage() != null && itemRecallResponse.getScreenMessage().trim().length() > 0) {
             return ScsbConstants.REQUEST_SCSB_EXCEPTION + itemRecallResponse.getScreenMessage();
@@ -903,14 +1050,15 @@ public class ItemRequestService {
         ItemCreateBibResponse createBibResponse;
         String isCreateBibEnabled = propertyUtil.getPropertyByInstitutionAndKey(itemRequestInfo.getRequestingInstitution(), PropertyKeyConstants.ILS.ILS_CREATE_BIB_API_ENABLED);
         if (Boolean.TRUE.toString().equalsIgnoreCase(isCreateBibEnabled)) {
-            createBibResponse = (ItemCreateBibResponse) requestItemController.createBibliogrphicItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution());
+            createBibResponse = createBib(itemRequestInfo);
         } else {
             createBibResponse = new ItemCreateBibResponse();
             createBibResponse.setSuccess(true);
         }
         if (createBibResponse.isSuccess()) {
             itemRequestInfo.setBibId(createBibResponse.getBibId());
-            ItemHoldResponse itemHoldResponse = (ItemHoldResponse) requestItemController.holdItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution());
+            ItemHoldResponse itemHoldResponse = requestLifecycleMetrics.recordIlsStage(RequestLifecycleMetrics.operation(itemRequestInfo), ScsbConstants.REQUEST_STAGE_ILS_HOLD, itemRequestInfo, itemRequestInfo.getRequestingInstitution(),
+                    () -> (ItemHoldResponse) requestItemController.holdItem(itemRequestInfo, itemRequestInfo.getRequestingInstitution()));
             itemResponseInformation.setScreenMessage(itemHoldResponse.getScreenMessage());
             itemResponseInformation.setSuccess(itemHoldResponse.isSuccess());
         } else {
@@ -924,12 +1072,17 @@ public class ItemRequestService {
     }
 
     /**
-     * Search records search result row.
+     * Search records search result row. The title and author are served from the bibliographic metadata cache when the
+     * item or its bibliographic record was searched before.
      *
      * @param itemEntity the item entity
      * @return the search result row
      */
     public SearchResultRow searchRecords(ItemEntity itemEntity) {
+        return bibliographicMetadataCache.getSearchResultRow(itemEntity, this::searchSolr);
+    }
+
+    private SearchResultRow searchSolr(ItemEntity itemEntity) {
         List<SearchResultRow> statusResponse;
         SearchResultRow searchResultRow = null;
         try {
@@ -1117,9 +1270,9 @@ public class ItemRequestService {
     }
 
     private String getPickupLocation(Integer institutionId, String deliveryLocation) {
-        DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(deliveryLocation, institutionId, 'Y');
-        if (deliveryCodeEntity != null) {
-            return deliveryCodeEntity.getPickupLocation() != null ? deliveryCodeEntity.getPickupLocation() : "";
+        ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(deliveryLocation, institutionId);
+        if (deliveryCode != null) {
+            return deliveryCode.getPickupLocation() != null ? deliveryCode.getPickupLocation() : "";
         }
         else {
             return "";
@@ -1136,14 +1289,12 @@ public class ItemRequestService {
     }
 
     public boolean executeLasitemCheck(ItemRequestInformation itemRequestInfo, ItemInformationResponse itemResponseInformation) {
-        RequestStatusEntity requestStatusEntity = null;
         Optional<RequestItemEntity> requestItemEntity = requestItemDetailsRepository.findById(itemRequestInfo.getRequestId());
         itemResponseInformation = gfaLasService.executeRetrieveOrder(itemRequestInfo, itemResponseInformation);
         log.info("itemResponseInformation-> {}" , itemResponseInformation.isSuccess());
         if (itemResponseInformation.isSuccess()) {
-            requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.REQUEST_STATUS_PENDING);
             if(requestItemEntity.isPresent()) {
-                requestItemEntity.get().setRequestStatusId(requestStatusEntity.getId());
+                requestItemEntity.get().setRequestStatusId(referenceDataCache.getRequestStatusIdsByCode().get(ScsbConstants.REQUEST_STATUS_PENDING));
                 requestItemEntity.get().setLastUpdatedDate(new Date());
                 requestItemDetailsRepository.save(requestItemEntity.get());
             }
@@ -1245,9 +1396,8 @@ public class ItemRequestService {
         } else if (ScsbConstants.REQUEST_DATES_RANGE.equalsIgnoreCase(replaceRequestByType)) {
             if (StringUtils.isNotBlank(replaceRequest.getFromDate()) && StringUtils.isNotBlank(replaceRequest.getToDate()) && StringUtils.isNotBlank(replaceRequest.getRequestStatus())) {
                 String requestStatus = replaceRequest.getRequestStatus();
-                SimpleDateFormat dateFormatter = new SimpleDateFormat(ScsbConstants.DEFAULT_DATE_FORMAT);
-                Date fromDate = dateFormatter.parse(replaceRequest.getFromDate());
-                Date toDate = dateFormatter.parse(replaceRequest.getToDate());
+                Date fromDate = DateUtil.parse(replaceRequest.getFromDate(), DateUtil.DEFAULT_DATE_FORMATTER);
+                Date toDate = DateUtil.parse(replaceRequest.getToDate(), DateUtil.DEFAULT_DATE_FORMATTER);
                 if (ScsbConstants.REQUEST_STATUS_PENDING.equalsIgnoreCase(requestStatus)) {
                     List<RequestItemEntity> requestItemEntities = requestItemDetailsRepository.getRequestsBasedOnDateRangeAndRequestStatusCode(fromDate, toDate, ScsbConstants.REQUEST_STATUS_PENDING);
                     resultMap = buildRequestInfoAndReplaceToLAS(requestItemEntities);
@@ -1362,9 +1512,8 @@ public class ItemRequestService {
         itemRequestInformation.setRequestType(requestItemEntity.getRequestTypeEntity().getRequestTypeCode());
         itemRequestInformation.setDeliveryLocation(requestItemEntity.getStopCode());
         if(!requestItemEntity.getStopCode().trim().isEmpty()) {
-            DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(requestItemEntity.getStopCode(), requestItemEntity.getInstitutionEntity().getId(), 'Y');
-            DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(requestItemEntity.getInstitutionEntity().getId(), deliveryCodeEntity.getId(), itemEntity.getImsLocationEntity().getId());
-            itemRequestInformation.setTranslatedDeliveryLocation(deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
+            ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(requestItemEntity.getStopCode(), requestItemEntity.getInstitutionEntity().getId());
+            itemRequestInformation.setTranslatedDeliveryLocation(referenceDataCache.getImsLocationDeliveryCode(requestItemEntity.getInstitutionEntity().getId(), deliveryCode.getId(), itemEntity.getImsLocationEntity().getId()));
         }
         else {
             itemRequestInformation.setTranslatedDeliveryLocation(requestItemEntity.getStopCode());
@@ -1398,8 +1547,7 @@ public class ItemRequestService {
 
     private String setRequestItemEntity(ItemRequestInformation itemRequestInformation, RequestItemEntity requestItemEntity) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            String json = objectMapper.writeValueAsString(itemRequestInformation);
+            String json = JsonUtil.OBJECT_WRITER.writeValueAsString(itemRequestInformation);
             String itemStatus = gfaLasService.callGfaItemStatus(requestItemEntity.getItemEntity().getBarcode());
             if (commonUtil.checkIfImsItemStatusIsRequestableNotRetrievable(requestItemEntity.getItemEntity().getImsLocationEntity().getImsLocationCode(), itemStatus)) {
                 RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.LAS_REFILE_REQUEST_PLACED);
@@ -1407,7 +1555,10 @@ public class ItemRequestService {
                 requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
                 requestItemDetailsRepository.save(requestItemEntity);
             } else if (commonUtil.checkIfImsItemStatusIsAvailableOrNotAvailable(requestItemEntity.getItemEntity().getImsLocationEntity().getImsLocationCode(), itemStatus, true)) {
-                producerTemplate.sendBodyAndHeader(ScsbConstants.REQUEST_ITEM_QUEUE, json, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInformation.getRequestType());
+                Map<String, Object> headers = new HashMap<>();
+                headers.put(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInformation.getRequestType());
+                headers.put(ScsbConstants.REQUEST_OWNING_INSTITUTION_QUEUE_HEADER, itemRequestInformation.getItemOwningInstitution());
+                producerTemplate.sendBodyAndHeaders(requestItemConsumerPools.getRequestItemQueue(itemRequestInformation.getRequestType(), itemRequestInformation.getItemOwningInstitution()), json, headers);
             }
         } catch (RuntimeException | JsonProcessingException exception) {
             log.error(ScsbCommonConstants.REQUEST_EXCEPTION, exception);
@@ -1415,4 +1566,74 @@ public class ItemRequestService {
         }
         return ScsbCommonConstants.SUCCESS + " : " + ScsbCommonConstants.REQUEST_MESSAGE_RECEVIED;
     }
+
+    /**
+     * State of one retrieval request while its batch is processed.
+     */
+    private static final class RetrievalRequest {
+
+        private final ItemRequestInformation itemRequestInfo;
+        private ItemInformationResponse itemResponseInformation = new ItemInformationResponse();
+        private ItemEntity itemEntity;
+        private boolean itemStatusAvailable;
+        private boolean saved;
+        private boolean toBeCompleted;
+
+        private RetrievalRequest(ItemRequestInformation itemRequestInfo) {
+            this.itemRequestInfo = itemRequestInfo;
+        }
+
+        private ItemInformationResponse getItemResponseInformation() {
+            return itemResponseInformation;
+        }
+
+        private boolean isToBeCompleted() {
+            return toBeCompleted;
+        }
+    }
+
+    /**
+     * Looks up the items of a batch of retrieval requests with one query, falling back to the single row lookup for
+     * anything the batch query did not return. A single request is looked up row by row. The Solr records are searched
+     * per item through {@link #searchRecords}, as the solr client searches one barcode per call.
+     */
+    private final class RetrievalRequestLookup {
+
+        private final boolean batch;
+        private final Map<String, List<ItemEntity>> itemEntitiesByBarcode = new HashMap<>();
+
+        private RetrievalRequestLookup(List<ItemRequestInformation> itemRequestInfos) {
+            batch = itemRequestInfos.size() > 1;
+            if (batch) {
+                Set<String> barcodes = new LinkedHashSet<>();
+                for (ItemRequestInformation itemRequestInfo : itemRequestInfos) {
+                    if (itemRequestInfo.getItemBarcodes() != null) {
+                        barcodes.addAll(itemRequestInfo.getItemBarcodes());
+                    }
+                }
+                String operation = RequestLifecycleMetrics.operation(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL);
+                try {
+                    List<ItemEntity> itemEntities = requestLifecycleMetrics.recordStage(operation, ScsbConstants.REQUEST_STAGE_DB, null, () -> itemDetailsRepository.findByBarcodeIn(new ArrayList<>(barcodes)));
+                    if (itemEntities != null) {
+                        itemEntitiesByBarcode.putAll(itemEntities.stream().collect(Collectors.groupingBy(ItemEntity::getBarcode)));
+                    }
+                } catch (Exception ex) {
+                    log.error(ScsbCommonConstants.REQUEST_EXCEPTION, ex);
+                }
+            }
+        }
+
+        private List<ItemEntity> getItemEntities(ItemRequestInformation itemRequestInfo) {
+            if (batch && itemRequestInfo.getItemBarcodes() != null) {
+                List<ItemEntity> itemEntities = new ArrayList<>();
+                for (String barcode : itemRequestInfo.getItemBarcodes()) {
+                    itemEntities.addAll(itemEntitiesByBarcode.getOrDefault(barcode, Collections.emptyList()));
+                }
+                if (!itemEntities.isEmpty()) {
+                    return itemEntities;
+                }
+            }
+            return itemDetailsRepository.findByBarcodeIn(itemRequestInfo.getItemBarcodes());
+        }
+    }
 }
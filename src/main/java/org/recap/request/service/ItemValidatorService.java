@@ -7,23 +7,12 @@ import org.recap.ScsbConstants;
 import org.recap.ScsbCommonConstants;
 import org.recap.controller.ItemController;
 import org.recap.model.jpa.BibliographicEntity;
-import org.recap.model.jpa.DeliveryCodeEntity;
-import org.recap.model.jpa.DeliveryCodeTranslationEntity;
-import org.recap.model.jpa.ImsLocationEntity;
-import org.recap.model.jpa.InstitutionEntity;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.request.ItemRequestInformation;
-import org.recap.model.jpa.ItemStatusEntity;
-import org.recap.model.jpa.OwnerCodeEntity;
 import org.recap.model.jpa.RequestItemEntity;
-import org.recap.repository.jpa.DeliveryCodeDetailsRepository;
-import org.recap.repository.jpa.DeliveryCodeTranslationDetailsRepository;
-import org.recap.repository.jpa.ImsLocationDetailsRepository;
-import org.recap.repository.jpa.InstitutionDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
-import org.recap.repository.jpa.ItemStatusDetailsRepository;
-import org.recap.repository.jpa.OwnerCodeDetailsRepository;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,7 +25,6 @@ import java.text.MessageFormat;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.Map;
 
@@ -53,20 +41,10 @@ public class ItemValidatorService {
     private String scsbSolrClientUrl;
 
     /**
-     * The Item status details repository.
+     * The Reference data cache.
      */
     @Autowired
-    private ItemStatusDetailsRepository itemStatusDetailsRepository;
-
-    @Autowired
-    private ImsLocationDetailsRepository imsLocationDetailsRepository;
-
-    @Autowired
-    private InstitutionDetailsRepository institutionDetailsRepository;
-
-    @Autowired
-    private DeliveryCodeTranslationDetailsRepository deliveryCodeTranslationDetailsRepository;
-
+    private ReferenceDataCache referenceDataCache;
 
     /**
      * The Item details repository.
@@ -80,15 +58,6 @@ public class ItemValidatorService {
     @Autowired
     private ItemController itemController;
 
-    /**
-     * The Owner code details repository.
-     */
-    @Autowired
-    private OwnerCodeDetailsRepository ownerCodeDetailsRepository;
-
-    @Autowired
-    private DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
-
     @Autowired
     private RequestItemDetailsRepository requestItemDetailsRepository;
 
@@ -103,7 +72,7 @@ public class ItemValidatorService {
      */
     public ResponseEntity itemValidation(ItemRequestInformation itemRequestInformation) {
         List<ItemEntity> itemEntityList = getItemEntities(itemRequestInformation.getItemBarcodes());
-        InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getRequestingInstitution());
+        Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInformation.getRequestingInstitution());
         Map<String, String> frozenInstitutionPropertyMap = propertyUtil.getPropertyByKeyForAllInstitutions(PropertyKeyConstants.ILS.ILS_ENABLE_CIRCULATION_FREEZE);
         Map<String, String> frozenInstitutionMessagesPropertyMap = propertyUtil.getPropertyByKeyForAllInstitutions(PropertyKeyConstants.ILS.ILS_CIRCULATION_FREEZE_MESSAGE);
         if (itemRequestInformation.getItemBarcodes().size() == 1) {
@@ -134,13 +103,10 @@ public class ItemValidatorService {
                         Boolean isRecallAvailableforOwnInst = false;
                         Boolean isRecallAvailableforRequestingInst = false;
 
-                        InstitutionEntity requestingInstitutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getRequestingInstitution());
-                        InstitutionEntity owningInstitutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getItemOwningInstitution());
-
                         Map<String, String> recallAvailablePropertyMap = propertyUtil.getPropertyByKeyForAllInstitutions(PropertyKeyConstants.ILS.ILS_RECALL_FUNCTIONALITY_AVAILABLE);
 
-                        isRecallAvailableforRequestingInst = Boolean.parseBoolean(recallAvailablePropertyMap.get(requestingInstitutionEntity.getInstitutionCode()));
-                        isRecallAvailableforOwnInst = Boolean.parseBoolean(recallAvailablePropertyMap.get(owningInstitutionEntity.getInstitutionCode()));
+                        isRecallAvailableforRequestingInst = Boolean.parseBoolean(recallAvailablePropertyMap.get(itemRequestInformation.getRequestingInstitution()));
+                        isRecallAvailableforOwnInst = Boolean.parseBoolean(recallAvailablePropertyMap.get(itemRequestInformation.getItemOwningInstitution()));
 
                         if(!isRecallAvailableforRequestingInst) {
                             return new ResponseEntity<>(ScsbConstants.RECALL_REQ_INST_ERR_MSG, getHttpHeaders(), HttpStatus.BAD_REQUEST);
@@ -160,8 +126,7 @@ public class ItemValidatorService {
                     }
 
                     if (itemRequestInformation.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_EDD)) {
-                        OwnerCodeEntity ownerCodeEntity = ownerCodeDetailsRepository.findByOwnerCodeAndRecapDeliveryRestrictionLikeEDD(itemEntity1.getCustomerCode(), itemEntity1.getOwningInstitutionId());
-                        if (ownerCodeEntity == null) {
+                        if (!referenceDataCache.isEddOwnerCode(itemEntity1.getCustomerCode(), itemEntity1.getOwningInstitutionId())) {
                             return new ResponseEntity<>(ScsbConstants.EDD_REQUEST_NOT_ALLOWED, getHttpHeaders(), HttpStatus.BAD_REQUEST);
                         }
                     }
@@ -169,7 +134,7 @@ public class ItemValidatorService {
                 ItemEntity itemEntity = itemEntityList.get(0);
                 ResponseEntity responseEntity1 = null;
                 if (itemRequestInformation.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL) || itemRequestInformation.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_RECALL)) {
-                    int validateCustomerCode = checkDeliveryLocation(itemEntity.getCustomerCode(), institutionEntity.getId(), itemRequestInformation);
+                    int validateCustomerCode = checkDeliveryLocation(itemEntity.getCustomerCode(), institutionId, itemRequestInformation);
                     if (validateCustomerCode == 1) {
                         int validateDeliveryTranslationCode = checkDeliveryLocationTranslationCode(itemEntity, itemRequestInformation);
                         if (validateDeliveryTranslationCode == 1) {
@@ -225,12 +190,8 @@ public class ItemValidatorService {
      * @return the item status
      */
     public String getItemStatus(Integer itemAvailabilityStatusId) {
-        String status = "";
-        Optional<ItemStatusEntity> itemStatusEntity = itemStatusDetailsRepository.findById(itemAvailabilityStatusId);
-        if (itemStatusEntity.isPresent()) {
-            status = itemStatusEntity.get().getStatusCode();
-        }
-        return status;
+        String statusCode = referenceDataCache.getItemStatusCodesById().get(itemAvailabilityStatusId);
+        return statusCode != null ? statusCode : "";
     }
 
     /**
@@ -240,18 +201,14 @@ public class ItemValidatorService {
      * @return the item status
      */
     public String getImsLocation(Integer imsLocationId) {
-        String imsLocationCode = "";
-        Optional<ImsLocationEntity> imsLocationEntity = imsLocationDetailsRepository.findById(imsLocationId);
-        if (imsLocationEntity.isPresent()) {
-            imsLocationCode = imsLocationEntity.get().getImsLocationCode();
-        }
-        return imsLocationCode;
+        String imsLocationCode = referenceDataCache.getImsLocationCodesById().get(imsLocationId);
+        return imsLocationCode != null ? imsLocationCode : "";
     }
 
     private ResponseEntity multipleRequestItemValidation(List<ItemEntity> itemEntityList, Set<Integer> bibliographicIds, ItemRequestInformation itemRequestInformation, Map<String, String> frozenInstitutionPropertyMap, Map<String, String> frozenInstitutionMessagesPropertyMap) {
         String status = "";
         List<BibliographicEntity> bibliographicList;
-        InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getRequestingInstitution());
+        Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInformation.getRequestingInstitution());
 
         for (ItemEntity itemEntity : itemEntityList) {
             if (!checkRequestItemStatus(itemEntity.getBarcode(), ScsbCommonConstants.REQUEST_STATUS_INITIAL_LOAD)) {
@@ -272,7 +229,7 @@ public class ItemValidatorService {
             }
 
             if (!(itemRequestInformation.getRequestType().equalsIgnoreCase(ScsbCommonConstants.REQUEST_TYPE_EDD))) {
-                int validateCustomerCode = checkDeliveryLocation(itemEntity.getCustomerCode(), institutionEntity.getId(), itemRequestInformation);
+                int validateCustomerCode = checkDeliveryLocation(itemEntity.getCustomerCode(), institutionId, itemRequestInformation);
                 if (validateCustomerCode == 1) {
                  int validateDeliveryTranslationCode = checkDeliveryLocationTranslationCode(itemEntity, itemRequestInformation);
                     if (validateDeliveryTranslationCode == 1) {
@@ -322,14 +279,10 @@ public class ItemValidatorService {
      */
     public int checkDeliveryLocation(String ownerCode, Integer institutionId, ItemRequestInformation itemRequestInformation) {
         int bSuccess = 0;
-        InstitutionEntity owningInstitutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getItemOwningInstitution());
-        DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(itemRequestInformation.getDeliveryLocation(), institutionId, 'Y');
-        if (deliveryCodeEntity != null && deliveryCodeEntity.getDeliveryCode().equalsIgnoreCase(itemRequestInformation.getDeliveryLocation())) {
-                OwnerCodeEntity ownerCodeEntity = ownerCodeDetailsRepository.findByOwnerCodeAndOwningInstitutionCode(ownerCode, owningInstitutionEntity.getInstitutionCode());
-                String requestingInstitution = itemRequestInformation.getRequestingInstitution();
-                institutionDetailsRepository.findByInstitutionCode(requestingInstitution);
-
-                List<Object[]> deliveryCodeEntityList = ownerCodeDetailsRepository.findByOwnerCodeAndRequestingInstitution(ownerCodeEntity.getId(), institutionId, itemRequestInformation.getDeliveryLocation());
+        ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(itemRequestInformation.getDeliveryLocation(), institutionId);
+        if (deliveryCode != null && deliveryCode.getDeliveryCode().equalsIgnoreCase(itemRequestInformation.getDeliveryLocation())) {
+                Integer ownerCodeId = referenceDataCache.getOwnerCodeId(ownerCode, itemRequestInformation.getItemOwningInstitution());
+                List<Object[]> deliveryCodeEntityList = referenceDataCache.getOwnerCodeDeliveryCodes(ownerCodeId, institutionId, itemRequestInformation.getDeliveryLocation());
                 if (!deliveryCodeEntityList.isEmpty()) {
                             bSuccess = 1;
                         } else {
@@ -342,10 +295,10 @@ public class ItemValidatorService {
 
     public int checkDeliveryLocationTranslationCode(ItemEntity itemEntity, ItemRequestInformation itemRequestInformation) {
         int bSuccess = -1;
-        InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(itemRequestInformation.getRequestingInstitution());
-        DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(itemRequestInformation.getDeliveryLocation(), institutionEntity.getId(), 'Y');
-            DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(institutionEntity.getId(), deliveryCodeEntity.getId(), itemEntity.getImsLocationId());
-            if (deliveryCodeTranslationEntity != null) {
+        Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(itemRequestInformation.getRequestingInstitution());
+        ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(itemRequestInformation.getDeliveryLocation(), institutionId);
+            String imsLocationDeliveryCode = referenceDataCache.getImsLocationDeliveryCode(institutionId, deliveryCode.getId(), itemEntity.getImsLocationId());
+            if (imsLocationDeliveryCode != null) {
                 bSuccess = 1;
             } else {
                 bSuccess = -1;
@@ -2,6 +2,7 @@ package org.recap.request.util;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
@@ -20,12 +21,26 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Created by rajeshbabuk on 10/10/17.
@@ -34,10 +49,22 @@ import java.util.Optional;
 @Service
 public class ItemRequestServiceUtil {
 
+    static final String BULK_REQUEST_RESULT_INSERT = "INSERT INTO bulk_request_result_t (BULK_REQUEST_ID, ITEM_BARCODE, CUSTOMER_CODE, REQUEST_ID, REQUEST_STATUS, STATUS) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String BULK_REQUEST_RESULT_BARCODE_SELECT = "SELECT ITEM_BARCODE FROM bulk_request_result_t WHERE BULK_REQUEST_ID = ? AND ITEM_BARCODE IN (";
+    static final String BULK_REQUEST_RESULT_SELECT = ""SELECT ITEM_BARCODE, CUSTOMER_CODE, REQUEST_ID, REQUEST_STATUS, STATUS FROM bulk_request_result_t WHERE BULK_REQUEST_ID = ? ORDER BY RESULT_ID";
 
     @Value("${" + PropertyKeyConstants.SCSB_SOLR_DOC_URL + "}")
     private String scsbSolrClientUrl;
 
+    @Value("${solr.index.update.debounce.millis:0}")
+    private long solrIndexUpdateDebounceMillis;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private RestHeaderService restHeaderService;
 
@@ -53,20 +80,75 @@ public class ItemRequestServiceUtil {
     @Autowired
     private PropertyUtil propertyUtil;
 
+    private final Set<String> pendingSolrIndexBarcodes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean solrIndexUpdateScheduled = new AtomicBoolean();
+    private ScheduledExecutorService solrIndexUpdateScheduler;
+
     public RestHeaderService getRestHeaderService(){
         return restHeaderService;
     }
 
+    @PostConstruct
+    public void startSolrIndexUpdater() {
+        if (solrIndexUpdateDebounceMillis > 0) {
+            solrIndexUpdateScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "solr-index-update");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stopSolrIndexUpdater() {
+        if (solrIndexUpdateScheduler != null) {
+            solrIndexUpdateScheduler.shutdownNow();
+        }
+        flushSolrIndexUpdates();
+    }
+
     /**
-     * Update solr index.
+     * Update solr index. With {@code solr.index.update.debounce.millis} set, a barcode changed several times within the
+     * debounce interval is sent to Solr once when the interval ends; otherwise it is sent immediately. The solr client
+     * takes one item barcode per call.
      *
      * @param itemEntity the item entity
      */
     public void updateSolrIndex(ItemEntity itemEntity) {
+        if (StringUtils.isBlank(itemEntity.getBarcode())) {
+            return;
+        }
+        if (solrIndexUpdateScheduler == null) {
+            updateSolrIndex(itemEntity.getBarcode());
+            return;
+        }
+        pendingSolrIndexBarcodes.add(itemEntity.getBarcode());
+        if (solrIndexUpdateScheduled.compareAndSet(false, true)) {
+            try {
+                solrIndexUpdateScheduler.schedule(this::flushSolrIndexUpdates, solrIndexUpdateDebounceMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+                flushSolrIndexUpdates();
+            }
+        }
+    }
+
+    /**
+     * Sends the pending Solr index updates.
+     */
+    public void flushSolrIndexUpdates() {
+        solrIndexUpdateScheduled.set(false);
+        for (Iterator<String> iterator = pendingSolrIndexBarcodes.iterator(); iterator.hasNext(); ) {
+            String barcode = iterator.next();
+            iterator.remove();
+            updateSolrIndex(barcode);
+        }
+    }
+
+    private void updateSolrIndex(String barcode) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
             HttpEntity requestEntity = new HttpEntity<>(getRestHeaderService().getHttpHeaders());
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(scsbSolrClientUrl + ScsbConstants.UPDATE_ITEM_STATUS_SOLR).queryParam(ScsbConstants.UPDATE_ITEM_STATUS_SOLR_PARAM_ITEM_ID, itemEntity.getBarcode());
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(scsbSolrClientUrl + ScsbConstants.UPDATE_ITEM_STATUS_SOLR).queryParam(ScsbConstants.UPDATE_ITEM_STATUS_SOLR_PARAM_ITEM_ID, barcode);
             ResponseEntity<String> responseEntity = restTemplate.exchange(builder.build().encode().toUri(), HttpMethod.GET, requestEntity, String.class);
             log.info(responseEntity.getBody());
         } catch (Exception e) {
@@ -75,17 +157,41 @@ public class ItemRequestServiceUtil {
     }
 
     /**
-     * Updates process status to each barcode in csv format.
+     * Appends the process status of each barcode to the results of the bulk request.
      * @param bulkRequestItems
-     * @param bulkRequestItemEntity
+     * @param bulkRequestId
      */
-    public void updateStatusToBarcodes(List<BulkRequestItem> bulkRequestItems, BulkRequestItemEntity bulkRequestItemEntity) {
-        StringBuilder csvFormatDataBuilder = new StringBuilder();
-        String requestData = new String(bulkRequestItemEntity.getBulkRequestFileData());
-        csvFormatDataBuilder.append(requestData);
-        buildCsvFormatData(bulkRequestItems, csvFormatDataBuilder);
-        bulkRequestItemEntity.setBulkRequestFileData(csvFormatDataBuilder.toString().getBytes());
-        bulkRequestItemDetailsRepository.save(bulkRequestItemEntity);
+    public void updateStatusToBarcodes(List<BulkRequestItem> bulkRequestItems, Integer bulkRequestId) {
+        if (bulkRequestItems.isEmpty()) {
+            return;
+        }
+        List<Object[]> bulkRequestResultArgs = new ArrayList<>();
+        for (BulkRequestItem bulkRequestItem : bulkRequestItems) {
+            bulkRequestResultArgs.add(new Object[]{bulkRequestId, bulkRequestItem.getItemBarcode(), bulkRequestItem.getCustomerCode(),
+                    bulkRequestItem.getRequestId(), bulkRequestItem.getRequestStatus(), bulkRequestItem.getStatus()});
+        }
+        jdbcTemplate.batchUpdate(BULK_REQUEST_RESULT_INSERT, bulkRequestResultArgs);
+    }
+
+    /**
+     * Finds which of the barcodes already have a process status in the results of the bulk request.
+     * @param itemBarcodes
+     * @param bulkRequestId
+     * @return the barcodes with a process status
+     */
+    public Set<String> findBarcodesWithStatus(Collection<String> itemBarcodes, Integer bulkRequestId) {
+        Set<String> barcodesWithStatus = new HashSet<>();
+        if (itemBarcodes.isEmpty()) {
+            return barcodesWithStatus;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(bulkRequestId);
+        args.addAll(itemBarcodes);
+        jdbcTemplate.query(BULK_REQUEST_RESULT_BARCODE_SELECT + String.join(",", Collections.nCopies(itemBarcodes.size(), "?")) + ")",
+                resultSet -> {
+                    barcodesWithStatus.add(resultSet.getString("ITEM_BARCODE"));
+                }, args.toArray());
+        return barcodesWithStatus;
     }
 
     /**
@@ -95,25 +201,39 @@ public class ItemRequestServiceUtil {
      */
     public void buildCsvFormatData(List<BulkRequestItem> exceptionBulkRequestItems, StringBuilder csvFormatDataBuilder) {
         for (BulkRequestItem bulkRequestItem : exceptionBulkRequestItems) {
-            csvFormatDataBuilder.append("\n");
-            csvFormatDataBuilder.append(bulkRequestItem.getItemBarcode()).append(",");
-            csvFormatDataBuilder.append(bulkRequestItem.getCustomerCode()).append(",");
-            csvFormatDataBuilder.append(bulkRequestItem.getRequestId()).append(",");
-            csvFormatDataBuilder.append(bulkRequestItem.getRequestStatus()).append(",");
-            csvFormatDataBuilder.append(StringEscapeUtils.escapeCsv(bulkRequestItem.getStatus()));
+            appendCsvFormatData(csvFormatDataBuilder, bulkRequestItem.getItemBarcode(), bulkRequestItem.getCustomerCode(),
+                    bulkRequestItem.getRequestId(), bulkRequestItem.getRequestStatus(), bulkRequestItem.getStatus());
         }
     }
 
+    private static void appendCsvFormatData(StringBuilder csvFormatDataBuilder, String itemBarcode, String customerCode, String requestId, String requestStatus, String status) {
+        csvFormatDataBuilder.append("\n");
+        csvFormatDataBuilder.append(itemBarcode).append(",");
+        csvFormatDataBuilder.append(customerCode).append(",");
+        csvFormatDataBuilder.append(requestId).append(",");
+        csvFormatDataBuilder.append(requestStatus).append(",");
+        csvFormatDataBuilder.append(StringEscapeUtils.escapeCsv(status));
+    }
+
     /**
-     * Generates report for the bulk request items and sends an email.
+     * Generates the report of the bulk request, the uploaded file data followed by the results of its items, stores it
+     * as the bulk request file data and sends an email.
      * @param bulkRequestId
      */
     public void generateReportAndSendEmail(Integer bulkRequestId) {
         Optional<BulkRequestItemEntity> bulkRequestItemEntity = bulkRequestItemDetailsRepository.findById(bulkRequestId);
         if(bulkRequestItemEntity.isPresent()) {
+            StringBuilder csvFormatDataBuilder = new StringBuilder(new String(bulkRequestItemEntity.get().getBulkRequestFileData()));
+            jdbcTemplate.query(BULK_REQUEST_RESULT_SELECT, resultSet -> {
+                appendCsvFormatData(csvFormatDataBuilder, resultSet.getString("ITEM_BARCODE"), resultSet.getString("CUSTOMER_CODE"),
+                        resultSet.getString("REQUEST_ID"), resultSet.getString("REQUEST_STATUS"), resultSet.getString("STATUS"));
+            }, bulkRequestId);
+            String report = csvFormatDataBuilder.toString();
+            bulkRequestItemEntity.get().setBulkRequestFileData(report.getBytes());
+            bulkRequestItemDetailsRepository.save(bulkRequestItemEntity.get());
             emailService.sendBulkRequestEmail(String.valueOf(bulkRequestItemEntity.get().getId()),
                     bulkRequestItemEntity.get().getBulkRequestName(), bulkRequestItemEntity.get().getBulkRequestFileName(),
-                    bulkRequestItemEntity.get().getBulkRequestStatus(), new String(bulkRequestItemEntity.get().getBulkRequestFileData()),
+                    bulkRequestItemEntity.get().getBulkRequestStatus(), report,
                     "Bulk Request Process Report");
         }
     }
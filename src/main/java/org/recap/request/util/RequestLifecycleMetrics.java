@@ -0,0 +1,196 @@
+package org.recap.request.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.ils.connector.AbstractProtocolConnector;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
+import org.recap.model.AbstractResponseItem;
+import org.recap.model.request.ItemRequestInformation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of the retrieval, recall, EDD, refile and cancel request flows and the flows end to end.
+ * <p>
+ * Every stage is recorded to the {@value ScsbConstants#REQUEST_STAGE_METRIC} timer tagged with the operation, the stage,
+ * the owning and requesting institutions, the IMS location, the ILS protocol of the institution called for ILS stages
+ * and the result, which is {@code success} or {@code failure} from the ILS or LAS response of the stage and
+ * {@code error} when the stage throws. The whole flow is recorded to the {@value ScsbConstants#REQUEST_LIFECYCLE_METRIC}
+ * timer. The counts of the timers are the number of requests per outcome. The request tags are read when the stage
+ * completes, as the lookup stages fill the owning institution and IMS location of the request, and tags that are
+ * not known yet are {@code none}.
+ */
+@Slf4j
+@Component
+public class RequestLifecycleMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    /**
+     * Gets the operation tag of a request type.
+     *
+     * @param requestType the request type
+     * @return the operation
+     */
+    public static String operation(String requestType) {
+        return StringUtils.isBlank(requestType) ? ScsbConstants.METRIC_TAG_VALUE_NONE : requestType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the operation tag of a request.
+     *
+     * @param itemRequestInformation the item request information
+     * @return the operation
+     */
+    public static String operation(ItemRequestInformation itemRequestInformation) {
+        return operation(itemRequestInformation != null ? itemRequestInformation.getRequestType() : null);
+    }
+
+    /**
+     * Records a stage of a request.
+     *
+     * @param operation              the operation
+     * @param stage                  the stage
+     * @param itemRequestInformation the item request information, or null if the stage is shared by several requests
+     * @param action                 the stage
+     * @param <T>                    the result type of the stage
+     * @return the result of the stage
+     */
+    public <T> T recordStage(String operation, String stage, ItemRequestInformation itemRequestInformation, Supplier<T> action) {
+        return record(stage, () -> requestTags(operation, itemRequestInformation), null, action);
+    }
+
+    /**
+     * Records an ILS stage of a request, tagged with the protocol of the called institution.
+     *
+     * @param operation              the operation
+     * @param stage                  the stage
+     * @param itemRequestInformation the item request information
+     * @param callInstitution        the institution called, or null for the owning institution
+     * @param action                 the stage
+     * @param <T>                    the result type of the stage
+     * @return the result of the stage
+     */
+    public <T> T recordIlsStage(String operation, String stage, ItemRequestInformation itemRequestInformation, String callInstitution, Supplier<T> action) {
+        String institution = callInstitution != null ? callInstitution : itemRequestInformation.getItemOwningInstitution();
+        return record(stage, () -> requestTags(operation, itemRequestInformation), institution, action);
+    }
+
+    /**
+     * Records a stage of a request for which no item request information is built.
+     *
+     * @param operation             the operation
+     * @param stage                 the stage
+     * @param owningInstitution     the owning institution
+     * @param requestingInstitution the requesting institution
+     * @param imsLocationCode       the IMS location code
+     * @param action                the stage
+     * @param <T>                   the result type of the stage
+     * @return the result of the stage
+     */
+    public <T> T recordStage(String operation, String stage, String owningInstitution, String requestingInstitution, String imsLocationCode, Supplier<T> action) {
+        return record(stage, () -> requestTags(operation, owningInstitution, requestingInstitution, imsLocationCode), null, action);
+    }
+
+    /**
+     * Records a stage of a request for which no item request information is built.
+     *
+     * @param operation             the operation
+     * @param stage                 the stage
+     * @param owningInstitution     the owning institution
+     * @param requestingInstitution the requesting institution
+     * @param imsLocationCode       the IMS location code
+     * @param action                the stage
+     */
+    public void recordStage(String operation, String stage, String owningInstitution, String requestingInstitution, String imsLocationCode, Runnable action) {
+        recordStage(operation, stage, owningInstitution, requestingInstitution, imsLocationCode, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records a request from start to end.
+     *
+     * @param operation              the operation
+     * @param itemRequestInformation the item request information, or null if the flow handled several requests
+     * @param startTime              the {@link System#nanoTime()} the request started at
+     * @param response               the response of the request
+     */
+    public void recordLifecycle(String operation, ItemRequestInformation itemRequestInformation, long startTime, AbstractResponseItem response) {
+        long elapsedNanos = System.nanoTime() - startTime;
+        String result = response != null ? result(response) : ScsbConstants.METRIC_RESULT_ERROR;
+        recordTimer(ScsbConstants.REQUEST_LIFECYCLE_METRIC, elapsedNanos, requestTags(operation, itemRequestInformation).and(ScsbConstants.METRIC_TAG_RESULT, result));
+    }
+
+    private <T> T record(String stage, Supplier<Tags> requestTags, String callInstitution, Supplier<T> action) {
+        long startTime = System.nanoTime();
+        String result = ScsbConstants.METRIC_RESULT_ERROR;
+        try {
+            T value = action.get();
+            result = result(value);
+            return value;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startTime;
+            recordTimer(ScsbConstants.REQUEST_STAGE_METRIC, elapsedNanos, requestTags.get()
+                    .and(ScsbConstants.METRIC_TAG_STAGE, stage, ScsbConstants.METRIC_TAG_PROTOCOL, protocol(callInstitution), ScsbConstants.METRIC_TAG_RESULT, result));
+        }
+    }
+
+    private void recordTimer(String name, long elapsedNanos, Tags tags) {
+        meterRegistry.timer(name, tags).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Tags requestTags(String operation, ItemRequestInformation itemRequestInformation) {
+        if (itemRequestInformation == null) {
+            return requestTags(operation, null, null, null);
+        }
+        return requestTags(operation, itemRequestInformation.getItemOwningInstitution(), itemRequestInformation.getRequestingInstitution(), itemRequestInformation.getImsLocationCode());
+    }
+
+    private static Tags requestTags(String operation, String owningInstitution, String requestingInstitution, String imsLocationCode) {
+        return Tags.of(ScsbConstants.METRIC_TAG_OPERATION, tagValue(operation),
+                ScsbConstants.METRIC_TAG_OWNING_INSTITUTION, tagValue(owningInstitution),
+                ScsbConstants.METRIC_TAG_REQUESTING_INSTITUTION, tagValue(requestingInstitution),
+                ScsbConstants.METRIC_TAG_IMS_LOCATION, tagValue(imsLocationCode));
+    }
+
+    private String protocol(String institution) {
+        if (StringUtils.isBlank(institution)) {
+            return ScsbConstants.METRIC_TAG_VALUE_NONE;
+        }
+        try {
+            AbstractProtocolConnector connector = ilsProtocolConnectorRegistry.getConnector(institution);
+            return tagValue(connector != null ? connector.getProtocol() : null);
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+            return ScsbConstants.METRIC_TAG_VALUE_NONE;
+        }
+    }
+
+    private static String result(Object value) {
+        boolean success = true;
+        if (value instanceof AbstractResponseItem) {
+            success = ((AbstractResponseItem) value).isSuccess();
+        } else if (value instanceof Boolean) {
+            success = (Boolean) value;
+        }
+        return success ? ScsbConstants.METRIC_RESULT_SUCCESS : ScsbConstants.METRIC_RESULT_FAILURE;
+    }
+
+    private static String tagValue(String value) {
+        return StringUtils.isBlank(value) ? ScsbConstants.METRIC_TAG_VALUE_NONE : value;
+    }
+}
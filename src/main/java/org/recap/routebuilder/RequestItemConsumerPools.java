@@ -0,0 +1,299 @@
+package org.recap.routebuilder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Route;
+import org.apache.camel.component.jms.JmsConsumer;
+import org.apache.commons.lang3.StringUtils;
+import org.recap.ScsbConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pools and JMS consumer settings of the request item routes, one per request type and owning institution, so
+ * that a slow owning institution ILS only ties up its own consumers and threads.
+ * <p>
+ * Every setting is looked up as {@code request.item.<requestType>.<institutionCode>.<setting>}, then
+ * {@code request.item.<requestType>.<setting>}, then {@code request.item.<setting>}:
+ * <ul>
+ * <li>{@code threads.core} and {@code threads.max} - the thread pool size</li>
+ * <li>{@code queue.size} - the bounded work queue of the thread pool</li>
+ * <li>{@code consumers} and {@code max.consumers} - the concurrent JMS consumers of the queue</li>
+ * <li>{@code prefetch.size} - the messages prefetched by each JMS consumer</li>
+ * </ul>
+ * The EDD and recall messages are handed to the pool, the retrieval messages are collected by the aggregator of the
+ * owning institution, which completes its batches on the pool. When the work queue is full the thread handing over the
+ * work processes it itself, so the JMS consumer stops taking messages and further messages stay on the broker, apart
+ * from the prefetched ones. The JMS message is acknowledged once it is handed over, so the messages on the work queue
+ * and in an open retrieval batch are only held in memory. On a graceful stop the pools are stopped after the Camel
+ * context, whose aggregators complete their open batches on the pools, and the work queued on the pools is finished
+ * for up to {@code request.item.shutdown.timeout.seconds}; the work still queued after that, or when the application
+ * dies, is lost. Pool sizes and consumer counts are applied again when the configuration is refreshed; the work queue
+ * and prefetch sizes take effect on restart.
+ */
+@Slf4j
+@Component
+public class RequestItemConsumerPools implements SmartLifecycle {
+
+    static final String PROPERTY_PREFIX = "request.item.";
+    static final String SHARED = "shared";
+    static final String THREADS_CORE = "threads.core";
+    static final String THREADS_MAX = "threads.max";
+    static final String QUEUE_SIZE = "queue.size";
+    static final String CONSUMERS = "consumers";
+    static final String MAX_CONSUMERS = "max.consumers";
+    static final String PREFETCH_SIZE = "prefetch.size";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CamelContext camelContext;
+
+    @Value("${" + PROPERTY_PREFIX + "shutdown.timeout.seconds:60}")
+    private long shutdownTimeoutSeconds;
+
+    private final Map<String, ConsumerPool> consumerPools = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+
+    private volatile boolean running;
+
+    /**
+     * Gets the queue the request is sent to: the queue of the request type and owning institution when its route is
+     * registered, otherwise the shared request item queue.
+     *
+     * @param requestType     the request type
+     * @param institutionCode the owning institution code
+     * @return the queue uri
+     */
+    public String getRequestItemQueue(String requestType, String institutionCode) {
+        if (StringUtils.isNotBlank(institutionCode) && consumerPools.containsKey(getRouteId(requestType, institutionCode))) {
+            return ScsbConstants.REQUEST_ITEM_QUEUE_PREFIX + institutionCode + requestType + ScsbConstants.REQUEST_ITEM_QUEUE_SUFFIX;
+        }
+        return ScsbConstants.REQUEST_ITEM_QUEUE;
+    }
+
+    /**
+     * Gets the consumer uri of the queue of the request type and owning institution, with its JMS consumer settings.
+     *
+     * @param requestType     the request type
+     * @param institutionCode the owning institution code
+     * @return the consumer uri
+     */
+    public String getConsumerUri(String requestType, String institutionCode) {
+        int consumers = getSetting(requestType, institutionCode, CONSUMERS, 2);
+        return ScsbConstants.REQUEST_ITEM_QUEUE_PREFIX + institutionCode + requestType + ScsbConstants.REQUEST_ITEM_QUEUE_SUFFIX
+                + "?asyncConsumer=true&concurrentConsumers=" + consumers
+                + "&maxConcurrentConsumers=" + Math.max(consumers, getSetting(requestType, institutionCode, MAX_CONSUMERS, 5))
+                + "&destination.consumer.prefetchSize=" + getSetting(requestType, institutionCode, PREFETCH_SIZE, 20);
+    }
+
+    /**
+     * Gets the route id of the queue of the request type and owning institution.
+     *
+     * @param requestType     the request type
+     * @param institutionCode the owning institution code
+     * @return the route id
+     */
+    public String getRouteId(String requestType, String institutionCode) {
+        return institutionCode + requestType + ScsbConstants.REQUEST_ITEM_INSTITUTION_QUEUE_ROUTEID;
+    }
+
+    /**
+     * Creates the thread pool of the queue of the request type and owning institution, and registers the queue route
+     * so that the requests of the owning institution are sent to it.
+     *
+     * @param requestType     the request type
+     * @param institutionCode the owning institution code
+     * @return the thread pool
+     */
+    public ExecutorService register(String requestType, String institutionCode) {
+        String routeId = getRouteId(requestType, institutionCode);
+        return consumerPools.computeIfAbsent(routeId, key -> new ConsumerPool(requestType, institutionCode, routeId, 5, 10)).executor;
+    }
+
+    /**
+     * Creates the thread pool of the shared request item queue, which takes the requests of owning institutions without
+     * a queue of their own. Its settings are looked up as {@code request.item.shared.<setting>}.
+     *
+     * @return the thread pool
+     */
+    public ExecutorService registerShared() {
+        return consumerPools.computeIfAbsent(ScsbConstants.REQUEST_ITEM_QUEUE_ROUTEID, key -> new ConsumerPool(SHARED, null, key, 30, 50)).executor;
+    }
+
+    /**
+     * Gets the thread pool of the queue of the request type and owning institution, or the thread pool of the shared
+     * request item queue when the owning institution has no queue of its own.
+     *
+     * @param requestType     the request type
+     * @param institutionCode the owning institution code
+     * @return the thread pool
+     */
+    public ExecutorService getExecutor(String requestType, String institutionCode) {
+        ConsumerPool consumerPool = StringUtils.isNotBlank(institutionCode) ? consumerPools.get(getRouteId(requestType, institutionCode)) : null;
+        return consumerPool != null ? consumerPool.executor : registerShared();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent environmentChangeEvent) {
+        if (environmentChangeEvent.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTY_PREFIX))) {
+            reload();
+        }
+    }
+
+    /**
+     * Applies the configured pool sizes and consumer counts to the registered routes.
+     */
+    public void reload() {
+        for (ConsumerPool consumerPool : consumerPools.values()) {
+            int core = getSetting(consumerPool.requestType, consumerPool.institutionCode, THREADS_CORE, consumerPool.defaultCore);
+            int max = Math.max(core, getSetting(consumerPool.requestType, consumerPool.institutionCode, THREADS_MAX, consumerPool.defaultMax));
+            ThreadPoolExecutor executor = consumerPool.executor;
+            if (max < executor.getCorePoolSize()) {
+                executor.setCorePoolSize(core);
+                executor.setMaximumPoolSize(max);
+            } else {
+                executor.setMaximumPoolSize(max);
+                executor.setCorePoolSize(core);
+            }
+            DefaultMessageListenerContainer listenerContainer = consumerPool.institutionCode != null ? getListenerContainer(consumerPool.routeId) : null;
+            if (listenerContainer != null) {
+                int consumers = getSetting(consumerPool.requestType, consumerPool.institutionCode, CONSUMERS, 2);
+                listenerContainer.setConcurrentConsumers(consumers);
+                listenerContainer.setMaxConcurrentConsumers(Math.max(consumers, getSetting(consumerPool.requestType, consumerPool.institutionCode, MAX_CONSUMERS, 5)));
+            }
+            log.info("Request item route {} reloaded with {}-{} threads", consumerPool.routeId, core, max);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the pools right after the Camel context, which is stopped first, so that the batches its aggregators
+     * complete on stop are still taken by the pools, and before the data sources the requests need are closed.
+     *
+     * @return the phase
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1;
+    }
+
+    /**
+     * Stops the pools from taking new work and waits for the work queued on them to finish, for up to
+     * {@code request.item.shutdown.timeout.seconds} in total. Only the first call waits.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (!shutDown.compareAndSet(false, true)) {
+            return;
+        }
+        for (ConsumerPool consumerPool : consumerPools.values()) {
+            consumerPool.executor.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        for (ConsumerPool consumerPool : consumerPools.values()) {
+            try {
+                if (!consumerPool.executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    log.warn("Request item route {} stopped with {} requests still queued", consumerPool.routeId, consumerPool.executor.getQueue().size());
+                }
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for the requests of request item route {} to finish", consumerPool.routeId);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private ThreadPoolExecutor newExecutor(String requestType, String institutionCode, int defaultCore, int defaultMax) {
+        int core = getSetting(requestType, institutionCode, THREADS_CORE, defaultCore);
+        int max = Math.max(core, getSetting(requestType, institutionCode, THREADS_MAX, defaultMax));
+        int queueSize = Math.max(1, getSetting(requestType, institutionCode, QUEUE_SIZE, institutionCode != null ? 100 : 1000));
+        String threadNamePrefix = "request-item-" + (institutionCode != null ? institutionCode + "-" : "") + requestType + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(core, max, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet()), new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    private DefaultMessageListenerContainer getListenerContainer(String routeId) {
+        Route route = camelContext.getRoute(routeId);
+        if (route != null && route.getConsumer() instanceof JmsConsumer) {
+            try {
+                Object listenerContainer = ((JmsConsumer) route.getConsumer()).getListenerContainer();
+                if (listenerContainer instanceof DefaultMessageListenerContainer) {
+                    return (DefaultMessageListenerContainer) listenerContainer;
+                }
+            } catch (Exception e) {
+                log.error("Failed to get the listener container of request item route {}", routeId, e);
+            }
+        }
+        return null;
+    }
+
+    int getSetting(String requestType, String institutionCode, String setting, int defaultValue) {
+        Integer value = null;
+        if (institutionCode != null) {
+            value = environment.getProperty(PROPERTY_PREFIX + requestType + "." + institutionCode + "." + setting, Integer.class);
+        }
+        if (value == null) {
+            value = environment.getProperty(PROPERTY_PREFIX + requestType + "." + setting, Integer.class);
+        }
+        if (value == null && institutionCode != null) {
+            value = environment.getProperty(PROPERTY_PREFIX + setting, Integer.class);
+        }
+        return value == null ? defaultValue : value;
+    }
+
+    private class ConsumerPool {
+
+        private final String requestType;
+        private final String institutionCode;
+        private final String routeId;
+        private final int defaultCore;
+        private final int defaultMax;
+        private final ThreadPoolExecutor executor;
+
+        private ConsumerPool(String requestType, String institutionCode, String routeId, int defaultCore, int defaultMax) {
+            this.requestType = requestType;
+            this.institutionCode = institutionCode;
+            this.routeId = routeId;
+            this.defaultCore = defaultCore;
+            this.defaultMax = defaultMax;
+            this.executor = newExecutor(requestType, institutionCode, defaultCore, defaultMax);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.recap.routebuilder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.service.common.ReferenceDataCache;
+import org.recap.util.JsonUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Dispatches the messages of the shared request item queue, which external producers send to without an owning
+ * institution header, to the request item queue of their request type and owning institution.
+ * <p>
+ * The owning institution is taken from the message, or looked up from the item barcode when the message has none, and
+ * set as the {@link ScsbConstants#REQUEST_OWNING_INSTITUTION_QUEUE_HEADER} header. When the owning institution has a
+ * queue of its own, the queue is set as the {@link ScsbConstants#REQUEST_ITEM_DISPATCH_QUEUE_PROPERTY} property, so
+ * that a slow owning institution ILS only ties up its own consumers. Otherwise the message stays on the shared route.
+ */
+@Slf4j
+@Component
+public class RequestItemQueueDispatcher implements Processor {
+
+    @Autowired
+    private ItemDetailsRepository itemDetailsRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private RequestItemConsumerPools requestItemConsumerPools;
+
+    @Override
+    public void process(Exchange exchange) {
+        ItemRequestInformation itemRequestInformation;
+        try {
+            itemRequestInformation = JsonUtil.ITEM_REQUEST_INFORMATION_READER.readValue(exchange.getIn().getBody(String.class));
+        } catch (IOException | RuntimeException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            return;
+        }
+        String owningInstitution = getOwningInstitution(itemRequestInformation);
+        exchange.getIn().setHeader(ScsbConstants.REQUEST_OWNING_INSTITUTION_QUEUE_HEADER, owningInstitution);
+        String requestType = exchange.getIn().getHeader(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInformation.getRequestType(), String.class);
+        String requestItemQueue = requestItemConsumerPools.getRequestItemQueue(requestType, owningInstitution);
+        if (!ScsbConstants.REQUEST_ITEM_QUEUE.equals(requestItemQueue)) {
+            exchange.setProperty(ScsbConstants.REQUEST_ITEM_DISPATCH_QUEUE_PROPERTY, requestItemQueue);
+        }
+    }
+
+    private String getOwningInstitution(ItemRequestInformation itemRequestInformation) {
+        if (StringUtils.isNotBlank(itemRequestInformation.getItemOwningInstitution())) {
+            return itemRequestInformation.getItemOwningInstitution();
+        }
+        if (CollectionUtils.isEmpty(itemRequestInformation.getItemBarcodes())) {
+            return "";
+        }
+        List<ItemEntity> itemEntities = itemDetailsRepository.findByBarcode(itemRequestInformation.getItemBarcodes().get(0));
+        if (CollectionUtils.isEmpty(itemEntities)) {
+            return "";
+        }
+        String institutionCode = referenceDataCache.getInstitutionCodesById().get(itemEntities.get(0).getOwningInstitutionId());
+        return institutionCode == null ? "" : institutionCode;
+    }
+}
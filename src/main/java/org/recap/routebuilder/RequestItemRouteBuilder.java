@@ -2,11 +2,13 @@ package org.recap.routebuilder;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.GroupedBodyAggregationStrategy;
+import org.apache.camel.support.ExpressionAdapter;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
-import org.recap.camel.route.StartRouteProcessor;
 import org.recap.ims.service.GFALasService;
 import org.recap.mqconsumer.RequestItemQueueConsumer;
 import org.recap.ims.processor.LasHeartBeatCheckPollingProcessor;
@@ -36,29 +38,83 @@ public class RequestItemRouteBuilder {
      * @param camelContext          the camel context
      * @param itemRequestService    the item request service
      * @param itemEDDRequestService the item edd request service
+     * @param requestItemConsumerPools the thread pools and consumer settings of the request item queues
+     * @param requestItemQueueDispatcher dispatches the requests of the shared queue to the queue of their owning institution
      */
     @Autowired
-    public RequestItemRouteBuilder(@Value("${bulk.request.concurrent.consumer.count}") Integer bulkRequestConsumerCount, CamelContext camelContext, ApplicationContext applicationContext, ItemRequestService itemRequestService, ItemEDDRequestService itemEDDRequestService, BulkItemRequestService bulkItemRequestService, BulkItemRequestProcessService bulkItemRequestProcessService, PropertyUtil propertyUtil, CommonUtil commonUtil) {
+    public RequestItemRouteBuilder(@Value("${bulk.request.concurrent.consumer.count}") Integer bulkRequestConsumerCount, @Value("${request.item.batch.size:20}") int requestItemBatchSize, @Value("${request.item.batch.timeout.millis:100}") long requestItemBatchTimeoutMillis, CamelContext camelContext, ApplicationContext applicationContext, ItemRequestService itemRequestService, ItemEDDRequestService itemEDDRequestService, BulkItemRequestService bulkItemRequestService, BulkItemRequestProcessService bulkItemRequestProcessService, PropertyUtil propertyUtil, CommonUtil commonUtil, RequestItemConsumerPools requestItemConsumerPools, RequestItemQueueDispatcher requestItemQueueDispatcher) {
         try {
             camelContext.addRoutes(new RouteBuilder() {
                 @Override
                 public void configure() throws Exception {
+                    // Dispatches the requests of the shared queue to the request item queue of their owning institution
                     from(ScsbConstants.REQUEST_ITEM_QUEUE)
                             .routeId(ScsbConstants.REQUEST_ITEM_QUEUE_ROUTEID)
-                            .threads(30, 50)
+                            .process(requestItemQueueDispatcher)
+                            .choice()
+                            .when(exchangeProperty(ScsbConstants.REQUEST_ITEM_DISPATCH_QUEUE_PROPERTY).isNotNull())
+                            .recipientList(exchangeProperty(ScsbConstants.REQUEST_ITEM_DISPATCH_QUEUE_PROPERTY))
+                            .endChoice()
+                            .otherwise()
+                            .to(ScsbConstants.REQUEST_ITEM_SHARED_ROUTE);
+
+                    // Takes the requests of owning institutions without a request item queue of their own
+                    from(ScsbConstants.REQUEST_ITEM_SHARED_ROUTE)
+                            .routeId(ScsbConstants.REQUEST_ITEM_SHARED_ROUTEID)
+                            .threads().executorService(requestItemConsumerPools.registerShared())
                             .choice()
                             .when(header(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER).isEqualTo(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL))
-                            .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_RETRIEVAL_METHOD)
+                            .to(ScsbConstants.REQUEST_ITEM_RETRIEVAL_BATCH_ROUTE)
                             .when(header(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER).isEqualTo(ScsbCommonConstants.REQUEST_TYPE_EDD))
                             .bean(new RequestItemQueueConsumer(itemEDDRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_EDD_METHOD)
                             .when(header(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER).isEqualTo(ScsbCommonConstants.REQUEST_TYPE_RECALL))
                             .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_RECALL_METHOD);
+
+                    // Each owning institution has a request item queue per request type, with its own consumers and thread pool.
+                    // Retrieval requests are processed in micro-batches of up to requestItemBatchSize messages, by an aggregator
+                    // of the owning institution which completes its batches on the thread pool of the owning institution.
+                    for (String institutionCode : commonUtil.findAllInstitutionCodesExceptSupportInstitution()) {
+                        from(requestItemConsumerPools.getConsumerUri(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL, institutionCode))
+                                .routeId(requestItemConsumerPools.getRouteId(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL, institutionCode))
+                                .setHeader(ScsbConstants.REQUEST_OWNING_INSTITUTION_QUEUE_HEADER, constant(institutionCode))
+                                .aggregate(constant(institutionCode), new GroupedBodyAggregationStrategy())
+                                .completionSize(Math.max(1, requestItemBatchSize))
+                                .completionTimeout(Math.max(1, requestItemBatchTimeoutMillis))
+                                .executorService(requestItemConsumerPools.register(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL, institutionCode))
+                                .forceCompletionOnStop()
+                                .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_RETRIEVAL_BATCH_METHOD);
+                        from(requestItemConsumerPools.getConsumerUri(ScsbCommonConstants.REQUEST_TYPE_EDD, institutionCode))
+                                .routeId(requestItemConsumerPools.getRouteId(ScsbCommonConstants.REQUEST_TYPE_EDD, institutionCode))
+                                .threads().executorService(requestItemConsumerPools.register(ScsbCommonConstants.REQUEST_TYPE_EDD, institutionCode))
+                                .bean(new RequestItemQueueConsumer(itemEDDRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_EDD_METHOD);
+                        from(requestItemConsumerPools.getConsumerUri(ScsbCommonConstants.REQUEST_TYPE_RECALL, institutionCode))
+                                .routeId(requestItemConsumerPools.getRouteId(ScsbCommonConstants.REQUEST_TYPE_RECALL, institutionCode))
+                                .threads().executorService(requestItemConsumerPools.register(ScsbCommonConstants.REQUEST_TYPE_RECALL, institutionCode))
+                                .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_RECALL_METHOD);
+                    }
+
+                    // Retrieval requests of the shared route are processed in micro-batches of the same owning institution, as
+                    // resolved by the dispatcher
+                    from(ScsbConstants.REQUEST_ITEM_RETRIEVAL_BATCH_ROUTE)
+                            .routeId(ScsbConstants.REQUEST_ITEM_RETRIEVAL_BATCH_ROUTEID)
+                            .aggregate(new ExpressionAdapter() {
+                                @Override
+                                public Object evaluate(Exchange exchange) {
+                                    return exchange.getIn().getHeader(ScsbConstants.REQUEST_OWNING_INSTITUTION_QUEUE_HEADER, "", String.class);
+                                }
+                            }, new GroupedBodyAggregationStrategy())
+                            .completionSize(Math.max(1, requestItemBatchSize))
+                            .completionTimeout(Math.max(1, requestItemBatchTimeoutMillis))
+                            .executorService(requestItemConsumerPools.registerShared())
+                            .forceCompletionOnStop()
+                            .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_QUEUE_RETRIEVAL_BATCH_METHOD);
                 }
             });
 
             for (String imsLocationCode : commonUtil.findAllImsLocationCodeExceptUN()) {
                 commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.SCSB_LAS_OUTGOING_QUEUE_PREFIX + imsLocationCode + ScsbConstants.OUTGOING_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.SCSB_OUTGOING_ROUTE_ID, "Message Received in SCSB OUTGOING QUEUE for " + imsLocationCode, applicationContext.getBean(LasHeartBeatCheckPollingProcessor.class), ScsbConstants.SCSB_LAS_OUTGOING_QUEUE_METHOD);
                 commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.LAS_OUTGOING_QUEUE_PREFIX + imsLocationCode + ScsbConstants.OUTGOING_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.LAS_OUTGOING_ROUTE_ID, "Message Received in LAS OUTGOING QUEUE for " + imsLocationCode, applicationContext.getBean(GFALasService.class), ScsbConstants.LAS_OUTGOING_QUEUE_METHOD);
+                commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_PREFIX + imsLocationCode + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_SUFFIX, imsLocationCode + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID, "Message Received in REQUEST ITEM LAS STATUS CHECK QUEUE for " + imsLocationCode, new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_LAS_ITEM_STATUS_QUEUE_METHOD);
             }
 
             camelContext.addRoutes(new RouteBuilder() {
@@ -79,20 +135,19 @@ public class RequestItemRouteBuilder {
             });
 
             commonUtil.addRoutesToCamelContext(camelContext, ScsbCommonConstants.BULK_REQUEST_ITEM_QUEUE, ScsbConstants.BULK_REQUEST_ITEM_QUEUE_ROUTEID, "Message Received in BULK REQUEST ITEM QUEUE", new RequestItemQueueConsumer(bulkItemRequestService), ScsbConstants.BULK_REQUEST_ITEM_QUEUE_METHOD);
-            commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE + ScsbConstants.ASYNC_CONCURRENT_CONSUMERS + bulkRequestConsumerCount, ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE_ROUTEID, "Message Received in BULK REQUEST ITEM PROCESSING QUEUE", new RequestItemQueueConsumer(bulkItemRequestProcessService), ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE_METHOD);
+            // Each consumer of the processing queue takes one chunk at a time, so the chunks of a bulk request are spread over the consumers
+            commonUtil.addRoutesToCamelContext(camelContext, ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE + ScsbConstants.ASYNC_CONCURRENT_CONSUMERS + bulkRequestConsumerCount + ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE_PREFETCH, ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE_ROUTEID, "Message Received in BULK REQUEST ITEM PROCESSING QUEUE", new RequestItemQueueConsumer(bulkItemRequestProcessService), ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE_METHOD);
 
             camelContext.addRoutes(new RouteBuilder() {
                 @Override
                 public void configure() throws Exception {
+                    // Drains requests queued before the LAS status check queues were split per IMS location
                     from(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE)
                             .routeId(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID)
-                            .noAutoStartup()
                             .choice()
                             .when(body().isNull())
                             .log("No Requests To Process")
                             .otherwise()
-                            .log("Start Route 1")
-                            .process(new StartRouteProcessor(ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_ROUTEID))
                             .bean(new RequestItemQueueConsumer(itemRequestService), ScsbConstants.REQUEST_ITEM_LAS_ITEM_STATUS_QUEUE_METHOD)
                             .endChoice();
                 }
@@ -1,11 +1,11 @@
 package org.recap.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
 import org.recap.model.queueinfo.QueueSizeInfoJson;
+import org.recap.util.JsonUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -47,7 +47,7 @@ public class ActiveMqQueuesInfo {
                 HttpEntity<String> stringHttpEntity = new HttpEntity<>(headers);
                 String searchUrl = String.format(activemqUrl + activeMqApiUrl + "%s" + searchAttribute, queueName);
                 ResponseEntity<String> response = new RestTemplate().exchange(searchUrl, HttpMethod.GET, stringHttpEntity, String.class);
-                QueueSizeInfoJson queueInfo = new ObjectMapper().readValue(response.getBody(), QueueSizeInfoJson.class);
+                QueueSizeInfoJson queueInfo = JsonUtil.OBJECT_MAPPER.readValue(response.getBody(), QueueSizeInfoJson.class);
                 queueSizeCount = Integer.valueOf(queueInfo.getValue());
                 break;
             } catch (ResourceAccessException e) {
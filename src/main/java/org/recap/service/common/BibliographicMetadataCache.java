@@ -0,0 +1,258 @@
+package org.recap.service.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.marc4j.MarcXmlReader;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.recap.ScsbCommonConstants;
+import org.recap.model.jpa.BibliographicEntity;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.search.SearchResultRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Caches the title and author of the bibliographic records searched in Solr, keyed by item barcode and by
+ * bibliographic id, so that requests for the same item or for other items of the same record do not search Solr again.
+ * <p>
+ * The cache is bounded and its entries expire after {@code solr.metadata.cache.ttl.millis}. A Solr search which fails,
+ * finds nothing or does not answer within {@code solr.search.timeout.millis} falls back to the title and author of the
+ * MARC record of the item; a late answer is still cached for the next request.
+ */
+@Slf4j
+@Service
+public class BibliographicMetadataCache {
+
+    private static final String BARCODE_KEY_PREFIX = "barcode-";
+    private static final String BIB_ID_KEY_PREFIX = "bibId-";
+
+    @Value("${solr.metadata.cache.max.size:10000}")
+    private int maxSize;
+
+    @Value("${solr.metadata.cache.ttl.millis:3600000}")
+    private long ttlMillis;
+
+    @Value("${solr.search.timeout.millis:3000}")
+    private long searchTimeoutMillis;
+
+    @Value("${solr.search.threads:10}")
+    private int searchThreads;
+
+    private ExecutorService searchExecutor;
+
+    private final Map<String, CachedSearchResultRow> searchResultRows = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSearchResultRow> eldest) {
+            return size() > Math.max(1, maxSize);
+        }
+    };
+
+    @PostConstruct
+    public void startSearchExecutor() {
+        if (searchTimeoutMillis > 0) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(searchThreads, searchThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "solr-search-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            searchExecutor = threadPoolExecutor;
+        }
+    }
+
+    @PreDestroy
+    public void stopSearchExecutor() {
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the search result row with the title and author of the item, searching Solr with the given search only when
+     * neither the barcode nor the bibliographic record of the item is cached.
+     *
+     * @param itemEntity the item entity
+     * @param search     the Solr search of the item
+     * @return the search result row, or null when neither Solr nor the MARC record of the item has it
+     */
+    public SearchResultRow getSearchResultRow(ItemEntity itemEntity, Function<ItemEntity, SearchResultRow> search) {
+        SearchResultRow searchResultRow = getIfPresent(itemEntity);
+        if (searchResultRow == null) {
+            searchResultRow = search(itemEntity, search);
+        }
+        if (searchResultRow == null) {
+            searchResultRow = getSearchResultRowFromMarc(itemEntity);
+        }
+        return searchResultRow;
+    }
+
+    /**
+     * Gets the cached search result row of the barcode or of the bibliographic record of the item.
+     *
+     * @param itemEntity the item entity
+     * @return the search result row, or null when it is not cached
+     */
+    public SearchResultRow getIfPresent(ItemEntity itemEntity) {
+        SearchResultRow searchResultRow = get(BARCODE_KEY_PREFIX + itemEntity.getBarcode());
+        Integer bibId = getBibId(itemEntity);
+        if (searchResultRow == null && bibId != null) {
+            searchResultRow = get(BIB_ID_KEY_PREFIX + bibId);
+        }
+        return searchResultRow;
+    }
+
+    /**
+     * Caches the title and author of a search result row returned by Solr.
+     *
+     * @param searchResultRow the search result row
+     */
+    public void put(SearchResultRow searchResultRow) {
+        if (searchResultRow == null) {
+            return;
+        }
+        SearchResultRow metadata = new SearchResultRow();
+        metadata.setBibId(searchResultRow.getBibId());
+        metadata.setTitle(searchResultRow.getTitle());
+        metadata.setAuthor(searchResultRow.getAuthor());
+        CachedSearchResultRow cachedSearchResultRow = new CachedSearchResultRow(metadata, System.currentTimeMillis() + ttlMillis);
+        synchronized (searchResultRows) {
+            if (StringUtils.isNotBlank(searchResultRow.getBarcode())) {
+                searchResultRows.put(BARCODE_KEY_PREFIX + searchResultRow.getBarcode(), cachedSearchResultRow);
+            }
+            if (searchResultRow.getBibId() != null) {
+                searchResultRows.put(BIB_ID_KEY_PREFIX + searchResultRow.getBibId(), cachedSearchResultRow);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (searchResultRows) {
+            return searchResultRows.size();
+        }
+    }
+
+    private SearchResultRow get(String key) {
+        synchronized (searchResultRows) {
+            CachedSearchResultRow cachedSearchResultRow = searchResultRows.get(key);
+            if (cachedSearchResultRow == null) {
+                return null;
+            }
+            if (cachedSearchResultRow.expiresAt <= System.currentTimeMillis()) {
+                searchResultRows.remove(key);
+                return null;
+            }
+            return cachedSearchResultRow.searchResultRow;
+        }
+    }
+
+    private SearchResultRow search(ItemEntity itemEntity, Function<ItemEntity, SearchResultRow> search) {
+        if (searchExecutor == null) {
+            return cache(itemEntity, search.apply(itemEntity));
+        }
+        CompletableFuture<SearchResultRow> searchFuture = CompletableFuture.supplyAsync(() -> search.apply(itemEntity), searchExecutor)
+                .thenApply(searchResultRow -> cache(itemEntity, searchResultRow));
+        try {
+            return searchFuture.get(searchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Solr search for barcode {} took more than {} ms, using the title and author of the MARC record", itemEntity.getBarcode(), searchTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e.getCause());
+        }
+        return null;
+    }
+
+    private SearchResultRow cache(ItemEntity itemEntity, SearchResultRow searchResultRow) {
+        if (searchResultRow != null) {
+            if (StringUtils.isBlank(searchResultRow.getBarcode())) {
+                searchResultRow.setBarcode(itemEntity.getBarcode());
+            }
+            put(searchResultRow);
+        }
+        return searchResultRow;
+    }
+
+    private Integer getBibId(ItemEntity itemEntity) {
+        BibliographicEntity bibliographicEntity = getBibliographicEntity(itemEntity);
+        return bibliographicEntity == null ? null : bibliographicEntity.getId();
+    }
+
+    private BibliographicEntity getBibliographicEntity(ItemEntity itemEntity) {
+        if (itemEntity.getBibliographicEntities() == null || itemEntity.getBibliographicEntities().isEmpty()) {
+            return null;
+        }
+        return itemEntity.getBibliographicEntities().get(0);
+    }
+
+    /**
+     * Builds a search result row from the title (245 $a $b) and the main entry (100, 110 or 111 $a) of the MARC record
+     * of the item.
+     */
+    private SearchResultRow getSearchResultRowFromMarc(ItemEntity itemEntity) {
+        BibliographicEntity bibliographicEntity = getBibliographicEntity(itemEntity);
+        if (bibliographicEntity == null || bibliographicEntity.getContent() == null) {
+            return null;
+        }
+        try {
+            MarcXmlReader marcXmlReader = new MarcXmlReader(new ByteArrayInputStream(bibliographicEntity.getContent()));
+            if (!marcXmlReader.hasNext()) {
+                return null;
+            }
+            Record marcRecord = marcXmlReader.next();
+            SearchResultRow searchResultRow = new SearchResultRow();
+            searchResultRow.setBibId(bibliographicEntity.getId());
+            searchResultRow.setTitle(getSubfields(marcRecord, new String[]{"245"}, "ab"));
+            searchResultRow.setAuthor(getSubfields(marcRecord, new String[]{"100", "110", "111"}, "a"));
+            return searchResultRow;
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
+        return null;
+    }
+
+    private String getSubfields(Record marcRecord, String[] tags, String codes) {
+        for (String tag : tags) {
+            DataField dataField = (DataField) marcRecord.getVariableField(tag);
+            if (dataField != null) {
+                StringBuilder value = new StringBuilder();
+                for (Subfield subfield : dataField.getSubfields()) {
+                    if (codes.indexOf(subfield.getCode()) >= 0 && StringUtils.isNotBlank(subfield.getData())) {
+                        value.append(value.length() > 0 ? " " : "").append(subfield.getData().trim());
+                    }
+                }
+                return StringUtils.stripEnd(value.toString(), " /:;,.");
+            }
+        }
+        return "";
+    }
+
+    private static final class CachedSearchResultRow {
+
+        private final SearchResultRow searchResultRow;
+        private final long expiresAt;
+
+        private CachedSearchResultRow(SearchResultRow searchResultRow, long expiresAt) {
+            this.searchResultRow = searchResultRow;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
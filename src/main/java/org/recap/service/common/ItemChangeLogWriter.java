@@ -0,0 +1,545 @@
+package org.recap.service.common;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.recap.ScsbCommonConstants;
+import org.recap.util.JsonUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the item change log and deaccession item change log entries behind the request threads.
+ * <p>
+ * Every entry is appended to the journal file in {@code item.change.log.spill.directory} and synced to disk before it is
+ * accepted; request threads appending at the same time share one sync. The directory has to be an absolute path on
+ * persistent storage. When it is not set, or the journal cannot be opened or written, the entries are inserted by the
+ * request threads themselves and a failed insert is thrown to the caller, so that no entry is dropped unnoticed.
+ * <p>
+ * Accepted entries are also put in a bounded buffer, waiting up to {@code item.change.log.offer.timeout.millis} for
+ * room. A background writer drains the journal into JDBC batch inserts, taking the entries from the buffer and reading
+ * the ones it does not hold, e.g. those which did not fit in it or were appended before a restart, from the journal.
+ * After each batch the journal offset written so far is recorded in the checkpoint file, and once every entry is written
+ * the journal is truncated. A batch written when the process died before recording its checkpoint is inserted again on
+ * the next start.
+ * <p>
+ * A batch which fails to insert because the database cannot be reached stays in the journal and is retried after
+ * {@code item.change.log.replay.interval.millis}. A batch which fails for any other reason is retried row by row, so
+ * that one entry which can never be inserted does not hold back the others; a row which has failed
+ * {@code item.change.log.max.attempts} times is moved to the quarantine file next to the journal.
+ */
+@Slf4j
+@Service
+public class ItemChangeLogWriter {
+
+    static final String ITEM_CHANGE_LOG_INSERT = "INSERT INTO ITEM_CHANGE_LOG_T (UPDATED_BY, UPDATED_DATE, OPERATION_TYPE, RECORD_ID, NOTES) VALUES (?, ?, ?, ?, ?)";
+    static final String DEACCESSION_ITEM_CHANGE_LOG_INSERT = "INSERT INTO deaccession_item_change_log_t (UPDATED_BY, CREATED_DATE, OPERATION_TYPE, RECORD_ID, NOTES) VALUES (?, ?, ?, ?, ?)";
+    static final String ITEM_CHANGE_LOG_JOURNAL_FILE = "item-change-log.journal";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${item.change.log.buffer.size:10000}")
+    private int bufferSize;
+
+    @Value("${item.change.log.batch.size:100}")
+    private int batchSize;
+
+    @Value("${item.change.log.flush.interval.millis:200}")
+    private long flushIntervalMillis;
+
+    @Value("${item.change.log.offer.timeout.millis:100}")
+    private long offerTimeoutMillis;
+
+    @Value("${item.change.log.spill.directory:}")
+    private String spillDirectory;
+
+    @Value("${item.change.log.max.attempts:5}")
+    private int maxAttempts;
+
+    @Value("${item.change.log.replay.interval.millis:60000}")
+    private long replayIntervalMillis;
+
+    @Value("${item.change.log.journal.truncate.bytes:10485760}")
+    private long journalTruncateBytes;
+
+    private final Object journalLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel journal;
+    private long journalGeneration;
+    private long appendedOffset;
+    private long appendedBytes;
+    private long syncedBytes;
+    private long writtenOffset;
+    private long nextRetryMillis;
+    private BlockingQueue<JournalEntry> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void startWriter() {
+        if (StringUtils.isBlank(spillDirectory) || !Paths.get(spillDirectory).isAbsolute()) {
+            log.error("item.change.log.spill.directory must be an absolute directory on persistent storage, but is '{}'; item change log entries are written to the database by the request threads", spillDirectory);
+            return;
+        }
+        try {
+            Files.createDirectories(Paths.get(spillDirectory));
+            FileChannel fileChannel = FileChannel.open(getJournalFile(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            // A line cut short by a crash is dropped, it was never accepted
+            fileChannel.truncate(getCompleteLength(fileChannel));
+            appendedOffset = fileChannel.size();
+            writtenOffset = readCheckpoint();
+            // The journal was truncated before the checkpoint could be reset
+            if (writtenOffset > appendedOffset) {
+                writtenOffset = 0;
+            }
+            journal = fileChannel;
+        } catch (IOException | RuntimeException e) {
+            log.error("Cannot open the item change log journal in {}, item change log entries are written to the database by the request threads", spillDirectory, e);
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        running = true;
+        writerThread = new Thread(this::drainJournal, "item-change-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops the writer once it has written the journal, and closes the journal. Entries the writer could not write are
+     * written on the next start.
+     */
+    @PreDestroy
+    public void stopWriter() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (journalLock) {
+            closeJournal();
+        }
+    }
+
+    /**
+     * Saves an item change log entry.
+     *
+     * @param recordId      the record id
+     * @param updatedBy     the updated by
+     * @param operationType the operation type
+     * @param notes         the notes
+     */
+    public void saveItemChangeLog(Integer recordId, String updatedBy, String operationType, String notes) {
+        save(new ItemChangeLog(false, recordId, updatedBy, new Date(), operationType, notes));
+    }
+
+    /**
+     * Saves a deaccession item change log entry.
+     *
+     * @param recordId      the record id
+     * @param updatedBy     the updated by
+     * @param createdDate   the created date
+     * @param operationType the operation type
+     * @param notes         the notes
+     */
+    public void saveDeaccessionItemChangeLog(Integer recordId, String updatedBy, Date createdDate, String operationType, String notes) {
+        save(new ItemChangeLog(true, recordId, updatedBy, createdDate, operationType, notes));
+    }
+
+    public int getBufferedCount() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    private void save(ItemChangeLog itemChangeLog) {
+        JournalEntry journalEntry = append(itemChangeLog);
+        if (journalEntry == null) {
+            insert(new ArrayList<>(Collections.singletonList(itemChangeLog)));
+            return;
+        }
+        try {
+            if (!buffer.offer(journalEntry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.debug("Item change log buffer of {} entries is full, the entry of record {} is read back from the journal", bufferSize, itemChangeLog.getRecordId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the entry to the journal and waits until it is synced to disk.
+     *
+     * @return the journal entry, or null if the journal is not open or cannot be written
+     */
+    private JournalEntry append(ItemChangeLog itemChangeLog) {
+        JournalEntry journalEntry;
+        FileChannel fileChannel;
+        synchronized (journalLock) {
+            if (journal == null) {
+                return null;
+            }
+            try {
+                byte[] line = (JsonUtil.OBJECT_WRITER.writeValueAsString(itemChangeLog) + "\n").getBytes(StandardCharsets.UTF_8);
+                ByteBuffer bytes = ByteBuffer.wrap(line);
+                while (bytes.hasRemaining()) {
+                    journal.write(bytes);
+                }
+                journalEntry = new JournalEntry(itemChangeLog, journalGeneration, appendedOffset, appendedOffset + line.length, appendedBytes + line.length);
+                appendedOffset += line.length;
+                appendedBytes += line.length;
+                fileChannel = journal;
+            } catch (IOException e) {
+                log.error("Failed to append the item change log entry of record {} to the journal, item change log entries are written to the database by the request threads from now on", itemChangeLog.getRecordId(), e);
+                closeJournal();
+                return null;
+            }
+        }
+        try {
+            sync(fileChannel, journalEntry.getAppendedBytes());
+            return journalEntry;
+        } catch (IOException e) {
+            log.error("Failed to sync the item change log journal, writing the entry of record {} to the database directly", itemChangeLog.getRecordId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Syncs the journal to disk unless another thread already synced it past the given number of appended bytes, so
+     * that the request threads appending while a sync is running share the next one.
+     */
+    private void sync(FileChannel fileChannel, long appendedBytesToSync) throws IOException {
+        synchronized (syncLock) {
+            if (syncedBytes >= appendedBytesToSync) {
+                return;
+            }
+            long appendedBytesBeforeSync;
+            synchronized (journalLock) {
+                appendedBytesBeforeSync = appendedBytes;
+            }
+            fileChannel.force(false);
+            syncedBytes = appendedBytesBeforeSync;
+        }
+    }
+
+    private void drainJournal() {
+        while (running) {
+            try {
+                List<JournalEntry> journalEntries = new ArrayList<>();
+                JournalEntry journalEntry = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (journalEntry != null) {
+                    journalEntries.add(journalEntry);
+                    buffer.drainTo(journalEntries, Math.max(1, batchSize) - 1);
+                }
+                writeJournal(journalEntries);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+            }
+        }
+        try {
+            nextRetryMillis = 0;
+            writeJournal(new ArrayList<>());
+        } catch (RuntimeException e) {
+            log.error(ScsbCommonConstants.REQUEST_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Writes the journal from the checkpoint up to its current end, taking the entries from the given buffered ones
+     * where they follow on and reading the others from the journal file, and truncates the journal once it is written.
+     */
+    private void writeJournal(List<JournalEntry> bufferedEntries) {
+        if (System.currentTimeMillis() < nextRetryMillis) {
+            return;
+        }
+        long generation;
+        long endOffset;
+        synchronized (journalLock) {
+            generation = journalGeneration;
+            endOffset = appendedOffset;
+        }
+        bufferedEntries.removeIf(journalEntry -> journalEntry.getGeneration() != generation || journalEntry.getEndOffset() <= writtenOffset);
+        bufferedEntries.sort(Comparator.comparingLong(JournalEntry::getStartOffset));
+        try {
+            while (writtenOffset < endOffset) {
+                List<JournalEntry> journalEntries = new ArrayList<>();
+                while (!bufferedEntries.isEmpty() && journalEntries.size() < Math.max(1, batchSize)
+                        && bufferedEntries.get(0).getStartOffset() == (journalEntries.isEmpty() ? writtenOffset : journalEntries.get(journalEntries.size() - 1).getEndOffset())) {
+                    journalEntries.add(bufferedEntries.remove(0));
+                }
+                if (journalEntries.isEmpty()) {
+                    journalEntries = readJournal(writtenOffset, bufferedEntries.isEmpty() ? endOffset : bufferedEntries.get(0).getStartOffset());
+                    if (journalEntries.isEmpty()) {
+                        throw new IOException("The journal ends before offset " + endOffset);
+                    }
+                }
+                if (!write(journalEntries)) {
+                    nextRetryMillis = System.currentTimeMillis() + replayIntervalMillis;
+                    return;
+                }
+            }
+            if (writtenOffset > 0 && (buffer.isEmpty() || writtenOffset >= journalTruncateBytes)) {
+                truncateJournal();
+            }
+        } catch (IOException e) {
+            nextRetryMillis = System.currentTimeMillis() + replayIntervalMillis;
+            log.error("Failed to write the item change log journal {} from offset {}", getJournalFile(), writtenOffset, e);
+        }
+    }
+
+    /**
+     * Reads up to a batch of entries from the journal file between the given offsets. A line which cannot be read as an
+     * entry is moved to the quarantine file.
+     */
+    private List<JournalEntry> readJournal(long startOffset, long endOffset) throws IOException {
+        List<JournalEntry> journalEntries = new ArrayList<>();
+        try (FileChannel fileChannel = FileChannel.open(getJournalFile(), StandardOpenOption.READ)) {
+            fileChannel.position(startOffset);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(fileChannel), StandardCharsets.UTF_8));
+            long offset = startOffset;
+            String line;
+            while (offset < endOffset && journalEntries.size() < Math.max(1, batchSize) && (line = reader.readLine()) != null) {
+                long lineEndOffset = offset + line.getBytes(StandardCharsets.UTF_8).length + 1;
+                ItemChangeLog itemChangeLog = null;
+                try {
+                    itemChangeLog = line.isEmpty() ? null : JsonUtil.OBJECT_MAPPER.readValue(line, ItemChangeLog.class);
+                } catch (IOException e) {
+                    log.error("Cannot read the item change log journal line at offset {}, moving it to {}", offset, getQuarantineFile(), e);
+                    quarantine(Collections.singletonList(line));
+                }
+                journalEntries.add(new JournalEntry(itemChangeLog, journalGeneration, offset, lineEndOffset, 0));
+                offset = lineEndOffset;
+            }
+        }
+        return journalEntries;
+    }
+
+    /**
+     * Writes the entries and moves the checkpoint past them, retrying them row by row if the batch fails for another
+     * reason than the database being unreachable and quarantining the rows which keep failing.
+     *
+     * @return false if the database cannot be reached, the checkpoint is then past the entries written
+     */
+    private boolean write(List<JournalEntry> journalEntries) throws IOException {
+        if (journalEntries.isEmpty()) {
+            return true;
+        }
+        List<ItemChangeLog> itemChangeLogs = new ArrayList<>();
+        for (JournalEntry journalEntry : journalEntries) {
+            if (journalEntry.getItemChangeLog() != null) {
+                itemChangeLogs.add(journalEntry.getItemChangeLog());
+            }
+        }
+        try {
+            insert(itemChangeLogs);
+            writeCheckpoint(journalEntries.get(journalEntries.size() - 1).getEndOffset());
+            return true;
+        } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+            log.error("Failed to write {} item change log entries, retrying them from the journal in {} ms", itemChangeLogs.size(), replayIntervalMillis, e);
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} item change log entries, retrying them one by one", itemChangeLogs.size(), e);
+        }
+        for (JournalEntry journalEntry : journalEntries) {
+            ItemChangeLog itemChangeLog = journalEntry.getItemChangeLog();
+            while (itemChangeLog != null) {
+                try {
+                    insert(new ArrayList<>(Collections.singletonList(itemChangeLog)));
+                    break;
+                } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+                    log.error("Failed to write item change log entry of record {}, retrying it from the journal in {} ms", itemChangeLog.getRecordId(), replayIntervalMillis, e);
+                    return false;
+                } catch (RuntimeException e) {
+                    itemChangeLog.setAttempts(itemChangeLog.getAttempts() + 1);
+                    log.error("Failed to write item change log entry of record {} on attempt {}", itemChangeLog.getRecordId(), itemChangeLog.getAttempts(), e);
+                    if (itemChangeLog.getAttempts() >= maxAttempts) {
+                        log.error("Moving item change log entry of record {} which failed {} times to {}", itemChangeLog.getRecordId(), maxAttempts, getQuarantineFile());
+                        quarantine(Collections.singletonList(JsonUtil.OBJECT_WRITER.writeValueAsString(itemChangeLog)));
+                        break;
+                    }
+                }
+            }
+            writeCheckpoint(journalEntry.getEndOffset());
+        }
+        return true;
+    }
+
+    /**
+     * Inserts the entries with one batch per table, both in one transaction.
+     */
+    private void insert(List<ItemChangeLog> itemChangeLogs) {
+        if (itemChangeLogs.isEmpty()) {
+            return;
+        }
+        List<Object[]> itemChangeLogArgs = new ArrayList<>();
+        List<Object[]> deaccessionItemChangeLogArgs = new ArrayList<>();
+        for (ItemChangeLog itemChangeLog : itemChangeLogs) {
+            Object[] args = {itemChangeLog.getUpdatedBy(), new Timestamp(itemChangeLog.getDate()), itemChangeLog.getOperationType(), itemChangeLog.getRecordId(), itemChangeLog.getNotes()};
+            (itemChangeLog.isDeaccession() ? deaccessionItemChangeLogArgs : itemChangeLogArgs).add(args);
+        }
+        transactionTemplate.execute(status -> {
+            if (!itemChangeLogArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(ITEM_CHANGE_LOG_INSERT, itemChangeLogArgs);
+            }
+            if (!deaccessionItemChangeLogArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(DEACCESSION_ITEM_CHANGE_LOG_INSERT, deaccessionItemChangeLogArgs);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Appends the lines to the quarantine file. The journal is not moved past them unless they are written.
+     */
+    private void quarantine(List<String> lines) throws IOException {
+        Files.write(getQuarantineFile(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Empties the journal if no entry was appended since the writer caught up with it.
+     */
+    private void truncateJournal() throws IOException {
+        synchronized (journalLock) {
+            if (journal == null || appendedOffset != writtenOffset) {
+                return;
+            }
+            journal.truncate(0);
+            journal.force(true);
+            appendedOffset = 0;
+            journalGeneration++;
+            writeCheckpoint(0);
+        }
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        writtenOffset = offset;
+        Files.writeString(getCheckpointFile(), String.valueOf(offset), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpointFile = getCheckpointFile();
+        return Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim()) : 0;
+    }
+
+    /**
+     * Gets the length of the journal up to and including its last line break.
+     */
+    private static long getCompleteLength(FileChannel fileChannel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(4096);
+        long end = fileChannel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - bytes.capacity());
+            bytes.clear().limit((int) (end - start));
+            int read;
+            do {
+                read = fileChannel.read(bytes, start + bytes.position());
+            } while (read > 0 && bytes.hasRemaining());
+            for (int index = bytes.position() - 1; index >= 0; index--) {
+                if (bytes.get(index) == '\n') {
+                    return start + index + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("Failed to close the item change log journal", e);
+        }
+        journal = null;
+    }
+
+    private Path getJournalFile() {
+        return Paths.get(spillDirectory, ITEM_CHANGE_LOG_JOURNAL_FILE);
+    }
+
+    private Path getCheckpointFile() {
+        return Paths.get(spillDirectory, ITEM_CHANGE_LOG_JOURNAL_FILE + ".checkpoint");
+    }
+
+    private Path getQuarantineFile() {
+        return Paths.get(spillDirectory, ITEM_CHANGE_LOG_JOURNAL_FILE + ".quarantine");
+    }
+
+    /**
+     * An entry of the journal, with its position in the journal.
+     */
+    @Data
+    private static class JournalEntry {
+
+        private final ItemChangeLog itemChangeLog;
+        private final long generation;
+        private final long startOffset;
+        private final long endOffset;
+        private final long appendedBytes;
+    }
+
+    /**
+     * An item change log or deaccession item change log entry, as journaled.
+     */
+    @Data
+    public static class ItemChangeLog {
+
+        private boolean deaccession;
+        private Integer recordId;
+        private String updatedBy;
+        private long date;
+        private String operationType;
+        private String notes;
+        private int attempts;
+
+        public ItemChangeLog() {
+        }
+
+        private ItemChangeLog(boolean deaccession, Integer recordId, String updatedBy, Date date, String operationType, String notes) {
+            this.deaccession = deaccession;
+            this.recordId = recordId;
+            this.updatedBy = updatedBy;
+            this.date = (date == null ? new Date() : date).getTime();
+            this.operationType = operationType;
+            this.notes = notes;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package org.recap.service.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.model.jpa.CollectionGroupEntity;
+import org.recap.model.jpa.DeliveryCodeEntity;
+import org.recap.model.jpa.DeliveryCodeTranslationEntity;
+import org.recap.model.jpa.ImsLocationEntity;
+import org.recap.model.jpa.InstitutionEntity;
+import org.recap.model.jpa.ItemStatusEntity;
+import org.recap.model.jpa.OwnerCodeEntity;
+import org.recap.model.jpa.RequestStatusEntity;
+import org.recap.model.jpa.RequestTypeEntity;
+import org.recap.repository.jpa.CollectionGroupDetailsRepository;
+import org.recap.repository.jpa.DeliveryCodeDetailsRepository;
+import org.recap.repository.jpa.DeliveryCodeTranslationDetailsRepository;
+import org.recap.repository.jpa.ImsLocationDetailsRepository;
+import org.recap.repository.jpa.InstitutionDetailsRepository;
+import org.recap.repository.jpa.ItemStatusDetailsRepository;
+import org.recap.repository.jpa.OwnerCodeDetailsRepository;
+import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.repository.jpa.RequestTypeDetailsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds the near static reference data (institutions, item and request statuses, request types, IMS locations,
+ * collection groups, delivery codes, delivery code translations and owner codes) in memory.
+ * <p>
+ * The data is read into an immutable snapshot which is swapped atomically on every refresh, so readers never lock and
+ * never see a half built snapshot. The snapshot is shared by all threads, so it holds ids, codes and immutable values
+ * only, never the entities they were read from; a caller needing a managed entity looks it up in its own persistence
+ * context. The tables are loaded whole; delivery code translations and owner codes are looked up through join queries
+ * and are memoized per composite key in the snapshot instead. A lookup missing from the snapshot, or made before the
+ * first snapshot is loaded, falls back to the repository. The id and code maps are views over the snapshot which fall
+ * back to the repository the same way.
+ */
+@Slf4j
+@Service
+public class ReferenceDataCache {
+
+    private static final String INSTITUTIONS = "institutions";
+    private static final String ITEM_STATUSES = "itemStatuses";
+    private static final String REQUEST_STATUSES = "requestStatuses";
+    private static final String REQUEST_TYPES = "requestTypes";
+    private static final String IMS_LOCATIONS = "imsLocations";
+    private static final String COLLECTION_GROUPS = "collectionGroups";
+    private static final String DELIVERY_CODES = "deliveryCodes";
+    private static final String DELIVERY_CODE_TRANSLATIONS = "deliveryCodeTranslations";
+    private static final String EDD_OWNER_CODES = "eddOwnerCodes";
+    private static final String OWNER_CODES = "ownerCodes";
+    private static final String OWNER_CODE_DELIVERY_CODES = "ownerCodeDeliveryCodes";
+
+    @Autowired
+    private InstitutionDetailsRepository institutionDetailsRepository;
+
+    @Autowired
+    private ItemStatusDetailsRepository itemStatusDetailsRepository;
+
+    @Autowired
+    private RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+
+    @Autowired
+    private RequestTypeDetailsRepository requestTypeDetailsRepository;
+
+    @Autowired
+    private ImsLocationDetailsRepository imsLocationDetailsRepository;
+
+    @Autowired
+    private CollectionGroupDetailsRepository collectionGroupDetailsRepository;
+
+    @Autowired
+    private DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
+
+    @Autowired
+    private DeliveryCodeTranslationDetailsRepository deliveryCodeTranslationDetailsRepository;
+
+    @Autowired
+    private OwnerCodeDetailsRepository ownerCodeDetailsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reference.data.cache.refresh.interval.millis:900000}")
+    private long refreshIntervalMillis;
+
+    private final AtomicReference<ReferenceDataSnapshot> snapshot = new AtomicReference<>(ReferenceDataSnapshot.EMPTY);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshSuccesses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private ScheduledExecutorService refreshScheduler;
+
+    private final Map<Integer, String> itemStatusCodesById = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.itemStatusCodesById, Integer.class,
+            id -> itemStatusDetailsRepository.findById(id).map(ItemStatusEntity::getStatusCode).orElse(null));
+    private final Map<String, Integer> itemStatusIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.itemStatusIdsByCode, String.class,
+            code -> Optional.ofNullable(itemStatusDetailsRepository.findByStatusCode(code)).map(ItemStatusEntity::getId).orElse(null));
+    private final Map<Integer, String> institutionCodesById = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.institutionCodesById, Integer.class,
+            id -> institutionDetailsRepository.findById(id).map(InstitutionEntity::getInstitutionCode).orElse(null));
+    private final Map<String, Integer> institutionIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.institutionIdsByCode, String.class,
+            code -> Optional.ofNullable(institutionDetailsRepository.findByInstitutionCode(code)).map(InstitutionEntity::getId).orElse(null));
+    private final Map<String, Integer> collectionGroupIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.collectionGroupIdsByCode, String.class,
+            code -> Optional.ofNullable(collectionGroupDetailsRepository.findByCollectionGroupCode(code)).map(CollectionGroupEntity::getId).orElse(null));
+    private final Map<String, Integer> requestStatusIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.requestStatusIdsByCode, String.class,
+            code -> Optional.ofNullable(requestItemStatusDetailsRepository.findByRequestStatusCode(code)).map(RequestStatusEntity::getId).orElse(null));
+    private final Map<String, Integer> requestTypeIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.requestTypeIdsByCode, String.class,
+            code -> Optional.ofNullable(requestTypeDetailsRepository.findByrequestTypeCode(code)).map(RequestTypeEntity::getId).orElse(null));
+    private final Map<Integer, String> imsLocationCodesById = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.imsLocationCodesById, Integer.class,
+            id -> imsLocationDetailsRepository.findById(id).map(ImsLocationEntity::getImsLocationCode).orElse(null));
+    private final Map<String, Integer> imsLocationIdsByCode = new SnapshotIndexView<>(referenceDataSnapshot -> referenceDataSnapshot.imsLocationIdsByCode, String.class,
+            code -> Optional.ofNullable(imsLocationDetailsRepository.findByImsLocationCode(code)).map(ImsLocationEntity::getId).orElse(null));
+
+    @PostConstruct
+    public void startRefresh() {
+        registerMetrics();
+        refresh();
+        if (refreshIntervalMillis > 0) {
+            refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reference-data-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refreshScheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stopRefresh() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the reference data tables into a new snapshot and swaps it in. The current snapshot is kept if the read fails.
+     *
+     * @return true if the snapshot was refreshed
+     */
+    public synchronized boolean refresh() {
+        try {
+            ReferenceDataSnapshot referenceDataSnapshot = loadSnapshot();
+            snapshot.set(referenceDataSnapshot);
+            refreshSuccesses.increment();
+            log.info("Reference data cache refreshed : {}", referenceDataSnapshot.getSizes());
+            return true;
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.error(ScsbCommonConstants.LOG_ERROR, e);
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of entries per reference data table in the current snapshot.
+     *
+     * @return the entry count by table
+     */
+    public Map<String, Integer> getSizes() {
+        return snapshot.get().getSizes();
+    }
+
+    /**
+     * Gets the active delivery code of the owning institution.
+     *
+     * @param deliveryCode        the delivery code
+     * @param owningInstitutionId the owning institution id
+     * @return the active delivery code, or null if there is none
+     */
+    public DeliveryCode getActiveDeliveryCode(String deliveryCode, Integer owningInstitutionId) {
+        return lookup(snapshot.get().activeDeliveryCodesByKey, getKey(deliveryCode, owningInstitutionId),
+                key -> Optional.ofNullable(deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(deliveryCode, owningInstitutionId, 'Y')).map(DeliveryCode::new).orElse(null));
+    }
+
+    /**
+     * Gets the IMS location delivery code which the requesting institution delivery code translates to for the IMS location.
+     *
+     * @param requestingInstitutionId the requesting institution id
+     * @param deliveryCodeId          the requesting institution delivery code id
+     * @param imsLocationId           the IMS location id
+     * @return the IMS location delivery code, or null if there is no translation
+     */
+    public String getImsLocationDeliveryCode(Integer requestingInstitutionId, Integer deliveryCodeId, Integer imsLocationId) {
+        ReferenceDataSnapshot referenceDataSnapshot = snapshot.get();
+        return memoize(referenceDataSnapshot, referenceDataSnapshot.imsLocationDeliveryCodesByKey, getKey(requestingInstitutionId, deliveryCodeId, imsLocationId),
+                () -> Optional.ofNullable(deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(requestingInstitutionId, deliveryCodeId, imsLocationId))
+                        .map(DeliveryCodeTranslationEntity::getImsLocationDeliveryCode).orElse(null));
+    }
+
+    /**
+     * Checks if the owner code of the institution is mapped to the EDD delivery code.
+     *
+     * @param ownerCode     the owner code
+     * @param institutionId the owning institution id
+     * @return true if the owner code allows EDD
+     */
+    public boolean isEddOwnerCode(String ownerCode, Integer institutionId) {
+        ReferenceDataSnapshot referenceDataSnapshot = snapshot.get();
+        return memoize(referenceDataSnapshot, referenceDataSnapshot.eddOwnerCodesByKey, getKey(ownerCode, institutionId),
+                () -> ownerCodeDetailsRepository.findByOwnerCodeAndRecapDeliveryRestrictionLikeEDD(ownerCode, institutionId) != null);
+    }
+
+    /**
+     * Gets the id of the owner code of the owning institution.
+     *
+     * @param ownerCode       the owner code
+     * @param institutionCode the owning institution code
+     * @return the owner code id, or null if there is none
+     */
+    public Integer getOwnerCodeId(String ownerCode, String institutionCode) {
+        ReferenceDataSnapshot referenceDataSnapshot = snapshot.get();
+        return memoize(referenceDataSnapshot, referenceDataSnapshot.ownerCodeIdsByKey, getKey(ownerCode, institutionCode),
+                () -> Optional.ofNullable(ownerCodeDetailsRepository.findByOwnerCodeAndOwningInstitutionCode(ownerCode, institutionCode)).map(OwnerCodeEntity::getId).orElse(null));
+    }
+
+    /**
+     * Gets the active delivery codes matching the delivery location that the owner code delivers to for the requesting institution.
+     *
+     * @param ownerCodeId      the owner code id
+     * @param institutionId    the requesting institution id
+     * @param deliveryLocation the delivery location
+     * @return the delivery code rows
+     */
+    public List<Object[]> getOwnerCodeDeliveryCodes(Integer ownerCodeId, Integer institutionId, String deliveryLocation) {
+        ReferenceDataSnapshot referenceDataSnapshot = snapshot.get();
+        return memoize(referenceDataSnapshot, referenceDataSnapshot.ownerCodeDeliveryCodesByKey, getKey(ownerCodeId, institutionId, deliveryLocation),
+                () -> ownerCodeDetailsRepository.findByOwnerCodeAndRequestingInstitution(ownerCodeId, institutionId, deliveryLocation));
+    }
+
+    public Map<Integer, String> getItemStatusCodesById() {
+        return itemStatusCodesById;
+    }
+
+    public Map<String, Integer> getItemStatusIdsByCode() {
+        return itemStatusIdsByCode;
+    }
+
+    public Map<Integer, String> getInstitutionCodesById() {
+        return institutionCodesById;
+    }
+
+    public Map<String, Integer> getInstitutionIdsByCode() {
+        return institutionIdsByCode;
+    }
+
+    public Map<String, Integer> getCollectionGroupIdsByCode() {
+        return collectionGroupIdsByCode;
+    }
+
+    public Map<String, Integer> getRequestStatusIdsByCode() {
+        return requestStatusIdsByCode;
+    }
+
+    public Map<String, Integer> getRequestTypeIdsByCode() {
+        return requestTypeIdsByCode;
+    }
+
+    public Map<Integer, String> getImsLocationCodesById() {
+        return imsLocationCodesById;
+    }
+
+    public Map<String, Integer> getImsLocationIdsByCode() {
+        return imsLocationIdsByCode;
+    }
+
+    private ReferenceDataSnapshot getLoadedSnapshot() {
+        ReferenceDataSnapshot referenceDataSnapshot = snapshot.get();
+        if (!referenceDataSnapshot.loaded) {
+            refresh();
+            referenceDataSnapshot = snapshot.get();
+        }
+        return referenceDataSnapshot;
+    }
+
+    private <K, V> V lookup(Map<K, V> index, K key, Function<K, V> loader) {
+        V value = index.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        return loader.apply(key);
+    }
+
+    private <V> V memoize(ReferenceDataSnapshot referenceDataSnapshot, Map<String, Optional<V>> index, String key, Supplier<V> loader) {
+        Optional<V> value = index.get(key);
+        if (value != null) {
+            hits.increment();
+            return value.orElse(null);
+        }
+        misses.increment();
+        V loadedValue = loader.get();
+        if (referenceDataSnapshot.loaded) {
+            index.putIfAbsent(key, Optional.ofNullable(loadedValue));
+        }
+        return loadedValue;
+    }
+
+    private ReferenceDataSnapshot loadSnapshot() {
+        ReferenceDataSnapshot referenceDataSnapshot = new ReferenceDataSnapshot(true);
+        for (InstitutionEntity institutionEntity : institutionDetailsRepository.findAll()) {
+            referenceDataSnapshot.institutionIdsByCode.put(institutionEntity.getInstitutionCode(), institutionEntity.getId());
+            referenceDataSnapshot.institutionCodesById.put(institutionEntity.getId(), institutionEntity.getInstitutionCode());
+        }
+        for (ItemStatusEntity itemStatusEntity : itemStatusDetailsRepository.findAll()) {
+            referenceDataSnapshot.itemStatusIdsByCode.put(itemStatusEntity.getStatusCode(), itemStatusEntity.getId());
+            referenceDataSnapshot.itemStatusCodesById.put(itemStatusEntity.getId(), itemStatusEntity.getStatusCode());
+        }
+        for (RequestStatusEntity requestStatusEntity : requestItemStatusDetailsRepository.findAll()) {
+            referenceDataSnapshot.requestStatusIdsByCode.put(requestStatusEntity.getRequestStatusCode(), requestStatusEntity.getId());
+        }
+        for (RequestTypeEntity requestTypeEntity : requestTypeDetailsRepository.findAll()) {
+            referenceDataSnapshot.requestTypeIdsByCode.put(requestTypeEntity.getRequestTypeCode(), requestTypeEntity.getId());
+        }
+        for (ImsLocationEntity imsLocationEntity : imsLocationDetailsRepository.findAll()) {
+            referenceDataSnapshot.imsLocationCodesById.put(imsLocationEntity.getId(), imsLocationEntity.getImsLocationCode());
+            referenceDataSnapshot.imsLocationIdsByCode.put(imsLocationEntity.getImsLocationCode(), imsLocationEntity.getId());
+        }
+        for (CollectionGroupEntity collectionGroupEntity : collectionGroupDetailsRepository.findAll()) {
+            referenceDataSnapshot.collectionGroupIdsByCode.put(collectionGroupEntity.getCollectionGroupCode(), collectionGroupEntity.getId());
+        }
+        for (DeliveryCodeEntity deliveryCodeEntity : deliveryCodeDetailsRepository.findAll()) {
+            if (Character.valueOf('Y').equals(deliveryCodeEntity.getActive())) {
+                referenceDataSnapshot.activeDeliveryCodesByKey.put(getKey(deliveryCodeEntity.getDeliveryCode(), deliveryCodeEntity.getOwningInstitutionId()), new DeliveryCode(deliveryCodeEntity));
+            }
+        }
+        return referenceDataSnapshot;
+    }
+
+    private void registerMetrics() {
+        FunctionCounter.builder(ScsbConstants.REFERENCE_DATA_CACHE_METRIC, hits, LongAdder::doubleValue)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_HIT).register(meterRegistry);
+        FunctionCounter.builder(ScsbConstants.REFERENCE_DATA_CACHE_METRIC, misses, LongAdder::doubleValue)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_MISS).register(meterRegistry);
+        FunctionCounter.builder(ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_METRIC, refreshSuccesses, LongAdder::doubleValue)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_SUCCESS).register(meterRegistry);
+        FunctionCounter.builder(ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_METRIC, refreshFailures, LongAdder::doubleValue)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_FAILURE).register(meterRegistry);
+        for (String table : ReferenceDataSnapshot.EMPTY.getSizes().keySet()) {
+            Gauge.builder(ScsbConstants.REFERENCE_DATA_CACHE_SIZE_METRIC, snapshot, currentSnapshot -> currentSnapshot.get().getSizes().get(table))
+                    .tag(ScsbConstants.METRIC_TAG_TABLE, table).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Read only map over an index of the current snapshot. A key missing from the snapshot is looked up in the
+     * repository, like the delivery code lookups, so codes added since the last refresh are found; iterating sees the
+     * snapshot only.
+     */
+    private final class SnapshotIndexView<K, V> extends AbstractMap<K, V> {
+
+        private final Function<ReferenceDataSnapshot, Map<K, V>> index;
+        private final Class<K> keyType;
+        private final Function<K, V> loader;
+
+        private SnapshotIndexView(Function<ReferenceDataSnapshot, Map<K, V>> index, Class<K> keyType, Function<K, V> loader) {
+            this.index = index;
+            this.keyType = keyType;
+            this.loader = loader;
+        }
+
+        @Override
+        public V get(Object key) {
+            return keyType.isInstance(key) ? lookup(index.apply(getLoadedSnapshot()), keyType.cast(key), loader) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return Collections.unmodifiableMap(index.apply(getLoadedSnapshot())).entrySet();
+        }
+    }
+
+    /**
+     * Detached copy of the fields of an active delivery code which the request processing reads.
+     */
+    @Getter
+    public static final class DeliveryCode {
+
+        private final Integer id;
+        private final String deliveryCode;
+        private final String pickupLocation;
+
+        private DeliveryCode(DeliveryCodeEntity deliveryCodeEntity) {
+            this.id = deliveryCodeEntity.getId();
+            this.deliveryCode = deliveryCodeEntity.getDeliveryCode();
+            this.pickupLocation = deliveryCodeEntity.getPickupLocation();
+        }
+    }
+
+    private static String getKey(Object... keyParts) {
+        StringBuilder key = new StringBuilder();
+        for (Object keyPart : keyParts) {
+            key.append(keyPart).append('-');
+        }
+        return key.toString();
+    }
+
+    /**
+     * One read of the reference data. The table indexes are filled while the snapshot is built and only read after it
+     * is published; the memoized lookups are concurrent and are dropped with the snapshot on the next refresh.
+     */
+    private static final class ReferenceDataSnapshot {
+
+        private static final ReferenceDataSnapshot EMPTY = new ReferenceDataSnapshot(false);
+
+        private final boolean loaded;
+        private final Map<String, Integer> institutionIdsByCode = new HashMap<>();
+        private final Map<Integer, String> institutionCodesById = new HashMap<>();
+        private final Map<String, Integer> itemStatusIdsByCode = new HashMap<>();
+        private final Map<Integer, String> itemStatusCodesById = new HashMap<>();
+        private final Map<String, Integer> requestStatusIdsByCode = new HashMap<>();
+        private final Map<String, Integer> requestTypeIdsByCode = new HashMap<>();
+        private final Map<Integer, String> imsLocationCodesById = new HashMap<>();
+        private final Map<String, Integer> imsLocationIdsByCode = new HashMap<>();
+        private final Map<String, Integer> collectionGroupIdsByCode = new HashMap<>();
+        private final Map<String, DeliveryCode> activeDeliveryCodesByKey = new HashMap<>();
+        private final Map<String, Optional<String>> imsLocationDeliveryCodesByKey = new ConcurrentHashMap<>();
+        private final Map<String, Optional<Boolean>> eddOwnerCodesByKey = new ConcurrentHashMap<>();
+        private final Map<String, Optional<Integer>> ownerCodeIdsByKey = new ConcurrentHashMap<>();
+        private final Map<String, Optional<List<Object[]>>> ownerCodeDeliveryCodesByKey = new ConcurrentHashMap<>();
+
+        private ReferenceDataSnapshot(boolean loaded) {
+            this.loaded = loaded;
+        }
+
+        private Map<String, Integer> getSizes() {
+            Map<String, Integer> sizes = new LinkedHashMap<>();
+            sizes.put(INSTITUTIONS, institutionIdsByCode.size());
+            sizes.put(ITEM_STATUSES, itemStatusIdsByCode.size());
+            sizes.put(REQUEST_STATUSES, requestStatusIdsByCode.size());
+            sizes.put(REQUEST_TYPES, requestTypeIdsByCode.size());
+            sizes.put(IMS_LOCATIONS, imsLocationCodesById.size());
+            sizes.put(COLLECTION_GROUPS, collectionGroupIdsByCode.size());
+            sizes.put(DELIVERY_CODES, activeDeliveryCodesByKey.size());
+            sizes.put(DELIVERY_CODE_TRANSLATIONS, imsLocationDeliveryCodesByKey.size());
+            sizes.put(EDD_OWNER_CODES, eddOwnerCodesByKey.size());
+            sizes.put(OWNER_CODES, ownerCodeIdsByKey.size());
+            sizes.put(OWNER_CODE_DELIVERY_CODES, ownerCodeDeliveryCodesByKey.size());
+            return sizes;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.recap.service.deaccession;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,9 +29,9 @@ import org.recap.model.deaccession.DeAccessionDBResponseEntity;
 import org.recap.model.deaccession.DeAccessionItem;
 import org.recap.model.deaccession.DeAccessionRequest;
 import org.recap.model.deaccession.DeAccessionSolrRequest;
+import org.recap.model.gfa.ScsbLasItemStatusCheckModel;
 import org.recap.model.jpa.BibliographicEntity;
 import org.recap.model.jpa.CollectionGroupEntity;
-import org.recap.model.jpa.DeaccessionItemChangeLog;
 import org.recap.model.jpa.HoldingsEntity;
 import org.recap.model.jpa.ImsLocationEntity;
 import org.recap.model.jpa.InstitutionEntity;
@@ -40,37 +41,37 @@ import org.recap.model.jpa.ItemStatusEntity;
 import org.recap.model.jpa.ReportDataEntity;
 import org.recap.model.jpa.ReportEntity;
 import org.recap.model.jpa.RequestItemEntity;
-import org.recap.model.jpa.RequestStatusEntity;
-import org.recap.model.jpa.DeliveryCodeEntity;
-import org.recap.model.jpa.DeliveryCodeTranslationEntity;
 import org.recap.repository.jpa.BibliographicDetailsRepository;
-import org.recap.repository.jpa.DeaccesionItemChangeLogDetailsRepository;
 import org.recap.repository.jpa.HoldingsDetailsRepository;
-import org.recap.repository.jpa.InstitutionDetailsRepository;
-import org.recap.repository.jpa.ImsLocationDetailsRepository;
 import org.recap.repository.jpa.ItemChangeLogDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
-import org.recap.repository.jpa.ReportDetailRepository;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
-import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
 import org.recap.repository.jpa.UserDetailRepository;
-import org.recap.repository.jpa.DeliveryCodeDetailsRepository;
-import org.recap.repository.jpa.DeliveryCodeTranslationDetailsRepository;
 import org.recap.service.RestHeaderService;
+import org.recap.service.common.ItemChangeLogWriter;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.util.DateUtil;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.text.MessageFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -78,6 +79,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -91,6 +94,8 @@ public class DeAccessionService {
 
 
     private static final String EXCEPTION_CONSTANT = "Exception :";
+    static final String REPORT_INSERT = "INSERT INTO REPORT_T (FILE_NAME, TYPE, CREATED_DATE, INSTITUTION_NAME) VALUES (?, ?, ?, ?)";
+    static final String REPORT_DATA_INSERT = "INSERT INTO REPORT_DATA_T (HEADER_NAME, HEADER_VALUE, RECORD_NUM) VALUES (?, ?, ?)";
 
     /**
      * The Bibliographic details repository.
@@ -110,11 +115,11 @@ public class DeAccessionService {
     @Autowired
     ItemDetailsRepository itemDetailsRepository;
 
-    /**
-     * The Report detail repository.
-     */
     @Autowired
-    ReportDetailRepository reportDetailRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     /**
      * The Request item details repository.
@@ -123,10 +128,10 @@ public class DeAccessionService {
     RequestItemDetailsRepository requestItemDetailsRepository;
 
     /**
-     * The Request item status details repository.
+     * The Reference data cache.
      */
     @Autowired
-    RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+    ReferenceDataCache referenceDataCache;
 
     /**
      * The Item change log details repository.
@@ -140,35 +145,12 @@ public class DeAccessionService {
     @Autowired
     UserDetailRepository userDetailRepository;
 
-    /**
-     * The Delivery Code Translation Details Repository
-     */
-    @Autowired
-    DeliveryCodeTranslationDetailsRepository deliveryCodeTranslationDetailsRepository;
-
-    /**
-     * The Delivery Code Details Repository
-     */
-    @Autowired
-    DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
-
-    /**
-     * The Institution Details Repository
-     */
-    @Autowired
-    private InstitutionDetailsRepository institutionDetailsRepository;
-
-    /**
-     * The Ims Location Details Repository
-     */
-    @Autowired
-    private ImsLocationDetailsRepository imsLocationDetailsRepository;
 
     /**
-     * The Deaccesion Item Change Log Details Repository
+     * The Item change log writer
      */
     @Autowired
-    private DeaccesionItemChangeLogDetailsRepository deaccesionItemChangeLogDetailsRepository;
+    private ItemChangeLogWriter itemChangeLogWriter;
 
     /**
      * The Request item controller.
@@ -230,16 +212,14 @@ public class DeAccessionService {
             Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
             List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities = new ArrayList<>();
             String username = StringUtils.isNotBlank(deAccessionRequest.getUsername()) ? deAccessionRequest.getUsername() : ScsbConstants.DISCOVERY;
-            validateBarcodesWithUserName(deAccessionRequest, username, deAccessionDBResponseEntities, removeDeaccessionItemsList, resultMap);
+            recordStage(ScsbConstants.DEACCESSION_STAGE_VALIDATE, () -> validateBarcodesWithUserName(deAccessionRequest, username, deAccessionDBResponseEntities, removeDeaccessionItemsList, resultMap));
             if (!deAccessionRequest.getDeAccessionItems().isEmpty()) {
-                checkGfaItemStatus(deAccessionRequest.getDeAccessionItems(), deAccessionDBResponseEntities, barcodeAndStopCodeMap);
-                checkAndCancelHolds(barcodeAndStopCodeMap, deAccessionDBResponseEntities, username);
-                deAccessionItemsInDB(barcodeAndStopCodeMap, deAccessionDBResponseEntities, username);
-                callGfaDeaccessionService(deAccessionDBResponseEntities, username);
-                rollbackLASRejectedItems(deAccessionDBResponseEntities, username);
-                deAccessionItemsInSolr(deAccessionDBResponseEntities, resultMap);
-                processAndSaveReportEntities(deAccessionDBResponseEntities);
-                processAndSaveDeaccessionChangeLog(deAccessionRequest, username, deAccessionDBResponseEntities);
+                recordStage(ScsbConstants.DEACCESSION_STAGE_LAS_STATUS_CHECK, () -> checkGfaItemStatus(deAccessionRequest.getDeAccessionItems(), deAccessionDBResponseEntities, barcodeAndStopCodeMap));
+                recordStage(ScsbConstants.DEACCESSION_STAGE_CANCEL_HOLDS, () -> checkAndCancelHolds(barcodeAndStopCodeMap, deAccessionDBResponseEntities, username));
+                recordStage(ScsbConstants.DEACCESSION_STAGE_DB, () -> deAccessionItemsInDB(barcodeAndStopCodeMap, deAccessionDBResponseEntities, username));
+                recordStage(ScsbConstants.DEACCESSION_STAGE_LAS_WITHDRAWAL, () -> callGfaDeaccessionService(deAccessionDBResponseEntities, username));
+                recordStage(ScsbConstants.DEACCESSION_STAGE_ROLLBACK, () -> rollbackLASRejectedItems(deAccessionDBResponseEntities, username));
+                completeDeAccession(deAccessionRequest, username, deAccessionDBResponseEntities, resultMap);
             } else {
                 for (DeAccessionItem deAccessionItem : removeDeaccessionItemsList) {
                     resultMap.put(deAccessionItem.getItemBarcode(), ScsbConstants.FAILURE_UPDATE_CGD);
@@ -343,22 +323,24 @@ public class DeAccessionService {
 
     private void checkGfaItemStatus(List<DeAccessionItem> deAccessionItems, List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities, Map<String, String> barcodeAndStopCodeMap) {
         try {
+            Map<String, ItemEntity> itemEntitiesByBarcode = findItemEntitiesByBarcode(deAccessionItems);
+            Map<String, String> gfaItemStatuses = callGfaItemStatuses(itemEntitiesByBarcode.values());
+            Map<String, String> recapAssistanceEmailsTo = new HashMap<>();
             for (DeAccessionItem deAccessionItem : deAccessionItems) {
                 log.info("Deaccession Item Barcode = {} Delivery Location = {}", deAccessionItem.getItemBarcode(), deAccessionItem.getDeliveryLocation());
                 String itemBarcode = deAccessionItem.getItemBarcode();
                 if (StringUtils.isNotBlank(itemBarcode)) {
-                    List<ItemEntity> itemEntities = itemDetailsRepository.findByBarcode(itemBarcode.trim());
-                    if (CollectionUtils.isNotEmpty(itemEntities)) {
-                        ItemEntity itemEntity = itemEntities.get(0);
+                    ItemEntity itemEntity = itemEntitiesByBarcode.get(itemBarcode.trim());
+                    if (itemEntity != null) {
                         if (itemEntity.isDeleted()) {
                             deAccessionDBResponseEntities.add(prepareFailureResponse(itemBarcode, deAccessionItem.getDeliveryLocation(), ScsbCommonConstants.REQUESTED_ITEM_DEACCESSIONED, itemEntity));
                         } else if (!itemEntity.isComplete()) {
                             deAccessionDBResponseEntities.add(prepareFailureResponse(itemBarcode, deAccessionItem.getDeliveryLocation(), ScsbCommonConstants.ITEM_BARCDE_DOESNOT_EXIST, itemEntity));
                         } else {
                             String scsbItemStatus = itemEntity.getItemStatusEntity().getStatusCode();
-                            String recapAssistanceEmailTo = getRecapAssistanceEmailTo(itemEntity.getImsLocationEntity().getImsLocationCode());
+                            String recapAssistanceEmailTo = recapAssistanceEmailsTo.computeIfAbsent(itemEntity.getImsLocationEntity().getImsLocationCode(), this::getRecapAssistanceEmailTo);
                             log.info("SCSB Item Status : {}", scsbItemStatus);
-                            String gfaItemStatus = gfaLasService.callGfaItemStatus(itemBarcode);
+                            String gfaItemStatus = gfaItemStatuses.get(itemEntity.getBarcode());
                             log.info("GFA Item Status : {}", gfaItemStatus);
                             if (StringUtils.isNotBlank(gfaItemStatus)) {
                                 gfaItemStatus = gfaItemStatus.toUpperCase();
@@ -392,13 +374,45 @@ public class DeAccessionService {
         }
     }
 
+    /**
+     * Finds the items of all the deaccession item barcodes in one query, keeping the first item of each barcode.
+     */
+    private Map<String, ItemEntity> findItemEntitiesByBarcode(List<DeAccessionItem> deAccessionItems) {
+        Map<String, ItemEntity> itemEntitiesByBarcode = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> itemBarcodes = deAccessionItems.stream().map(DeAccessionItem::getItemBarcode).filter(StringUtils::isNotBlank).map(String::trim).distinct().collect(Collectors.toList());
+        if (!itemBarcodes.isEmpty()) {
+            for (ItemEntity itemEntity : itemDetailsRepository.findByBarcodeIn(itemBarcodes)) {
+                itemEntitiesByBarcode.putIfAbsent(itemEntity.getBarcode(), itemEntity);
+            }
+        }
+        return itemEntitiesByBarcode;
+    }
+
+    /**
+     * Checks the LAS status of the complete, not deleted items, one multi barcode check per IMS location, with the IMS
+     * locations checked concurrently.
+     */
+    private Map<String, String> callGfaItemStatuses(Collection<ItemEntity> itemEntities) {
+        List<ScsbLasItemStatusCheckModel> itemsStatusCheckModel = new ArrayList<>();
+        for (ItemEntity itemEntity : itemEntities) {
+            if (!itemEntity.isDeleted() && itemEntity.isComplete() && itemEntity.getImsLocationEntity() != null && StringUtils.isNotBlank(itemEntity.getImsLocationEntity().getImsLocationCode())) {
+                ScsbLasItemStatusCheckModel itemStatusCheckModel = new ScsbLasItemStatusCheckModel();
+                itemStatusCheckModel.setItemBarcode(itemEntity.getBarcode());
+                itemStatusCheckModel.setImsLocation(itemEntity.getImsLocationEntity().getImsLocationCode());
+                itemsStatusCheckModel.add(itemStatusCheckModel);
+            }
+        }
+        return itemsStatusCheckModel.isEmpty() ? Collections.emptyMap() : gfaLasService.callGfaItemStatuses(itemsStatusCheckModel);
+    }
+
     private void callGfaDeaccessionService(List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities, String username) {
         if (CollectionUtils.isNotEmpty(deAccessionDBResponseEntities)) {
             String recapAssistanceEmailTo = null;
+            Map<String, String> recapAssistanceEmailsTo = new HashMap<>();
             for (DeAccessionDBResponseEntity deAccessionDBResponseEntity : deAccessionDBResponseEntities) {
                 if (!Objects.isNull(deAccessionDBResponseEntity.getImsLocationCode())) {
                     try {
-                        recapAssistanceEmailTo = getRecapAssistanceEmailTo(deAccessionDBResponseEntity.getImsLocationCode());
+                        recapAssistanceEmailTo = recapAssistanceEmailsTo.computeIfAbsent(deAccessionDBResponseEntity.getImsLocationCode(), this::getRecapAssistanceEmailTo);
                     } catch (RuntimeException e) {
                         log.info("Exception occurred while pulling recap assistance email to: {}", e.getMessage());
                     }
@@ -409,13 +423,13 @@ public class DeAccessionService {
                     GFAPwdTtItemRequest gfaPwdTtItemRequest = new GFAPwdTtItemRequest();
                     gfaPwdTtItemRequest.setCustomerCode(deAccessionDBResponseEntity.getCustomerCode());
                     gfaPwdTtItemRequest.setItemBarcode(deAccessionDBResponseEntity.getBarcode());
-                    InstitutionEntity institutionEntity = institutionDetailsRepository.findByInstitutionCode(deAccessionDBResponseEntity.getInstitutionCode());
-                    DeliveryCodeEntity deliveryCodeEntity = deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive(deAccessionDBResponseEntity.getDeliveryLocation(), institutionEntity.getId(), 'Y');
-                    ImsLocationEntity imsLocationEntity = imsLocationDetailsRepository.findByImsLocationCode(deAccessionDBResponseEntity.getImsLocationCode());
-                    if (deliveryCodeEntity != null && institutionEntity != null && imsLocationEntity != null) {
-                        DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(institutionEntity.getId(), deliveryCodeEntity.getId(), imsLocationEntity.getId());
-                        log.info("Deaccession Process - Translated Code From {} >>>> {} ", deAccessionDBResponseEntity.getDeliveryLocation(), deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
-                        gfaPwdTtItemRequest.setDestination(deliveryCodeTranslationEntity.getImsLocationDeliveryCode());
+                    Integer institutionId = referenceDataCache.getInstitutionIdsByCode().get(deAccessionDBResponseEntity.getInstitutionCode());
+                    ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode(deAccessionDBResponseEntity.getDeliveryLocation(), institutionId);
+                    Integer imsLocationId = referenceDataCache.getImsLocationIdsByCode().get(deAccessionDBResponseEntity.getImsLocationCode());
+                    if (deliveryCode != null && institutionId != null && imsLocationId != null) {
+                        String imsLocationDeliveryCode = referenceDataCache.getImsLocationDeliveryCode(institutionId, deliveryCode.getId(), imsLocationId);
+                        log.info("Deaccession Process - Translated Code From {} >>>> {} ", deAccessionDBResponseEntity.getDeliveryLocation(), imsLocationDeliveryCode);
+                        gfaPwdTtItemRequest.setDestination(imsLocationDeliveryCode);
                     } else {
                         gfaPwdTtItemRequest.setDestination(deAccessionDBResponseEntity.getDeliveryLocation());
 
@@ -615,8 +629,7 @@ public class DeAccessionService {
      * @param username
      */
     private void updateRequestAsCanceled(RequestItemEntity requestItemEntity, String username) {
-        RequestStatusEntity requestStatusEntity = requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_CANCELED);
-        requestItemEntity.setRequestStatusId(requestStatusEntity.getId());
+        requestItemEntity.setRequestStatusId(referenceDataCache.getRequestStatusIdsByCode().get(ScsbCommonConstants.REQUEST_STATUS_CANCELED));
         requestItemEntity.setLastUpdatedDate(new Date());
         requestItemEntity.getItemEntity().setItemAvailabilityStatusId(2);
         String requestNotes = requestItemEntity.getNotes();
@@ -628,27 +641,13 @@ public class DeAccessionService {
     }
 
     private void saveDeAccessionItemChangeLogEntity(Integer requestId, String deaccessionUser, String operationType, String notes) {
-        DeaccessionItemChangeLog itemChangeLogEntity = new DeaccessionItemChangeLog();
-        itemChangeLogEntity.setUpdatedBy(deaccessionUser);
-        itemChangeLogEntity.setCreatedDate(new Date());
-        itemChangeLogEntity.setOperationType(operationType);
-        itemChangeLogEntity.setRecordId(requestId);
-        itemChangeLogEntity.setNotes(notes);
-        deaccesionItemChangeLogDetailsRepository.save(itemChangeLogEntity);
+        itemChangeLogWriter.saveDeaccessionItemChangeLog(requestId, deaccessionUser, new Date(), operationType, notes);
     }
 
     private void saveDeAccessionItemChangeLogEntities(List<Integer> itemIds, String deaccessionUser, String operationType, Date updatedDate, String notes, Map<Integer, String> itemIdAndMessageMap) {
-        List<DeaccessionItemChangeLog> itemChangeLogEntities = new ArrayList<>();
         for (Integer itemId : itemIds) {
-            DeaccessionItemChangeLog itemChangeLogEntity = new DeaccessionItemChangeLog();
-            itemChangeLogEntity.setUpdatedBy(deaccessionUser);
-            itemChangeLogEntity.setCreatedDate(updatedDate);
-            itemChangeLogEntity.setOperationType(operationType);
-            itemChangeLogEntity.setRecordId(itemId);
-            itemChangeLogEntity.setNotes(itemIdAndMessageMap.get(itemId) + notes);
-            itemChangeLogEntities.add(itemChangeLogEntity);
+            itemChangeLogWriter.saveDeaccessionItemChangeLog(itemId, deaccessionUser, updatedDate, operationType, itemIdAndMessageMap.get(itemId) + notes);
         }
-        deaccesionItemChangeLogDetailsRepository.saveAll(itemChangeLogEntities);
     }
 
     private int getHoldQueueLength(ItemInformationResponse itemInformationResponse) {
@@ -705,30 +704,65 @@ public class DeAccessionService {
      */
     public List<ReportEntity> processAndSaveReportEntities(List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities) {
         List<ReportEntity> reportEntities = new ArrayList<>();
-        ReportEntity reportEntity = null;
         if (CollectionUtils.isNotEmpty(deAccessionDBResponseEntities)) {
             for (DeAccessionDBResponseEntity deAccessionDBResponseEntity : deAccessionDBResponseEntities) {
-                List<String> owningInstitutionBibIds = deAccessionDBResponseEntity.getOwningInstitutionBibIds();
-                if (CollectionUtils.isNotEmpty(owningInstitutionBibIds)) {
-                    for (String owningInstitutionBibId : owningInstitutionBibIds) {
-                        reportEntity = generateReportEntity(deAccessionDBResponseEntity, owningInstitutionBibId);
-                        reportEntities.add(reportEntity);
+                addReportEntities(deAccessionDBResponseEntity, reportEntities);
+            }
+            saveReportEntities(reportEntities);
+        }
+        return reportEntities;
+    }
+
+    private static void addReportEntities(DeAccessionDBResponseEntity deAccessionDBResponseEntity, List<ReportEntity> reportEntities) {
+        List<String> owningInstitutionBibIds = deAccessionDBResponseEntity.getOwningInstitutionBibIds();
+        if (CollectionUtils.isNotEmpty(owningInstitutionBibIds)) {
+            for (String owningInstitutionBibId : owningInstitutionBibIds) {
+                reportEntities.add(generateReportEntity(deAccessionDBResponseEntity, owningInstitutionBibId));
+            }
+        } else {
+            reportEntities.add(generateReportEntity(deAccessionDBResponseEntity, null));
+        }
+    }
+
+    /**
+     * Inserts the report entities and then their report data entities, each in one JDBC batch.
+     */
+    private void saveReportEntities(List<ReportEntity> reportEntities) {
+        if (reportEntities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(REPORT_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (ReportEntity reportEntity : reportEntities) {
+                    preparedStatement.setString(1, reportEntity.getFileName());
+                    preparedStatement.setString(2, reportEntity.getType());
+                    preparedStatement.setTimestamp(3, new Timestamp(reportEntity.getCreatedDate().getTime()));
+                    preparedStatement.setString(4, reportEntity.getInstitutionName());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    for (ReportEntity reportEntity : reportEntities) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated record number of deaccession report " + reportEntity.getFileName());
+                        }
+                        reportEntity.setId(generatedKeys.getInt(1));
                     }
-                } else {
-                    reportEntity = generateReportEntity(deAccessionDBResponseEntity, null);
-                    reportEntities.add(reportEntity);
                 }
             }
-            if (!CollectionUtils.isEmpty(reportEntities)) {
-                reportDetailRepository.saveAll(reportEntities);
+            return null;
+        });
+        List<Object[]> reportDataArgs = new ArrayList<>();
+        for (ReportEntity reportEntity : reportEntities) {
+            for (ReportDataEntity reportDataEntity : reportEntity.getReportDataEntities()) {
+                reportDataEntity.setRecordNum(String.valueOf(reportEntity.getId()));
+                reportDataArgs.add(new Object[]{reportDataEntity.getHeaderName(), reportDataEntity.getHeaderValue(), reportDataEntity.getRecordNum()});
             }
         }
-        return reportEntities;
+        jdbcTemplate.batchUpdate(REPORT_DATA_INSERT, reportDataArgs);
     }
 
     private static ReportEntity generateReportEntity(DeAccessionDBResponseEntity deAccessionDBResponseEntity, String owningInstitutionBibId) {
-        SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
-
         ReportEntity reportEntity = new ReportEntity();
         reportEntity.setFileName(ScsbCommonConstants.DEACCESSION_REPORT);
         reportEntity.setType(ScsbCommonConstants.DEACCESSION_SUMMARY_REPORT);
@@ -738,7 +772,7 @@ public class DeAccessionService {
 
         ReportDataEntity dateReportDataEntity = new ReportDataEntity();
         dateReportDataEntity.setHeaderName(ScsbCommonConstants.DATE_OF_DEACCESSION);
-        dateReportDataEntity.setHeaderValue(formatter.format(new Date()));
+        dateReportDataEntity.setHeaderValue(DateUtil.formatNow(DateUtil.DEACCESSION_REPORT_DATE_FORMATTER));
         reportDataEntities.add(dateReportDataEntity);
 
         if (!org.springframework.util.StringUtils.isEmpty(deAccessionDBResponseEntity.getInstitutionCode())) {
@@ -880,53 +914,87 @@ public class DeAccessionService {
      * @param resultMap
      */
     public void deAccessionItemsInSolr(List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities, Map<String, String> resultMap) {
+        if (CollectionUtils.isNotEmpty(deAccessionDBResponseEntities)) {
+            DeAccessionSolrRequest deAccessionSolrRequest = newDeAccessionSolrRequest();
+            for (DeAccessionDBResponseEntity deAccessionDBResponseEntity : deAccessionDBResponseEntities) {
+                addResult(deAccessionDBResponseEntity, resultMap, deAccessionSolrRequest);
+            }
+            sendDeAccessionSolrRequest(deAccessionSolrRequest);
+        }
+    }
+
+    /**
+     * Completes the deaccession of the processed items in a single pass over them: puts the result of every barcode in the
+     * result map and collects the ids for Solr, the report entities and the change log entries of the deaccessioned items.
+     * Then it sends one Solr deaccession request, inserts the reports in JDBC batches and queues the change log entries
+     * with the change log writer. Every stage is timed.
+     */
+    private void completeDeAccession(DeAccessionRequest deAccessionRequest, String username, List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities, Map<String, String> resultMap) {
+        if (CollectionUtils.isEmpty(deAccessionDBResponseEntities)) {
+            return;
+        }
+        DeAccessionSolrRequest deAccessionSolrRequest = newDeAccessionSolrRequest();
+        List<ReportEntity> reportEntities = new ArrayList<>();
+        List<Integer> deAccessionedItemIds = new ArrayList<>();
+        for (DeAccessionDBResponseEntity deAccessionDBResponseEntity : deAccessionDBResponseEntities) {
+            addResult(deAccessionDBResponseEntity, resultMap, deAccessionSolrRequest);
+            addReportEntities(deAccessionDBResponseEntity, reportEntities);
+            if (deAccessionDBResponseEntity.getStatus().contains(ScsbCommonConstants.SUCCESS)) {
+                deAccessionedItemIds.add(deAccessionDBResponseEntity.getItemId());
+            }
+        }
+        recordStage(ScsbConstants.DEACCESSION_STAGE_SOLR, () -> sendDeAccessionSolrRequest(deAccessionSolrRequest));
+        recordStage(ScsbConstants.DEACCESSION_STAGE_REPORT, () -> saveReportEntities(reportEntities));
+        recordStage(ScsbConstants.DEACCESSION_STAGE_CHANGE_LOG, () -> {
+            String notes = deAccessionRequest.getNotes() != null ? deAccessionRequest.getNotes() : "";
+            Date createdDate = new Date();
+            for (Integer itemId : deAccessionedItemIds) {
+                itemChangeLogWriter.saveDeaccessionItemChangeLog(itemId, username, createdDate, ScsbCommonConstants.DEACCESSION, notes);
+            }
+        });
+    }
+
+    private static DeAccessionSolrRequest newDeAccessionSolrRequest() {
+        DeAccessionSolrRequest deAccessionSolrRequest = new DeAccessionSolrRequest();
+        deAccessionSolrRequest.setBibIds(new ArrayList<>());
+        deAccessionSolrRequest.setHoldingsIds(new ArrayList<>());
+        deAccessionSolrRequest.setItemIds(new ArrayList<>());
+        return deAccessionSolrRequest;
+    }
+
+    private static void addResult(DeAccessionDBResponseEntity deAccessionDBResponseEntity, Map<String, String> resultMap, DeAccessionSolrRequest deAccessionSolrRequest) {
+        if (deAccessionDBResponseEntity.getStatus().equalsIgnoreCase(ScsbCommonConstants.FAILURE)) {
+            resultMap.put(deAccessionDBResponseEntity.getBarcode(), deAccessionDBResponseEntity.getStatus() + " - " + deAccessionDBResponseEntity.getReasonForFailure());
+        } else if (deAccessionDBResponseEntity.getStatus().equalsIgnoreCase(ScsbCommonConstants.SUCCESS)) {
+            resultMap.put(deAccessionDBResponseEntity.getBarcode(), deAccessionDBResponseEntity.getStatus());
+            deAccessionSolrRequest.getBibIds().addAll(deAccessionDBResponseEntity.getBibliographicIds());
+            deAccessionSolrRequest.getHoldingsIds().addAll(deAccessionDBResponseEntity.getHoldingIds());
+            deAccessionSolrRequest.getItemIds().add(deAccessionDBResponseEntity.getItemId());
+        }
+    }
+
+    private void sendDeAccessionSolrRequest(DeAccessionSolrRequest deAccessionSolrRequest) {
         try {
-            if (CollectionUtils.isNotEmpty(deAccessionDBResponseEntities)) {
-                List<Integer> bibIds = new ArrayList<>();
-                List<Integer> holdingsIds = new ArrayList<>();
-                List<Integer> itemIds = new ArrayList<>();
-                for (DeAccessionDBResponseEntity deAccessionDBResponseEntity : deAccessionDBResponseEntities) {
-                    if (deAccessionDBResponseEntity.getStatus().equalsIgnoreCase(ScsbCommonConstants.FAILURE)) {
-                        resultMap.put(deAccessionDBResponseEntity.getBarcode(), deAccessionDBResponseEntity.getStatus() + " - " + deAccessionDBResponseEntity.getReasonForFailure());
-                    } else if (deAccessionDBResponseEntity.getStatus().equalsIgnoreCase(ScsbCommonConstants.SUCCESS)) {
-                        resultMap.put(deAccessionDBResponseEntity.getBarcode(), deAccessionDBResponseEntity.getStatus());
-                        bibIds.addAll(deAccessionDBResponseEntity.getBibliographicIds());
-                        holdingsIds.addAll(deAccessionDBResponseEntity.getHoldingIds());
-                        itemIds.add(deAccessionDBResponseEntity.getItemId());
-                    }
-                }
-                if (CollectionUtils.isNotEmpty(bibIds) || CollectionUtils.isNotEmpty(holdingsIds) || CollectionUtils.isNotEmpty(itemIds)) {
-                    String deAccessionSolrClientUrl = scsbSolrClientUrl + ScsbConstants.DEACCESSION_IN_SOLR_URL;
-                    DeAccessionSolrRequest deAccessionSolrRequest = new DeAccessionSolrRequest();
-                    deAccessionSolrRequest.setBibIds(bibIds);
-                    deAccessionSolrRequest.setHoldingsIds(holdingsIds);
-                    deAccessionSolrRequest.setItemIds(itemIds);
-
-                    RestTemplate restTemplate = new RestTemplate();
-                    HttpEntity<DeAccessionSolrRequest> requestEntity = new HttpEntity<>(deAccessionSolrRequest, getRestHeaderService().getHttpHeaders());
-                    ResponseEntity<String> responseEntity = restTemplate.exchange(deAccessionSolrClientUrl, HttpMethod.POST, requestEntity, String.class);
-                    log.info("Deaccession Item Solr update status : {}", responseEntity.getBody());
-                }
+            if (CollectionUtils.isNotEmpty(deAccessionSolrRequest.getBibIds()) || CollectionUtils.isNotEmpty(deAccessionSolrRequest.getHoldingsIds()) || CollectionUtils.isNotEmpty(deAccessionSolrRequest.getItemIds())) {
+                String deAccessionSolrClientUrl = scsbSolrClientUrl + ScsbConstants.DEACCESSION_IN_SOLR_URL;
+                RestTemplate restTemplate = new RestTemplate();
+                HttpEntity<DeAccessionSolrRequest> requestEntity = new HttpEntity<>(deAccessionSolrRequest, getRestHeaderService().getHttpHeaders());
+                ResponseEntity<String> responseEntity = restTemplate.exchange(deAccessionSolrClientUrl, HttpMethod.POST, requestEntity, String.class);
+                log.info("Deaccession Item Solr update status : {}", responseEntity.getBody());
             }
         } catch (Exception e) {
             log.error(EXCEPTION_CONSTANT, e);
         }
     }
 
-    private void processAndSaveDeaccessionChangeLog(DeAccessionRequest deAccessionRequest, String userName, List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities) {
-        if (CollectionUtils.isNotEmpty(deAccessionDBResponseEntities)) {
-            for (DeAccessionDBResponseEntity deAccessionItem : deAccessionDBResponseEntities) {
-                if (deAccessionItem.getStatus().contains(ScsbCommonConstants.SUCCESS)) {
-                    DeaccessionItemChangeLog itemChangeLogEntity = new DeaccessionItemChangeLog();
-                    itemChangeLogEntity.setUpdatedBy(userName);
-                    itemChangeLogEntity.setCreatedDate(new Date());
-                    itemChangeLogEntity.setOperationType(ScsbCommonConstants.DEACCESSION);
-                    itemChangeLogEntity.setRecordId(deAccessionItem.getItemId());
-                    String notes = deAccessionRequest.getNotes() != null ? deAccessionRequest.getNotes() : "";
-                    itemChangeLogEntity.setNotes(notes);
-                    deaccesionItemChangeLogDetailsRepository.save(itemChangeLogEntity);
-                }
-            }
+    private void recordStage(String stage, Runnable runnable) {
+        long startTime = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            long elapsedNanos = System.nanoTime() - startTime;
+            meterRegistry.timer(ScsbConstants.DEACCESSION_STAGE_METRIC, ScsbConstants.METRIC_TAG_STAGE, stage).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            log.info("Deaccession stage {} took {} ms", stage, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
         }
     }
 
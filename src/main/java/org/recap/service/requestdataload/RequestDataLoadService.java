@@ -16,6 +16,7 @@ import org.recap.repository.jpa.ItemStatusDetailsRepository;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.repository.jpa.RequestTypeDetailsRepository;
 import org.recap.util.CommonUtil;
+import org.recap.util.DateUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -24,7 +25,8 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -131,21 +133,18 @@ public class RequestDataLoadService {
         if (CollectionUtils.isEmpty(requestAlreadyPlacedList)) {
             requestItemEntity.setItemId(itemId);
             requestItemEntity.setRequestingInstitutionId(requestingInstitutionId);
-            SimpleDateFormat formatter = new SimpleDateFormat(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT);
             requestItemEntity.setCreatedBy(ScsbConstants.REQUEST_DATA_LOAD_CREATED_BY);
-            setValuesFromOutReportToRequestItemEntity(requestItemEntity, requestDataLoadCSVRecord, formatter);
+            setValuesFromOutReportToRequestItemEntity(requestItemEntity, requestDataLoadCSVRecord);
             requestItemEntity.setRequestStatusId(9);
             requestItemEntity.setPatronId(ScsbConstants.REQUEST_DATA_LOAD_PATRON_ID);
             requestItemEntityList.add(requestItemEntity);
         }
     }
 
-    private void setValuesFromOutReportToRequestItemEntity(RequestItemEntity requestItemEntity, RequestDataLoadCSVRecord requestDataLoadCSVRecord, SimpleDateFormat formatter) throws ParseException {
+    private void setValuesFromOutReportToRequestItemEntity(RequestItemEntity requestItemEntity, RequestDataLoadCSVRecord requestDataLoadCSVRecord) throws ParseException {
         requestItemEntity.setRequestTypeId(getRequestTypeId(requestDataLoadCSVRecord.getDeliveryMethod()));
-        Date createdDate = getDateFormat(requestDataLoadCSVRecord.getCreatedDate());
-        requestItemEntity.setCreatedDate(formatter.parse(formatter.format(createdDate)));
-        Date updatedDate = getDateFormat(requestDataLoadCSVRecord.getLastUpdatedDate());
-        requestItemEntity.setLastUpdatedDate(formatter.parse(formatter.format(updatedDate)));
+        requestItemEntity.setCreatedDate(getDateFormat(requestDataLoadCSVRecord.getCreatedDate()));
+        requestItemEntity.setLastUpdatedDate(getDateFormat(requestDataLoadCSVRecord.getLastUpdatedDate()));
         String stopCode=requestDataLoadCSVRecord.getStopCode() != null ? requestDataLoadCSVRecord.getStopCode() : "Stop Code Not Found";
         requestItemEntity.setStopCode(stopCode);
     }
@@ -159,13 +158,11 @@ public class RequestDataLoadService {
     }
 
     private static Date getDateFormat(String date) throws ParseException {
-        SimpleDateFormat formatter=new SimpleDateFormat(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT);
         if (StringUtils.isNotBlank(date)){
-            return formatter.parse(date);
+            return DateUtil.parse(date, DateUtil.REQUEST_DATA_LOAD_DATE_FORMATTER);
         }
         else {
-            String currentDate = formatter.format(new Date());
-            return formatter.parse(currentDate);
+            return DateUtil.toDate(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
         }
     }
 
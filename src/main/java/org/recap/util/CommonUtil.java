@@ -8,14 +8,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
+import org.recap.ils.protocol.ncip.util.NCIPRequestFormatter;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.jpa.*;
-import org.recap.repository.jpa.CollectionGroupDetailsRepository;
 import org.recap.repository.jpa.ImsLocationDetailsRepository;
 import org.recap.repository.jpa.InstitutionDetailsRepository;
-import org.recap.repository.jpa.ItemChangeLogDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
-import org.recap.repository.jpa.ItemStatusDetailsRepository;
+import org.recap.service.common.ItemChangeLogWriter;
+import org.recap.service.common.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -25,9 +25,6 @@ import java.util.*;
 @Slf4j
 @Service
 public class CommonUtil {
-    private Map<String, Integer> itemStatusMap;
-    private Map<String, Integer> collectionGroupMap;
-    private Map<String, Integer> institutionEntityMap;
     private Map<String, String> ftpPropertiesMap;
 
 
@@ -41,10 +38,7 @@ public class CommonUtil {
     String ftpKnownHost;
 
     @Autowired
-    private ItemStatusDetailsRepository itemStatusDetailsRepository;
-
-    @Autowired
-    private CollectionGroupDetailsRepository collectionGroupDetailsRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
     private InstitutionDetailsRepository institutionDetailsRepository;
@@ -53,7 +47,7 @@ public class CommonUtil {
     private ItemDetailsRepository itemDetailsRepository;
 
     @Autowired
-    private ItemChangeLogDetailsRepository itemChangeLogDetailsRepository;
+    private ItemChangeLogWriter itemChangeLogWriter;
 
     @Autowired
     private ImsLocationDetailsRepository imsLocationDetailsRepository;
@@ -108,19 +102,7 @@ public class CommonUtil {
      * @return the item status map
      */
     public Map<String, Integer> getItemStatusMap() {
-        if (null == itemStatusMap) {
-            itemStatusMap = new HashMap<>();
-            try {
-                Iterable<ItemStatusEntity> itemStatusEntities = itemStatusDetailsRepository.findAll();
-                for (Iterator<ItemStatusEntity> iterator = itemStatusEntities.iterator(); iterator.hasNext(); ) {
-                    ItemStatusEntity itemStatusEntity = iterator.next();
-                    itemStatusMap.put(itemStatusEntity.getStatusCode(), itemStatusEntity.getId());
-                }
-            } catch (RuntimeException e) {
-                log.error(ScsbCommonConstants.LOG_ERROR,e);
-            }
-        }
-        return itemStatusMap;
+        return referenceDataCache.getItemStatusIdsByCode();
     }
 
     /**
@@ -129,19 +111,7 @@ public class CommonUtil {
      * @return the collection group map
      */
     public Map<String, Integer> getCollectionGroupMap() {
-        if (null == collectionGroupMap) {
-            collectionGroupMap = new HashMap<>();
-            try {
-                Iterable<CollectionGroupEntity> collectionGroupEntities = collectionGroupDetailsRepository.findAll();
-                for (Iterator<CollectionGroupEntity> iterator = collectionGroupEntities.iterator(); iterator.hasNext(); ) {
-                    CollectionGroupEntity collectionGroupEntity = iterator.next();
-                    collectionGroupMap.put(collectionGroupEntity.getCollectionGroupCode(), collectionGroupEntity.getId());
-                }
-            } catch (RuntimeException e) {
-                log.error(ScsbCommonConstants.LOG_ERROR,e);
-            }
-        }
-        return collectionGroupMap;
+        return referenceDataCache.getCollectionGroupIdsByCode();
     }
 
     /**
@@ -150,19 +120,7 @@ public class CommonUtil {
      * @return the institution entity map
      */
     public Map<String, Integer> getInstitutionEntityMap() {
-        if (null == institutionEntityMap) {
-            institutionEntityMap = new HashMap<>();
-            try {
-                Iterable<InstitutionEntity> institutionEntities = institutionDetailsRepository.findAll();
-                for (Iterator<InstitutionEntity> iterator = institutionEntities.iterator(); iterator.hasNext(); ) {
-                    InstitutionEntity institutionEntity = iterator.next();
-                    institutionEntityMap.put(institutionEntity.getInstitutionCode(), institutionEntity.getId());
-                }
-            } catch (RuntimeException e) {
-                log.error(ScsbCommonConstants.LOG_ERROR,e);
-            }
-        }
-        return institutionEntityMap;
+        return referenceDataCache.getInstitutionIdsByCode();
     }
 
     /**
@@ -172,15 +130,14 @@ public class CommonUtil {
      * @param userName   the user name
      */
     public void rollbackUpdateItemAvailabilityStatus(ItemEntity itemEntity, String userName) {
-        ItemStatusEntity itemStatusEntity = itemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.AVAILABLE);
-        itemEntity.setItemAvailabilityStatusId(itemStatusEntity.getId()); // Available
+        itemEntity.setItemAvailabilityStatusId(referenceDataCache.getItemStatusIdsByCode().get(ScsbCommonConstants.AVAILABLE)); // Available
         itemEntity.setLastUpdatedBy(getUser(userName));
         itemDetailsRepository.save(itemEntity);
         saveItemChangeLogEntity(itemEntity.getId(), getUser(userName), ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_UPDATE, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_DATA_ROLLBACK);
     }
 
     /**
-     * Save item change log entity.
+     * Save item change log entity. The entry is written to the database behind the request thread.
      *
      * @param recordId      the record id
      * @param userName      the user name
@@ -188,13 +145,7 @@ public class CommonUtil {
      * @param notes         the notes
      */
     public void saveItemChangeLogEntity(Integer recordId, String userName, String operationType, String notes) {
-        ItemChangeLogEntity itemChangeLogEntity = new ItemChangeLogEntity();
-        itemChangeLogEntity.setUpdatedBy(userName);
-        itemChangeLogEntity.setUpdatedDate(new Date());
-        itemChangeLogEntity.setOperationType(operationType);
-        itemChangeLogEntity.setRecordId(recordId);
-        itemChangeLogEntity.setNotes(notes);
-        itemChangeLogDetailsRepository.save(itemChangeLogEntity);
+        itemChangeLogWriter.saveItemChangeLog(recordId, userName, operationType, notes);
     }
 
     /**
@@ -342,33 +293,17 @@ public class CommonUtil {
         });
     }
 
-    private String replaceStringCharacters(String text){
-        for (int i = 1; i < text.length(); i++) {
-            if(text.charAt(i) == 60){
-                if(text.charAt(i + 1) > 64 && text.charAt(i + 1) <= 122){
-                    text = text.substring(0, i) + "<ns1:"
-                            + text.substring(i + 1);
-                    i = i+5;
-                }
-            }
-        }
-        return text;
-    }
-
+    /**
+     * Formats an NCIP request message for the ILS, see {@link NCIPRequestFormatter}.
+     */
     public String formatRequest(String requestBody){
-        String tempRequest = requestBody.replaceAll("</", ScsbConstants.REPLACE_STRING);
-        tempRequest = replaceStringCharacters(tempRequest);
-        tempRequest = tempRequest.replaceAll(ScsbConstants.REPLACE_STRING, "</ns1:");
-        tempRequest = tempRequest.replaceAll(ScsbConstants.REGEX_VERSION,ScsbConstants.VERSION);
-        tempRequest = tempRequest.replaceAll(ScsbConstants.REGEX_SCHEME,ScsbConstants.SCHEME);
-        tempRequest = tempRequest.replaceAll(ScsbConstants.REGEX_XMLNS,ScsbConstants.XMLNS);
-        return tempRequest;
+        return NCIPRequestFormatter.format(requestBody);
     }
 
     public String formatResponse(String responseBody)
     {
-       String responseString = responseBody.replaceAll("<ns1:","<");
-       return responseString.replaceAll("</ns1:","</");
+       String responseString = responseBody.replace("<ns1:","<");
+       return responseString.replace("</ns1:","</");
     }
 
 }
@@ -0,0 +1,253 @@
+package org.recap.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.recap.ScsbConstants;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Shared, immutable and thread safe date formatters and parsers of the circulation module, replacing the
+ * {@code SimpleDateFormat}s which were either shared between threads or created per call.
+ * <p>
+ * Dates are converted from and to {@link Date} in the default time zone, as {@code SimpleDateFormat} did. The
+ * formatters print the zero padded fields of their pattern, while {@link #parse} and {@link #reformat} read dates with
+ * a parser of the same pattern which, like {@code SimpleDateFormat}, also accepts numeric fields without zero padding
+ * when they are delimited from the next field, such as {@code 1-5-2021 9:00:00}.
+ */
+public final class DateUtil {
+
+    private static final Map<DateTimeFormatter, DateTimeFormatter> PARSERS = new IdentityHashMap<>();
+
+    /**
+     * Expiration dates, due dates and request dates ({@value ScsbConstants#DATE_FORMAT}).
+     */
+    public static final DateTimeFormatter DATE_FORMATTER = ofPattern(ScsbConstants.DATE_FORMAT);
+
+    /**
+     * Hold expiration dates and due dates of the REST ILS ({@value ScsbConstants#REST_HOLD_DATE_FORMAT}).
+     */
+    public static final DateTimeFormatter REST_HOLD_DATE_FORMATTER = ofPattern(ScsbConstants.REST_HOLD_DATE_FORMAT);
+
+    /**
+     * Date times of the REST ILS responses.
+     */
+    public static final DateTimeFormatter REST_DATE_TIME_FORMATTER = ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * Date times of the SIP2 responses.
+     */
+    public static final DateTimeFormatter SIP_DATE_TIME_FORMATTER = ofPattern("yyyyMMdd    HHmmss");
+
+    /**
+     * Due dates of the NCIP responses.
+     */
+    public static final DateTimeFormatter NCIP_DUE_DATE_FORMATTER = ofPattern("yyyy-MM-dd hh:mm:ss");
+
+    /**
+     * Created and last updated dates of the LAS report loaded by the request data load
+     * ({@value ScsbConstants#REQUEST_DATA_LOAD_DATE_FORMAT}).
+     */
+    public static final DateTimeFormatter REQUEST_DATA_LOAD_DATE_FORMATTER = ofPattern(ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT);
+
+    /**
+     * Date of the request initial load report file names ({@value ScsbConstants#REQUEST_INITIAL_FILE_DATE_FORMAT}).
+     */
+    public static final DateTimeFormatter REQUEST_INITIAL_FILE_DATE_FORMATTER = ofPattern(ScsbConstants.REQUEST_INITIAL_FILE_DATE_FORMAT);
+
+    /**
+     * Date range of the replace request ({@value ScsbConstants#DEFAULT_DATE_FORMAT}). As with
+     * {@code SimpleDateFormat}, the 12 hour clock is read as AM since the pattern has no AM/PM marker.
+     */
+    public static final DateTimeFormatter DEFAULT_DATE_FORMATTER = ofPattern(ScsbConstants.DEFAULT_DATE_FORMAT);
+
+    /**
+     * Date of deaccession in the deaccession report.
+     */
+    public static final DateTimeFormatter DEACCESSION_REPORT_DATE_FORMATTER = ofPattern("MM/dd/yyyy");
+
+    /**
+     * Date time appended to the notes of cancelled requests.
+     */
+    public static final DateTimeFormatter CANCEL_REQUEST_DATE_FORMATTER = ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private DateUtil() {
+    }
+
+    private static DateTimeFormatter ofPattern(String pattern) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        PARSERS.put(formatter, parser(pattern));
+        return formatter;
+    }
+
+    /**
+     * Builds the parser of a pattern. A numeric field which does not abut another numeric field is read with one digit
+     * up to the width of the field, at least 2 and 4 for years, and the 12 hour clock is read as AM when the pattern
+     * has no AM/PM marker, as {@code SimpleDateFormat} parses them.
+     */
+    private static DateTimeFormatter parser(String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        boolean abutting = false;
+        int index = 0;
+        while (index < pattern.length()) {
+            char letter = pattern.charAt(index);
+            int end = index + 1;
+            if (letter == '\'') {
+                end = pattern.indexOf('\'', end) + 1;
+                end = end == 0 ? pattern.length() : end;
+                builder.appendPattern(pattern.substring(index, end));
+                abutting = false;
+            } else if (Character.isLetter(letter)) {
+                end = runEnd(pattern, index);
+                ChronoField field = numericField(letter, end - index);
+                boolean nextNumeric = end < pattern.length() && numericField(pattern.charAt(end), runEnd(pattern, end) - end) != null;
+                if (field == null || abutting || nextNumeric) {
+                    builder.appendPattern(pattern.substring(index, end));
+                } else {
+                    builder.appendValue(field, 1, Math.max(end - index, letter == 'y' ? 4 : 2), SignStyle.NOT_NEGATIVE);
+                }
+                abutting = field != null;
+            } else {
+                builder.appendLiteral(letter);
+                abutting = false;
+            }
+            index = end;
+        }
+        if ((pattern.indexOf('h') >= 0 || pattern.indexOf('K') >= 0) && pattern.indexOf('a') < 0) {
+            builder.parseDefaulting(ChronoField.AMPM_OF_DAY, 0);
+        }
+        return builder.toFormatter();
+    }
+
+    private static int runEnd(String pattern, int index) {
+        int end = index + 1;
+        while (end < pattern.length() && pattern.charAt(end) == pattern.charAt(index)) {
+            end++;
+        }
+        return end;
+    }
+
+    private static ChronoField numericField(char letter, int count) {
+        switch (letter) {
+            case 'y':
+                return ChronoField.YEAR_OF_ERA;
+            case 'M':
+                return count <= 2 ? ChronoField.MONTH_OF_YEAR : null;
+            case 'd':
+                return ChronoField.DAY_OF_MONTH;
+            case 'H':
+                return ChronoField.HOUR_OF_DAY;
+            case 'k':
+                return ChronoField.CLOCK_HOUR_OF_DAY;
+            case 'h':
+                return ChronoField.CLOCK_HOUR_OF_AMPM;
+            case 'K':
+                return ChronoField.HOUR_OF_AMPM;
+            case 'm':
+                return ChronoField.MINUTE_OF_HOUR;
+            case 's':
+                return ChronoField.SECOND_OF_MINUTE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Formats the date in the default time zone.
+     *
+     * @param date      the date
+     * @param formatter the formatter
+     * @return the formatted date
+     */
+    public static String format(Date date, DateTimeFormatter formatter) {
+        return formatter.format(date.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Formats the current date time in the default time zone.
+     *
+     * @param formatter the formatter
+     * @return the formatted current date time
+     */
+    public static String formatNow(DateTimeFormatter formatter) {
+        return formatter.format(LocalDateTime.now());
+    }
+
+    /**
+     * Parses the date, at the start of the day when the formatter has no time, in the default time zone.
+     *
+     * @param date      the date
+     * @param formatter the formatter
+     * @return the parsed date
+     * @throws ParseException when the date does not match the formatter
+     */
+    public static Date parse(String date, DateTimeFormatter formatter) throws ParseException {
+        return toDate(parseLocalDateTime(date, formatter));
+    }
+
+    /**
+     * Parses the date time, at the start of the day when the formatter has no time. As with
+     * {@code SimpleDateFormat}, numeric fields without zero padding are accepted and text after the date, such as
+     * fractions of seconds or an offset, is ignored.
+     *
+     * @param date      the date
+     * @param formatter the formatter
+     * @return the parsed local date time
+     * @throws ParseException when the date does not match the formatter
+     */
+    public static LocalDateTime parseLocalDateTime(String date, DateTimeFormatter formatter) throws ParseException {
+        try {
+            TemporalAccessor parsed = PARSERS.getOrDefault(formatter, formatter).parse(date, new ParsePosition(0));
+            LocalDate localDate = parsed.query(TemporalQueries.localDate());
+            if (localDate == null) {
+                throw new DateTimeParseException("Text '" + date + "' has no date", date, 0);
+            }
+            LocalTime localTime = parsed.query(TemporalQueries.localTime());
+            return localTime == null ? localDate.atStartOfDay() : localDate.atTime(localTime);
+        } catch (DateTimeParseException e) {
+            ParseException parseException = new ParseException(e.getMessage(), e.getErrorIndex());
+            parseException.initCause(e);
+            throw parseException;
+        }
+    }
+
+    /**
+     * Reformats a date from one format to another.
+     *
+     * @param date the date
+     * @param from the formatter of the date
+     * @param to   the formatter of the result
+     * @return the reformatted date, or an empty string when the date is blank
+     * @throws ParseException when the date does not match the from formatter
+     */
+    public static String reformat(String date, DateTimeFormatter from, DateTimeFormatter to) throws ParseException {
+        if (StringUtils.isBlank(date)) {
+            return "";
+        }
+        return to.format(parseLocalDateTime(date, from));
+    }
+
+    /**
+     * Converts the local date time in the default time zone to a date.
+     *
+     * @param localDateTime the local date time
+     * @return the date
+     */
+    public static Date toDate(LocalDateTime localDateTime) {
+        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,58 @@
+package org.recap.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.recap.ims.model.GFAEddItemResponse;
+import org.recap.ims.model.GFARetrieveItemResponse;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.model.request.RequestInformation;
+import org.recap.model.response.ItemInformationResponse;
+
+/**
+ * Shared, immutable and thread safe Jackson readers and writer of the queue messages and LAS payloads, replacing the
+ * {@code ObjectMapper}s created per message, which rebuilt their serializer and deserializer caches every time.
+ * <p>
+ * The mapper has the default configuration of {@code new ObjectMapper()}, so the messages read and written are
+ * unchanged. It must not be reconfigured after start up.
+ */
+public final class JsonUtil {
+
+    /**
+     * The shared mapper, for the types without a reader of their own.
+     */
+    public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Writes request messages, topic messages and LAS payloads.
+     */
+    public static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer();
+
+    /**
+     * Reads the request item queue messages.
+     */
+    public static final ObjectReader ITEM_REQUEST_INFORMATION_READER = OBJECT_MAPPER.readerFor(ItemRequestInformation.class);
+
+    /**
+     * Reads the retrieval, EDD and recall topic messages.
+     */
+    public static final ObjectReader ITEM_INFORMATION_RESPONSE_READER = OBJECT_MAPPER.readerFor(ItemInformationResponse.class);
+
+    /**
+     * Reads the LAS status check queue messages.
+     */
+    public static final ObjectReader REQUEST_INFORMATION_READER = OBJECT_MAPPER.readerFor(RequestInformation.class);
+
+    /**
+     * Reads the LAS retrieval responses of the LAS incoming queue.
+     */
+    public static final ObjectReader GFA_RETRIEVE_ITEM_RESPONSE_READER = OBJECT_MAPPER.readerFor(GFARetrieveItemResponse.class);
+
+    /**
+     * Reads the LAS EDD responses of the LAS incoming queue.
+     */
+    public static final ObjectReader GFA_EDD_ITEM_RESPONSE_READER = OBJECT_MAPPER.readerFor(GFAEddItemResponse.class);
+
+    private JsonUtil() {
+    }
+}
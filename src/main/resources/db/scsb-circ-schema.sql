@@ -0,0 +1,33 @@
+-- Tables used by the circulation service, to be added to the SCSB schema scripts. The service does not run this script;
+-- the tables have to exist in the SCSB schema before a release which uses them is deployed.
+
+-- The number of chunks of a bulk request which are still to be processed, see BulkRequestProgressEntity
+CREATE TABLE bulk_request_progress_t (
+  BULK_REQUEST_ID INT NOT NULL,
+  PENDING_CHUNKS INT NOT NULL,
+  DISPATCHED BOOLEAN NOT NULL DEFAULT FALSE,
+  PRIMARY KEY (BULK_REQUEST_ID)
+);
+
+-- The chunks of barcodes published for a bulk request, see BulkRequestChunkEntity
+CREATE TABLE bulk_request_chunk_t (
+  CHUNK_ID INT NOT NULL AUTO_INCREMENT,
+  BULK_REQUEST_ID INT NOT NULL,
+  CHUNK_INDEX INT NOT NULL,
+  PROCESSED BOOLEAN NOT NULL DEFAULT FALSE,
+  PRIMARY KEY (CHUNK_ID),
+  UNIQUE (BULK_REQUEST_ID, CHUNK_INDEX)
+);
+
+-- The process status of each barcode of a bulk request, appended to its report on completion, see ItemRequestServiceUtil
+CREATE TABLE bulk_request_result_t (
+  RESULT_ID INT NOT NULL AUTO_INCREMENT,
+  BULK_REQUEST_ID INT NOT NULL,
+  ITEM_BARCODE VARCHAR(45),
+  CUSTOMER_CODE VARCHAR(45),
+  REQUEST_ID VARCHAR(45),
+  REQUEST_STATUS VARCHAR(255),
+  STATUS VARCHAR(2000),
+  PRIMARY KEY (RESULT_ID),
+  INDEX (BULK_REQUEST_ID, ITEM_BARCODE)
+);
@@ -6,6 +6,10 @@ import org.junit.Test;
 import org.mockito.Mock;
 
 
+import com.pkrete.jsip2.messages.responses.SIP2ItemInformationResponse;
+import com.pkrete.jsip2.messages.responses.SIP2RecallResponse;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 @Slf4j
 public class SIP2ResponseFactoryUT {
@@ -123,4 +127,18 @@ public class SIP2ResponseFactoryUT {
         assertTrue(true);
     }
 
+    @Test
+    public void createParsesByCommandIdentifier() throws Exception {
+        SIP2ResponseFactory sipResponseFactory = SIP2ResponseFactory.getInstance();
+        SIP2MessageResponse itemInformation = sipResponseFactory.create("18103000120261018    083000CF00000|AB33433001234567|AJThe history of the Hudson River valley|AQRECAP|AFItem available|AY8AZC0D7");
+        SIP2MessageResponse recall = sipResponseFactory.create("881N20261018    083000BSRECAP|AOPUL|AA45678912|AB33433001234567|AFRecall placed|AY5AZD3B7");
+
+        assertTrue(itemInformation instanceof SIP2ItemInformationResponse);
+        assertEquals("33433001234567", ((SIP2ItemInformationResponse) itemInformation).getItemIdentifier());
+        assertEquals("RECAP", ((SIP2ItemInformationResponse) itemInformation).getPermanentLocation());
+        assertTrue(recall instanceof SIP2RecallResponse);
+        assertEquals("45678912", ((SIP2RecallResponse) recall).getPatronIdentifier());
+        assertEquals("D3B7", recall.getCheckSum());
+    }
+
 }
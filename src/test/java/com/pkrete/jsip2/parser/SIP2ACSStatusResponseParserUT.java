@@ -0,0 +1,58 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2ACSStatusResponse;
+import com.pkrete.jsip2.variables.SupportedMessages;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2ACSStatusResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2ACSStatusResponseParser parser = new SIP2ACSStatusResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2ACSStatusResponse response = (SIP2ACSStatusResponse) parser.parse("98YYYNYN01000320261018    0830002.00AOPUL|AMPrinceton University Library|BXYYYYYYYYYYYYYYYY|ANRECAP|AFOnline|AY1AZEAC5");
+
+        assertTrue(response.isOnLineStatus());
+        assertTrue(response.isCheckinOk());
+        assertTrue(response.isCheckoutOk());
+        assertFalse(response.isILSRenewalPolicy());
+        assertTrue(response.isStatusUpdateOk());
+        assertFalse(response.isOfflineOk());
+        assertEquals(10, response.getTimeoutPeriod());
+        assertEquals(3, response.getRetriesAllowed());
+        assertEquals("20261018    083000", response.getDateTimeSync());
+        assertEquals("2.00", response.getProtocolVersion());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("Princeton University Library", response.getLibraryName());
+        SupportedMessages supportedMessages = response.getSupportedMessages();
+        assertTrue(supportedMessages.isPatronStatusRequest());
+        assertTrue(supportedMessages.isItemInformation());
+        assertTrue(supportedMessages.isRenew());
+        assertTrue(supportedMessages.isRenewAll());
+        assertEquals("RECAP", response.getTerminalLocation());
+        assertEquals(Collections.singletonList("Online"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(1, response.getSequence());
+        assertEquals("EAC5", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2ACSStatusResponse response = (SIP2ACSStatusResponse) parser.parse("98YYYNYN01000320261018    0830002.00AFOnline|AOPUL|AMPrinceton University Library|BXYYYYYYYYYYYYYYYN|AFOffline at 23:00|AGLine one|AGLine two|ANRECAP|AY2AZEAC4");
+
+        assertEquals(Arrays.asList("Online", "Offline at 23:00"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertFalse(response.getSupportedMessages().isRenewAll());
+        assertEquals("RECAP", response.getTerminalLocation());
+        assertEquals(2, response.getSequence());
+        assertEquals("EAC4", response.getCheckSum());
+    }
+}
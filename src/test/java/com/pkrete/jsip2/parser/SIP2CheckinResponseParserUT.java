@@ -0,0 +1,63 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2CheckinResponse;
+import com.pkrete.jsip2.variables.MediaType;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2CheckinResponseParserUT extends BaseTestCaseUT {
+
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+
+    private final SIP2CheckinResponseParser parser = new SIP2CheckinResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2CheckinResponse response = parser.parse("101YNN20261018    083000AOPUL|AB33433001234567|AQRECAP|AJ" + TITLE + "|CLB1|AA45678912|CK001|CSF128 .H8|CTRECAP|AFItem checked in|AY4AZD8A0");
+
+        assertTrue(response.isOk());
+        assertTrue(response.isResensitize());
+        assertTrue(response.isMagneticMediaSupported());
+        assertFalse(response.isMagneticMedia());
+        assertFalse(response.isAlert());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("33433001234567", response.getItemIdentifier());
+        assertEquals("RECAP", response.getPermanentLocation());
+        assertEquals(TITLE, response.getTitleIdentifier());
+        assertEquals("B1", response.getSortBin());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals(MediaType.BOOK, response.getMediaType());
+        assertEquals("F128 .H8", response.getCallNumber());
+        assertEquals("RECAP", response.getDestinationLocation());
+        assertNull(response.getItemProperties());
+        assertNull(response.getAlertType());
+        assertEquals(Collections.singletonList("Item checked in"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(4, response.getSequence());
+        assertEquals("D8A0", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2CheckinResponse response = parser.parse("100NUY20261018    083000AOPUL|AB33433001234567|AFItem not checked in|AQRECAP|AJ|AFItem on hold|AGLine one|AGLine two|AY5AZD8A1");
+
+        assertFalse(response.isOk());
+        assertFalse(response.isMagneticMediaSupported());
+        assertTrue(response.isAlert());
+        assertEquals("", response.getTitleIdentifier());
+        assertNull(response.getPatronIdentifier());
+        assertEquals(Arrays.asList("Item not checked in", "Item on hold"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(5, response.getSequence());
+        assertEquals("D8A1", response.getCheckSum());
+    }
+}
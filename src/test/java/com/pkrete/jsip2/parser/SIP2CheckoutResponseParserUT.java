@@ -0,0 +1,69 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2CheckoutResponse;
+import com.pkrete.jsip2.variables.CurrencyType;
+import com.pkrete.jsip2.variables.FeeType;
+import com.pkrete.jsip2.variables.MediaType;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2CheckoutResponseParserUT extends BaseTestCaseUT {
+
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+
+    private final SIP2CheckoutResponseParser parser = new SIP2CheckoutResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2CheckoutResponse response = parser.parse("121YNN20261018    083000AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|AH20261101    235900|BT01|CIN|BHUSD|BV0.00|CK001|BK12345|AFCheckout successful|AY5AZC1E2");
+
+        assertTrue(response.isOk());
+        assertTrue(response.isRenewalOk());
+        assertTrue(response.isMagneticMediaSupported());
+        assertFalse(response.isMagneticMedia());
+        assertTrue(response.isDesensitizeSupported());
+        assertFalse(response.isDesensitize());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("33433001234567", response.getItemIdentifier());
+        assertEquals(TITLE, response.getTitleIdentifier());
+        assertEquals("20261101    235900", response.getDueDate());
+        assertEquals(FeeType.OTHER_UNKNONW, response.getFeeType());
+        assertTrue(response.isSecurityInhibitUsed());
+        assertFalse(response.isSecurityInhibit());
+        assertEquals(CurrencyType.US_DOLLAR, response.getCurrencyType());
+        assertEquals("0.00", response.getFeeAmount());
+        assertEquals(MediaType.BOOK, response.getMediaType());
+        assertEquals("12345", response.getTransactionId());
+        assertNull(response.getItemProperties());
+        assertEquals(Collections.singletonList("Checkout successful"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(5, response.getSequence());
+        assertEquals("C1E2", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2CheckoutResponse response = parser.parse("120NUU20261018    083000AOPUL|AA45678912|AFItem not checked out|AB33433001234567|AJ|AH|AFPatron blocked|AGLine one|AGLine two|AY6AZC1E1");
+
+        assertFalse(response.isOk());
+        assertFalse(response.isRenewalOk());
+        assertFalse(response.isMagneticMediaSupported());
+        assertFalse(response.isDesensitizeSupported());
+        assertFalse(response.isSecurityInhibitUsed());
+        assertNull(response.getFeeAmount());
+        assertEquals(Arrays.asList("Item not checked out", "Patron blocked"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(6, response.getSequence());
+        assertEquals("C1E1", response.getCheckSum());
+    }
+}
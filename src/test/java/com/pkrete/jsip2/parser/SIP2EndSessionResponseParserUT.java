@@ -0,0 +1,43 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2EndSessionResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2EndSessionResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2EndSessionResponseParser parser = new SIP2EndSessionResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2EndSessionResponse response = parser.parse("36Y20261018    083000AOPUL|AA45678912|AFSession ended|AY6AZE9B1");
+
+        assertTrue(response.isEndSession());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals(Collections.singletonList("Session ended"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(6, response.getSequence());
+        assertEquals("E9B1", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2EndSessionResponse response = parser.parse("36N20261018    083000AFSession not ended|AOPUL|AA45678912|AFPatron unknown|AGLine one|AGLine two|AY7AZE9B0");
+
+        assertFalse(response.isEndSession());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals(Arrays.asList("Session not ended", "Patron unknown"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(7, response.getSequence());
+        assertEquals("E9B0", response.getCheckSum());
+    }
+}
@@ -0,0 +1,45 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2FeePaidResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2FeePaidResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2FeePaidResponseParser parser = new SIP2FeePaidResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2FeePaidResponse response = parser.parse("38Y20261018    083000AOPUL|AA45678912|BK98765|AFFee paid|AY7AZE5C4");
+
+        assertTrue(response.isPaymentAccepted());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("98765", response.getTransactionId());
+        assertEquals(Collections.singletonList("Fee paid"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(7, response.getSequence());
+        assertEquals("E5C4", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2FeePaidResponse response = parser.parse("38N20261018    083000AOPUL|AFPayment not accepted|AA45678912|AFAmount exceeds fees|AGLine one|AGLine two|AY8AZE5C3");
+
+        assertFalse(response.isPaymentAccepted());
+        assertNull(response.getTransactionId());
+        assertEquals(Arrays.asList("Payment not accepted", "Amount exceeds fees"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(8, response.getSequence());
+        assertEquals("E5C3", response.getCheckSum());
+    }
+}
@@ -0,0 +1,80 @@
+package com.pkrete.jsip2.parser;
+
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2FieldTokenizerUT extends BaseTestCaseUT {
+
+    private static final String RECALL_RESPONSE = "881N20261018    083000BW20261201    235900|BSRECAP|AOPUL|AA45678912|AB33433001234567|AJ|AFRecall placed|AFPickup at RECAP|AY5AZD3B7";
+
+    @Test
+    public void readsFieldsById() {
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer(RECALL_RESPONSE, 22);
+        assertEquals("20261201    235900", fields.getValue("BW"));
+        assertEquals("PUL", fields.getValue("AO"));
+        assertEquals("33433001234567", fields.getValue("AB"));
+        assertEquals("", fields.getValue("MA"));
+        assertNull(fields.getOptionalValue("MA"));
+        assertNull(fields.getOptionalValue("AJ"));
+        assertTrue(fields.exists("AJ"));
+        assertFalse(fields.hasValue("AJ"));
+        assertTrue(fields.hasValue("BS"));
+        assertEquals(Arrays.asList("Recall placed", "Pickup at RECAP"), fields.getValues("AF"));
+        assertEquals(Collections.emptyList(), fields.getValues("AG"));
+    }
+
+    @Test
+    public void readsErrorDetectionFields() {
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer(RECALL_RESPONSE, 22);
+        assertEquals("5", fields.getSequence());
+        assertEquals("D3B7", fields.getChecksum());
+        assertFalse(fields.exists("AY"));
+
+        SIP2FieldTokenizer withoutErrorDetection = new SIP2FieldTokenizer("36Y20261018    083000AOPUL|AA45678912|", 21);
+        assertEquals("", withoutErrorDetection.getSequence());
+        assertEquals("", withoutErrorDetection.getChecksum());
+        assertEquals("45678912", withoutErrorDetection.getValue("AA"));
+
+        SIP2FieldTokenizer withoutFields = new SIP2FieldTokenizer("941AY0AZFDFC", 3);
+        assertEquals("0", withoutFields.getSequence());
+        assertEquals("FDFC", withoutFields.getChecksum());
+    }
+
+    @Test
+    public void readsSegmentsByPosition() {
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer("821MJ8967832|MA12040035|AY|", 0);
+        assertEquals("12040035", fields.getSegmentValue(1));
+        assertEquals("", fields.getSegmentValue(2));
+        assertEquals("", fields.getSegmentValue(5));
+        assertEquals("", fields.getSequence());
+    }
+
+    @Test
+    public void toleratesShortMessages() {
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer("88", 22);
+        assertEquals("", fields.getValue("AO"));
+        assertTrue(fields.getValues("AF").isEmpty());
+        assertEquals("", fields.getChecksum());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        StringBuilder message = new StringBuilder("64");
+        for (int i = 0; i < 40; i++) {
+            message.append("AU").append(i).append('|');
+        }
+        message.append("AOPUL|");
+        SIP2FieldTokenizer fields = new SIP2FieldTokenizer(message.toString(), 2);
+        assertEquals(40, fields.getValues("AU").size());
+        assertEquals("39", fields.getValues("AU").get(39));
+        assertEquals("PUL", fields.getValue("AO"));
+    }
+}
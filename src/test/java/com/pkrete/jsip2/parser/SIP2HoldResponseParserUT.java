@@ -0,0 +1,57 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2HoldResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2HoldResponseParserUT extends BaseTestCaseUT {
+
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+
+    private final SIP2HoldResponseParser parser = new SIP2HoldResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2HoldResponse response = parser.parse("161N20261018    083000BW20261201    235900|BR1|BSRECAP|AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|MA99123456|AFHold placed|AY1AZD9C3");
+
+        assertTrue(response.isOk());
+        assertFalse(response.isAvailable());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("20261201    235900", response.getExpirationDate());
+        assertEquals("1", response.getQueuePosition());
+        assertEquals("RECAP", response.getPickupLocation());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("33433001234567", response.getItemIdentifier());
+        assertEquals(TITLE, response.getTitleIdentifier());
+        assertEquals("99123456", response.getBibId());
+        assertNull(response.getIsbn());
+        assertNull(response.getLccn());
+        assertEquals(Collections.singletonList("Hold placed"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(1, response.getSequence());
+        assertEquals("D9C3", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2HoldResponse response = parser.parse("160Y20261018    083000AOPUL|AFHold not placed|AA45678912|AB|AFItem available|AGLine one|AGLine two|AY2AZD9C2");
+
+        assertFalse(response.isOk());
+        assertTrue(response.isAvailable());
+        assertNull(response.getExpirationDate());
+        assertNull(response.getItemIdentifier());
+        assertEquals(Arrays.asList("Hold not placed", "Item available"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(2, response.getSequence());
+        assertEquals("D9C2", response.getCheckSum());
+    }
+}
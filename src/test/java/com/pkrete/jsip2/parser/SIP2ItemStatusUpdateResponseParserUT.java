@@ -0,0 +1,48 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2ItemStatusUpdateResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2ItemStatusUpdateResponseParserUT extends BaseTestCaseUT {
+
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+
+    private final SIP2ItemStatusUpdateResponseParser parser = new SIP2ItemStatusUpdateResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2ItemStatusUpdateResponse response = parser.parse("20120261018    083000AB33433001234567|AJ" + TITLE + "|CHDo not circulate|AFItem updated|AY9AZE2A1");
+
+        assertTrue(response.isItemPropertiesOk());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("33433001234567", response.getItemIdentifier());
+        assertEquals(TITLE, response.getTitleIdentifier());
+        assertEquals("Do not circulate", response.getItemProperties());
+        assertEquals(Collections.singletonList("Item updated"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(9, response.getSequence());
+        assertEquals("E2A1", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2ItemStatusUpdateResponse response = parser.parse("20020261018    083000AB33433001234567|AFItem not updated|AJ|AFUnknown item|AGLine one|AGLine two|AY0AZE2A0");
+
+        assertFalse(response.isItemPropertiesOk());
+        assertNull(response.getTitleIdentifier());
+        assertNull(response.getItemProperties());
+        assertEquals(Arrays.asList("Item not updated", "Unknown item"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(0, response.getSequence());
+        assertEquals("E2A0", response.getCheckSum());
+    }
+}
@@ -0,0 +1,32 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.SIP2MessageResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2LoginResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2LoginResponseParser parser = new SIP2LoginResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2MessageResponse response = parser.parse("941AY0AZFDFC");
+
+        assertTrue(response.isOk());
+        assertEquals(0, response.getSequence());
+        assertEquals("FDFC", response.getCheckSum());
+    }
+
+    @Test
+    public void parseFailedLoginWithoutErrorDetection() throws Exception {
+        SIP2MessageResponse response = parser.parse("940");
+
+        assertFalse(response.isOk());
+        assertEquals(-1, response.getSequence());
+        assertEquals("", response.getCheckSum());
+    }
+}
@@ -0,0 +1,52 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2PatronEnableResponse;
+import com.pkrete.jsip2.variables.Language;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2PatronEnableResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2PatronEnableResponseParser parser = new SIP2PatronEnableResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2PatronEnableResponse response = parser.parse("26              00120261018    083000AOPUL|AA45678912|AEDoe, Jane|BLY|CQY|AFPatron enabled|AY0AZE3B2");
+
+        assertFalse(response.getStatus().isChargePrivilegesDenied());
+        assertFalse(response.getStatus().isTooManyItemsBilled());
+        assertEquals(Language.ENGLISH, response.getLanguage());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("Doe, Jane", response.getPersonalName());
+        assertTrue(response.isValidPatron());
+        assertTrue(response.isValidPatronUsed());
+        assertTrue(response.isValidPatronPassword());
+        assertTrue(response.isValidPatronPasswordUsed());
+        assertEquals(Collections.singletonList("Patron enabled"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(0, response.getSequence());
+        assertEquals("E3B2", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2PatronEnableResponse response = parser.parse("26Y            Y00120261018    083000AOPUL|AFPatron not enabled|AA45678912|AEDoe, Jane|AFFines due|AGLine one|AGLine two|AY1AZE3B1");
+
+        assertTrue(response.getStatus().isChargePrivilegesDenied());
+        assertTrue(response.getStatus().isTooManyItemsBilled());
+        assertFalse(response.isValidPatronUsed());
+        assertEquals(Arrays.asList("Patron not enabled", "Fines due"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(1, response.getSequence());
+        assertEquals("E3B1", response.getCheckSum());
+    }
+}
@@ -0,0 +1,68 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2PatronInformationResponse;
+import com.pkrete.jsip2.variables.CurrencyType;
+import com.pkrete.jsip2.variables.ItemType;
+import com.pkrete.jsip2.variables.Language;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2PatronInformationResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2PatronInformationResponseParser parser = new SIP2PatronInformationResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2PatronInformationResponse response = (SIP2PatronInformationResponse) parser.parse("64              00120261018    083000000000010003000000000000AOPUL|AA45678912|AEDoe, Jane|BZ0010|CA0005|CB0100|BLY|CQY|BHUSD|BV0.00|CC10.00|AU33433001234567|AU33433001234568|AU33433001234569|BEpatron@example.org|BF609-555-0100|PTFaculty|AFPatron information ok|AY3AZD2F1");
+
+        assertFalse(response.getStatus().isChargePrivilegesDenied());
+        assertEquals(Language.ENGLISH, response.getLanguage());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals(0, response.getHoldItemsCount());
+        assertEquals(1, response.getOverdueItemsCount());
+        assertEquals(3, response.getChargedItemsCount());
+        assertEquals(0, response.getFineItemsCount());
+        assertEquals(0, response.getRecallItemsCount());
+        assertEquals(0, response.getUnavailableHoldsCount());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("Doe, Jane", response.getPersonalName());
+        assertEquals(10, response.getHoldItemsLimit());
+        assertEquals(5, response.getOverdueItemsLimit());
+        assertEquals(100, response.getChargedItemsLimit());
+        assertTrue(response.isValidPatron());
+        assertTrue(response.isValidPatronPassword());
+        assertEquals(CurrencyType.US_DOLLAR, response.getCurrencyType());
+        assertEquals("0.00", response.getFeeAmount());
+        assertEquals("10.00", response.getFeeLimit());
+        assertEquals(ItemType.CHARGED, response.getItemType());
+        assertEquals(Arrays.asList("33433001234567", "33433001234568", "33433001234569"), response.getItems());
+        assertEquals("patron@example.org", response.getEmail());
+        assertEquals("609-555-0100", response.getPhone());
+        assertEquals("Faculty", response.getPatronGroup());
+        assertNull(response.getHomeAddress());
+        assertEquals(Collections.singletonList("Patron information ok"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(3, response.getSequence());
+        assertEquals("D2F1", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2PatronInformationResponse response = (SIP2PatronInformationResponse) parser.parse("64              00120261018    083000000000010003000000000000AOPUL|AA45678912|AEDoe, Jane|AU33433001234567|AFPatron information ok|BLY|AU33433001234568|AFFines due|AGLine one|AGLine two|AY4AZD2F0");
+
+        assertEquals(Arrays.asList("33433001234567", "33433001234568"), response.getItems());
+        assertEquals(Arrays.asList("Patron information ok", "Fines due"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(4, response.getSequence());
+        assertEquals("D2F0", response.getCheckSum());
+    }
+}
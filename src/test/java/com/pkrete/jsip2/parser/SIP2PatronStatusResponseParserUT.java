@@ -0,0 +1,57 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2PatronStatusResponse;
+import com.pkrete.jsip2.variables.CurrencyType;
+import com.pkrete.jsip2.variables.Language;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2PatronStatusResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2PatronStatusResponseParser parser = new SIP2PatronStatusResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2PatronStatusResponse response = (SIP2PatronStatusResponse) parser.parse("24              00120261018    083000AOPUL|AA45678912|AEDoe, Jane|BLY|CQY|BHUSD|BV0.00|AFPatron status ok|AY2AZE1B3");
+
+        assertFalse(response.getStatus().isChargePrivilegesDenied());
+        assertFalse(response.getStatus().isRenewalPrivilegesDenied());
+        assertEquals(Language.ENGLISH, response.getLanguage());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("Doe, Jane", response.getPersonalName());
+        assertTrue(response.isValidPatron());
+        assertTrue(response.isValidPatronUsed());
+        assertTrue(response.isValidPatronPassword());
+        assertTrue(response.isValidPatronPasswordUsed());
+        assertEquals(CurrencyType.US_DOLLAR, response.getCurrencyType());
+        assertEquals("0.00", response.getFeeAmount());
+        assertEquals(Collections.singletonList("Patron status ok"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(2, response.getSequence());
+        assertEquals("E1B3", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2PatronStatusResponse response = (SIP2PatronStatusResponse) parser.parse("24 Y            00120261018    083000AOPUL|AA45678912|AEDoe, Jane|AFPatron status ok|BLN|AFCard expires soon|AGLine one|AGLine two|AY3AZE1B2");
+
+        assertTrue(response.getStatus().isRenewalPrivilegesDenied());
+        assertFalse(response.getStatus().isRecallPrivilegesDenied());
+        assertFalse(response.isValidPatron());
+        assertTrue(response.isValidPatronUsed());
+        assertFalse(response.isValidPatronPasswordUsed());
+        assertEquals(Arrays.asList("Patron status ok", "Card expires soon"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(3, response.getSequence());
+        assertEquals("E1B2", response.getCheckSum());
+    }
+}
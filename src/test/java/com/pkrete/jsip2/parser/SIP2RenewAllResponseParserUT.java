@@ -0,0 +1,49 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2RenewAllResponse;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2RenewAllResponseParserUT extends BaseTestCaseUT {
+
+    private final SIP2RenewAllResponseParser parser = new SIP2RenewAllResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2RenewAllResponse response = parser.parse("6610001000020261018    083000AOPUL|BM33433001234567|BN33433001234568|AFRenew all|AY3AZE0F5");
+
+        assertTrue(response.isOk());
+        assertEquals(1, response.getRenewedCount());
+        assertEquals(0, response.getUnrenewedCount());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals(Collections.singletonList("33433001234567"), response.getRenewedItems());
+        assertEquals(Collections.singletonList("33433001234568"), response.getUnrenewedItems());
+        assertEquals(Collections.singletonList("Renew all"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(3, response.getSequence());
+        assertEquals("E0F5", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2RenewAllResponse response = parser.parse("6600002000220261018    083000AOPUL|BM33433001234567|AFRenewed 2 of 4|BN33433001234568|BM33433001234569|BN33433001234570|AFRenewal limit reached|AGLine one|AGLine two|AY4AZE0F4");
+
+        assertFalse(response.isOk());
+        assertEquals(2, response.getRenewedCount());
+        assertEquals(2, response.getUnrenewedCount());
+        assertEquals(Arrays.asList("33433001234567", "33433001234569"), response.getRenewedItems());
+        assertEquals(Arrays.asList("33433001234568", "33433001234570"), response.getUnrenewedItems());
+        assertEquals(Arrays.asList("Renewed 2 of 4", "Renewal limit reached"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(4, response.getSequence());
+        assertEquals("E0F4", response.getCheckSum());
+    }
+}
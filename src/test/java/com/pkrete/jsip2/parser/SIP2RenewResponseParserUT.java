@@ -0,0 +1,62 @@
+package com.pkrete.jsip2.parser;
+
+import com.pkrete.jsip2.messages.responses.SIP2RenewResponse;
+import com.pkrete.jsip2.variables.CurrencyType;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2RenewResponseParserUT extends BaseTestCaseUT {
+
+    private static final String TITLE = "The history of the Hudson River valley, from Cohoes to the sea";
+
+    private final SIP2RenewResponseParser parser = new SIP2RenewResponseParser();
+
+    @Test
+    public void parseResponse() throws Exception {
+        SIP2RenewResponse response = parser.parse("301YNN20261018    083000AOPUL|AA45678912|AB33433001234567|AJ" + TITLE + "|AH20261201    235900|BHUSD|BV0.00|AFRenewed|AY2AZD1E4");
+
+        assertTrue(response.isOk());
+        assertTrue(response.isRenewalOk());
+        assertTrue(response.isMagneticMediaSupported());
+        assertFalse(response.isMagneticMedia());
+        assertTrue(response.isDesensitizeSupported());
+        assertFalse(response.isDesensitize());
+        assertEquals("20261018    083000", response.getTransactionDate());
+        assertEquals("PUL", response.getInstitutionId());
+        assertEquals("45678912", response.getPatronIdentifier());
+        assertEquals("33433001234567", response.getItemIdentifier());
+        assertEquals(TITLE, response.getTitleIdentifier());
+        assertEquals("20261201    235900", response.getDueDate());
+        assertEquals(CurrencyType.US_DOLLAR, response.getCurrencyType());
+        assertEquals("0.00", response.getFeeAmount());
+        assertNull(response.getFeeType());
+        assertNull(response.getMediaType());
+        assertNull(response.getTransactionId());
+        assertEquals(Collections.singletonList("Renewed"), response.getScreenMessage());
+        assertEquals(Collections.emptyList(), response.getPrintLine());
+        assertEquals(2, response.getSequence());
+        assertEquals("D1E4", response.getCheckSum());
+    }
+
+    @Test
+    public void parseRepeatedScreenMessagesAndPrintLines() throws Exception {
+        SIP2RenewResponse response = parser.parse("300NUU20261018    083000AOPUL|AA45678912|AFItem not renewed|AB33433001234567|AJ|AH|AFRenewal limit reached|AGLine one|AGLine two|AY3AZD1E3");
+
+        assertFalse(response.isOk());
+        assertFalse(response.isRenewalOk());
+        assertFalse(response.isMagneticMediaSupported());
+        assertFalse(response.isDesensitizeSupported());
+        assertEquals(Arrays.asList("Item not renewed", "Renewal limit reached"), response.getScreenMessage());
+        assertEquals(Arrays.asList("Line one", "Line two"), response.getPrintLine());
+        assertEquals(3, response.getSequence());
+        assertEquals("D1E3", response.getCheckSum());
+    }
+}
@@ -1,13 +1,25 @@
 package org.recap.activemq;
 
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
 import org.apache.camel.CamelContext;
+import org.apache.camel.component.activemq.ActiveMQComponent;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.recap.BaseTestCaseUT;
+import org.recap.ScsbCommonConstants;
 
 import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.Session;
+import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 
 public class ActivemqRegistrarUT extends BaseTestCaseUT {
 
@@ -15,7 +27,46 @@ public class ActivemqRegistrarUT extends BaseTestCaseUT {
     public void testActivemqRegistrar() throws JMSException {
         String brokerUrl = "tcp://localhost:61616";
         CamelContext ctx = new DefaultCamelContext();
-        ActivemqRegistrar activemqRegistrar = new ActivemqRegistrar(ctx, brokerUrl);
+        ActivemqRegistrar activemqRegistrar = new ActivemqRegistrar(ctx, brokerUrl, 4, 100, 50, 500, "RequestItemQ:20", "CACHE_CONSUMER", true, true);
         assertNotNull(activemqRegistrar);
+        ActiveMQComponent activeMQComponent = (ActiveMQComponent) ctx.getComponent(ScsbCommonConstants.SCSB_ACTIVEMQ_COMPONENT_NAME);
+        assertEquals(activemqRegistrar.getPooledConnectionFactory(), activeMQComponent.getConfiguration().getConnectionFactory());
+        assertEquals("CACHE_CONSUMER", activeMQComponent.getConfiguration().getCacheLevelName());
+        assertTrue(activeMQComponent.getConfiguration().isTransacted());
+        assertEquals(4, activemqRegistrar.getPooledConnectionFactory().getMaxConnections());
+        assertEquals(100, activemqRegistrar.getPooledConnectionFactory().getMaximumActiveSessionPerConnection());
+        activemqRegistrar.stop();
+    }
+
+    @Test
+    public void connectionFactoryPrefetchAndBatchAcknowledge() {
+        ActiveMQConnectionFactory connectionFactory = ActivemqRegistrar.createConnectionFactory("vm://localhost", 50, 500, true);
+        assertEquals(50, connectionFactory.getPrefetchPolicy().getQueuePrefetch());
+        assertEquals(500, connectionFactory.getPrefetchPolicy().getTopicPrefetch());
+        assertTrue(connectionFactory.isOptimizeAcknowledge());
+        assertFalse(ActivemqRegistrar.createConnectionFactory("vm://localhost", 50, 500, false).isOptimizeAcknowledge());
+    }
+
+    @Test
+    public void parseDestinationPrefetch() {
+        Map<String, Integer> prefetchByDestination = ActivemqRegistrar.parseDestinationPrefetch("RequestItemQ:20, lasIncomingQ : 50,invalid");
+        assertEquals(2, prefetchByDestination.size());
+        assertEquals(Integer.valueOf(20), prefetchByDestination.get("RequestItemQ"));
+        assertEquals(Integer.valueOf(50), prefetchByDestination.get("lasIncomingQ"));
+        assertTrue(ActivemqRegistrar.parseDestinationPrefetch("").isEmpty());
+    }
+
+    @Test
+    public void destinationResolverAppliesDestinationPrefetch() throws JMSException {
+        Session session = Mockito.mock(Session.class);
+        Mockito.when(session.createQueue(anyString())).thenAnswer(invocation -> new ActiveMQQueue(invocation.getArgument(0)));
+        ActivemqRegistrar.PrefetchDestinationResolver destinationResolver = new ActivemqRegistrar.PrefetchDestinationResolver(ActivemqRegistrar.parseDestinationPrefetch("RequestItemQ:20"));
+
+        ActiveMQQueue prefetchQueue = (ActiveMQQueue) destinationResolver.resolveDestinationName(session, "RequestItemQ", false);
+        Queue defaultQueue = (Queue) destinationResolver.resolveDestinationName(session, "lasIncomingQ", false);
+
+        assertEquals("RequestItemQ", prefetchQueue.getQueueName());
+        assertEquals("20", prefetchQueue.getOptions().get("consumer.prefetchSize"));
+        assertEquals("lasIncomingQ", defaultQueue.getQueueName());
     }
 }
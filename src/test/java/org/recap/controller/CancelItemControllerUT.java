@@ -1,5 +1,7 @@
 package org.recap.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -15,6 +17,7 @@ import org.recap.model.CancelRequestResponse;
 import org.recap.model.jpa.*;
 import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.request.service.EmailService;
 import org.recap.request.service.ItemRequestService;
 import org.recap.util.CommonUtil;
@@ -26,6 +29,8 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.Optional;
 import java.util.Random;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
+import org.recap.request.util.RequestLifecycleMetrics;
 
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -65,6 +70,22 @@ public class CancelItemControllerUT extends BaseTestCaseUT {
     @Mock
     ItemInformationResponse itemInformationResponse;
 
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @InjectMocks
+    RequestLifecycleMetrics requestLifecycleMetrics;
+
+    @Before
+    public void setUpReferenceDataCache() {
+        ReflectionTestUtils.setField(cancelItemController, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(requestLifecycleMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cancelItemController, "requestLifecycleMetrics", requestLifecycleMetrics);
+    }
+
     @Test
     public void testCancelRequest() throws Exception {
         RequestItemEntity requestItemEntity = createRequestItem();
@@ -0,0 +1,40 @@
+package org.recap.controller;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbCommonConstants;
+import org.recap.service.common.ReferenceDataCache;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReferenceDataCacheControllerUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    ReferenceDataCacheController referenceDataCacheController;
+
+    @Mock
+    ReferenceDataCache referenceDataCache;
+
+    @Test
+    public void refresh() {
+        Mockito.when(referenceDataCache.refresh()).thenReturn(true);
+        assertEquals(ScsbCommonConstants.SUCCESS, referenceDataCacheController.refresh());
+    }
+
+    @Test
+    public void refreshFailed() {
+        Mockito.when(referenceDataCache.refresh()).thenReturn(false);
+        assertEquals(ScsbCommonConstants.FAILURE, referenceDataCacheController.refresh());
+    }
+
+    @Test
+    public void getSizes() {
+        Mockito.when(referenceDataCache.getSizes()).thenReturn(Collections.singletonMap("institutions", 3));
+        assertEquals(Integer.valueOf(3), referenceDataCacheController.getSizes().get("institutions"));
+    }
+}
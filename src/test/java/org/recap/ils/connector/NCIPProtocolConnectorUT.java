@@ -271,7 +271,7 @@ public class NCIPProtocolConnectorUT extends BaseTestCaseUT {
         CheckInItemInitiationData checkInItemInitiationData = new CheckInItemInitiationData();
         getMockedResponse();
         Mockito.when(statusLine.getStatusCode()).thenReturn(400);
-        Mockito.when(checkinItem.getRequestBody(any(),any())).thenReturn(checkInItem.toString());
+        Mockito.when(checkinItem.getRequestBody(any(),any())).thenReturn(checkInItem.toString().getBytes(StandardCharsets.UTF_8));
         ncipProtocolConnector.getCheckinResponse(checkinItem,checkInItemInitiationData);
     }
 
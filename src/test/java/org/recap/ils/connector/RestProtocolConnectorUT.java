@@ -194,6 +194,25 @@ public class RestProtocolConnectorUT extends BaseTestCaseUT {
         restProtocolConnector.queryForJob(jobId);
     }
 
+    @Test
+    public void queryForJobRetriesOnceWithNewTokenWhenUnauthorized() throws Exception {
+        String jobId = "1";
+        restProtocolConnector.setInstitution("NYPL");
+        ResponseEntity<JobResponse> responseEntity = new ResponseEntity<JobResponse>(getJobResponse(), HttpStatus.OK);
+        when(restOauthTokenApiService.getAccessTokenForRestApi(any(), any(), any(), any())).thenReturn("expired", "renewed");
+        doThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", new HttpHeaders(), null, null))
+                .doReturn(responseEntity)
+                .when(restTemplate).exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<JobResponse>>any());
+        JobResponse jobResponse = restProtocolConnector.queryForJob(jobId);
+        assertNotNull(jobResponse);
+        verify(restOauthTokenApiService, times(1)).invalidateAccessToken("NYPL");
+        verify(restTemplate, times(2)).exchange(ArgumentMatchers.anyString(), ArgumentMatchers.any(HttpMethod.class), ArgumentMatchers.any(), ArgumentMatchers.<Class<JobResponse>>any());
+    }
+
     @Test
     public void checkOutItem() throws Exception {
         String itemIdentifier = "236784";
@@ -1,6 +1,7 @@
 package org.recap.ils.connector;
 
 import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
 import com.pkrete.jsip2.messages.requests.*;
 import com.pkrete.jsip2.messages.responses.*;
 import com.pkrete.jsip2.variables.*;
@@ -17,16 +18,22 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.recap.ScsbConstants;
+import org.recap.ils.protocol.sip.SIP2SessionPoolManager;
+import org.recap.model.AbstractResponseItem;
 import org.recap.model.ILSConfigProperties;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.util.PropertyUtil;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 
 //import static java.net.SocketPermission.getHost;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 //import static sun.print.CUPSPrinter.getPort;
 
@@ -151,6 +158,123 @@ public class SIPProtocolConnectorUT {
 
     }
 
+    @Test
+    public void lookupItemWithPooledSession() throws Exception {
+        String itemIdentifier = "2133566";
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2ItemInformationResponse sip2ItemInformationResponse = getSIP2ItemInformationResponse();
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.borrow("TEST", ilsConfigProperties)).thenReturn(sip2SocketConnection);
+        Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(true);
+        Mockito.when(sip2SocketConnection.send(any(SIP2ItemInformationRequest.class))).thenReturn(sip2ItemInformationResponse);
+        sipProtocolConnector.lookupItem(itemIdentifier);
+        Mockito.verify(sip2SocketConnection, Mockito.never()).send(any(SIP2LoginRequest.class));
+        Mockito.verify(sip2SocketConnection, Mockito.never()).close();
+        Mockito.verify(sip2SessionPoolManager).release("TEST", sip2SocketConnection);
+    }
+
+    @Test
+    public void jSIPLoginReleasesBorrowedSession() throws Exception {
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2PatronInformationResponse sip2PatronInformationResponse = new SIP2PatronInformationResponse("940");
+        sip2PatronInformationResponse.setValidPatron(true);
+        sip2PatronInformationResponse.setValidPatronPassword(true);
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.borrow("TEST", ilsConfigProperties)).thenReturn(sip2SocketConnection);
+        Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(true);
+        Mockito.when(sip2SocketConnection.send(any(SIP2PatronInformationRequest.class))).thenReturn(sip2PatronInformationResponse);
+        assertTrue(sipProtocolConnector.jSIPLogin(null, "123456"));
+        Mockito.verify(sip2SessionPoolManager).release("TEST", sip2SocketConnection);
+    }
+
+    @Test
+    public void jSIPLoginKeepsGivenSession() throws Exception {
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2PatronInformationResponse sip2PatronInformationResponse = new SIP2PatronInformationResponse("940");
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(true);
+        Mockito.when(sip2SocketConnection.send(any(SIP2PatronInformationRequest.class))).thenReturn(sip2PatronInformationResponse);
+        assertFalse(sipProtocolConnector.jSIPLogin(sip2SocketConnection, "123456"));
+        Mockito.verify(sip2SessionPoolManager, Mockito.never()).release(any(), any());
+        Mockito.verify(sip2SocketConnection, Mockito.never()).close();
+    }
+
+    @Test
+    public void checkInItemInvalidatesPooledSessionOnRuntimeException() throws Exception {
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.borrow("TEST", ilsConfigProperties)).thenReturn(sip2SocketConnection);
+        Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(false);
+            return null;
+        }).when(sip2SessionPoolManager).invalidate("TEST", sip2SocketConnection);
+        Mockito.when(sip2SocketConnection.send(any(SIP2SCStatusRequest.class))).thenThrow(new IllegalStateException("Connection reset"));
+        try {
+            sipProtocolConnector.checkInItem(getItemRequestInformation(), "123456");
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Connection reset", e.getMessage());
+        }
+        Mockito.verify(sip2SessionPoolManager).invalidate("TEST", sip2SocketConnection);
+        Mockito.verify(sip2SessionPoolManager, Mockito.never()).release("TEST", sip2SocketConnection);
+    }
+
+    @Test
+    public void lookupItemWithExhaustedPool() throws Exception {
+        String itemIdentifier = "2133566";
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.borrow("TEST", ilsConfigProperties)).thenReturn(null);
+        String patronIdentifier = "123456";
+        AbstractResponseItem itemCheckoutResponse = sipProtocolConnector.checkOutItem(itemIdentifier, 1, patronIdentifier);
+        assertFalse(itemCheckoutResponse.isSuccess());
+        assertEquals(ScsbConstants.NO_SIP2_SESSION_AVAILABLE, itemCheckoutResponse.getScreenMessage());
+        AbstractResponseItem itemInformationResponse = sipProtocolConnector.lookupItem(itemIdentifier);
+        assertFalse(itemInformationResponse.isSuccess());
+        assertEquals(ScsbConstants.NO_SIP2_SESSION_AVAILABLE, itemInformationResponse.getScreenMessage());
+        assertFalse(sipProtocolConnector.checkSocketConnection());
+        Mockito.verify(sip2SessionPoolManager, Mockito.never()).release(any(), any());
+    }
+
+    @Test
+    public void lookupPatronWithPooledSession() throws Exception {
+        ILSConfigProperties ilsConfigProperties = getIlsConfigProperties();
+        sipProtocolConnector.setInstitution("TEST");
+        sipProtocolConnector.setIlsConfigProperties(ilsConfigProperties);
+        SIP2SessionPoolManager sip2SessionPoolManager = Mockito.mock(SIP2SessionPoolManager.class);
+        ReflectionTestUtils.setField(sipProtocolConnector, "sip2SessionPoolManager", sip2SessionPoolManager);
+        Mockito.when(sip2SessionPoolManager.isPoolingEnabled("TEST")).thenReturn(true);
+        Mockito.when(sip2SessionPoolManager.borrow("TEST", ilsConfigProperties)).thenReturn(sip2SocketConnection);
+        Mockito.when(sip2SessionPoolManager.isPooled("TEST", sip2SocketConnection)).thenReturn(true);
+        Mockito.when(sip2SocketConnection.send(any(SIP2PatronInformationRequest.class))).thenThrow(new InvalidSIP2ResponseException("Invalid response"));
+        sipProtocolConnector.lookupPatron("123456");
+        Mockito.verify(sip2SocketConnection, Mockito.never()).connect();
+        Mockito.verify(sip2SocketConnection, Mockito.never()).send(any(SIP2LoginRequest.class));
+        Mockito.verify(sip2SocketConnection).send(any(SIP2PatronInformationRequest.class));
+        Mockito.verify(sip2SessionPoolManager).invalidate("TEST", sip2SocketConnection);
+    }
+
     @Test
     public void checkOutItem() throws Exception {
         String itemIdentifier = "1456883";
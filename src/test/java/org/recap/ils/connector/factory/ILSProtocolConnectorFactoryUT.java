@@ -2,27 +2,15 @@ package org.recap.ils.connector.factory;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.recap.BaseTestCaseUT;
 import org.recap.ils.connector.AbstractProtocolConnector;
-import org.recap.ils.connector.NCIPProtocolConnector;
-import org.recap.ils.connector.factory.ILSProtocolConnectorFactory;
-import org.recap.ils.protocol.rest.model.response.CheckoutResponse;
-import org.recap.model.ILSConfigProperties;
-import org.recap.util.PropertyUtil;
-import org.springframework.context.ApplicationContext;
-import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-
-import static org.junit.Assert.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class ILSProtocolConnectorFactoryUT extends BaseTestCaseUT {
@@ -31,64 +19,19 @@ public class ILSProtocolConnectorFactoryUT extends BaseTestCaseUT {
     ILSProtocolConnectorFactory ilsProtocolConnectorFactory;
 
     @Mock
-    AbstractProtocolConnector abstractProtocolConnector;
-
-    @Mock
-    PropertyUtil propertyUtil;
-
-    @Mock
-    ApplicationContext applicationContext;
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
 
     @Mock
-    ILSConfigProperties ilsConfigProperties;
+    AbstractProtocolConnector abstractProtocolConnector;
 
     @Test
     public void getIlsProtocolConnector(){
-        String institution = "PUL";
-        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
-        ilsConfigProperties.setProtocol("NCIP");
-        ILSProtocolConnectorFactory ilsProtocolConnectorFactory = new ILSProtocolConnectorFactory();
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"propertyUtil",propertyUtil);
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"applicationContext",applicationContext);
-        Mockito.when(propertyUtil.getILSConfigProperties(any())).thenReturn(ilsConfigProperties);
-        Mockito.when(applicationContext.getBean(ArgumentMatchers.<Class>any())).thenReturn(abstractProtocolConnector);
-        Mockito.when(abstractProtocolConnector.supports("NCIP")).thenReturn(true);
-        AbstractProtocolConnector connector = ilsProtocolConnectorFactory.getIlsProtocolConnector(institution);
-        assertNotNull(connector);
+        Mockito.when(ilsProtocolConnectorRegistry.getConnector("PUL")).thenReturn(abstractProtocolConnector);
+        assertSame(abstractProtocolConnector, ilsProtocolConnectorFactory.getIlsProtocolConnector("PUL"));
     }
 
     @Test
-    public void getIlsProtocolConnectorForSIP(){
-        String institution = "PUL";
-        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
-        ilsConfigProperties.setProtocol("SIP2");
-        Map<String, AbstractProtocolConnector> protocolConnectorsMap = new HashMap<>();
-        protocolConnectorsMap.put("PUL",abstractProtocolConnector);
-        ILSProtocolConnectorFactory ilsProtocolConnectorFactory = new ILSProtocolConnectorFactory();
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"propertyUtil",propertyUtil);
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"applicationContext",applicationContext);
-        Mockito.when(propertyUtil.getILSConfigProperties(any())).thenReturn(ilsConfigProperties);
-        Mockito.when(applicationContext.getBean(ArgumentMatchers.<Class>any())).thenReturn(abstractProtocolConnector);
-        Mockito.when(abstractProtocolConnector.supports(any())).thenReturn(true);
-        AbstractProtocolConnector connector = ilsProtocolConnectorFactory.getIlsProtocolConnector(institution);
-        assertNotNull(connector);
-    }
-
-
-    @Test
-    public void getIlsProtocolConnectorForREST(){
-        String institution = "PUL";
-        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
-        ilsConfigProperties.setProtocol("REST");
-        Map<String, AbstractProtocolConnector> protocolConnectorsMap = new HashMap<>();
-        protocolConnectorsMap.put("PUL",abstractProtocolConnector);
-        ILSProtocolConnectorFactory ilsProtocolConnectorFactory = new ILSProtocolConnectorFactory();
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"propertyUtil",propertyUtil);
-        ReflectionTestUtils.setField(ilsProtocolConnectorFactory,"applicationContext",applicationContext);
-        Mockito.when(propertyUtil.getILSConfigProperties(any())).thenReturn(ilsConfigProperties);
-        Mockito.when(applicationContext.getBean(ArgumentMatchers.<Class>any())).thenReturn(abstractProtocolConnector);
-        Mockito.when(abstractProtocolConnector.supports(any())).thenReturn(true);
-        AbstractProtocolConnector connector = ilsProtocolConnectorFactory.getIlsProtocolConnector(institution);
-        assertNotNull(connector);
+    public void getIlsProtocolConnectorForUnsupportedProtocol(){
+        assertNull(ilsProtocolConnectorFactory.getIlsProtocolConnector("PUL"));
     }
-}
\ No newline at end of file
+}
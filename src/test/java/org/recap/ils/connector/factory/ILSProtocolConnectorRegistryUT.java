@@ -0,0 +1,106 @@
+package org.recap.ils.connector.factory;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.PropertyKeyConstants;
+import org.recap.ils.connector.AbstractProtocolConnector;
+import org.recap.ils.connector.NCIPProtocolConnector;
+import org.recap.ils.connector.RestProtocolConnector;
+import org.recap.ils.connector.SIPProtocolConnector;
+import org.recap.model.ILSConfigProperties;
+import org.recap.util.PropertyUtil;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+
+public class ILSProtocolConnectorRegistryUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @Mock
+    PropertyUtil propertyUtil;
+
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    SIPProtocolConnector sipProtocolConnector;
+
+    @Mock
+    RestProtocolConnector restProtocolConnector;
+
+    @Mock
+    NCIPProtocolConnector ncipProtocolConnector;
+
+    @Test
+    public void createsOneConfiguredConnectorPerInstitution() {
+        ILSConfigProperties pulConfigProperties = getIlsConfigProperties("SIP2");
+        ILSConfigProperties nyplConfigProperties = getIlsConfigProperties("NCIP");
+        Mockito.when(propertyUtil.getILSConfigProperties("PUL")).thenReturn(pulConfigProperties);
+        Mockito.when(propertyUtil.getILSConfigProperties("NYPL")).thenReturn(nyplConfigProperties);
+        Mockito.when(applicationContext.getBean(SIPProtocolConnector.class)).thenReturn(sipProtocolConnector);
+        Mockito.when(applicationContext.getBean(NCIPProtocolConnector.class)).thenReturn(ncipProtocolConnector);
+
+        assertSame(sipProtocolConnector, ilsProtocolConnectorRegistry.getConnector("PUL"));
+        assertSame(ncipProtocolConnector, ilsProtocolConnectorRegistry.getConnector("NYPL"));
+        assertSame(sipProtocolConnector, ilsProtocolConnectorRegistry.getConnector("PUL"));
+
+        Mockito.verify(propertyUtil, Mockito.times(1)).getILSConfigProperties("PUL");
+        Mockito.verify(sipProtocolConnector, Mockito.times(1)).setInstitution("PUL");
+        Mockito.verify(sipProtocolConnector, Mockito.times(1)).setIlsConfigProperties(pulConfigProperties);
+        Mockito.verify(ncipProtocolConnector, Mockito.times(1)).setIlsConfigProperties(nyplConfigProperties);
+    }
+
+    @Test
+    public void skipsUnsupportedProtocol() {
+        Mockito.when(propertyUtil.getILSConfigProperties("CUL")).thenReturn(getIlsConfigProperties("Z39.50"));
+
+        assertNull(ilsProtocolConnectorRegistry.getConnector("CUL"));
+        assertNull(ilsProtocolConnectorRegistry.getConnector("CUL"));
+        Mockito.verify(propertyUtil, Mockito.times(2)).getILSConfigProperties("CUL");
+    }
+
+    @Test
+    public void rebuildsConnectorsOnEnvironmentChange() {
+        SIPProtocolConnector rebuiltConnector = Mockito.mock(SIPProtocolConnector.class);
+        Mockito.when(propertyUtil.getILSConfigProperties("PUL")).thenReturn(getIlsConfigProperties("SIP2"));
+        Mockito.when(applicationContext.getBean(SIPProtocolConnector.class)).thenReturn(sipProtocolConnector, rebuiltConnector);
+        AbstractProtocolConnector connector = ilsProtocolConnectorRegistry.getConnector("PUL");
+
+        ilsProtocolConnectorRegistry.onEnvironmentChange(new EnvironmentChangeEvent(Collections.singleton("ils.pul.host")));
+
+        assertNotSame(connector, ilsProtocolConnectorRegistry.getConnector("PUL"));
+        assertSame(rebuiltConnector, ilsProtocolConnectorRegistry.getConnector("PUL"));
+        Mockito.verify(rebuiltConnector).setInstitution("PUL");
+    }
+
+    @Test
+    public void getRestPollingConnector() {
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("NYPL", PropertyKeyConstants.ILS.ILS_REST_DATA_API)).thenReturn("https://ils.example.org/api");
+        Mockito.when(applicationContext.getBean(RestProtocolConnector.class)).thenReturn(restProtocolConnector);
+
+        assertSame(restProtocolConnector, ilsProtocolConnectorRegistry.getRestPollingConnector("NYPL"));
+        assertSame(restProtocolConnector, ilsProtocolConnectorRegistry.getRestPollingConnector("NYPL"));
+
+        Mockito.verify(applicationContext, Mockito.times(1)).getBean(RestProtocolConnector.class);
+        Mockito.verify(restProtocolConnector).setIlsConfigProperties(argThat(ilsConfigProperties -> "https://ils.example.org/api".equals(ilsConfigProperties.getIlsRestDataApi())));
+        Mockito.verify(propertyUtil, Mockito.never()).getILSConfigProperties(any());
+    }
+
+    private static ILSConfigProperties getIlsConfigProperties(String protocol) {
+        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
+        ilsConfigProperties.setProtocol(protocol);
+        return ilsConfigProperties;
+    }
+}
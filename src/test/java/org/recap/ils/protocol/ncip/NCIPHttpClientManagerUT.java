@@ -0,0 +1,48 @@
+package org.recap.ils.protocol.ncip;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
+import org.recap.util.PropertyUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class NCIPHttpClientManagerUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    NCIPHttpClientManager ncipHttpClientManager;
+
+    @Mock
+    PropertyUtil propertyUtil;
+
+    @After
+    public void tearDown() {
+        ncipHttpClientManager.shutdown();
+    }
+
+    @Test
+    public void getHttpClientPerInstitution() {
+        assertSame(ncipHttpClientManager.getHttpClient("PUL"), ncipHttpClientManager.getHttpClient("PUL"));
+        assertNotSame(ncipHttpClientManager.getHttpClient("PUL"), ncipHttpClientManager.getHttpClient("CUL"));
+    }
+
+    @Test
+    public void getHttpClientPoolUsesInstitutionSettings() {
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_NCIP_HTTP_MAX_CONNECTIONS)).thenReturn("4");
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_NCIP_HTTP_KEEP_ALIVE_SECONDS)).thenReturn("30");
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_NCIP_HTTP_MAX_WAIT_MILLIS)).thenReturn("250");
+        NCIPHttpClientPool httpClientPool = ncipHttpClientManager.getHttpClientPool("PUL");
+        assertEquals(4, httpClientPool.getMaxConnections());
+        assertEquals(30000, httpClientPool.getKeepAliveMillis());
+        assertEquals(250, httpClientPool.getMaxWaitMillis());
+        NCIPHttpClientPool defaultHttpClientPool = ncipHttpClientManager.getHttpClientPool("CUL");
+        assertEquals(ScsbConstants.ILS_NCIP_HTTP_DEFAULT_MAX_CONNECTIONS, defaultHttpClientPool.getMaxConnections());
+        assertEquals(ScsbConstants.ILS_NCIP_HTTP_DEFAULT_KEEP_ALIVE_SECONDS * 1000, defaultHttpClientPool.getKeepAliveMillis());
+    }
+}
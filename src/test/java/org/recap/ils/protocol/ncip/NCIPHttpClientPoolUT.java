@@ -0,0 +1,77 @@
+package org.recap.ils.protocol.ncip;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class NCIPHttpClientPoolUT extends BaseTestCaseUT {
+
+    private HttpServer httpServer;
+    private NCIPHttpClientPool ncipHttpClientPool;
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void startServer() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/ncip", exchange -> {
+            clientAddresses.add(exchange.getRemoteAddress());
+            exchange.getRequestBody().readAllBytes();
+            byte[] response = "<NCIPMessage/>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        httpServer.start();
+        ncipHttpClientPool = new NCIPHttpClientPool("PUL", 2, 60000, 1000);
+    }
+
+    @After
+    public void tearDown() {
+        ncipHttpClientPool.close();
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void reusesConnectionOnceResponseIsConsumed() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            HttpResponse response = ncipHttpClientPool.getHttpClient().execute(getHttpPost());
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals(1, ncipHttpClientPool.getLeasedConnectionCount());
+            EntityUtils.consume(response.getEntity());
+            assertEquals(0, ncipHttpClientPool.getLeasedConnectionCount());
+        }
+        assertEquals(1, clientAddresses.size());
+        assertEquals(1, ncipHttpClientPool.getAvailableConnectionCount());
+    }
+
+    @Test
+    public void evictConnectionsKeepsFreshConnections() throws IOException {
+        EntityUtils.consume(ncipHttpClientPool.getHttpClient().execute(getHttpPost()).getEntity());
+        ncipHttpClientPool.evictConnections();
+        assertEquals(1, ncipHttpClientPool.getAvailableConnectionCount());
+        EntityUtils.consume(ncipHttpClientPool.getHttpClient().execute(getHttpPost()).getEntity());
+        assertEquals(1, clientAddresses.size());
+    }
+
+    private HttpPost getHttpPost() {
+        HttpPost httpPost = new HttpPost("http://localhost:" + httpServer.getAddress().getPort() + "/ncip");
+        httpPost.setEntity(new StringEntity("<NCIPMessage/>", StandardCharsets.UTF_8));
+        return httpPost;
+    }
+}
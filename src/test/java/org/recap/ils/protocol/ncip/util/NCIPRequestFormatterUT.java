@@ -0,0 +1,60 @@
+package org.recap.ils.protocol.ncip.util;
+
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+import org.recap.util.CommonUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class NCIPRequestFormatterUT extends BaseTestCaseUT {
+
+    private static final String NCIP_NAMESPACES = "xmlns=\"http://www.niso.org/2008/ncip\" xmlns:%1$s=\"http://www.niso.org/2008/ncip\" %1$s:version=\"http://www.niso.org/schemas/ncip/v2_02/ncip_v2_02.xsd\"";
+
+    private static final String REQUEST = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<NCIPMessage " + String.format(NCIP_NAMESPACES, "ns2") + "><CheckInItem><InitiationHeader><FromAgencyId>"
+            + "<AgencyId ns2:Scheme=\"http://www.niso.org/ncip/v1_0/schemes/agencyidtype/agencyidtype.scm\">SCSB</AgencyId>"
+            + "</FromAgencyId></InitiationHeader><ItemId><ItemIdentifierValue>33433001234567</ItemIdentifierValue></ItemId>"
+            + "<ItemElementType Scheme=\"local\">Bibliographic Description</ItemElementType>"
+            + "<Note>Café &lt;fragile&gt; &amp; bound</Note><Empty/></CheckInItem></NCIPMessage>";
+
+    private static final String FORMATTED_REQUEST = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<ns1:NCIPMessage " + String.format(NCIP_NAMESPACES, "ns1") + "><ns1:CheckInItem><ns1:InitiationHeader><ns1:FromAgencyId>"
+            + "<ns1:AgencyId ns1:Scheme=\"http://www.niso.org/ncip/v1_0/schemes/agencyidtype/agencyidtype.scm\">SCSB</ns1:AgencyId>"
+            + "</ns1:FromAgencyId></ns1:InitiationHeader><ns1:ItemId><ns1:ItemIdentifierValue>33433001234567</ns1:ItemIdentifierValue></ns1:ItemId>"
+            + "<ns1:ItemElementType Scheme=\"local\">Bibliographic Description</ns1:ItemElementType>"
+            + "<ns1:Note>Café &lt;fragile&gt; &amp; bound</ns1:Note><ns1:Empty/></ns1:CheckInItem></ns1:NCIPMessage>";
+
+    @Test
+    public void formatsToolkitStream() throws IOException {
+        byte[] formatted = NCIPRequestFormatter.format(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(FORMATTED_REQUEST, new String(formatted, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void formatsRequestBody() {
+        assertEquals(FORMATTED_REQUEST, NCIPRequestFormatter.format(REQUEST));
+        assertEquals(FORMATTED_REQUEST, new CommonUtil().formatRequest(REQUEST));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        StringBuilder request = new StringBuilder("<?xml version=\"1.0\"?><LookupUser>");
+        StringBuilder formattedRequest = new StringBuilder("<?xml version=\"1.0\"?><ns1:LookupUser>");
+        for (int i = 0; i < 100; i++) {
+            request.append("<a/><b xmlns:ns2=\"u\" ns2:version=\"1\"></b>");
+            formattedRequest.append("<ns1:a/><ns1:b xmlns:ns1=\"u\" ns1:version=\"1\"></ns1:b>");
+        }
+        request.append("</LookupUser>");
+        formattedRequest.append("</ns1:LookupUser>");
+        assertEquals(formattedRequest.toString(), NCIPRequestFormatter.format(request.toString()));
+    }
+
+    @Test
+    public void keepsPlainText() {
+        assertEquals("test format", NCIPRequestFormatter.format("test format"));
+    }
+}
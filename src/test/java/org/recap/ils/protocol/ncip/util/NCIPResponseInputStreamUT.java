@@ -0,0 +1,57 @@
+package org.recap.ils.protocol.ncip.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+import org.recap.util.CommonUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class NCIPResponseInputStreamUT extends BaseTestCaseUT {
+
+    private static final String RESPONSE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><ns1:NCIPMessage xmlns:ns1=\"http://www.niso.org/2008/ncip\" ns1:version=\"2.0\">"
+            + "<ns1:CheckOutItemResponse><ns1:ItemId><ns1:ItemIdentifierValue>3343300123</ns1:ItemIdentifierValue></ns1:ItemId>"
+            + "<ns1:Title>Café &lt;ns1:x&gt; ns1:</ns1:Title></ns1:CheckOutItemResponse></ns1:NCIPMessage>";
+
+    @Test
+    public void stripsPrefixLikeFormatResponse() throws IOException {
+        String expected = new CommonUtil().formatResponse(RESPONSE);
+        assertEquals(expected, read(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void stripsPrefixAcrossSmallReads() throws IOException {
+        String expected = new CommonUtil().formatResponse(RESPONSE);
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+        assertEquals(expected, read(trickle));
+    }
+
+    @Test
+    public void keepsTruncatedPrefix() throws IOException {
+        assertEquals("<a></a><ns1", read(new ByteArrayInputStream("<ns1:a></ns1:a><ns1".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("<", read(new ByteArrayInputStream("<".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("", read(new ByteArrayInputStream(new byte[0])));
+    }
+
+    private String read(InputStream inputStream) throws IOException {
+        try (NCIPResponseInputStream ncipResponseInputStream = new NCIPResponseInputStream(inputStream)) {
+            return IOUtils.toString(ncipResponseInputStream, StandardCharsets.UTF_8);
+        }
+    }
+}
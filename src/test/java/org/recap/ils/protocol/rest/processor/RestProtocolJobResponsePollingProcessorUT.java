@@ -1,5 +1,6 @@
 package org.recap.ils.protocol.rest.processor;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -8,6 +9,7 @@ import org.mockito.Mockito;
 import org.recap.BaseTestCaseUT;
 import org.recap.PropertyKeyConstants;
 import org.recap.ils.connector.RestProtocolConnector;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
 import org.recap.ils.protocol.rest.model.JobData;
 import org.recap.ils.protocol.rest.model.response.JobResponse;
 import org.recap.ils.protocol.rest.processor.RestProtocolJobResponsePollingProcessor;
@@ -15,10 +17,21 @@ import org.recap.ils.protocol.rest.util.RestApiResponseUtil;
 import org.recap.util.PropertyUtil;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 
 public class RestProtocolJobResponsePollingProcessorUT extends BaseTestCaseUT {
 
@@ -34,31 +47,45 @@ public class RestProtocolJobResponsePollingProcessorUT extends BaseTestCaseUT {
     @Mock
     PropertyUtil propertyUtil;
 
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
     @Before
     public void setup(){
-        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingMaxTimeOut", 30);
-        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingTimeInterval", 1000);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingThreads", 2);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingConcurrencyPerInstitution", 2);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingTickMillis", 10L);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingBatchSize", 100);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingBackoffMultiplier", 2.0);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingBackoffMaxMillis", 100L);
+        Mockito.when(ilsProtocolConnectorRegistry.getRestPollingConnector(anyString())).thenReturn(restProtocolConnector);
+        restProtocolJobResponsePollingProcessor.startPolling();
+    }
+
+    @After
+    public void tearDown() {
+        restProtocolJobResponsePollingProcessor.shutdown();
     }
 
     @Test
     public void pollRestApiRequestItemJobResponse() throws Exception {
         String jobId = "1";
         String institution ="NYPL";
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn("30");
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn("1000");
-        JobResponse jobResponse = getJobResponse();
+        mockPollingProperties(institution, "30", "1000");
+        JobResponse jobResponse = getJobResponse(true);
         Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(jobResponse);
         Mockito.when(restApiResponseUtil.getJobStatusMessage(any())).thenReturn("Success");
         JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse(jobId,institution);
         assertNotNull(response);
+        assertEquals("Success", response.getStatusMessage());
+        Mockito.verify(ilsProtocolConnectorRegistry).getRestPollingConnector(institution);
     }
     @Test
     public void pollRestApiRequestItemJobResponseNullPointerException() throws Exception {
         String jobId = "1";
         String institution ="NYPL";
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn("30");
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn("1000");
-        JobResponse jobResponse = getJobResponse();
+        mockPollingProperties(institution, "30", "1000");
+        JobResponse jobResponse = getJobResponse(true);
         Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(jobResponse);
         Mockito.doThrow(new NullPointerException()).when(restApiResponseUtil).getJobStatusMessage(any());
         JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse(jobId,institution);
@@ -68,9 +95,8 @@ public class RestProtocolJobResponsePollingProcessorUT extends BaseTestCaseUT {
     public void pollRestApiRequestItemJobResponseTimeoutException() throws Exception {
         String jobId = "1";
         String institution ="NYPL";
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn("30");
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn("1000");
-        JobResponse jobResponse = getJobResponse();
+        mockPollingProperties(institution, "30", "1000");
+        JobResponse jobResponse = getJobResponse(true);
         Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(jobResponse);
         Mockito.doThrow(new TimeoutException()).when(restApiResponseUtil).getJobStatusMessage(any());
         JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse(jobId,institution);
@@ -80,27 +106,99 @@ public class RestProtocolJobResponsePollingProcessorUT extends BaseTestCaseUT {
     public void pollRestApiRequestItemJobResponseInterruptedException() throws Exception {
         String jobId = "1";
         String institution ="NYPL";
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn("30");
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn("1000");
-        JobResponse jobResponse = getJobResponse();
+        mockPollingProperties(institution, "30", "1000");
+        JobResponse jobResponse = getJobResponse(true);
         Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(jobResponse);
         Mockito.doThrow(new InterruptedException()).when(restApiResponseUtil).getJobStatusMessage(any());
         JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse(jobId,institution);
         assertNotNull(response);
+        Thread.interrupted();
     }
     @Test
     public void pollRestApiRequestItemJobResponseExecutionException() throws Exception {
         String jobId = "1";
         String institution ="NYPL";
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn("30");
-        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn("1000");
+        mockPollingProperties(institution, "30", "1000");
         JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse(jobId,institution);
         assertNotNull(response);
+        assertTrue(response.getStatusMessage().contains("execution failed"));
+    }
+    @Test
+    public void pollRestApiRequestItemJobResponseUntilFinished() throws Exception {
+        String institution ="NYPL";
+        mockPollingProperties(institution, "30", "10");
+        Mockito.when(restProtocolConnector.queryForJob("1")).thenReturn(getJobResponse(false), getJobResponse(false), getJobResponse(true));
+        JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse("1", institution);
+        assertTrue(response.getData().getFinished());
+        Mockito.verify(restProtocolConnector, Mockito.times(3)).queryForJob("1");
+        assertEquals(0, restProtocolJobResponsePollingProcessor.getOutstandingJobCount());
+    }
+    @Test
+    public void pollRestApiRequestItemJobResponseTimesOutAtMaxTimeout() throws Exception {
+        String institution ="NYPL";
+        mockPollingProperties(institution, "1", "10");
+        Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(getJobResponse(false));
+        long start = System.currentTimeMillis();
+        JobResponse response = restProtocolJobResponsePollingProcessor.pollRestApiRequestItemJobResponse("1", institution);
+        assertTrue(response.getStatusMessage().contains("timed out"));
+        assertTrue(System.currentTimeMillis() - start < 3000);
+        assertEquals(0, restProtocolJobResponsePollingProcessor.getOutstandingJobCount());
+    }
+    @Test
+    public void submitRestApiRequestItemJobPollsManyJobsWithSharedThreads() throws Exception {
+        mockPollingProperties("PUL", "30", "10");
+        mockPollingProperties("CUL", "30", "10");
+        Map<String, AtomicInteger> pollCounts = new ConcurrentHashMap<>();
+        Mockito.when(restProtocolConnector.queryForJob(anyString())).thenAnswer(invocation ->
+                getJobResponse(pollCounts.computeIfAbsent(invocation.getArgument(0), jobId -> new AtomicInteger()).incrementAndGet() > 1));
+        List<CompletableFuture<JobResponse>> jobResponses = new ArrayList<>();
+        for (int job = 0; job < 1000; job++) {
+            jobResponses.add(restProtocolJobResponsePollingProcessor.submitRestApiRequestItemJob(String.valueOf(job), job % 2 == 0 ? "PUL" : "CUL"));
+        }
+        CompletableFuture.allOf(jobResponses.toArray(new CompletableFuture[0])).get(20, TimeUnit.SECONDS);
+        for (CompletableFuture<JobResponse> jobResponse : jobResponses) {
+            assertTrue(jobResponse.get().getData().getFinished());
+        }
+        assertEquals(1000, pollCounts.size());
+        assertEquals(0, restProtocolJobResponsePollingProcessor.getOutstandingJobCount());
+    }
+    @Test
+    public void submitRestApiRequestItemJobPollsBatchConcurrently() throws Exception {
+        restProtocolJobResponsePollingProcessor.shutdown();
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingThreads", 4);
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingConcurrencyPerInstitution", 4);
+        // The jobs are submitted before the first tick, so they are polled as one batch
+        ReflectionTestUtils.setField(restProtocolJobResponsePollingProcessor, "pollingTickMillis", 500L);
+        restProtocolJobResponsePollingProcessor.startPolling();
+        mockPollingProperties("NYPL", "30", "10");
+        CountDownLatch concurrentPolls = new CountDownLatch(4);
+        Mockito.when(restProtocolConnector.queryForJob(anyString())).thenAnswer(invocation -> {
+            concurrentPolls.countDown();
+            return getJobResponse(concurrentPolls.await(5, TimeUnit.SECONDS));
+        });
+        List<CompletableFuture<JobResponse>> jobResponses = new ArrayList<>();
+        for (int job = 0; job < 4; job++) {
+            jobResponses.add(restProtocolJobResponsePollingProcessor.submitRestApiRequestItemJob(String.valueOf(job), "NYPL"));
+        }
+        CompletableFuture.allOf(jobResponses.toArray(new CompletableFuture[0])).get(4, TimeUnit.SECONDS);
+        Mockito.verify(restProtocolConnector, Mockito.times(4)).queryForJob(anyString());
+    }
+    @Test
+    public void submitRestApiRequestItemJobSharesOutstandingJob() throws Exception {
+        mockPollingProperties("NYPL", "30", "10000");
+        Mockito.when(restProtocolConnector.queryForJob(any())).thenReturn(getJobResponse(false));
+        CompletableFuture<JobResponse> jobResponse = restProtocolJobResponsePollingProcessor.submitRestApiRequestItemJob("1", "NYPL");
+        assertTrue(jobResponse == restProtocolJobResponsePollingProcessor.submitRestApiRequestItemJob("1", "NYPL"));
+        assertEquals(1, restProtocolJobResponsePollingProcessor.getOutstandingJobCount());
+    }
+    private void mockPollingProperties(String institution, String maxTimeOut, String timeInterval) {
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_MAX_TIMEOUT)).thenReturn(maxTimeOut);
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey(institution, PropertyKeyConstants.ILS.ILS_REST_POLLING_TIME_INTERVAL)).thenReturn(timeInterval);
     }
-    private JobResponse getJobResponse() {
+    private JobResponse getJobResponse(boolean finished) {
         JobResponse jobResponse = new JobResponse();
         JobData jobData = new JobData();
-        jobData.setFinished(true);
+        jobData.setFinished(finished);
         jobResponse.setData(jobData);
         return jobResponse;
     }
@@ -1,19 +1,46 @@
 package org.recap.ils.protocol.rest.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
 import org.recap.ils.protocol.rest.model.response.CancelHoldResponse;
-import org.recap.ils.protocol.rest.service.RestOauthTokenApiService;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class RestOauthTokenApiServiceUT extends BaseTestCaseUT {
 
@@ -23,6 +50,16 @@ public class RestOauthTokenApiServiceUT extends BaseTestCaseUT {
     @Mock
     RestTemplate restTemplate;
 
+    @Spy
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(restOauthTokenApiService, "refreshBeforeExpirySeconds", 60L);
+        ReflectionTestUtils.setField(restOauthTokenApiService, "defaultExpirySeconds", 300L);
+        ReflectionTestUtils.setField(restOauthTokenApiService, "clock", Clock.fixed(Instant.parse("2021-01-08T10:00:00Z"), ZoneOffset.UTC));
+    }
+
     @Test
     public void generateAccessTokenForRestApi() throws Exception {
         String oauthTokenApiUrl = "test";
@@ -38,4 +75,160 @@ public class RestOauthTokenApiServiceUT extends BaseTestCaseUT {
         String response = restOauthTokenApiService.generateAccessTokenForRestApi(oauthTokenApiUrl, operatorUserId, operatorPassword);
         assertNotNull(response);
     }
+
+    @Test
+    public void getAccessTokenForRestApiIsCachedUntilExpiry() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":3600 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        verifyTokenRequests(1);
+        assertEquals(1, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_MISS), 0);
+        assertEquals(1, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_HIT), 0);
+        assertEquals(1, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_REFRESH), 0);
+    }
+
+    @Test
+    public void getAccessTokenForRestApiIsRequestedAgainAfterExpiry() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":0 }", "{ \"access_token\":\"token2\", \"expires_in\":3600 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        assertEquals("token2", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        verifyTokenRequests(2);
+        assertEquals(2, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_MISS), 0);
+    }
+
+    @Test
+    public void getAccessTokenForRestApiRefreshesBeforeExpiry() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":2 }", "{ \"access_token\":\"token2\", \"expires_in\":3600 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        advanceClock(Duration.ofMillis(1100));
+        assertEquals("token2", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        verifyTokenRequests(2);
+        assertEquals(1, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_MISS), 0);
+        assertEquals(2, getCount(ScsbConstants.OAUTH_TOKEN_CACHE_REFRESH), 0);
+    }
+
+    @Test
+    public void getAccessTokenForRestApiKeepsValidTokenWhenProactiveRefreshFails() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":2 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        advanceClock(Duration.ofMillis(1100));
+        doThrow(new ResourceAccessException("Connection refused")).when(restTemplate).exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<String>>any());
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+    }
+
+    @Test
+    public void getAccessTokenForRestApiIsRequestedAgainAfterInvalidation() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":3600 }", "{ \"access_token\":\"token2\", \"expires_in\":3600 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        restOauthTokenApiService.invalidateAccessToken("NYPL");
+        assertEquals("token2", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        verifyTokenRequests(2);
+    }
+
+    @Test
+    public void getAccessTokenForRestApiIsRequestedAgainWhenCredentialsChange() throws Exception {
+        mockTokenResponses("{ \"access_token\":\"token1\", \"expires_in\":3600 }", "{ \"access_token\":\"token2\", \"expires_in\":3600 }");
+        assertEquals("token1", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+        assertEquals("token2", restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "otherUser", "password"));
+    }
+
+    @Test
+    public void getAccessTokenForRestApiRequestsOneTokenForConcurrentCallers() throws Exception {
+        CountDownLatch tokenRequested = new CountDownLatch(1);
+        CountDownLatch callersWaiting = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            tokenRequested.countDown();
+            callersWaiting.await(5, TimeUnit.SECONDS);
+            return new ResponseEntity<>("{ \"access_token\":\"token1\", \"expires_in\":3600 }", HttpStatus.OK);
+        }).when(restTemplate).exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<String>>any());
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            tokens.add(executorService.submit(() -> restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password")));
+            tokenRequested.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                tokens.add(executorService.submit(() -> restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password")));
+            }
+            Thread.sleep(100);
+            callersWaiting.countDown();
+            for (Future<String> token : tokens) {
+                assertEquals("token1", token.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verifyTokenRequests(1);
+    }
+
+    @Test
+    public void getAccessTokenForRestApiRethrowsErrorToConcurrentCallers() throws Exception {
+        CountDownLatch tokenRequested = new CountDownLatch(1);
+        CountDownLatch callersWaiting = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            tokenRequested.countDown();
+            callersWaiting.await(5, TimeUnit.SECONDS);
+            throw new NoClassDefFoundError("org/codehaus/jettison/json/JSONObject");
+        }).when(restTemplate).exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<String>>any());
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> requestingCaller = executorService.submit(() -> restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+            tokenRequested.await(5, TimeUnit.SECONDS);
+            Future<String> waitingCaller = executorService.submit(() -> restOauthTokenApiService.getAccessTokenForRestApi("NYPL", "url", "user", "password"));
+            Thread.sleep(100);
+            callersWaiting.countDown();
+            for (Future<String> caller : Arrays.asList(requestingCaller, waitingCaller)) {
+                try {
+                    caller.get(5, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof NoClassDefFoundError);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verifyTokenRequests(1);
+    }
+
+    private void advanceClock(Duration duration) {
+        Clock clock = (Clock) ReflectionTestUtils.getField(restOauthTokenApiService, "clock");
+        ReflectionTestUtils.setField(restOauthTokenApiService, "clock", Clock.offset(clock, duration));
+    }
+
+    private void mockTokenResponses(String body, String... nextBodies) {
+        ResponseEntity<String> responseEntity = new ResponseEntity<>(body, HttpStatus.OK);
+        ResponseEntity<?>[] nextResponseEntities = new ResponseEntity<?>[nextBodies.length];
+        for (int i = 0; i < nextBodies.length; i++) {
+            nextResponseEntities[i] = new ResponseEntity<>(nextBodies[i], HttpStatus.OK);
+        }
+        when(restTemplate.exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<String>>any())).thenReturn(responseEntity, (ResponseEntity<String>[]) nextResponseEntities);
+    }
+
+    private void verifyTokenRequests(int count) {
+        verify(restTemplate, times(count)).exchange(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(HttpMethod.class),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.<Class<String>>any());
+    }
+
+    private double getCount(String result) {
+        return meterRegistry.counter(ScsbConstants.OAUTH_TOKEN_CACHE_METRIC, ScsbConstants.METRIC_TAG_INSTITUTION, "NYPL", ScsbConstants.METRIC_TAG_RESULT, result).count();
+    }
 }
@@ -13,10 +13,10 @@ import org.recap.model.jpa.InstitutionEntity;
 import org.recap.model.jpa.ItemEntity;
 import org.recap.model.response.*;
 import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.util.DateUtil;
 import org.recap.util.PropertyUtil;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 import static org.junit.Assert.assertNotNull;
@@ -115,9 +115,7 @@ public class RestApiResponseUtilUT extends BaseTestCaseUT {
     @Test
     public void requiredFormattedDate() {
         String sipDate = "31-01-2020";
-        SimpleDateFormat sipFormat = new SimpleDateFormat("yyyy-MM-dd");
-        SimpleDateFormat requiredFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
-        ReflectionTestUtils.invokeMethod(restApiResponseUtil, "requiredFormattedDate", sipDate, sipFormat, requiredFormat);
+        ReflectionTestUtils.invokeMethod(restApiResponseUtil, "requiredFormattedDate", sipDate, DateUtil.REST_HOLD_DATE_FORMATTER, DateUtil.DATE_FORMATTER);
     }
 
     @Test
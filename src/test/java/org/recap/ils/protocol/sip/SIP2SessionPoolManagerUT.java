@@ -0,0 +1,114 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
+import org.recap.model.ILSConfigProperties;
+import org.recap.util.PropertyUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SIP2SessionPoolManagerUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    SIP2SessionPoolManager sip2SessionPoolManager;
+
+    @Mock
+    PropertyUtil propertyUtil;
+
+    @After
+    public void tearDown() {
+        sip2SessionPoolManager.shutdown();
+    }
+
+    @Test
+    public void isPoolingEnabled() {
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_SIP_POOL_ENABLED)).thenReturn("true");
+        assertTrue(sip2SessionPoolManager.isPoolingEnabled("PUL"));
+        assertFalse(sip2SessionPoolManager.isPoolingEnabled("CUL"));
+        assertFalse(sip2SessionPoolManager.isPoolingEnabled(null));
+    }
+
+    @Test
+    public void getSessionPoolUsesInstitutionSettings() {
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_SIP_POOL_MAX_SIZE)).thenReturn("8");
+        Mockito.when(propertyUtil.getPropertyByInstitutionAndKey("PUL", ScsbConstants.ILS_SIP_POOL_MAX_WAIT_MILLIS)).thenReturn("250");
+        SIP2SessionPool sessionPool = sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host1"));
+        assertEquals(8, sessionPool.getMaxSize());
+        assertEquals(250, sessionPool.getMaxWaitMillis());
+        assertEquals(ScsbConstants.ILS_SIP_POOL_DEFAULT_KEEP_ALIVE_SECONDS * 1000, sessionPool.getKeepAliveMillis());
+    }
+
+    @Test
+    public void getSessionPoolUsesDefaults() {
+        SIP2SessionPool sessionPool = sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host1"));
+        assertEquals(ScsbConstants.ILS_SIP_POOL_DEFAULT_MAX_SIZE, sessionPool.getMaxSize());
+        assertEquals(ScsbConstants.ILS_SIP_POOL_DEFAULT_MAX_WAIT_MILLIS, sessionPool.getMaxWaitMillis());
+    }
+
+    @Test
+    public void getSessionPoolIsRebuiltWhenServerChanges() {
+        SIP2SessionPool sessionPool = sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host1"));
+        assertSame(sessionPool, sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host1")));
+        SIP2SessionPool rebuiltSessionPool = sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host2"));
+        assertNotSame(sessionPool, rebuiltSessionPool);
+        assertEquals("host2", rebuiltSessionPool.getHost());
+    }
+
+    @Test
+    public void replacedSessionPoolIsClosedOnceBorrowedSessionsAreReturned() throws Exception {
+        SIP2SocketConnection idle = SIP2SessionPoolUT.getConnection(true);
+        SIP2SocketConnection borrowed = SIP2SessionPoolUT.getConnection(true);
+        SIP2SessionPool sessionPool = new SIP2SessionPoolUT.TestSIP2SessionPool(2, 10, idle, borrowed);
+        sessionPool.release(sessionPool.borrow());
+        getSessionPools().put("PUL", sessionPool);
+        assertSame(idle, sip2SessionPoolManager.borrow("PUL", getIlsConfigProperties("localhost")));
+        assertSame(borrowed, sip2SessionPoolManager.borrow("PUL", getIlsConfigProperties("localhost")));
+        sip2SessionPoolManager.release("PUL", idle);
+
+        assertNotSame(sessionPool, sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host2")));
+        Mockito.verify(idle).close();
+        Mockito.verify(borrowed, Mockito.never()).close();
+        assertEquals(1, sip2SessionPoolManager.getRetiredSessionPoolCount());
+        assertTrue(sip2SessionPoolManager.isPooled("PUL", borrowed));
+
+        sip2SessionPoolManager.release("PUL", borrowed);
+        Mockito.verify(borrowed).close();
+        assertFalse(sip2SessionPoolManager.isPooled("PUL", borrowed));
+        assertEquals(0, sip2SessionPoolManager.getRetiredSessionPoolCount());
+    }
+
+    @Test
+    public void replacedSessionPoolWithoutBorrowedSessionsIsForgotten() {
+        sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host1"));
+        sip2SessionPoolManager.getSessionPool("PUL", getIlsConfigProperties("host2"));
+        assertEquals(0, sip2SessionPoolManager.getRetiredSessionPoolCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, SIP2SessionPool> getSessionPools() {
+        return (Map<String, SIP2SessionPool>) ReflectionTestUtils.getField(sip2SessionPoolManager, "sessionPools");
+    }
+
+    private ILSConfigProperties getIlsConfigProperties(String host) {
+        ILSConfigProperties ilsConfigProperties = new ILSConfigProperties();
+        ilsConfigProperties.setHost(host);
+        ilsConfigProperties.setPort(7031);
+        ilsConfigProperties.setOperatorUserId("user");
+        ilsConfigProperties.setOperatorPassword("password");
+        ilsConfigProperties.setOperatorLocation("location");
+        return ilsConfigProperties;
+    }
+}
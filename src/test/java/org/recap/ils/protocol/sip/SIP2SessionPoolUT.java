@@ -0,0 +1,155 @@
+package org.recap.ils.protocol.sip;
+
+import com.pkrete.jsip2.connection.SIP2SocketConnection;
+import com.pkrete.jsip2.exceptions.InvalidSIP2ResponseException;
+import com.pkrete.jsip2.messages.requests.SIP2LoginRequest;
+import com.pkrete.jsip2.messages.requests.SIP2SCStatusRequest;
+import com.pkrete.jsip2.messages.responses.SIP2ACSStatusResponse;
+import com.pkrete.jsip2.messages.responses.SIP2LoginResponse;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+public class SIP2SessionPoolUT extends BaseTestCaseUT {
+
+    @Test
+    public void borrowOpensLoggedInSessionAndReusesItAfterRelease() throws Exception {
+        SIP2SocketConnection connection = getConnection(true);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(2, 100, connection);
+        SIP2SocketConnection borrowed = sessionPool.borrow();
+        assertSame(connection, borrowed);
+        assertTrue(sessionPool.isBorrowed(borrowed));
+        sessionPool.release(borrowed);
+        assertFalse(sessionPool.isBorrowed(borrowed));
+        assertEquals(1, sessionPool.getIdleCount());
+        assertSame(connection, sessionPool.borrow());
+        assertEquals(1, sessionPool.getCreatedCount());
+        Mockito.verify(connection, Mockito.times(1)).send(any(SIP2LoginRequest.class));
+    }
+
+    @Test
+    public void borrowTimesOutWhenPoolIsExhausted() throws Exception {
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, getConnection(true), getConnection(true));
+        assertNotNull(sessionPool.borrow());
+        assertNull(sessionPool.borrow());
+        assertEquals(1, sessionPool.getBorrowedCount());
+    }
+
+    @Test
+    public void borrowReturnsNullWhenLoginFails() throws Exception {
+        SIP2SocketConnection connection = getConnection(false);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, connection, getConnection(true));
+        assertNull(sessionPool.borrow());
+        Mockito.verify(connection).close();
+        assertNotNull(sessionPool.borrow());
+    }
+
+    @Test
+    public void invalidateClosesSessionAndFreesSlot() throws Exception {
+        SIP2SocketConnection connection = getConnection(true);
+        SIP2SocketConnection replacement = getConnection(true);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, connection, replacement);
+        SIP2SocketConnection borrowed = sessionPool.borrow();
+        sessionPool.invalidate(borrowed);
+        Mockito.verify(connection).close();
+        assertEquals(0, sessionPool.getIdleCount());
+        assertSame(replacement, sessionPool.borrow());
+    }
+
+    @Test
+    public void releaseDiscardsClosedSocket() throws Exception {
+        SIP2SocketConnection connection = getConnection(true);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, connection);
+        SIP2SocketConnection borrowed = sessionPool.borrow();
+        Mockito.when(borrowed.getSocket().isClosed()).thenReturn(true);
+        sessionPool.release(borrowed);
+        assertEquals(0, sessionPool.getIdleCount());
+        assertEquals(0, sessionPool.getBorrowedCount());
+    }
+
+    @Test
+    public void keepAliveSendsStatusAndDiscardsUnresponsiveSessions() throws Exception {
+        SIP2SocketConnection healthy = getConnection(true);
+        SIP2SocketConnection unresponsive = getConnection(true);
+        Mockito.when(healthy.send(any(SIP2SCStatusRequest.class))).thenReturn(new SIP2ACSStatusResponse("98"));
+        Mockito.when(unresponsive.send(any(SIP2SCStatusRequest.class))).thenThrow(new InvalidSIP2ResponseException("Response message is null."));
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(2, 10, healthy, unresponsive);
+        SIP2SocketConnection first = sessionPool.borrow();
+        SIP2SocketConnection second = sessionPool.borrow();
+        sessionPool.release(first);
+        sessionPool.release(second);
+        sessionPool.keepAlive();
+        assertEquals(1, sessionPool.getIdleCount());
+        Mockito.verify(unresponsive).close();
+        assertSame(healthy, sessionPool.borrow());
+    }
+
+    @Test
+    public void closeClosesBorrowedSessionsWhenTheyAreReturned() throws Exception {
+        SIP2SocketConnection connection = getConnection(true);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, connection);
+        SIP2SocketConnection borrowed = sessionPool.borrow();
+        sessionPool.close();
+        Mockito.verify(connection, Mockito.never()).close();
+        sessionPool.release(borrowed);
+        Mockito.verify(connection).close();
+        assertEquals(0, sessionPool.getIdleCount());
+        assertEquals(0, sessionPool.getBorrowedCount());
+    }
+
+    @Test
+    public void closeClosesIdleSessions() throws Exception {
+        SIP2SocketConnection connection = getConnection(true);
+        TestSIP2SessionPool sessionPool = new TestSIP2SessionPool(1, 10, connection);
+        sessionPool.release(sessionPool.borrow());
+        sessionPool.close();
+        Mockito.verify(connection).close();
+        assertNull(sessionPool.borrow());
+    }
+
+    static SIP2SocketConnection getConnection(boolean loginOk) throws Exception {
+        SIP2SocketConnection connection = Mockito.mock(SIP2SocketConnection.class);
+        Socket socket = Mockito.mock(Socket.class);
+        Mockito.when(socket.isConnected()).thenReturn(true);
+        Mockito.when(connection.getSocket()).thenReturn(socket);
+        Mockito.when(connection.connect()).thenReturn(true);
+        SIP2LoginResponse loginResponse = new SIP2LoginResponse("94" + (loginOk ? "1" : "0"));
+        loginResponse.setOk(loginOk);
+        Mockito.when(connection.send(any(SIP2LoginRequest.class))).thenReturn(loginResponse);
+        return connection;
+    }
+
+    static class TestSIP2SessionPool extends SIP2SessionPool {
+
+        private final Deque<SIP2SocketConnection> connections;
+        private int createdCount;
+
+        TestSIP2SessionPool(int maxSize, long maxWaitMillis, SIP2SocketConnection... connections) {
+            super("PUL", "localhost", 7031, "user", "password", "location", maxSize, maxWaitMillis, 0);
+            this.connections = new ArrayDeque<>(Arrays.asList(connections));
+        }
+
+        @Override
+        protected SIP2SocketConnection createConnection() {
+            createdCount++;
+            return connections.poll();
+        }
+
+        int getCreatedCount() {
+            return createdCount;
+        }
+    }
+}
@@ -17,7 +17,8 @@ import org.recap.model.gfa.Dsitem;
 import org.recap.model.gfa.GFAItemStatusCheckResponse;
 import org.recap.model.gfa.Ttitem;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -25,8 +26,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.util.Arrays;
 import java.util.Date;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 
 public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
@@ -44,10 +47,6 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
     @Mock
     RestTemplate restTemplate = new RestTemplate();
 
-    @Mock
-    SimpleClientHttpRequestFactory simpleClientHttpRequestFactory;
-
-
     private String gfaLasStatus = "http://test:9092/lasapi/rest/lasapiSvc/lasStatus";
 
     private String gfaItemRetrival = "http://test:9092/lasapi/rest/lasapiSvc/retrieveItem";
@@ -70,6 +69,27 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
         gfaLasImsLocationConnector.getRestTemplate();
     }
 
+    @Test
+    public void setRestTemplate() {
+        GFALasImsLocationConnector connector = new GFALasImsLocationConnector();
+        RestTemplate sharedRestTemplate = new RestTemplate();
+        connector.setRestTemplate(sharedRestTemplate);
+        assertSame(sharedRestTemplate, connector.getRestTemplate());
+        assertSame(sharedRestTemplate, connector.getRestTemplate());
+    }
+
+    @Test
+    public void getRestTemplateTimesOutAfterImsServerResponseTimeout() {
+        GFALasImsLocationConnector connector = new GFALasImsLocationConnector();
+        IMSConfigProperties imsConfigProperties = new IMSConfigProperties();
+        imsConfigProperties.setImsServerResponseTimeoutMillis("1000");
+        connector.setImsConfigProperties(imsConfigProperties);
+        ClientHttpRequestFactory requestFactory = connector.getRestTemplate().getRequestFactory();
+        assertEquals(1000, ReflectionTestUtils.getField(requestFactory, "connectTimeout"));
+        assertEquals(1000, ReflectionTestUtils.getField(requestFactory, "readTimeout"));
+        assertEquals(30000, ReflectionTestUtils.getField(new GFALasImsLocationConnector().getRestTemplate().getRequestFactory(), "readTimeout"));
+    }
+
     @Test
     public void heartBeatCheck() throws JsonProcessingException {
         GFALasStatusCheckRequest gfaLasStatusCheckRequest = getGfaLasStatusCheckRequest();
@@ -84,9 +104,6 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
         UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl("http://test:9092/lasapi/rest/lasapiSvc/lasStatus").queryParam(ScsbConstants.GFA_SERVICE_PARAM, filterParamValue);
         HttpEntity requestEntity = new HttpEntity<>(new HttpHeaders());
         Mockito.when(gfaLasImsLocationConnector.getRestTemplate()).thenReturn(restTemplate);
-        Mockito.when(restTemplate.getRequestFactory()).thenReturn(simpleClientHttpRequestFactory);
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setConnectTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setReadTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
         Mockito.when(restTemplate.exchange(builder.build().encode().toUri(), HttpMethod.GET, requestEntity, GFALasStatusCheckResponse.class)).thenReturn(responseEntity);
         GFALasStatusCheckResponse response = gfaLasImsLocationConnector.heartBeatCheck(gfaLasStatusCheckRequest);
         assertNotNull(response);
@@ -114,9 +131,6 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
         UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl("http://test:9092/lasapi/rest/lasapiSvc/lasItemStatus").queryParam(ScsbConstants.GFA_SERVICE_PARAM, filterParamValue);
         HttpEntity requestEntity = new HttpEntity<>(new HttpHeaders());
         Mockito.when(gfaLasImsLocationConnector.getRestTemplate()).thenReturn(restTemplate);
-        Mockito.when(restTemplate.getRequestFactory()).thenReturn(simpleClientHttpRequestFactory);
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setConnectTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setReadTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
         Mockito.when(restTemplate.exchange(builder.build().encode().toUri(), HttpMethod.GET, requestEntity, GFAItemStatusCheckResponse.class)).thenReturn(responseEntity);
         GFAItemStatusCheckResponse response = gfaLasImsLocationConnector.itemStatusCheck(gfaItemStatusCheckRequest);
         assertNotNull(response);
@@ -354,9 +368,6 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
         HttpEntity<GFAPwdRequest> requestEntity = new HttpEntity<>(gfaPwdRequest, getHttpHeaders());
         Mockito.when(gfaLasImsLocationConnector.getRestTemplate()).thenReturn(restTemplate);
         Mockito.when(gfaLasServiceUtil.convertJsonToString(requestEntity.getBody())).thenReturn("");
-        Mockito.when(restTemplate.getRequestFactory()).thenReturn(simpleClientHttpRequestFactory);
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setConnectTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setReadTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
         Mockito.when(restTemplate.exchange(gfaItemPermanentWithdrawlDirect, HttpMethod.POST, requestEntity, GFAPwdResponse.class)).thenReturn(responseEntity);
         GFAPwdResponse response = gfaLasImsLocationConnector.gfaPermanentWithdrawalDirect(gfaPwdRequest);
         assertNotNull(response);
@@ -379,9 +390,6 @@ public class GFALasImsLocationConnectorUT extends BaseTestCaseUT {
         ResponseEntity<GFAPwiResponse> responseEntity = new ResponseEntity<>(gfaPwiResponse, HttpStatus.OK);
         HttpEntity<GFAPwiRequest> requestEntity = new HttpEntity<>(gfaPwiRequest, getHttpHeaders());
         Mockito.when(gfaLasImsLocationConnector.getRestTemplate()).thenReturn(restTemplate);
-        Mockito.when(restTemplate.getRequestFactory()).thenReturn(simpleClientHttpRequestFactory);
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setConnectTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
-        Mockito.doNothing().when(simpleClientHttpRequestFactory).setReadTimeout(Integer.parseInt(imsConfigProperties.getImsServerResponseTimeoutMillis()));
         Mockito.when(restTemplate.exchange(gfaItemPermanentWithdrawlInDirect, HttpMethod.POST, requestEntity, GFAPwiResponse.class)).thenReturn(responseEntity);
         GFAPwiResponse response = gfaLasImsLocationConnector.gfaPermanentWithdrawalInDirect(gfaPwiRequest);
         assertNotNull(response);
@@ -1,21 +1,32 @@
 package org.recap.ims.connector.factory;
 
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.recap.BaseTestCaseUT;
 import org.recap.ims.connector.AbstractLASImsLocationConnector;
+import org.recap.ims.connector.GFALasImsLocationConnector;
 import org.recap.model.IMSConfigProperties;
 import org.recap.util.PropertyUtil;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.Assert.fail;
 
 
 public class LASImsLocationConnectorFactoryUT extends BaseTestCaseUT {
@@ -26,22 +37,94 @@ public class LASImsLocationConnectorFactoryUT extends BaseTestCaseUT {
     @Mock
     private PropertyUtil propertyUtil;
 
-    @Mock
-    IMSConfigProperties imsConfigProperties;
-
-    @Mock
-    AbstractLASImsLocationConnector abstractLASImsLocationConnector;
-    private final List<AbstractLASImsLocationConnector> imsLocationConnectors = new ArrayList<>();
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(lasImsLocationConnectorFactory, "maxConnections", 5);
+        ReflectionTestUtils.setField(lasImsLocationConnectorFactory, "keepAliveMillis", 1000L);
+        ReflectionTestUtils.setField(lasImsLocationConnectorFactory, "defaultTimeoutMillis", 1000);
+    }
 
+    @After
+    public void tearDown() {
+        lasImsLocationConnectorFactory.shutdown();
+    }
 
     @Test
     public void getLasImsLocationConnector(){
-        imsLocationConnectors.add(abstractLASImsLocationConnector);
-        lasImsLocationConnectorFactory = new LASImsLocationConnectorFactory();
-        ReflectionTestUtils.setField(lasImsLocationConnectorFactory,"propertyUtil",propertyUtil);
-        Mockito.when(propertyUtil.getIMSConfigProperties(any())).thenReturn(imsConfigProperties);
-        //Mockito.when(abstractLASImsLocationConnector.supports("HD")).thenReturn(true);
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties("1000"));
         AbstractLASImsLocationConnector abstractLASImsLocationConnector = lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
         assertNotNull(abstractLASImsLocationConnector);
+        assertTrue(((GFALasImsLocationConnector) abstractLASImsLocationConnector).getRestTemplate().getRequestFactory() instanceof HttpComponentsClientHttpRequestFactory);
+    }
+
+    @Test
+    public void getLasImsLocationConnectorIsCachedPerImsLocation() {
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties("1000"));
+        Mockito.when(propertyUtil.getIMSConfigProperties("RECAP")).thenReturn(getIMSConfigProperties("1000"));
+        AbstractLASImsLocationConnector connector = lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        assertSame(connector, lasImsLocationConnectorFactory.getLasImsLocationConnector("HD"));
+        assertNotSame(connector, lasImsLocationConnectorFactory.getLasImsLocationConnector("RECAP"));
+    }
+
+    @Test
+    public void getLasImsLocationConnectorIsReusedForEqualConfig() {
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties("1000"), getIMSConfigProperties("1000"));
+        AbstractLASImsLocationConnector connector = lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        assertSame(connector, lasImsLocationConnectorFactory.getLasImsLocationConnector("HD"));
+        assertEquals(0, lasImsLocationConnectorFactory.getRetiredClientCount());
+    }
+
+    @Test
+    public void replacedClientIsClosedOnlyAfterItsLeasedConnectionsAreReleased() throws Exception {
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties("1"), getIMSConfigProperties("2"), getIMSConfigProperties("2"));
+        lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        PoolingHttpClientConnectionManager connectionManager = getConnectionManager(getClients().get("HD"));
+        HttpRoute route = new HttpRoute(new HttpHost("localhost", 9092));
+        HttpClientConnection connection = connectionManager.requestConnection(route, null).get(1, TimeUnit.SECONDS);
+
+        lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        Thread.sleep(10);
+        lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        assertEquals(1, lasImsLocationConnectorFactory.getRetiredClientCount());
+        assertEquals(1, connectionManager.getTotalStats().getLeased());
+
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        assertEquals(0, lasImsLocationConnectorFactory.getRetiredClientCount());
+        try {
+            connectionManager.requestConnection(route, null);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Connection pool shut down", e.getMessage());
+        }
+    }
+
+    @Test
+    public void getLasImsLocationConnectorIsRebuiltOnConfigChange() {
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties("1000"), getIMSConfigProperties("2000"));
+        AbstractLASImsLocationConnector connector = lasImsLocationConnectorFactory.getLasImsLocationConnector("HD");
+        assertNotSame(connector, lasImsLocationConnectorFactory.getLasImsLocationConnector("HD"));
+    }
+
+    @Test
+    public void getLasImsLocationConnectorWithoutTimeout() {
+        Mockito.when(propertyUtil.getIMSConfigProperties("HD")).thenReturn(getIMSConfigProperties(null));
+        assertNotNull(lasImsLocationConnectorFactory.getLasImsLocationConnector("HD"));
+    }
+
+    private IMSConfigProperties getIMSConfigProperties(String timeoutMillis) {
+        IMSConfigProperties imsConfigProperties = new IMSConfigProperties();
+        imsConfigProperties.setImsItemStatusEndpoint("http://localhost:9092/lasapi/rest/lasapiSvc/itemStatus");
+        imsConfigProperties.setImsServerResponseTimeoutMillis(timeoutMillis);
+        return imsConfigProperties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getClients() {
+        return (Map<String, Object>) ReflectionTestUtils.getField(lasImsLocationConnectorFactory, "clients");
+    }
+
+    private PoolingHttpClientConnectionManager getConnectionManager(Object client) {
+        return (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(client, "connectionManager");
     }
 }
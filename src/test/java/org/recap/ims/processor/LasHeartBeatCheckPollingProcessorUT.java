@@ -13,18 +13,15 @@ import org.mockito.Mockito;
 import org.recap.BaseTestCaseUT;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
-import org.recap.ims.connector.AbstractLASImsLocationConnector;
 import org.recap.ims.service.GFALasService;
-import org.recap.ims.connector.factory.LASImsLocationConnectorFactory;
-import org.recap.ims.model.GFALasStatusCheckRequest;
 import org.recap.ims.model.GFALasStatusCheckResponse;
 import org.recap.ims.model.GFALasStatusDsItem;
 import org.recap.ims.model.GFALasStatusTtItem;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.request.util.ItemRequestServiceUtil;
-import org.recap.util.PropertyUtil;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 
@@ -43,17 +40,14 @@ public class LasHeartBeatCheckPollingProcessorUT extends BaseTestCaseUT {
     ProducerTemplate producerTemplate;
 
     @Mock
-    PropertyUtil propertyUtil;
+    LasImsLocationPollerManager lasImsLocationPollerManager;
 
     @Mock
-    private LASImsLocationConnectorFactory lasImsLocationConnectorFactory;
-
-    @Mock
-    AbstractLASImsLocationConnector abstractLASImsLocationConnector;
+    LasImsLocationPoller lasImsLocationPoller;
 
     @Before
     public void setup() {
-        Mockito.when(propertyUtil.getPropertyByImsLocationAndKey(any(), any())).thenReturn("1000");
+        Mockito.when(lasImsLocationPollerManager.getPoller(any())).thenReturn(lasImsLocationPoller);
     }
 
     @Test
@@ -64,9 +58,9 @@ public class LasHeartBeatCheckPollingProcessorUT extends BaseTestCaseUT {
         exchange.getIn().setHeader("John", "PUL");
         exchange.getIn().setBody(itemRequestInformation);
         GFALasStatusCheckResponse gfaLasStatusCheckResponse = getGFALasStatusCheckResponse();
-        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector(any())).thenReturn(abstractLASImsLocationConnector);
-        Mockito.when(abstractLASImsLocationConnector.heartBeatCheck(any(GFALasStatusCheckRequest.class))).thenReturn(gfaLasStatusCheckResponse);
+        Mockito.when(lasImsLocationPoller.checkHeartBeat()).thenReturn(CompletableFuture.completedFuture(gfaLasStatusCheckResponse));
         lasHeartBeatCheckPollingProcessor.pollLasHeartBeatResponse(exchange);
+        Mockito.verify(producerTemplate).sendBodyAndHeader(ScsbConstants.LAS_OUTGOING_QUEUE_PREFIX + itemRequestInformation.getImsLocationCode() + ScsbConstants.OUTGOING_QUEUE_SUFFIX, itemRequestInformation, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInformation.getRequestType());
     }
 
     @Test
@@ -88,20 +82,23 @@ public class LasHeartBeatCheckPollingProcessorUT extends BaseTestCaseUT {
         exchange.getIn().setHeader("John", "PUL");
         exchange.getIn().setBody(itemRequestInformation);
         GFALasStatusCheckResponse gfaLasStatusCheckResponse = getGFALasStatusCheckResponse();
-        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector(any())).thenReturn(abstractLASImsLocationConnector);
-        Mockito.when(abstractLASImsLocationConnector.heartBeatCheck(any(GFALasStatusCheckRequest.class))).thenReturn(gfaLasStatusCheckResponse);
+        Mockito.when(lasImsLocationPoller.checkHeartBeat()).thenReturn(CompletableFuture.completedFuture(gfaLasStatusCheckResponse));
         Mockito.doThrow(new NullPointerException()).when(producerTemplate).sendBodyAndHeader(ScsbConstants.LAS_OUTGOING_QUEUE_PREFIX + itemRequestInformation.getImsLocationCode() + ScsbConstants.OUTGOING_QUEUE_SUFFIX, itemRequestInformation, ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER, itemRequestInformation.getRequestType());
         lasHeartBeatCheckPollingProcessor.pollLasHeartBeatResponse(exchange);
     }
 
     @Test
-    public void pollLasHeartBeatResponseInterruptedException() throws Exception {
+    public void pollLasHeartBeatResponseExecutionException() throws Exception {
         ItemRequestInformation itemRequestInformation = getItemRequestInformation();
         CamelContext ctx = new DefaultCamelContext();
         Exchange exchange = new DefaultExchange(ctx);
         exchange.getIn().setHeader("John", "PUL");
         exchange.getIn().setBody(itemRequestInformation);
+        CompletableFuture<GFALasStatusCheckResponse> heartBeat = new CompletableFuture<>();
+        heartBeat.completeExceptionally(new IllegalStateException());
+        Mockito.when(lasImsLocationPoller.checkHeartBeat()).thenReturn(heartBeat);
         lasHeartBeatCheckPollingProcessor.pollLasHeartBeatResponse(exchange);
+        Mockito.verifyNoInteractions(producerTemplate);
     }
 
     private ItemRequestInformation getItemRequestInformation() {
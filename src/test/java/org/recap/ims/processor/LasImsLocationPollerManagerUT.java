@@ -0,0 +1,40 @@
+package org.recap.ims.processor;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.PropertyKeyConstants;
+import org.recap.ScsbConstants;
+import org.recap.util.PropertyUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class LasImsLocationPollerManagerUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    LasImsLocationPollerManager lasImsLocationPollerManager;
+
+    @Mock
+    PropertyUtil propertyUtil;
+
+    @After
+    public void tearDown() {
+        lasImsLocationPollerManager.shutdown();
+    }
+
+    @Test
+    public void getPollerPerImsLocation() {
+        Mockito.when(propertyUtil.getPropertyByImsLocationAndKey("HD", PropertyKeyConstants.IMS.IMS_POLLING_TIME_INTERVAL)).thenReturn("2000");
+        LasImsLocationPoller poller = lasImsLocationPollerManager.getPoller("HD");
+        assertSame(poller, lasImsLocationPollerManager.getPoller("HD"));
+        assertEquals(2000, poller.getPollingTimeIntervalMillis());
+        LasImsLocationPoller otherPoller = lasImsLocationPollerManager.getPoller("RECAP");
+        assertNotSame(poller, otherPoller);
+        assertEquals(ScsbConstants.IMS_POLLING_DEFAULT_TIME_INTERVAL_MILLIS, otherPoller.getPollingTimeIntervalMillis());
+    }
+}
@@ -0,0 +1,162 @@
+package org.recap.ims.processor;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.RouteController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.ims.connector.AbstractLASImsLocationConnector;
+import org.recap.ims.connector.factory.LASImsLocationConnectorFactory;
+import org.recap.ims.model.GFAItemStatus;
+import org.recap.ims.model.GFAItemStatusCheckRequest;
+import org.recap.ims.model.GFALasStatusCheckRequest;
+import org.recap.ims.model.GFALasStatusCheckResponse;
+import org.recap.ims.model.GFALasStatusDsItem;
+import org.recap.ims.model.GFALasStatusTtItem;
+import org.recap.model.gfa.Dsitem;
+import org.recap.model.gfa.GFAItemStatusCheckResponse;
+import org.recap.model.gfa.Ttitem;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+public class LasImsLocationPollerUT extends BaseTestCaseUT {
+
+    private static final String IMS_LOCATION_CODE = "HD";
+    private static final String ROUTE_ID = "HDRequestItemLasStatusCheckRouteId";
+
+    @Mock
+    LASImsLocationConnectorFactory lasImsLocationConnectorFactory;
+
+    @Mock
+    AbstractLASImsLocationConnector abstractLASImsLocationConnector;
+
+    @Mock
+    CamelContext camelContext;
+
+    @Mock
+    RouteController routeController;
+
+    private LasImsLocationPoller lasImsLocationPoller;
+
+    @Before
+    public void setup() {
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector(IMS_LOCATION_CODE)).thenReturn(abstractLASImsLocationConnector);
+        Mockito.when(camelContext.getRouteController()).thenReturn(routeController);
+        lasImsLocationPoller = new LasImsLocationPoller(IMS_LOCATION_CODE, 20, lasImsLocationConnectorFactory, camelContext);
+    }
+
+    @After
+    public void tearDown() {
+        lasImsLocationPoller.shutdown();
+    }
+
+    @Test
+    public void pollItemStatusCoalescesBarcodesAndRestartsRoute() throws Exception {
+        Mockito.when(abstractLASImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class)))
+                .thenReturn(null)
+                .thenReturn(getGFAItemStatusCheckResponse("111", "222"));
+        CompletableFuture<Void> first = lasImsLocationPoller.pollItemStatus("111");
+        CompletableFuture<Void> second = lasImsLocationPoller.pollItemStatus("222");
+        assertFalse(lasImsLocationPoller.isItemStatusServiceAvailable());
+        assertSame(first, second);
+
+        first.get(5, TimeUnit.SECONDS);
+        Mockito.verify(routeController).stopRoute(ROUTE_ID);
+        Mockito.verify(routeController, Mockito.timeout(5000)).startRoute(ROUTE_ID);
+        Mockito.verify(routeController, Mockito.times(1)).stopRoute(ROUTE_ID);
+        assertTrue(lasImsLocationPoller.isItemStatusServiceAvailable());
+        assertEquals(0, lasImsLocationPoller.getPendingItemBarcodeCount());
+
+        ArgumentCaptor<GFAItemStatusCheckRequest> requestCaptor = ArgumentCaptor.forClass(GFAItemStatusCheckRequest.class);
+        Mockito.verify(abstractLASImsLocationConnector, Mockito.times(2)).itemStatusCheck(requestCaptor.capture());
+        List<String> barcodes = requestCaptor.getValue().getItemStatus().stream().map(GFAItemStatus::getItemBarCode).sorted().collect(Collectors.toList());
+        assertEquals(Arrays.asList("111", "222"), barcodes);
+    }
+
+    @Test
+    public void pollItemStatusCompletesOnlyOnceRouteIsStopped() throws Exception {
+        CountDownLatch stopping = new CountDownLatch(1);
+        CountDownLatch stopReleased = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            stopping.countDown();
+            stopReleased.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(routeController).stopRoute(ROUTE_ID);
+        CompletableFuture<Void> routeStopped = lasImsLocationPoller.pollItemStatus("111");
+        assertTrue(stopping.await(5, TimeUnit.SECONDS));
+        assertFalse(routeStopped.isDone());
+        stopReleased.countDown();
+        routeStopped.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void pollItemStatusKeepsBarcodeOnce() {
+        Mockito.when(abstractLASImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenReturn(null);
+        assertSame(lasImsLocationPoller.pollItemStatus("111"), lasImsLocationPoller.pollItemStatus("111"));
+        assertEquals(1, lasImsLocationPoller.getPendingItemBarcodeCount());
+    }
+
+    @Test
+    public void checkHeartBeatIsSharedUntilLasIsUp() throws Exception {
+        Mockito.when(abstractLASImsLocationConnector.heartBeatCheck(any(GFALasStatusCheckRequest.class)))
+                .thenReturn(getGFALasStatusCheckResponse(false))
+                .thenReturn(getGFALasStatusCheckResponse(true));
+        CompletableFuture<GFALasStatusCheckResponse> heartBeat = lasImsLocationPoller.checkHeartBeat();
+        assertEquals("true", heartBeat.get(5, TimeUnit.SECONDS).getDsitem().getTtitem().get(0).getSuccess());
+        Mockito.verify(abstractLASImsLocationConnector, Mockito.times(2)).heartBeatCheck(any(GFALasStatusCheckRequest.class));
+        assertFalse(heartBeat == lasImsLocationPoller.checkHeartBeat());
+    }
+
+    @Test
+    public void checkHeartBeatJoinsPendingCheck() {
+        Mockito.when(abstractLASImsLocationConnector.heartBeatCheck(any(GFALasStatusCheckRequest.class))).thenReturn(getGFALasStatusCheckResponse(false));
+        LasImsLocationPoller slowPoller = new LasImsLocationPoller(IMS_LOCATION_CODE, TimeUnit.HOURS.toMillis(1), lasImsLocationConnectorFactory, camelContext);
+        try {
+            CompletableFuture<GFALasStatusCheckResponse> heartBeat = slowPoller.checkHeartBeat();
+            assertSame(heartBeat, slowPoller.checkHeartBeat());
+            assertFalse(heartBeat.isDone());
+        } finally {
+            slowPoller.shutdown();
+        }
+    }
+
+    private GFAItemStatusCheckResponse getGFAItemStatusCheckResponse(String... barcodes) {
+        GFAItemStatusCheckResponse gfaItemStatusCheckResponse = new GFAItemStatusCheckResponse();
+        Dsitem dsitem = new Dsitem();
+        dsitem.setTtitem(Arrays.stream(barcodes).map(barcode -> {
+            Ttitem ttitem = new Ttitem();
+            ttitem.setItemBarcode(barcode);
+            ttitem.setItemStatus("IN");
+            return ttitem;
+        }).collect(Collectors.toList()));
+        gfaItemStatusCheckResponse.setDsitem(dsitem);
+        return gfaItemStatusCheckResponse;
+    }
+
+    private GFALasStatusCheckResponse getGFALasStatusCheckResponse(boolean success) {
+        GFALasStatusCheckResponse gfaLasStatusCheckResponse = new GFALasStatusCheckResponse();
+        GFALasStatusDsItem gfaLasStatusDsItem = new GFALasStatusDsItem();
+        GFALasStatusTtItem gfaLasStatusTtItem = new GFALasStatusTtItem();
+        gfaLasStatusTtItem.setImsLocationCode(IMS_LOCATION_CODE);
+        gfaLasStatusTtItem.setSuccess(String.valueOf(success));
+        gfaLasStatusDsItem.setTtitem(Collections.singletonList(gfaLasStatusTtItem));
+        gfaLasStatusCheckResponse.setDsitem(gfaLasStatusDsItem);
+        return gfaLasStatusCheckResponse;
+    }
+}
@@ -2,6 +2,7 @@ package org.recap.ims.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.ProducerTemplate;
@@ -9,6 +10,7 @@ import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.spi.RouteController;
 import org.apache.camel.support.DefaultExchange;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,6 +33,7 @@ import org.recap.model.jpa.*;
 import org.recap.ims.processor.LasItemStatusCheckPollingProcessor;
 import org.recap.model.search.SearchResultRow;
 import org.recap.repository.jpa.*;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.request.service.ItemRequestService;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
@@ -45,10 +48,21 @@ import org.springframework.web.client.RestTemplate;
 import java.sql.Time;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
+import org.recap.request.util.RequestLifecycleMetrics;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 
@@ -116,11 +130,31 @@ public class GFALasServiceUT extends BaseTestCaseUT{
     @Mock
     private PropertyUtil propertyUtil;
 
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @InjectMocks
+    RequestLifecycleMetrics requestLifecycleMetrics;
+
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(gfaLasService, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(requestLifecycleMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(gfaLasService, "requestLifecycleMetrics", requestLifecycleMetrics);
         Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector(any())).thenReturn(abstractLASImsLocationConnector);
         Mockito.when(propertyUtil.getPropertyByImsLocationAndKey(any(), any())).thenReturn(Boolean.TRUE.toString());
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckThreadsPerLocation", 4);
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckPageSize", 500);
+    }
+
+    @After
+    public void tearDown() {
+        gfaLasService.stopItemStatusCheckExecutor();
     }
 
     @Test
@@ -426,17 +460,38 @@ public class GFALasServiceUT extends BaseTestCaseUT{
     public void startPolling() {
         String barcode = "135621";
         String imsLocationCode = "PUL";
-        CamelContext ctx = new DefaultCamelContext();
         GFAItemStatusCheckResponse gfaItemStatusCheckResponse = getGfaItemStatusCheckResponse();
-        Mockito.when(lasItemStatusCheckPollingProcessor.pollLasItemStatusJobResponse(any(), any(), any())).thenReturn(gfaItemStatusCheckResponse);
-        gfaLasService.startPolling(barcode, imsLocationCode);
+        CompletableFuture<Void> routeStopped = CompletableFuture.completedFuture(null);
+        Mockito.when(lasItemStatusCheckPollingProcessor.pollLasItemStatusJobResponse(any(), any())).thenReturn(routeStopped);
+        assertSame(routeStopped, gfaLasService.startPolling(barcode, imsLocationCode));
+        Mockito.verify(lasItemStatusCheckPollingProcessor).pollLasItemStatusJobResponse(barcode, imsLocationCode);
     }
     @Test
     public void startPollingException(){
         String barcode = "135621";
         String imsLocationCode = "PUL";
-        Mockito.doThrow(new NullPointerException()).when(lasItemStatusCheckPollingProcessor).pollLasItemStatusJobResponse(any(),any(),any());
-        gfaLasService.startPolling(barcode,imsLocationCode);
+        Mockito.doThrow(new NullPointerException()).when(lasItemStatusCheckPollingProcessor).pollLasItemStatusJobResponse(any(),any());
+        assertTrue(gfaLasService.startPolling(barcode,imsLocationCode).isDone());
+    }
+    @Test
+    public void executeRetrieveOrderPublishesStatusCheckOnceRouteIsStopped() {
+        ItemRequestInformation itemRequestInfo = getItemRequestInformation();
+        itemRequestInfo.setImsLocationCode("HD");
+        itemRequestInfo.setRequestId(1);
+        RequestStatusEntity requestStatusEntity = new RequestStatusEntity();
+        requestStatusEntity.setId(1);
+        requestStatusEntity.setRequestStatusCode(ScsbConstants.REQUEST_STATUS_LAS_ITEM_STATUS_PENDING);
+        CompletableFuture<Void> routeStopped = new CompletableFuture<>();
+        Mockito.when(abstractLASImsLocationConnector.itemStatusCheck(any())).thenReturn(new GFAItemStatusCheckResponse());
+        Mockito.when(requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbConstants.REQUEST_STATUS_LAS_ITEM_STATUS_PENDING)).thenReturn(requestStatusEntity);
+        Mockito.when(requestItemDetailsRepository.findRequestItemById(1)).thenReturn(getRequestItemEntity());
+        Mockito.when(lasItemStatusCheckPollingProcessor.pollLasItemStatusJobResponse(any(), any())).thenReturn(routeStopped);
+        String queue = ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_PREFIX + "HD" + ScsbConstants.REQUEST_ITEM_LAS_STATUS_CHECK_QUEUE_SUFFIX;
+        ItemInformationResponse response = gfaLasService.executeRetrieveOrder(itemRequestInfo, getItemInformationResponse());
+        assertTrue(response.isSuccess());
+        Mockito.verify(producer, Mockito.never()).sendBodyAndHeader(any(String.class), any(), any(String.class), any());
+        routeStopped.complete(null);
+        Mockito.verify(producer).sendBodyAndHeader(Mockito.eq(queue), any(), Mockito.eq(ScsbCommonConstants.REQUEST_TYPE_QUEUE_HEADER), any());
     }
     @Test
     public void getGfaItemStatusInUpperCase(){
@@ -512,6 +567,70 @@ public class GFALasServiceUT extends BaseTestCaseUT{
         gfaLasService.getGFAItemStatusCheckResponseByBarcodesAndImsLocationList(itemsStatusCheckModel);
     }
 
+    @Test
+    public void getGFAItemStatusCheckResponseByImsLocationsOnSeparateExecutors() throws Exception {
+        AbstractLASImsLocationConnector paLasImsLocationConnector = Mockito.mock(AbstractLASImsLocationConnector.class);
+        AbstractLASImsLocationConnector hdLasImsLocationConnector = Mockito.mock(AbstractLASImsLocationConnector.class);
+        AbstractLASImsLocationConnector ucLasImsLocationConnector = Mockito.mock(AbstractLASImsLocationConnector.class);
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector("PA")).thenReturn(paLasImsLocationConnector);
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector("HD")).thenReturn(hdLasImsLocationConnector);
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector("UC")).thenReturn(ucLasImsLocationConnector);
+        Mockito.when(paLasImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenAnswer(invocation -> {
+            GFAItemStatusCheckRequest gfaItemStatusCheckRequest = invocation.getArgument(0);
+            List<Ttitem> ttitems = new ArrayList<>();
+            for (GFAItemStatus gfaItemStatus : gfaItemStatusCheckRequest.getItemStatus()) {
+                Ttitem ttitem = new Ttitem();
+                ttitem.setItemBarcode(gfaItemStatus.getItemBarCode());
+                ttitem.setItemStatus("IN");
+                ttitems.add(ttitem);
+            }
+            Dsitem dsitem = new Dsitem();
+            dsitem.setTtitem(ttitems);
+            GFAItemStatusCheckResponse gfaItemStatusCheckResponse = new GFAItemStatusCheckResponse();
+            gfaItemStatusCheckResponse.setDsitem(dsitem);
+            return gfaItemStatusCheckResponse;
+        });
+        CountDownLatch releaseLas = new CountDownLatch(1);
+        Mockito.when(hdLasImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenAnswer(invocation -> {
+            releaseLas.await(5, TimeUnit.SECONDS);
+            return getGfaItemStatusCheckResponse();
+        });
+        Mockito.when(ucLasImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenThrow(new RestClientException("Connection refused"));
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckThreadsPerLocation", 1);
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckTimeoutMillis", 200L);
+        ReflectionTestUtils.setField(gfaLasService, "itemStatusCheckPageSize", 2);
+        try {
+            List<ScsbLasItemStatusCheckModel> itemsStatusCheckModel = Arrays.asList(getScsbLasItemStatusCheckModel("1", "PA"),
+                    getScsbLasItemStatusCheckModel("2", "HD"), getScsbLasItemStatusCheckModel("3", "PA"),
+                    getScsbLasItemStatusCheckModel("4", "UC"), getScsbLasItemStatusCheckModel("5", "PA"));
+
+            List<ScsbLasItemStatusCheckModel> response = gfaLasService.getGFAItemStatusCheckResponseByBarcodesAndImsLocationList(itemsStatusCheckModel);
+
+            assertEquals(5, response.size());
+            assertEquals(Arrays.asList("1", "3", "5", "2", "4"), response.stream().map(ScsbLasItemStatusCheckModel::getItemBarcode).collect(Collectors.toList()));
+            assertEquals("IN", response.get(2).getItemStatus());
+            assertEquals("PA", response.get(2).getImsLocation());
+            assertEquals(ScsbConstants.GFA_ITEM_STATUS_CHECK_TIMED_OUT, response.get(3).getItemStatus());
+            assertEquals(ScsbConstants.REQUEST_LAS_EXCEPTION + "Connection refused", response.get(4).getItemStatus());
+            Mockito.verify(paLasImsLocationConnector, Mockito.times(2)).itemStatusCheck(any(GFAItemStatusCheckRequest.class));
+        } finally {
+            releaseLas.countDown();
+        }
+    }
+
+    @Test
+    public void callGfaItemStatuses() {
+        AbstractLASImsLocationConnector ucLasImsLocationConnector = Mockito.mock(AbstractLASImsLocationConnector.class);
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector("PA")).thenReturn(abstractLASImsLocationConnector);
+        Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector("UC")).thenReturn(ucLasImsLocationConnector);
+        Mockito.when(abstractLASImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenReturn(getGfaItemStatusCheckResponse());
+        Mockito.when(ucLasImsLocationConnector.itemStatusCheck(any(GFAItemStatusCheckRequest.class))).thenThrow(new RestClientException("Connection refused"));
+
+        Map<String, String> gfaItemStatuses = gfaLasService.callGfaItemStatuses(Arrays.asList(getScsbLasItemStatusCheckModel("7020", "PA"), getScsbLasItemStatusCheckModel("4", "UC")));
+
+        assertEquals(Collections.singletonMap("7020", "NOT ON FILE"), gfaItemStatuses);
+    }
+
     @Test
     public void buildGFAEddItemRequest(){
         RequestItemEntity requestItemEntity = getRequestItemEntity();
@@ -703,6 +822,13 @@ public class GFALasServiceUT extends BaseTestCaseUT{
         return gfaItemStatusCheckResponse;
     }
 
+    private ScsbLasItemStatusCheckModel getScsbLasItemStatusCheckModel(String itemBarcode, String imsLocation) {
+        ScsbLasItemStatusCheckModel scsbLasItemStatusCheckModel = new ScsbLasItemStatusCheckModel();
+        scsbLasItemStatusCheckModel.setItemBarcode(itemBarcode);
+        scsbLasItemStatusCheckModel.setImsLocation(imsLocation);
+        return scsbLasItemStatusCheckModel;
+    }
+
     private GFAItemStatusCheckRequest getGfaItemStatusCheckRequest() {
         GFAItemStatusCheckRequest gfaItemStatusCheckRequest = new GFAItemStatusCheckRequest();
         GFAItemStatus gfaItemStatus = new GFAItemStatus();
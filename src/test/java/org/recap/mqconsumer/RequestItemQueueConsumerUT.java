@@ -1,6 +1,7 @@
 package org.recap.mqconsumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
@@ -24,6 +25,8 @@ import org.recap.request.service.ItemRequestService;
 import java.io.IOException;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertNotNull;
+
 /**
  * Created by hemalathas on 14/3/17.
  */
@@ -57,7 +60,7 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
     ItemEDDRequestService itemEDDRequestService;
 
     @Mock
-    ObjectMapper om;
+    ObjectReader itemRequestInformationReader;
 
     @Before
     public void setup() {
@@ -67,7 +70,7 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
         Mockito.when(requestItemQueueConsumer.getItemEDDRequestService()).thenReturn(itemEDDRequestService);
         Mockito.when(requestItemQueueConsumer.getItemRequestService()).thenReturn(itemRequestService);
         Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
-        Mockito.when(requestItemQueueConsumer.getObjectMapper()).thenReturn(om);
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
     }
 
     @Test
@@ -83,23 +86,38 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
         ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
         itemRequestInformation.setItemBarcodes(Arrays.asList("123"));
         String body = itemRequestInformation.toString();
-        Mockito.when(requestItemQueueConsumer.getObjectMapper()).thenReturn(om);
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
         Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
         Mockito.when(requestItemQueueConsumer.getItemRequestService()).thenReturn(itemRequestService);
-        Mockito.when(requestItemQueueConsumer.getObjectMapper().readValue(body, ItemRequestInformation.class)).thenReturn(itemRequestInformation);
+        Mockito.when(itemRequestInformationReader.readValue(body)).thenReturn(itemRequestInformation);
         Mockito.doCallRealMethod().when(requestItemQueueConsumer).requestItemOnMessage(body,exchange);
         requestItemQueueConsumer.requestItemOnMessage(body,exchange);
     }
 
+    @Test
+    public void testRequestItemBatchOnMessage() throws IOException {
+        ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+        itemRequestInformation.setItemBarcodes(Arrays.asList("123"));
+        String body = itemRequestInformation.toString();
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
+        Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
+        Mockito.when(requestItemQueueConsumer.getItemRequestService()).thenReturn(itemRequestService);
+        Mockito.when(itemRequestInformationReader.readValue(body)).thenReturn(itemRequestInformation);
+        Mockito.when(itemRequestInformationReader.readValue("invalid")).thenThrow(new JsonParseException(null, "invalid"));
+        Mockito.doCallRealMethod().when(requestItemQueueConsumer).requestItemBatchOnMessage(Arrays.asList(body, "invalid", body), exchange);
+        requestItemQueueConsumer.requestItemBatchOnMessage(Arrays.asList(body, "invalid", body), exchange);
+        Mockito.verify(itemRequestService).requestItems(Arrays.asList(itemRequestInformation, itemRequestInformation), exchange);
+    }
+
     @Test
     public void testRequestItemEDDOnMessage() throws IOException {
         ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
         itemRequestInformation.setItemBarcodes(Arrays.asList("123"));
         String body = itemRequestInformation.toString();
-        Mockito.when(requestItemQueueConsumer.getObjectMapper()).thenReturn(om);
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
         Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
         Mockito.when(requestItemQueueConsumer.getItemEDDRequestService()).thenReturn(itemEDDRequestService);
-        Mockito.when(requestItemQueueConsumer.getObjectMapper().readValue(body, ItemRequestInformation.class)).thenReturn(itemRequestInformation);
+        Mockito.when(itemRequestInformationReader.readValue(body)).thenReturn(itemRequestInformation);
         Mockito.doCallRealMethod().when(requestItemQueueConsumer).requestItemEDDOnMessage(body,exchange);
         requestItemQueueConsumer.requestItemEDDOnMessage(body,exchange);
     }
@@ -109,10 +127,10 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
         ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
         itemRequestInformation.setItemBarcodes(Arrays.asList("123"));
         String body = itemRequestInformation.toString();
-        Mockito.when(requestItemQueueConsumer.getObjectMapper()).thenReturn(om);
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
         Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
         Mockito.when(requestItemQueueConsumer.getItemRequestService()).thenReturn(itemRequestService);
-        Mockito.when(requestItemQueueConsumer.getObjectMapper().readValue(body, ItemRequestInformation.class)).thenReturn(itemRequestInformation);
+        Mockito.when(itemRequestInformationReader.readValue(body)).thenReturn(itemRequestInformation);
         Mockito.doCallRealMethod().when(requestItemQueueConsumer).requestItemBorrowDirectOnMessage(body,exchange);
         requestItemQueueConsumer.requestItemBorrowDirectOnMessage(body,exchange);
     }
@@ -122,10 +140,10 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
         ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
         itemRequestInformation.setItemBarcodes(Arrays.asList("123"));
         String body = itemRequestInformation.toString();
-        Mockito.when(requestItemQueueConsumer.getObjectMapper()).thenReturn(om);
+        Mockito.when(requestItemQueueConsumer.getItemRequestInformationReader()).thenReturn(itemRequestInformationReader);
         Mockito.when(requestItemQueueConsumer.getLogger()).thenReturn(log);
         Mockito.when(requestItemQueueConsumer.getItemRequestService()).thenReturn(itemRequestService);
-        Mockito.when(requestItemQueueConsumer.getObjectMapper().readValue(body, ItemRequestInformation.class)).thenReturn(itemRequestInformation);
+        Mockito.when(itemRequestInformationReader.readValue(body)).thenReturn(itemRequestInformation);
         Mockito.doCallRealMethod().when(requestItemQueueConsumer).requestItemRecallOnMessage(body,exchange);
         requestItemQueueConsumer.requestItemRecallOnMessage(body,exchange);
     }
@@ -286,6 +304,7 @@ public class RequestItemQueueConsumerUT extends BaseTestCaseUT {
         mockedRequestItemQueueConsumer.getInstitutionCode();
         mockedRequestItemQueueConsumer.getLogger();
         mockedRequestItemQueueConsumer.getObjectMapper();
+        assertNotNull(mockedRequestItemQueueConsumer.getItemRequestInformationReader());
         RequestItemQueueConsumer requestItemQueueConsumer = new RequestItemQueueConsumer(itemRequestService,itemEDDRequestService);
         requestItemQueueConsumer.getLogger();
     }
@@ -2,27 +2,37 @@ package org.recap.request.service;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.recap.BaseTestCaseUT;
+import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
 import org.recap.controller.RequestItemController;
+import org.recap.model.request.BulkRequestItem;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.response.ItemCheckoutResponse;
 import org.recap.model.response.ItemInformationResponse;
 import org.recap.ims.service.GFALasService;
 import org.recap.model.jpa.*;
+import org.recap.repository.jpa.BulkRequestChunkRepository;
 import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.repository.jpa.RequestItemDetailsRepository;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 
 public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
@@ -50,6 +60,15 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
     @Mock
     private CommonUtil commonUtil;
 
+    @Mock
+    private BulkRequestProgressService bulkRequestProgressService;
+
+    @Mock
+    private BulkRequestChunkRepository bulkRequestChunkRepository;
+
+    @Mock
+    private RequestItemDetailsRepository requestItemDetailsRepository;
+
     @Before
     public void setup() {
     }
@@ -68,7 +87,7 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         bulkRequestItemEntity.setStopCode("PA");
         bulkRequestItemEntity.setPatronId("45678915");
         try {
-            bulkItemRequestProcessService.processBulkRequestItem("33433001888415", bulkRequestItemEntity.getId());
+            bulkItemRequestProcessService.processBulkRequestItem("33433001888415", bulkRequestItemEntity.getId(), null);
         } catch (Exception e) {
         }
     }
@@ -80,7 +99,7 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
         Mockito.when(bulkRequestItemDetailsRepository.save(bulkRequestItemEntity)).thenReturn(bulkRequestItemEntity);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
     }
 
     @Test
@@ -91,7 +110,7 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         bulkRequestItemEntity.getRequestItemEntities().get(0).getRequestStatusEntity().setRequestStatusCode("INCOMPLETE");
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
         Mockito.when(bulkRequestItemDetailsRepository.save(bulkRequestItemEntity)).thenReturn(bulkRequestItemEntity);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
     }
 
     @Test
@@ -99,7 +118,7 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         String itemBarcode = "Complete";
         int bulkRequestId = 1;
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
     }
 
     @Test
@@ -115,16 +134,16 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         itemInformationResponse.setSuccess(true);
         Mockito.when(requestItemController.checkoutItem(any(), any())).thenReturn(itemCheckoutResponse);
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
-        Mockito.when(itemDetailsRepository.findByBarcode(itemBarcode)).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         Mockito.doNothing().when(itemRequestDBService).updateItemAvailabilityStatus(Arrays.asList(itemEntity), bulkRequestItemEntity.getCreatedBy());
         Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
         itemInformationResponse.setRequestTypeForScheduledOnWO(false);
         Mockito.when(gfaLasService.isUseQueueLasCall(any())).thenReturn(true);
         Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
         itemInformationResponse.setSuccess(false);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
     }
 
     @Test
@@ -140,16 +159,16 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         itemInformationResponse.setSuccess(true);
         Mockito.when(requestItemController.checkoutItem(any(), any())).thenReturn(itemCheckoutResponse);
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
-        Mockito.when(itemDetailsRepository.findByBarcode(itemBarcode)).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         Mockito.doNothing().when(itemRequestDBService).updateItemAvailabilityStatus(Arrays.asList(itemEntity), bulkRequestItemEntity.getCreatedBy());
         Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
         itemInformationResponse.setRequestTypeForScheduledOnWO(false);
         Mockito.when(gfaLasService.isUseQueueLasCall(any())).thenReturn(false);
         Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
         itemInformationResponse.setSuccess(false);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
     }
 
     @Test
@@ -162,12 +181,128 @@ public class BulkItemRequestProcessServiceUT extends BaseTestCaseUT {
         ItemCheckoutResponse itemCheckoutResponse = new ItemCheckoutResponse();
         itemCheckoutResponse.setSuccess(false);
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
-        Mockito.when(itemDetailsRepository.findByBarcode(itemBarcode)).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         Mockito.when(gfaLasService.isUseQueueLasCall(any())).thenReturn(true);
         Mockito.doNothing().when(itemRequestDBService).updateItemAvailabilityStatus(Arrays.asList(itemEntity), bulkRequestItemEntity.getCreatedBy());
         Mockito.when(requestItemController.checkoutItem(any(), any())).thenReturn(itemCheckoutResponse);
-        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId);
+        bulkItemRequestProcessService.processBulkRequestItem(itemBarcode, bulkRequestId, null);
+
+    }
+
+    @Test
+    public void processBulkRequestItemChunkCompletesBulkRequestOnLastChunk() {
+        int bulkRequestId = 1;
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        ItemEntity itemEntity = getItemEntity();
+        ItemEntity otherItemEntity = getItemEntity();
+        otherItemEntity.setBarcode("654321");
+        ItemCheckoutResponse itemCheckoutResponse = new ItemCheckoutResponse();
+        ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        itemInformationResponse.setSuccess(true);
+        Mockito.when(requestItemController.checkoutItem(any(), any())).thenReturn(itemCheckoutResponse);
+        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(bulkRequestItemDetailsRepository.save(bulkRequestItemEntity)).thenReturn(bulkRequestItemEntity);
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(Arrays.asList("123456", "654321"))).thenReturn(Arrays.asList(itemEntity, otherItemEntity));
+        Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
+        Mockito.when(itemRequestDBService.updateRecapRequestItem(any(), any(), any(), any())).thenReturn(1, 1, 2, 2);
+        Mockito.when(requestItemDetailsRepository.findAllById(Arrays.asList(1, 2))).thenReturn(bulkRequestItemEntity.getRequestItemEntities());
+        Mockito.when(bulkRequestProgressService.completeChunk(bulkRequestId, 11)).thenReturn(false);
+        Mockito.when(bulkRequestProgressService.completeChunk(bulkRequestId, 12)).thenReturn(true);
+
+        bulkItemRequestProcessService.processBulkRequestItem("123456,654321", bulkRequestId, 11);
+        Mockito.verify(itemDetailsRepository).findByBarcodeIn(Arrays.asList("123456", "654321"));
+        Mockito.verify(gfaLasService, Mockito.times(2)).executeRetrieveOrder(any(), any());
+        ArgumentCaptor<List<BulkRequestItem>> bulkRequestItems = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemRequestServiceUtil).updateStatusToBarcodes(bulkRequestItems.capture(), eq(bulkRequestId));
+        assertEquals(1, bulkRequestItems.getValue().size());
+        assertEquals(ScsbCommonConstants.SUCCESS, bulkRequestItems.getValue().get(0).getStatus());
+        Mockito.verify(itemRequestServiceUtil, Mockito.never()).generateReportAndSendEmail(bulkRequestId);
+
+        bulkItemRequestProcessService.processBulkRequestItem("123456,654321", bulkRequestId, 12);
+        Mockito.verify(itemRequestServiceUtil).generateReportAndSendEmail(bulkRequestId);
+        assertEquals(ScsbConstants.PROCESSED, bulkRequestItemEntity.getBulkRequestStatus());
+    }
+
+    @Test
+    public void processBulkRequestItemReportsFailedBarcodes() {
+        int bulkRequestId = 1;
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        ItemEntity itemEntity = getItemEntity();
+        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(Arrays.asList("123456", "654321"))).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemRequestDBService.updateRecapRequestItem(any(), any(), any(), any())).thenReturn(1);
+        Mockito.when(requestItemController.checkoutItem(any(), any())).thenThrow(new IllegalStateException("ILS down"));
+        Mockito.when(requestItemDetailsRepository.findAllById(Collections.emptyList())).thenReturn(Collections.emptyList());
+
+        bulkItemRequestProcessService.processBulkRequestItem("123456,654321", bulkRequestId, 11);
+
+        ArgumentCaptor<List<BulkRequestItem>> bulkRequestItems = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemRequestServiceUtil).updateStatusToBarcodes(bulkRequestItems.capture(), eq(bulkRequestId));
+        assertEquals(2, bulkRequestItems.getValue().size());
+        assertEquals("123456", bulkRequestItems.getValue().get(0).getItemBarcode());
+        assertEquals("1", bulkRequestItems.getValue().get(0).getRequestId());
+        assertEquals(ScsbConstants.INTERNAL_ERROR_DURING_REQUEST, bulkRequestItems.getValue().get(0).getStatus());
+        assertEquals("654321", bulkRequestItems.getValue().get(1).getItemBarcode());
+        assertEquals(ScsbConstants.INTERNAL_ERROR_DURING_REQUEST, bulkRequestItems.getValue().get(1).getStatus());
+    }
+
+    @Test
+    public void processBulkRequestItemSkipsProcessedChunk() {
+        int bulkRequestId = 1;
+        Mockito.when(bulkRequestChunkRepository.existsByIdAndProcessedTrue(11)).thenReturn(true);
+
+        bulkItemRequestProcessService.processBulkRequestItem("123456,654321", bulkRequestId, 11);
+
+        Mockito.verifyNoInteractions(itemDetailsRepository, requestItemController, gfaLasService, bulkRequestProgressService);
+    }
+
+    @Test
+    public void processBulkRequestItemDoesNotCompleteChunkWhenProcessingFails() {
+        int bulkRequestId = 1;
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(Arrays.asList("123456", "654321"))).thenThrow(new IllegalStateException("Database down"));
+
+        try {
+            bulkItemRequestProcessService.processBulkRequestItem("123456,654321", bulkRequestId, 11);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Database down", e.getMessage());
+        }
+
+        Mockito.verifyNoInteractions(bulkRequestProgressService);
+        Mockito.verify(itemRequestServiceUtil, Mockito.never()).generateReportAndSendEmail(any());
+    }
+
+    @Test
+    public void processBulkRequestItemSkipsBarcodesAlreadyProcessed() {
+        int bulkRequestId = 1;
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        RequestItemEntity requestItemEntity = bulkRequestItemEntity.getRequestItemEntities().get(0);
+        requestItemEntity.getItemEntity().setBarcode("654321");
+        List<String> barcodes = Arrays.asList("123456", "654321", "111111");
+        ItemEntity itemEntity = getItemEntity();
+        itemEntity.setBarcode("111111");
+        ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        itemInformationResponse.setSuccess(true);
+        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemRequestServiceUtil.findBarcodesWithStatus(barcodes, bulkRequestId)).thenReturn(Collections.singleton("123456"));
+        Mockito.when(requestItemDetailsRepository.findByBulkRequestIdAndItemBarcodes(bulkRequestId, barcodes)).thenReturn(Collections.singletonList(requestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(barcodes)).thenReturn(Arrays.asList(getItemEntity(), itemEntity));
+        Mockito.when(requestItemController.checkoutItem(any(), any())).thenReturn(new ItemCheckoutResponse());
+        Mockito.when(gfaLasService.executeRetrieveOrder(any(), any())).thenReturn(itemInformationResponse);
+        Mockito.when(itemRequestDBService.updateRecapRequestItem(any(), any(), any(), any())).thenReturn(2);
+        Mockito.when(requestItemDetailsRepository.findAllById(Arrays.asList(1, 2))).thenReturn(Collections.singletonList(requestItemEntity));
+        Mockito.when(bulkRequestProgressService.completeChunk(bulkRequestId, 11)).thenReturn(false);
+
+        bulkItemRequestProcessService.processBulkRequestItem("123456,654321,111111", bulkRequestId, 11);
 
+        ArgumentCaptor<ItemRequestInformation> itemRequestInformation = ArgumentCaptor.forClass(ItemRequestInformation.class);
+        Mockito.verify(requestItemController).checkoutItem(itemRequestInformation.capture(), any());
+        assertEquals(Collections.singletonList("111111"), itemRequestInformation.getValue().getItemBarcodes());
+        Mockito.verify(gfaLasService, Mockito.times(1)).executeRetrieveOrder(any(), any());
+        Mockito.verify(requestItemDetailsRepository).findAllById(Arrays.asList(1, 2));
+        Mockito.verify(bulkRequestProgressService).completeChunk(bulkRequestId, 11);
     }
 
     private ItemRequestInformation getItemRequestInformation() {
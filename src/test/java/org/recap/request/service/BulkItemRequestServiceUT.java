@@ -4,26 +4,43 @@ import org.apache.camel.ProducerTemplate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
 import org.recap.model.jpa.*;
+import org.recap.model.request.BulkRequestItem;
 import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
+import org.recap.repository.jpa.BulkRequestProgressRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
 import org.recap.request.service.BulkItemRequestService;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 @RunWith(SpringRunner.class)
 public class BulkItemRequestServiceUT {
@@ -39,13 +56,23 @@ public class BulkItemRequestServiceUT {
     @Mock
     private ItemRequestServiceUtil itemRequestServiceUtil;
 
+    @Mock
+    private BulkRequestProgressRepository bulkRequestProgressRepository;
+
+    @Mock
+    private BulkRequestProgressService bulkRequestProgressService;
+
     @Mock
     private ProducerTemplate producerTemplate;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
 
     @Before
     public void setUp() throws Exception {
         ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 5000);
+        ReflectionTestUtils.setField(bulkItemRequestService, "chunkSize", 100);
+        Mockito.when(bulkRequestProgressService.registerChunk(any(), Mockito.anyInt())).thenAnswer(invocation -> getBulkRequestChunkEntity(invocation.getArgument(0), invocation.getArgument(1), false));
     }
 
     @Test
@@ -72,8 +99,8 @@ public class BulkItemRequestServiceUT {
         int bulkRequestId = 1;
         ItemEntity itemEntity = getItemEntity();
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
-        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
+        stubBulkRequest(bulkRequestItemEntity);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
         ItemStatusEntity itemStatusEntity = new ItemStatusEntity();
         itemStatusEntity.setId(2);
@@ -95,8 +122,8 @@ public class BulkItemRequestServiceUT {
         itemStatusEntity.setStatusDescription(ScsbCommonConstants.AVAILABLE);
         itemEntity.setItemStatusEntity(itemStatusEntity);
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
-        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
+        stubBulkRequest(bulkRequestItemEntity);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
         itemEntity.setOwningInstitutionId(1);
         ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 0);
@@ -114,8 +141,8 @@ public class BulkItemRequestServiceUT {
         itemStatusEntity.setStatusDescription(ScsbCommonConstants.AVAILABLE);
         itemEntity.setItemStatusEntity(itemStatusEntity);
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
-        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
+        stubBulkRequest(bulkRequestItemEntity);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
         ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 0);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
@@ -132,8 +159,8 @@ public class BulkItemRequestServiceUT {
         itemStatusEntity.setStatusDescription(ScsbCommonConstants.AVAILABLE);
         itemEntity.setItemStatusEntity(itemStatusEntity);
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Collections.EMPTY_LIST);
-        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Collections.EMPTY_LIST);
+        stubBulkRequest(bulkRequestItemEntity);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
         ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 0);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
@@ -145,10 +172,177 @@ public class BulkItemRequestServiceUT {
         ItemEntity itemEntity = getItemEntity();
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
         bulkRequestItemEntity.setBulkRequestStatus("PROCESSED");
-        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+        stubBulkRequest(bulkRequestItemEntity);
         ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 0);
         bulkItemRequestService.bulkRequestItems(bulkRequestId);
     }
+
+    @Test
+    public void bulkRequestItemsPublishesChunksAndClaimsCompletion() {
+        int bulkRequestId = 1;
+        ReflectionTestUtils.setField(bulkItemRequestService, "bulkRequestItemCountLimit", 4);
+        ReflectionTestUtils.setField(bulkItemRequestService, "chunkSize", 2);
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        bulkRequestItemEntity.setBulkRequestFileData("BARCODE,CUSTOMER_CODE\n1,PA\n2,PA\n1,PA\n3,PA\n4,PA\n5,PA".getBytes());
+        stubBulkRequest(bulkRequestItemEntity);
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenAnswer(invocation -> {
+            List<ItemEntity> itemEntities = new ArrayList<>();
+            for (String barcode : (List<String>) invocation.getArgument(0)) {
+                if (!"4".equals(barcode)) {
+                    ItemEntity itemEntity = getItemEntity();
+                    itemEntity.setBarcode(barcode);
+                    itemEntity.getItemStatusEntity().setStatusCode(ScsbCommonConstants.AVAILABLE);
+                    itemEntities.add(itemEntity);
+                }
+            }
+            return itemEntities;
+        });
+        Mockito.when(bulkRequestProgressService.completeDispatch(bulkRequestId)).thenReturn(true);
+
+        bulkItemRequestService.bulkRequestItems(bulkRequestId);
+
+        Mockito.verify(bulkRequestItemDetailsRepository, Mockito.never()).findById(any());
+        Mockito.verify(itemDetailsRepository).findByBarcodeIn(Arrays.asList("1", "2"));
+        Mockito.verify(itemDetailsRepository).findByBarcodeIn(Arrays.asList("3", "4"));
+        Mockito.verify(bulkRequestProgressService).registerChunk(bulkRequestId, 1);
+        Mockito.verify(bulkRequestProgressService).registerChunk(bulkRequestId, 2);
+        Mockito.verify(itemRequestServiceUtil, Mockito.never()).findBarcodesWithStatus(any(), any());
+        Mockito.verify(producerTemplate).sendBodyAndHeaders(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, "1,2", chunkHeaders(bulkRequestId, 101));
+        Mockito.verify(producerTemplate).sendBodyAndHeaders(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, "3", chunkHeaders(bulkRequestId, 102));
+        Mockito.verify(producerTemplate).sendBodyAndHeader(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, ScsbConstants.COMPLETE, ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestId);
+        ArgumentCaptor<List<BulkRequestItem>> exceptionBulkRequestItems = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemRequestServiceUtil, Mockito.times(3)).updateStatusToBarcodes(exceptionBulkRequestItems.capture(), eq(bulkRequestId));
+        assertTrue(exceptionBulkRequestItems.getAllValues().get(0).isEmpty());
+        assertEquals("4", exceptionBulkRequestItems.getAllValues().get(1).get(0).getItemBarcode());
+        assertEquals(ScsbConstants.WRONG_ITEM_BARCODE, exceptionBulkRequestItems.getAllValues().get(1).get(0).getStatus());
+        assertEquals("5", exceptionBulkRequestItems.getAllValues().get(2).get(0).getItemBarcode());
+        Mockito.verify(itemRequestServiceUtil, Mockito.never()).buildCsvFormatData(any(), any());
+    }
+
+    @Test
+    public void bulkRequestItemsIsNotDispatchedTwice() {
+        int bulkRequestId = 1;
+        stubBulkRequest(getBulkRequestItemEntity());
+        BulkRequestProgressEntity bulkRequestProgressEntity = new BulkRequestProgressEntity();
+        bulkRequestProgressEntity.setBulkRequestId(bulkRequestId);
+        bulkRequestProgressEntity.setDispatched(true);
+        Mockito.when(bulkRequestProgressRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestProgressEntity));
+
+        bulkItemRequestService.bulkRequestItems(bulkRequestId);
+
+        Mockito.verify(bulkRequestProgressRepository, Mockito.never()).save(any());
+        Mockito.verifyNoInteractions(jdbcTemplate, producerTemplate, bulkRequestProgressService);
+    }
+
+    @Test
+    public void bulkRequestItemsResumesInterruptedDispatch() {
+        int bulkRequestId = 1;
+        ReflectionTestUtils.setField(bulkItemRequestService, "chunkSize", 2);
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        bulkRequestItemEntity.setBulkRequestFileData("BARCODE,CUSTOMER_CODE\n1,PA\n2,PA\n3,PA\n4,PA".getBytes());
+        stubBulkRequest(bulkRequestItemEntity);
+        BulkRequestProgressEntity bulkRequestProgressEntity = new BulkRequestProgressEntity();
+        bulkRequestProgressEntity.setBulkRequestId(bulkRequestId);
+        bulkRequestProgressEntity.setPendingChunks(2);
+        Mockito.when(bulkRequestProgressRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestProgressEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenAnswer(invocation -> {
+            List<ItemEntity> itemEntities = new ArrayList<>();
+            for (String barcode : (List<String>) invocation.getArgument(0)) {
+                if (!"4".equals(barcode)) {
+                    ItemEntity itemEntity = getItemEntity();
+                    itemEntity.setBarcode(barcode);
+                    itemEntity.getItemStatusEntity().setStatusCode(ScsbCommonConstants.AVAILABLE);
+                    itemEntities.add(itemEntity);
+                }
+            }
+            return itemEntities;
+        });
+        Mockito.when(bulkRequestProgressService.registerChunk(bulkRequestId, 1)).thenReturn(getBulkRequestChunkEntity(bulkRequestId, 1, true));
+        Mockito.when(itemRequestServiceUtil.findBarcodesWithStatus(Collections.singletonList("4"), bulkRequestId)).thenReturn(Collections.singleton("4"));
+
+        bulkItemRequestService.bulkRequestItems(bulkRequestId);
+
+        Mockito.verify(bulkRequestProgressRepository, Mockito.never()).save(any());
+        Mockito.verify(producerTemplate, Mockito.never()).sendBodyAndHeaders(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, "1,2", chunkHeaders(bulkRequestId, 101));
+        Mockito.verify(producerTemplate).sendBodyAndHeaders(ScsbConstants.BULK_REQUEST_ITEM_PROCESSING_QUEUE, "3", chunkHeaders(bulkRequestId, 102));
+        ArgumentCaptor<List<BulkRequestItem>> exceptionBulkRequestItems = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemRequestServiceUtil, Mockito.times(3)).updateStatusToBarcodes(exceptionBulkRequestItems.capture(), eq(bulkRequestId));
+        assertTrue(exceptionBulkRequestItems.getAllValues().get(1).isEmpty());
+        Mockito.verify(bulkRequestProgressService).completeDispatch(bulkRequestId);
+    }
+
+    @Test
+    public void bulkRequestItemsMarksBulkRequestFailedWhenFileCannotBeRead() throws Exception {
+        int bulkRequestId = 1;
+        BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
+        stubBulkRequest(bulkRequestItemEntity);
+        Mockito.doAnswer(invocation -> {
+            ResultSet resultSet = Mockito.mock(ResultSet.class);
+            Mockito.when(resultSet.getBinaryStream(1)).thenReturn(new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("Connection reset");
+                }
+            });
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(BulkItemRequestService.BULK_REQUEST_FILE_DATA_SELECT), any(RowCallbackHandler.class), eq(bulkRequestId));
+        Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
+
+        try {
+            bulkItemRequestService.bulkRequestItems(bulkRequestId);
+            fail();
+        } catch (UncheckedIOException e) {
+            assertEquals("Connection reset", e.getCause().getMessage());
+        }
+
+        assertEquals(ScsbConstants.FAILED, bulkRequestItemEntity.getBulkRequestStatus());
+        Mockito.verify(bulkRequestItemDetailsRepository).save(bulkRequestItemEntity);
+        Mockito.verify(bulkRequestProgressService, Mockito.never()).completeDispatch(any());
+        Mockito.verifyNoInteractions(producerTemplate);
+    }
+
+    private static BulkRequestChunkEntity getBulkRequestChunkEntity(Integer bulkRequestId, int chunkIndex, boolean processed) {
+        BulkRequestChunkEntity bulkRequestChunkEntity = new BulkRequestChunkEntity();
+        bulkRequestChunkEntity.setId(100 + chunkIndex);
+        bulkRequestChunkEntity.setBulkRequestId(bulkRequestId);
+        bulkRequestChunkEntity.setChunkIndex(chunkIndex);
+        bulkRequestChunkEntity.setProcessed(processed);
+        return bulkRequestChunkEntity;
+    }
+
+    private void stubBulkRequest(BulkRequestItemEntity bulkRequestItemEntity) {
+        Mockito.when(bulkRequestItemDetailsRepository.findScopeById(bulkRequestItemEntity.getId())).thenReturn(Optional.of(new BulkRequestItemDetailsRepository.BulkRequestScope() {
+            @Override
+            public Integer getId() {
+                return bulkRequestItemEntity.getId();
+            }
+
+            @Override
+            public Integer getRequestingInstitutionId() {
+                return bulkRequestItemEntity.getRequestingInstitutionId();
+            }
+
+            @Override
+            public Integer getImsLocation() {
+                return bulkRequestItemEntity.getImsLocation();
+            }
+        }));
+        Mockito.doAnswer(invocation -> {
+            ResultSet resultSet = Mockito.mock(ResultSet.class);
+            Mockito.when(resultSet.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(bulkRequestItemEntity.getBulkRequestFileData()));
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(BulkItemRequestService.BULK_REQUEST_FILE_DATA_SELECT), any(RowCallbackHandler.class), eq(bulkRequestItemEntity.getId()));
+    }
+
+    private static Map<String, Object> chunkHeaders(Integer bulkRequestId, Integer chunkId) {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(ScsbCommonConstants.BULK_REQUEST_ID, bulkRequestId);
+        headers.put(ScsbConstants.BULK_REQUEST_CHUNK_ID, chunkId);
+        return headers;
+    }
+
     private BulkRequestItemEntity getBulkRequestItemEntity(){
         InstitutionEntity institutionEntity = new InstitutionEntity();
         institutionEntity.setInstitutionCode("PUL");
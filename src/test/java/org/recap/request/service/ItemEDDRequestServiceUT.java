@@ -1,6 +1,8 @@
 package org.recap.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.camel.Exchange;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -13,6 +15,7 @@ import org.recap.ScsbCommonConstants;
 import org.recap.ScsbConstants;
 import org.recap.controller.RequestItemController;
 import org.recap.controller.RequestItemValidatorController;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.response.ItemCheckoutResponse;
 import org.recap.model.response.ItemInformationResponse;
@@ -23,11 +26,13 @@ import org.recap.repository.jpa.GenericPatronDetailsRepository;
 import org.recap.repository.jpa.ItemDetailsRepository;
 import org.recap.repository.jpa.RequestTypeDetailsRepository;
 import org.recap.request.util.ItemRequestServiceUtil;
+import org.recap.request.util.RequestLifecycleMetrics;
 import org.recap.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestClientException;
 
 import java.util.Arrays;
@@ -80,7 +85,17 @@ public class ItemEDDRequestServiceUT extends BaseTestCaseUT {
     @Mock
     private GFALasService gfaLasService;
 
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @InjectMocks
+    RequestLifecycleMetrics requestLifecycleMetrics;
 
+    @Before
+    public void setUpRequestLifecycleMetrics() {
+        ReflectionTestUtils.setField(requestLifecycleMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(itemEDDRequestService, "requestLifecycleMetrics", requestLifecycleMetrics);
+    }
 
     @Test
     public void testEddRequestItem() throws Exception {
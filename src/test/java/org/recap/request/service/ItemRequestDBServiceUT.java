@@ -17,17 +17,32 @@ import org.recap.model.jpa.*;
 import org.recap.model.response.ItemInformationResponse;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.repository.jpa.*;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
 import org.recap.util.SecurityUtil;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyChar;
 
@@ -37,6 +52,9 @@ import static org.mockito.ArgumentMatchers.anyChar;
 
 public class ItemRequestDBServiceUT extends BaseTestCaseUT {
 
+    private static final int AVAILABLE_STATUS_ID = 1;
+    private static final int NOT_AVAILABLE_STATUS_ID = 2;
+
     @InjectMocks
     @Spy
     ItemRequestDBService itemRequestDBService;
@@ -68,9 +86,19 @@ public class ItemRequestDBServiceUT extends BaseTestCaseUT {
     CommonUtil commonUtil;
 
 
+    @Mock
+    ImsLocationDetailsRepository imsLocationDetailsRepository;
+
+    @Mock
+    CollectionGroupDetailsRepository collectionGroupDetailsRepository;
+
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(itemRequestDBService, "referenceDataCache", referenceDataCache);
     }
     @Test
     public void updateRecapRequestItem(){
@@ -115,6 +143,52 @@ public class ItemRequestDBServiceUT extends BaseTestCaseUT {
         itemRequestDBService.updateRecapRequestItem(itemRequestInformation, itemEntity, requestStatusCode, bulkRequestItemEntity);
     }
 
+    @Test
+    public void updateRecapRequestItems() {
+        ItemRequestInformation firstItemRequestInformation = getItemRequestInformation();
+        ItemRequestInformation secondItemRequestInformation = getItemRequestInformation();
+        ItemEntity itemEntity = getItemEntity();
+        String requestStatusCode = "REFILED";
+        RequestStatusEntity requestStatusEntity = getBulkRequestItemEntity().getRequestItemEntities().get(0).getRequestStatusEntity();
+        RequestTypeEntity requestTypeEntity = getBulkRequestItemEntity().getRequestItemEntities().get(0).getRequestTypeEntity();
+        Mockito.when(requestItemStatusDetailsRepository.findByRequestStatusCode(requestStatusCode)).thenReturn(requestStatusEntity);
+        itemEntity.getInstitutionEntity().setInstitutionCode(firstItemRequestInformation.getRequestingInstitution());
+        Mockito.when(institutionDetailsRepository.findAll()).thenReturn(Arrays.asList(itemEntity.getInstitutionEntity()));
+        Mockito.when(requestTypeDetailsRepository.findByrequestTypeCode(firstItemRequestInformation.getRequestType())).thenReturn(requestTypeEntity);
+        Mockito.when(requestItemDetailsRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<RequestItemEntity> requestItemEntities = invocation.getArgument(0);
+            for (int index = 0; index < requestItemEntities.size(); index++) {
+                requestItemEntities.get(index).setId(index + 10);
+            }
+            return requestItemEntities;
+        });
+        referenceDataCache.refresh();
+        List<Integer> requestIds = itemRequestDBService.updateRecapRequestItems(Arrays.asList(firstItemRequestInformation, secondItemRequestInformation), Arrays.asList(itemEntity, itemEntity), requestStatusCode);
+        assertEquals(Arrays.asList(10, 11), requestIds);
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode(any());
+        Mockito.verify(requestItemDetailsRepository, Mockito.never()).saveAndFlush(any());
+        Mockito.verify(commonUtil, Mockito.times(2)).saveItemChangeLogEntity(any(), any(), any(), any());
+    }
+
+    @Test
+    public void updateRecapRequestItemsFallsBackToSingleSave() {
+        ItemRequestInformation firstItemRequestInformation = getItemRequestInformation();
+        ItemRequestInformation secondItemRequestInformation = getItemRequestInformation();
+        ItemEntity itemEntity = getItemEntity();
+        String requestStatusCode = "REFILED";
+        RequestStatusEntity requestStatusEntity = getBulkRequestItemEntity().getRequestItemEntities().get(0).getRequestStatusEntity();
+        RequestTypeEntity requestTypeEntity = getBulkRequestItemEntity().getRequestItemEntities().get(0).getRequestTypeEntity();
+        RequestItemEntity requestItemEntity = getRequestItemEntity();
+        Mockito.when(requestItemStatusDetailsRepository.findByRequestStatusCode(requestStatusCode)).thenReturn(requestStatusEntity);
+        Mockito.when(institutionDetailsRepository.findByInstitutionCode(firstItemRequestInformation.getRequestingInstitution())).thenReturn(itemEntity.getInstitutionEntity());
+        Mockito.when(requestTypeDetailsRepository.findByrequestTypeCode(firstItemRequestInformation.getRequestType())).thenReturn(requestTypeEntity);
+        Mockito.when(requestItemDetailsRepository.saveAll(any())).thenThrow(new IllegalStateException("batch failed"));
+        Mockito.when(requestItemDetailsRepository.saveAndFlush(any())).thenReturn(requestItemEntity);
+        List<Integer> requestIds = itemRequestDBService.updateRecapRequestItems(Arrays.asList(firstItemRequestInformation, secondItemRequestInformation), Arrays.asList(itemEntity, itemEntity), requestStatusCode);
+        assertEquals(Arrays.asList(requestItemEntity.getId(), requestItemEntity.getId()), requestIds);
+        Mockito.verify(requestItemDetailsRepository, Mockito.times(2)).saveAndFlush(any());
+    }
+
     @Test
     public void updateRecapRequestItemWithoutRequestId() {
         ItemRequestInformation itemRequestInformation = getItemRequestInformation();
@@ -313,6 +387,91 @@ public class ItemRequestDBServiceUT extends BaseTestCaseUT {
         itemRequestDBService.updateItemAvailabilityStatus(itemEntities, userName);
     }
 
+    @Test
+    public void updateItemAvailabilityStatusIfAvailable() {
+        Map<Integer, AtomicInteger> itemAvailabilityStatusIds = mockItemAvailabilityStatuses(3);
+        itemAvailabilityStatusIds.get(2).set(NOT_AVAILABLE_STATUS_ID);
+        ItemEntity firstItemEntity = getItemEntity(1);
+        ItemEntity secondItemEntity = getItemEntity(2);
+        ItemEntity thirdItemEntity = getItemEntity(3);
+
+        assertFalse(itemRequestDBService.updateItemAvailabilityStatusIfAvailable(Arrays.asList(firstItemEntity, secondItemEntity), "userName"));
+        assertEquals(AVAILABLE_STATUS_ID, itemAvailabilityStatusIds.get(1).get());
+        assertEquals(Integer.valueOf(AVAILABLE_STATUS_ID), firstItemEntity.getItemAvailabilityStatusId());
+
+        assertTrue(itemRequestDBService.updateItemAvailabilityStatusIfAvailable(Arrays.asList(firstItemEntity, thirdItemEntity), "userName"));
+        assertEquals(NOT_AVAILABLE_STATUS_ID, itemAvailabilityStatusIds.get(1).get());
+        assertEquals(NOT_AVAILABLE_STATUS_ID, itemAvailabilityStatusIds.get(3).get());
+        assertEquals(Integer.valueOf(NOT_AVAILABLE_STATUS_ID), thirdItemEntity.getItemAvailabilityStatusId());
+        Mockito.verify(commonUtil, Mockito.times(2)).saveItemChangeLogEntity(any(), any(), Mockito.eq(ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_UPDATE), any());
+        Mockito.verify(itemDetailsRepository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    public void updateItemAvailabilityStatusIfAvailableAllocatesEachItemOnce() throws Exception {
+        int itemCount = 6;
+        int threadCount = 16;
+        Map<Integer, AtomicInteger> itemAvailabilityStatusIds = mockItemAvailabilityStatuses(itemCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int round = 0; round < 200; round++) {
+                itemAvailabilityStatusIds.values().forEach(itemAvailabilityStatusId -> itemAvailabilityStatusId.set(AVAILABLE_STATUS_ID));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<Integer>>> allocations = new ArrayList<>();
+                for (int thread = 0; thread < threadCount; thread++) {
+                    // Every thread requests two neighbouring items, so each item is contended by several threads
+                    List<Integer> itemIds = Arrays.asList(thread % itemCount + 1, (thread + 1) % itemCount + 1);
+                    allocations.add(executorService.submit(() -> {
+                        start.await();
+                        List<ItemEntity> itemEntities = Arrays.asList(getItemEntity(itemIds.get(0)), getItemEntity(itemIds.get(1)));
+                        return itemRequestDBService.updateItemAvailabilityStatusIfAvailable(itemEntities, "userName") ? itemIds : Collections.<Integer>emptyList();
+                    }));
+                }
+                start.countDown();
+                Set<Integer> allocatedItemIds = new HashSet<>();
+                for (Future<List<Integer>> allocation : allocations) {
+                    for (Integer itemId : allocation.get(10, TimeUnit.SECONDS)) {
+                        assertTrue("Item " + itemId + " allocated twice", allocatedItemIds.add(itemId));
+                    }
+                }
+                assertFalse(allocatedItemIds.isEmpty());
+                for (Map.Entry<Integer, AtomicInteger> itemAvailabilityStatusId : itemAvailabilityStatusIds.entrySet()) {
+                    int expectedStatusId = allocatedItemIds.contains(itemAvailabilityStatusId.getKey()) ? NOT_AVAILABLE_STATUS_ID : AVAILABLE_STATUS_ID;
+                    assertEquals(expectedStatusId, itemAvailabilityStatusId.getValue().get());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Backs the availability status queries of the item repository with in-memory rows that are updated atomically, as
+     * the conditional update is in the database.
+     */
+    private Map<Integer, AtomicInteger> mockItemAvailabilityStatuses(int itemCount) {
+        Map<Integer, AtomicInteger> itemAvailabilityStatusIds = new ConcurrentHashMap<>();
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            itemAvailabilityStatusIds.put(itemId, new AtomicInteger(AVAILABLE_STATUS_ID));
+        }
+        ItemStatusEntity itemStatusEntity = new ItemStatusEntity();
+        itemStatusEntity.setId(NOT_AVAILABLE_STATUS_ID);
+        Mockito.when(itemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.NOT_AVAILABLE)).thenReturn(itemStatusEntity);
+        Mockito.when(commonUtil.getUser(any())).thenReturn("userName");
+        Mockito.when(itemDetailsRepository.findItemAvailabilityStatusIdById(any())).thenAnswer(invocation -> itemAvailabilityStatusIds.get(invocation.<Integer>getArgument(0)).get());
+        Mockito.when(itemDetailsRepository.compareAndUpdateAvailabilityStatus(any(), any(), any(), any())).thenAnswer(invocation ->
+                itemAvailabilityStatusIds.get(invocation.<Integer>getArgument(0)).compareAndSet(invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0);
+        return itemAvailabilityStatusIds;
+    }
+
+    private ItemEntity getItemEntity(Integer itemId) {
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setId(itemId);
+        itemEntity.setBarcode("barcode" + itemId);
+        itemEntity.setItemAvailabilityStatusId(AVAILABLE_STATUS_ID);
+        return itemEntity;
+    }
+
     @Test
     public void getExpirationDate() {
         ReflectionTestUtils.invokeMethod(itemRequestDBService, "getExpirationDate", "test");
@@ -1,5 +1,6 @@
 package org.recap.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
@@ -9,6 +10,8 @@ import org.apache.camel.support.DefaultExchange;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -34,7 +37,10 @@ import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.request.ReplaceRequest;
 import org.recap.model.search.SearchResultRow;
 import org.recap.repository.jpa.*;
+import org.recap.routebuilder.RequestItemConsumerPools;
 import org.recap.service.RestHeaderService;
+import org.recap.service.common.BibliographicMetadataCache;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
 import org.recap.util.PropertyUtil;
@@ -50,12 +56,25 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.text.Normalizer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
+import org.recap.request.util.RequestLifecycleMetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 @Slf4j
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -94,6 +113,9 @@ public class ItemRequestServiceUT extends BaseTestCaseUT {
     @Mock
     PropertyUtil propertyUtil;
 
+    @Mock
+    RequestItemConsumerPools requestItemConsumerPools;
+
     @Mock
     private ItemDetailsRepository mockedItemDetailsRepository;
 
@@ -155,9 +177,53 @@ public class ItemRequestServiceUT extends BaseTestCaseUT {
     private ItemEDDRequestService mockedItemEDDRequestService;
 
 
+    @Mock
+    RequestTypeDetailsRepository requestTypeDetailsRepository;
+
+    @Mock
+    ImsLocationDetailsRepository imsLocationDetailsRepository;
+
+    @Mock
+    CollectionGroupDetailsRepository collectionGroupDetailsRepository;
+
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
+    @InjectMocks
+    BibliographicMetadataCache bibliographicMetadataCache;
+
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @InjectMocks
+    RequestLifecycleMetrics requestLifecycleMetrics;
+
     @Before
     public void setUp() {
         ReflectionTestUtils.setField(mockedItemRequestService, "scsbSolrClientUrl", scsbSolrClientUrl);
+        ReflectionTestUtils.setField(mockedItemRequestService, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(mockedItemRequestService, "bibliographicMetadataCache", bibliographicMetadataCache);
+        ReflectionTestUtils.setField(requestLifecycleMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(mockedItemRequestService, "requestLifecycleMetrics", requestLifecycleMetrics);
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "maxSize", 10);
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "ttlMillis", 60000L);
+    }
+
+    @Test
+    public void searchRecordsIsCachedPerBarcode() {
+        ItemEntity itemEntity = getItemEntity();
+        itemEntity.setBarcode("123");
+        SearchResultRow searchResultRow = new SearchResultRow();
+        searchResultRow.setBarcode("123");
+        searchResultRow.setTitle("title");
+        searchResultRow.setAuthor("author");
+        Mockito.when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<List<SearchResultRow>>>any()))
+                .thenReturn(new ResponseEntity<>(Collections.singletonList(searchResultRow), HttpStatus.OK));
+
+        assertEquals("title", mockedItemRequestService.searchRecords(itemEntity).getTitle());
+        assertEquals("author", mockedItemRequestService.searchRecords(itemEntity).getAuthor());
+
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<List<SearchResultRow>>>any());
     }
 
     @Test
@@ -228,6 +294,96 @@ public class ItemRequestServiceUT extends BaseTestCaseUT {
         ItemInformationResponse itemInformationResponse = mockedItemRequestService.requestItem(itemRequestInfo,exchange);
         assertNotNull(itemInformationResponse);
     }
+    @Test
+    public void requestItemsLooksUpBatchOnce() {
+        ItemRequestInformation firstItemRequestInfo = getItemRequestInformation();
+        ItemRequestInformation secondItemRequestInfo = getItemRequestInformation();
+        secondItemRequestInfo.setItemBarcodes(Arrays.asList("456"));
+        ItemEntity firstItemEntity = getItemEntity();
+        firstItemEntity.setBarcode("123");
+        ItemEntity secondItemEntity = getItemEntity();
+        secondItemEntity.setId(2);
+        secondItemEntity.setBarcode("456");
+        DeliveryCodeEntity deliveryCodeEntity = getDeliveryCodeEntity();
+        deliveryCodeEntity.setDeliveryCode("PB");
+        deliveryCodeEntity.setOwningInstitutionId(1);
+        SearchResultRow firstSearchResultRow = new SearchResultRow();
+        firstSearchResultRow.setBarcode("123");
+        firstSearchResultRow.setAuthor("first");
+        SearchResultRow secondSearchResultRow = new SearchResultRow();
+        secondSearchResultRow.setItemId(2);
+        secondSearchResultRow.setAuthor("second");
+        ItemStatusEntity notAvailableStatusEntity = new ItemStatusEntity();
+        notAvailableStatusEntity.setId(2);
+        Mockito.when(mockedItemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(firstItemEntity, secondItemEntity));
+        Mockito.when(institutionDetailsRepository.findAll()).thenReturn(Arrays.asList(createRequestItem().getInstitutionEntity()));
+        Mockito.when(deliveryCodeDetailsRepository.findAll()).thenReturn(Arrays.asList(deliveryCodeEntity));
+        Mockito.when(deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(any(), any(), any())).thenReturn(getDeliveryCodeTranslationEntity());
+        Mockito.when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<List<SearchResultRow>>>any()))
+                .thenAnswer(invocation -> new ResponseEntity<>(Arrays.asList(invocation.<URI>getArgument(0).getQuery().contains("=123") ? firstSearchResultRow : secondSearchResultRow), HttpStatus.OK));
+        Mockito.when(mockedItemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.NOT_AVAILABLE)).thenReturn(notAvailableStatusEntity);
+        Mockito.when(mockedItemDetailsRepository.findById(1)).thenReturn(Optional.of(firstItemEntity));
+        Mockito.when(mockedItemDetailsRepository.findById(2)).thenReturn(Optional.of(secondItemEntity));
+        Mockito.when(mockedItemRequestDBService.updateRecapRequestItems(any(), any(), any())).thenReturn(Arrays.asList(11, 12));
+        CountDownLatch releaseTopics = new CountDownLatch(1);
+        List<String> topicThreads = Collections.synchronizedList(new ArrayList<>());
+        Mockito.doAnswer(invocation -> {
+            topicThreads.add(Thread.currentThread().getName());
+            releaseTopics.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockedItemRequestService).sendMessageToTopic(any(), any(), any(), any());
+        referenceDataCache.refresh();
+        String owningInstitution = firstItemEntity.getInstitutionEntity().getInstitutionCode();
+        ExecutorService retrievalExecutor = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "request-item-" + owningInstitution + "-RETRIEVAL-1"));
+        Mockito.when(requestItemConsumerPools.getExecutor(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL, owningInstitution)).thenReturn(retrievalExecutor);
+
+        List<CompletableFuture<ItemInformationResponse>> itemInformationResponseFutures = mockedItemRequestService.requestItems(Arrays.asList(firstItemRequestInfo, secondItemRequestInfo), exchange);
+
+        assertEquals(2, itemInformationResponseFutures.size());
+        assertFalse(itemInformationResponseFutures.get(0).isDone());
+        releaseTopics.countDown();
+        List<ItemInformationResponse> itemInformationResponses = itemInformationResponseFutures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        retrievalExecutor.shutdown();
+        assertTrue(topicThreads.stream().allMatch(threadName -> threadName.startsWith("request-item-" + owningInstitution + "-RETRIEVAL-")));
+        assertEquals(Integer.valueOf(11), itemInformationResponses.get(0).getRequestId());
+        assertEquals("123", itemInformationResponses.get(0).getItemBarcode());
+        assertEquals(Integer.valueOf(12), itemInformationResponses.get(1).getRequestId());
+        assertEquals("456", itemInformationResponses.get(1).getItemBarcode());
+        assertEquals("second", secondItemRequestInfo.getAuthor());
+        assertEquals(ScsbConstants.REQUEST_SCSB_EXCEPTION + ScsbConstants.RETRIEVAL_NOT_FOR_UNAVAILABLE_ITEM, itemInformationResponses.get(1).getScreenMessage());
+        Mockito.verify(mockedItemDetailsRepository, Mockito.times(1)).findByBarcodeIn(any());
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode(any());
+        Mockito.verify(deliveryCodeDetailsRepository, Mockito.never()).findByDeliveryCodeAndOwningInstitutionIdAndActive(any(), any(), anyChar());
+        Mockito.verify(deliveryCodeTranslationDetailsRepository, Mockito.times(1)).findByRequestingInstitutionandImsLocation(any(), any(), any());
+        ArgumentCaptor<URI> uriCaptor = ArgumentCaptor.forClass(URI.class);
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(uriCaptor.capture(), eq(HttpMethod.GET), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<List<SearchResultRow>>>any());
+        assertTrue(uriCaptor.getAllValues().get(0).getQuery().endsWith("=123"));
+        assertTrue(uriCaptor.getAllValues().get(1).getQuery().endsWith("=456"));
+        Mockito.verify(mockedItemRequestDBService, Mockito.never()).updateRecapRequestItem(any(), any(), any(), any());
+        Mockito.verify(mockedItemRequestService, Mockito.times(2)).sendMessageToTopic(any(), any(), any(), any());
+    }
+
+    @Test
+    public void requestItemsKeepsFailuresPerRequest() {
+        ItemRequestInformation firstItemRequestInfo = getItemRequestInformation();
+        ItemRequestInformation secondItemRequestInfo = getItemRequestInformation();
+        secondItemRequestInfo.setItemBarcodes(Arrays.asList("456"));
+        ItemEntity firstItemEntity = getItemEntity();
+        firstItemEntity.setBarcode("123");
+        Mockito.when(mockedItemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(firstItemEntity)).thenReturn(Collections.emptyList());
+        Mockito.when(institutionDetailsRepository.findByInstitutionCode(any())).thenReturn(null);
+        Mockito.doNothing().when(mockedItemRequestService).sendMessageToTopic(any(), any(), any(), any());
+
+        List<ItemInformationResponse> itemInformationResponses = mockedItemRequestService.requestItems(Arrays.asList(firstItemRequestInfo, secondItemRequestInfo), exchange)
+                .stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        assertEquals(2, itemInformationResponses.size());
+        assertNull(itemInformationResponses.get(0).getScreenMessage());
+        assertEquals(ScsbConstants.SOLR_SEARCH_ERROR, itemInformationResponses.get(1).getScreenMessage());
+        Mockito.verify(mockedItemRequestDBService, Mockito.never()).updateRecapRequestItems(any(), any(), any());
+        Mockito.verify(mockedItemRequestService, Mockito.never()).sendMessageToTopic(any(), any(), any(), any());
+    }
+
     @Test
     public void testRequestItemDifferentId() throws Exception {
         ItemRequestInformation itemRequestInfo = getItemRequestInformation();
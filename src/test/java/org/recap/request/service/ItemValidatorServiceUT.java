@@ -15,6 +15,7 @@ import org.recap.controller.ItemController;
 import org.recap.model.jpa.*;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.repository.jpa.*;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.PropertyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -70,8 +71,12 @@ public class ItemValidatorServiceUT extends BaseTestCaseUT {
     @Mock
     ItemValidatorService mockedItemValidatorService;
 
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
     @Before
     public void setup(){
+        ReflectionTestUtils.setField(itemValidatorService, "referenceDataCache", referenceDataCache);
     }
 
     @Test
@@ -3,6 +3,7 @@ package org.recap.request.util;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -15,15 +16,28 @@ import org.recap.repository.jpa.BulkRequestItemDetailsRepository;
 import org.recap.repository.jpa.GenericPatronDetailsRepository;
 import org.recap.request.service.EmailService;
 import org.recap.service.RestHeaderService;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ItemRequestServiceUtilUT {
@@ -42,6 +56,12 @@ public class ItemRequestServiceUtilUT {
     @Mock
     private BulkRequestItemDetailsRepository bulkRequestItemDetailsRepository;
 
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @Before
     public void setUp() throws Exception {
         ReflectionTestUtils.setField(itemRequestServiceUtil, "scsbSolrClientUrl", "http://localhost:9090/");
@@ -51,14 +71,52 @@ public class ItemRequestServiceUtilUT {
         ItemEntity itemEntity=new ItemEntity();
         itemRequestServiceUtil.updateSolrIndex(itemEntity);
     }
+
+    @Test
+    public void updateSolrIndexSendsPendingBarcodesOncePerBarcode() {
+        ReflectionTestUtils.setField(itemRequestServiceUtil, "solrIndexUpdateDebounceMillis", 60000L);
+        Mockito.when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class))).thenReturn(new ResponseEntity<>("Success", HttpStatus.OK));
+        itemRequestServiceUtil.startSolrIndexUpdater();
+        try {
+            for (String barcode : Arrays.asList("111", "222", "111", "333")) {
+                ItemEntity itemEntity = new ItemEntity();
+                itemEntity.setBarcode(barcode);
+                itemRequestServiceUtil.updateSolrIndex(itemEntity);
+            }
+            Mockito.verify(restTemplate, Mockito.never()).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+
+            itemRequestServiceUtil.flushSolrIndexUpdates();
+        } finally {
+            itemRequestServiceUtil.stopSolrIndexUpdater();
+        }
+        ArgumentCaptor<URI> uriCaptor = ArgumentCaptor.forClass(URI.class);
+        Mockito.verify(restTemplate, Mockito.times(3)).exchange(uriCaptor.capture(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        List<String> queries = uriCaptor.getAllValues().stream().map(URI::getQuery).sorted().collect(Collectors.toList());
+        assertEquals(Arrays.asList("itemBarcode=111", "itemBarcode=222", "itemBarcode=333"), queries);
+    }
+
+    @Test
+    public void updateSolrIndexSendsImmediatelyWithoutDebounce() {
+        Mockito.when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class))).thenReturn(new ResponseEntity<>("Success", HttpStatus.OK));
+        itemRequestServiceUtil.startSolrIndexUpdater();
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setBarcode("111");
+        itemRequestServiceUtil.updateSolrIndex(itemEntity);
+        ArgumentCaptor<URI> uriCaptor = ArgumentCaptor.forClass(URI.class);
+        Mockito.verify(restTemplate).exchange(uriCaptor.capture(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        assertEquals("itemBarcode=111", uriCaptor.getValue().getQuery());
+    }
     @Test
     public void testupdateStatusToBarcodes(){
         BulkRequestItem bulkRequestItem = getBulkRequestItem();
         List<BulkRequestItem> test=new ArrayList<>();
         test.add(bulkRequestItem);
         BulkRequestItemEntity BulkRequestItemEntity = getBulkRequestItemEntity();
-        itemRequestServiceUtil.updateStatusToBarcodes(test,BulkRequestItemEntity);
-        assertTrue(true);
+        itemRequestServiceUtil.updateStatusToBarcodes(test,BulkRequestItemEntity.getId());
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(ItemRequestServiceUtil.BULK_REQUEST_RESULT_INSERT), argsCaptor.capture());
+        assertEquals(Arrays.asList(BulkRequestItemEntity.getId(), "12345", "PA", "1", "PENDING", "SUCCESS"), Arrays.asList(argsCaptor.getValue().get(0)));
+        Mockito.verify(bulkRequestItemDetailsRepository, Mockito.never()).save(any());
     }
 
     @Test
@@ -71,7 +129,7 @@ public class ItemRequestServiceUtilUT {
         assertTrue(true);
     }
     @Test
-    public void testgenerateReportAndSendEmail(){
+    public void testgenerateReportAndSendEmail() throws Exception {
         Integer bulkRequestId=1234;
         BulkRequestItemEntity bulkRequestItemEntity = getBulkRequestItemEntity();
         Mockito.when(bulkRequestItemDetailsRepository.findById(bulkRequestId)).thenReturn(Optional.of(bulkRequestItemEntity));
@@ -79,8 +137,20 @@ public class ItemRequestServiceUtilUT {
                 bulkRequestItemEntity.get().getBulkRequestName(), bulkRequestItemEntity.get().getBulkRequestFileName(),
                 bulkRequestItemEntity.get().getBulkRequestStatus(), new String(bulkRequestItemEntity.get().getBulkRequestFileData()),
                 "Bulk Request Process Report"));*/
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getString(anyString())).thenAnswer(invocation -> "ITEM_BARCODE".equals(invocation.getArgument(0)) ? "12345" : "x,y");
+        Mockito.doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(ItemRequestServiceUtil.BULK_REQUEST_RESULT_SELECT), any(RowCallbackHandler.class), eq(bulkRequestId));
+        String uploadedFileData = new String(bulkRequestItemEntity.getBulkRequestFileData());
         itemRequestServiceUtil.generateReportAndSendEmail(bulkRequestId);
 
+        String report = uploadedFileData + "\n12345,x,y,x,y,x,y,\"x,y\"\n12345,x,y,x,y,x,y,\"x,y\"";
+        assertEquals(report, new String(bulkRequestItemEntity.getBulkRequestFileData()));
+        Mockito.verify(bulkRequestItemDetailsRepository).save(bulkRequestItemEntity);
+        Mockito.verify(emailService).sendBulkRequestEmail(any(), any(), any(), any(), eq(report), any());
     }
     @Test
     public void testsetEddInfoToGfaRequest() {
@@ -0,0 +1,139 @@
+package org.recap.request.util;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.ils.connector.SIPProtocolConnector;
+import org.recap.ils.connector.factory.ILSProtocolConnectorRegistry;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.model.response.ItemHoldResponse;
+import org.recap.model.response.ItemInformationResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestLifecycleMetricsUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    RequestLifecycleMetrics requestLifecycleMetrics;
+
+    @Spy
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    ILSProtocolConnectorRegistry ilsProtocolConnectorRegistry;
+
+    @Mock
+    SIPProtocolConnector sipProtocolConnector;
+
+    @Test
+    public void tagsStageWithRequestResolvedByStage() {
+        ItemRequestInformation itemRequestInformation = getItemRequestInformation();
+        ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        itemInformationResponse.setSuccess(false);
+
+        ItemInformationResponse response = requestLifecycleMetrics.recordStage(RequestLifecycleMetrics.operation(itemRequestInformation), ScsbConstants.REQUEST_STAGE_DB, itemRequestInformation, () -> {
+            itemRequestInformation.setItemOwningInstitution("PUL");
+            itemRequestInformation.setImsLocationCode("RECAP");
+            return itemInformationResponse;
+        });
+
+        assertSame(itemInformationResponse, response);
+        Timer timer = meterRegistry.get(ScsbConstants.REQUEST_STAGE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_OPERATION, RequestLifecycleMetrics.operation(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL))
+                .tag(ScsbConstants.METRIC_TAG_STAGE, ScsbConstants.REQUEST_STAGE_DB)
+                .tag(ScsbConstants.METRIC_TAG_OWNING_INSTITUTION, "PUL")
+                .tag(ScsbConstants.METRIC_TAG_REQUESTING_INSTITUTION, "CUL")
+                .tag(ScsbConstants.METRIC_TAG_IMS_LOCATION, "RECAP")
+                .tag(ScsbConstants.METRIC_TAG_PROTOCOL, ScsbConstants.METRIC_TAG_VALUE_NONE)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_FAILURE)
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void tagsIlsStageWithProtocolOfCalledInstitution() {
+        ItemRequestInformation itemRequestInformation = getItemRequestInformation();
+        itemRequestInformation.setItemOwningInstitution("PUL");
+        ItemHoldResponse itemHoldResponse = new ItemHoldResponse();
+        itemHoldResponse.setSuccess(true);
+        Mockito.when(ilsProtocolConnectorRegistry.getConnector("PUL")).thenReturn(sipProtocolConnector);
+        Mockito.when(sipProtocolConnector.getProtocol()).thenReturn(ScsbConstants.SIP2_PROTOCOL);
+
+        requestLifecycleMetrics.recordIlsStage(RequestLifecycleMetrics.operation(itemRequestInformation), ScsbConstants.REQUEST_STAGE_ILS_HOLD, itemRequestInformation, null, () -> itemHoldResponse);
+
+        assertEquals(1, meterRegistry.get(ScsbConstants.REQUEST_STAGE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_STAGE, ScsbConstants.REQUEST_STAGE_ILS_HOLD)
+                .tag(ScsbConstants.METRIC_TAG_PROTOCOL, ScsbConstants.SIP2_PROTOCOL)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_SUCCESS)
+                .timer().count());
+    }
+
+    @Test
+    public void recordsFailedStageAsError() {
+        try {
+            requestLifecycleMetrics.recordStage(ScsbConstants.REQUEST_OPERATION_REFILE, ScsbConstants.REQUEST_STAGE_LAS_STATUS_CHECK, "PUL", "CUL", "RECAP", () -> {
+                throw new IllegalStateException("LAS unavailable");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("LAS unavailable", e.getMessage());
+        }
+
+        assertEquals(1, meterRegistry.get(ScsbConstants.REQUEST_STAGE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_OPERATION, ScsbConstants.REQUEST_OPERATION_REFILE)
+                .tag(ScsbConstants.METRIC_TAG_STAGE, ScsbConstants.REQUEST_STAGE_LAS_STATUS_CHECK)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_ERROR)
+                .timer().count());
+    }
+
+    @Test
+    public void recordsLifecycleOfRequest() {
+        AtomicBoolean changeLogSaved = new AtomicBoolean();
+        requestLifecycleMetrics.recordStage(ScsbConstants.REQUEST_OPERATION_CANCEL, ScsbConstants.REQUEST_STAGE_CHANGE_LOG, "PUL", "CUL", null, () -> changeLogSaved.set(true));
+        ItemHoldResponse itemHoldResponse = new ItemHoldResponse();
+        itemHoldResponse.setSuccess(true);
+
+        requestLifecycleMetrics.recordLifecycle(ScsbConstants.REQUEST_OPERATION_CANCEL, null, System.nanoTime(), itemHoldResponse);
+        requestLifecycleMetrics.recordLifecycle(ScsbConstants.REQUEST_OPERATION_CANCEL, null, System.nanoTime(), null);
+
+        assertTrue(changeLogSaved.get());
+        assertEquals(1, meterRegistry.get(ScsbConstants.REQUEST_STAGE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_IMS_LOCATION, ScsbConstants.METRIC_TAG_VALUE_NONE)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_SUCCESS)
+                .timer().count());
+        assertEquals(1, meterRegistry.get(ScsbConstants.REQUEST_LIFECYCLE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_OPERATION, ScsbConstants.REQUEST_OPERATION_CANCEL)
+                .tag(ScsbConstants.METRIC_TAG_OWNING_INSTITUTION, ScsbConstants.METRIC_TAG_VALUE_NONE)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_SUCCESS)
+                .timer().count());
+        assertEquals(1, meterRegistry.get(ScsbConstants.REQUEST_LIFECYCLE_METRIC)
+                .tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.METRIC_RESULT_ERROR)
+                .timer().count());
+    }
+
+    @Test
+    public void operationOfRequestType() {
+        assertEquals("edd", RequestLifecycleMetrics.operation("EDD"));
+        assertEquals(ScsbConstants.METRIC_TAG_VALUE_NONE, RequestLifecycleMetrics.operation((String) null));
+        assertEquals(ScsbConstants.METRIC_TAG_VALUE_NONE, RequestLifecycleMetrics.operation((ItemRequestInformation) null));
+    }
+
+    private static ItemRequestInformation getItemRequestInformation() {
+        ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+        itemRequestInformation.setRequestType(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL);
+        itemRequestInformation.setRequestingInstitution("CUL");
+        return itemRequestInformation;
+    }
+}
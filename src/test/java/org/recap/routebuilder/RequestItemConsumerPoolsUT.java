@@ -0,0 +1,158 @@
+package org.recap.routebuilder;
+
+import org.apache.camel.CamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RequestItemConsumerPoolsUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    RequestItemConsumerPools requestItemConsumerPools;
+
+    @Mock
+    CamelContext camelContext;
+
+    private MockEnvironment environment;
+
+    @Before
+    public void setUpEnvironment() {
+        environment = new MockEnvironment()
+                .withProperty("request.item.threads.core", "3")
+                .withProperty("request.item.RETRIEVAL.threads.max", "8")
+                .withProperty("request.item.RETRIEVAL.PUL.threads.core", "6")
+                .withProperty("request.item.RETRIEVAL.PUL.consumers", "4");
+        ReflectionTestUtils.setField(requestItemConsumerPools, "environment", environment);
+    }
+
+    @After
+    public void tearDown() {
+        requestItemConsumerPools.shutdown();
+    }
+
+    @Test
+    public void settingsFallBackFromInstitutionToRequestTypeToDefault() {
+        assertEquals(6, requestItemConsumerPools.getSetting("RETRIEVAL", "PUL", RequestItemConsumerPools.THREADS_CORE, 5));
+        assertEquals(3, requestItemConsumerPools.getSetting("RETRIEVAL", "CUL", RequestItemConsumerPools.THREADS_CORE, 5));
+        assertEquals(8, requestItemConsumerPools.getSetting("RETRIEVAL", "PUL", RequestItemConsumerPools.THREADS_MAX, 10));
+        assertEquals(10, requestItemConsumerPools.getSetting("EDD", "PUL", RequestItemConsumerPools.THREADS_MAX, 10));
+        assertEquals(30, requestItemConsumerPools.getSetting(RequestItemConsumerPools.SHARED, null, RequestItemConsumerPools.THREADS_CORE, 30));
+    }
+
+    @Test
+    public void consumerUri() {
+        assertEquals(ScsbConstants.REQUEST_ITEM_QUEUE_PREFIX + "PULRETRIEVAL" + ScsbConstants.REQUEST_ITEM_QUEUE_SUFFIX + "?asyncConsumer=true&concurrentConsumers=4&maxConcurrentConsumers=5&destination.consumer.prefetchSize=20",
+                requestItemConsumerPools.getConsumerUri("RETRIEVAL", "PUL"));
+    }
+
+    @Test
+    public void requestsOfRegisteredInstitutionsGoToTheirOwnQueue() {
+        requestItemConsumerPools.register("RETRIEVAL", "PUL");
+
+        assertEquals(ScsbConstants.REQUEST_ITEM_QUEUE_PREFIX + "PULRETRIEVAL" + ScsbConstants.REQUEST_ITEM_QUEUE_SUFFIX, requestItemConsumerPools.getRequestItemQueue("RETRIEVAL", "PUL"));
+        assertEquals(ScsbConstants.REQUEST_ITEM_QUEUE, requestItemConsumerPools.getRequestItemQueue("EDD", "PUL"));
+        assertEquals(ScsbConstants.REQUEST_ITEM_QUEUE, requestItemConsumerPools.getRequestItemQueue("RETRIEVAL", ""));
+    }
+
+    @Test
+    public void requestsOfRegisteredInstitutionsRunOnTheirOwnPool() {
+        ExecutorService executor = requestItemConsumerPools.register("RETRIEVAL", "PUL");
+        ExecutorService sharedExecutor = requestItemConsumerPools.registerShared();
+
+        assertSame(executor, requestItemConsumerPools.getExecutor("RETRIEVAL", "PUL"));
+        assertSame(sharedExecutor, requestItemConsumerPools.getExecutor("RETRIEVAL", "CUL"));
+        assertSame(sharedExecutor, requestItemConsumerPools.getExecutor("RETRIEVAL", ""));
+    }
+
+    @Test
+    public void poolSizesAreReloaded() {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) requestItemConsumerPools.register("RETRIEVAL", "PUL");
+        ThreadPoolExecutor sharedExecutor = (ThreadPoolExecutor) requestItemConsumerPools.registerShared();
+        assertEquals(6, executor.getCorePoolSize());
+        assertEquals(8, executor.getMaximumPoolSize());
+        assertEquals(30, sharedExecutor.getCorePoolSize());
+        assertEquals(50, sharedExecutor.getMaximumPoolSize());
+
+        environment.setProperty("request.item.RETRIEVAL.PUL.threads.core", "1");
+        environment.setProperty("request.item.RETRIEVAL.threads.max", "2");
+        requestItemConsumerPools.onEnvironmentChange(new EnvironmentChangeEvent(Collections.singleton("request.item.RETRIEVAL.threads.max")));
+
+        assertEquals(1, executor.getCorePoolSize());
+        assertEquals(2, executor.getMaximumPoolSize());
+        assertEquals(30, sharedExecutor.getCorePoolSize());
+    }
+
+    @Test
+    public void consumerThreadProcessesRequestWhenQueueIsFull() throws Exception {
+        environment.setProperty("request.item.EDD.threads.core", "1");
+        environment.setProperty("request.item.EDD.threads.max", "1");
+        environment.setProperty("request.item.EDD.queue.size", "1");
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) requestItemConsumerPools.register("EDD", "PUL");
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        AtomicReference<Thread> processingThread = new AtomicReference<>();
+        executor.execute(() -> processingThread.set(Thread.currentThread()));
+        release.countDown();
+
+        assertEquals(Thread.currentThread(), processingThread.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shutdownFinishesQueuedRequests() {
+        ReflectionTestUtils.setField(requestItemConsumerPools, "shutdownTimeoutSeconds", 5L);
+        environment.setProperty("request.item.EDD.threads.core", "1");
+        environment.setProperty("request.item.EDD.threads.max", "1");
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) requestItemConsumerPools.register("EDD", "PUL");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicBoolean daemon = new AtomicBoolean(true);
+        executor.execute(() -> {
+            daemon.set(Thread.currentThread().isDaemon());
+            awaitQuietly(release);
+            processed.incrementAndGet();
+        });
+        executor.execute(processed::incrementAndGet);
+        executor.execute(processed::incrementAndGet);
+        release.countDown();
+
+        requestItemConsumerPools.shutdown();
+
+        assertTrue(executor.isTerminated());
+        assertEquals(3, processed.get());
+        assertFalse(daemon.get());
+        assertFalse(requestItemConsumerPools.isRunning());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.recap.routebuilder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.seda.SedaComponent;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.repository.jpa.ItemDetailsRepository;
+import org.recap.request.service.BulkItemRequestProcessService;
+import org.recap.request.service.BulkItemRequestService;
+import org.recap.request.service.ItemEDDRequestService;
+import org.recap.request.service.ItemRequestService;
+import org.recap.service.common.ReferenceDataCache;
+import org.recap.util.CommonUtil;
+import org.recap.util.JsonUtil;
+import org.recap.util.PropertyUtil;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+public class RequestItemRouteBuilderUT extends BaseTestCaseUT {
+
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    ItemRequestService itemRequestService;
+
+    @Mock
+    ItemEDDRequestService itemEDDRequestService;
+
+    @Mock
+    BulkItemRequestService bulkItemRequestService;
+
+    @Mock
+    BulkItemRequestProcessService bulkItemRequestProcessService;
+
+    @Mock
+    PropertyUtil propertyUtil;
+
+    @Mock
+    CommonUtil commonUtil;
+
+    @Mock
+    ItemDetailsRepository itemDetailsRepository;
+
+    @Mock
+    ReferenceDataCache referenceDataCache;
+
+    private CamelContext camelContext;
+
+    private RequestItemConsumerPools requestItemConsumerPools;
+
+    @Before
+    public void setUpCamelContext() {
+        camelContext = new DefaultCamelContext();
+        camelContext.addComponent("scsbactivemq", new LenientSedaComponent());
+        requestItemConsumerPools = new RequestItemConsumerPools();
+        ReflectionTestUtils.setField(requestItemConsumerPools, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(requestItemConsumerPools, "camelContext", camelContext);
+        RequestItemQueueDispatcher requestItemQueueDispatcher = new RequestItemQueueDispatcher();
+        ReflectionTestUtils.setField(requestItemQueueDispatcher, "itemDetailsRepository", itemDetailsRepository);
+        ReflectionTestUtils.setField(requestItemQueueDispatcher, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(requestItemQueueDispatcher, "requestItemConsumerPools", requestItemConsumerPools);
+        when(commonUtil.findAllInstitutionCodesExceptSupportInstitution()).thenReturn(Collections.singletonList("PUL"));
+        when(commonUtil.findAllImsLocationCodeExceptUN()).thenReturn(Collections.emptyList());
+        new RequestItemRouteBuilder(1, 20, 50, camelContext, applicationContext, itemRequestService, itemEDDRequestService, bulkItemRequestService,
+                bulkItemRequestProcessService, propertyUtil, commonUtil, requestItemConsumerPools, requestItemQueueDispatcher);
+        camelContext.start();
+    }
+
+    @After
+    public void tearDown() {
+        camelContext.stop();
+        requestItemConsumerPools.shutdown();
+    }
+
+    @Test
+    public void sharedQueueRetrievalWithoutOwningInstitutionReachesInstitutionPool() throws Exception {
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setOwningInstitutionId(1);
+        when(itemDetailsRepository.findByBarcode("33433001")).thenReturn(Collections.singletonList(itemEntity));
+        when(referenceDataCache.getInstitutionCodesById()).thenReturn(Collections.singletonMap(1, "PUL"));
+        CountDownLatch processed = new CountDownLatch(1);
+        AtomicReference<String> processingThread = new AtomicReference<>();
+        AtomicReference<String> owningInstitution = new AtomicReference<>();
+        doAnswer(invocation -> {
+            processingThread.set(Thread.currentThread().getName());
+            owningInstitution.set(invocation.getArgument(1, Exchange.class).getIn().getHeader(ScsbConstants.REQUEST_OWNING_INSTITUTION_QUEUE_HEADER, String.class));
+            processed.countDown();
+            return Collections.emptyList();
+        }).when(itemRequestService).requestItems(anyList(), any());
+
+        ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+        itemRequestInformation.setItemBarcodes(Arrays.asList("33433001"));
+        itemRequestInformation.setRequestType(ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL);
+        ProducerTemplate producerTemplate = camelContext.createProducerTemplate();
+        producerTemplate.sendBody(ScsbConstants.REQUEST_ITEM_QUEUE, JsonUtil.OBJECT_WRITER.writeValueAsString(itemRequestInformation));
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+        assertTrue(processingThread.get(), processingThread.get().startsWith("request-item-PUL-" + ScsbCommonConstants.REQUEST_TYPE_RETRIEVAL + "-"));
+        assertEquals("PUL", owningInstitution.get());
+    }
+
+    /**
+     * Stands in for the JMS component, ignoring the JMS consumer options of the queue uris.
+     */
+    private static class LenientSedaComponent extends SedaComponent {
+
+        @Override
+        protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+            parameters.clear();
+            return super.createEndpoint(uri, remaining, parameters);
+        }
+    }
+}
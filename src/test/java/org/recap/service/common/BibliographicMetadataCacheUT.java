@@ -0,0 +1,128 @@
+package org.recap.service.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.recap.BaseTestCaseUT;
+import org.recap.model.jpa.BibliographicEntity;
+import org.recap.model.jpa.ItemEntity;
+import org.recap.model.search.SearchResultRow;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class BibliographicMetadataCacheUT extends BaseTestCaseUT {
+
+    private static final String MARC_CONTENT = "<collection xmlns=\"http://www.loc.gov/MARC21/slim\"><record>" +
+            "<leader>01011cam a2200289 a 4500</leader>" +
+            "<datafield ind1=\"1\" ind2=\" \" tag=\"100\"><subfield code=\"a\">Twain, Mark,</subfield></datafield>" +
+            "<datafield ind1=\"1\" ind2=\"4\" tag=\"245\"><subfield code=\"a\">The adventures of Tom Sawyer :</subfield>" +
+            "<subfield code=\"b\">a novel /</subfield><subfield code=\"c\">Mark Twain.</subfield></datafield>" +
+            "</record></collection>";
+
+    @InjectMocks
+    BibliographicMetadataCache bibliographicMetadataCache;
+
+    @Before
+    public void setUpCache() {
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "maxSize", 4);
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "searchThreads", 1);
+    }
+
+    @After
+    public void tearDown() {
+        bibliographicMetadataCache.stopSearchExecutor();
+    }
+
+    @Test
+    public void searchResultRowIsCachedByBarcodeAndBibId() {
+        AtomicInteger searches = new AtomicInteger();
+        SearchResultRow searchResultRow = getSearchResultRow(null, 7, "Solr title");
+
+        assertEquals("Solr title", bibliographicMetadataCache.getSearchResultRow(getItemEntity("111", 7), itemEntity -> {
+            searches.incrementAndGet();
+            return searchResultRow;
+        }).getTitle());
+        assertEquals("Solr title", bibliographicMetadataCache.getSearchResultRow(getItemEntity("111", 7), itemEntity -> null).getTitle());
+        assertEquals("Solr title", bibliographicMetadataCache.getSearchResultRow(getItemEntity("222", 7), itemEntity -> null).getTitle());
+        assertEquals(1, searches.get());
+        assertEquals(2, bibliographicMetadataCache.size());
+    }
+
+    @Test
+    public void cacheIsBoundedAndEntriesExpire() {
+        for (int barcode = 0; barcode < 10; barcode++) {
+            bibliographicMetadataCache.put(getSearchResultRow(String.valueOf(barcode), null, "title"));
+        }
+        assertEquals(4, bibliographicMetadataCache.size());
+        assertNull(bibliographicMetadataCache.getIfPresent(getItemEntity("0", null)));
+        assertNotNull(bibliographicMetadataCache.getIfPresent(getItemEntity("9", null)));
+
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "ttlMillis", 0L);
+        bibliographicMetadataCache.put(getSearchResultRow("10", null, "title"));
+        assertNull(bibliographicMetadataCache.getIfPresent(getItemEntity("10", null)));
+    }
+
+    @Test
+    public void fallsBackToMarcRecordWhenSolrFindsNothing() {
+        SearchResultRow searchResultRow = bibliographicMetadataCache.getSearchResultRow(getItemEntity("111", 7), itemEntity -> null);
+
+        assertEquals("The adventures of Tom Sawyer : a novel", searchResultRow.getTitle());
+        assertEquals("Twain, Mark", searchResultRow.getAuthor());
+        assertNull(bibliographicMetadataCache.getIfPresent(getItemEntity("111", 7)));
+    }
+
+    @Test
+    public void fallsBackToMarcRecordWhenSolrIsSlowAndCachesLateAnswer() throws Exception {
+        ReflectionTestUtils.setField(bibliographicMetadataCache, "searchTimeoutMillis", 50L);
+        bibliographicMetadataCache.startSearchExecutor();
+        CountDownLatch solrAnswered = new CountDownLatch(1);
+        CountDownLatch releaseSolr = new CountDownLatch(1);
+
+        SearchResultRow searchResultRow = bibliographicMetadataCache.getSearchResultRow(getItemEntity("111", 7), itemEntity -> {
+            try {
+                releaseSolr.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            solrAnswered.countDown();
+            return getSearchResultRow("111", 7, "Solr title");
+        });
+        assertEquals("The adventures of Tom Sawyer : a novel", searchResultRow.getTitle());
+
+        releaseSolr.countDown();
+        solrAnswered.await(5, TimeUnit.SECONDS);
+        for (int attempt = 0; attempt < 100 && bibliographicMetadataCache.getIfPresent(getItemEntity("111", 7)) == null; attempt++) {
+            Thread.sleep(10);
+        }
+        assertEquals("Solr title", bibliographicMetadataCache.getIfPresent(getItemEntity("111", 7)).getTitle());
+    }
+
+    private ItemEntity getItemEntity(String barcode, Integer bibId) {
+        BibliographicEntity bibliographicEntity = new BibliographicEntity();
+        bibliographicEntity.setId(bibId);
+        bibliographicEntity.setContent(MARC_CONTENT.getBytes());
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setBarcode(barcode);
+        itemEntity.setBibliographicEntities(Collections.singletonList(bibliographicEntity));
+        return itemEntity;
+    }
+
+    private SearchResultRow getSearchResultRow(String barcode, Integer bibId, String title) {
+        SearchResultRow searchResultRow = new SearchResultRow();
+        searchResultRow.setBarcode(barcode);
+        searchResultRow.setBibId(bibId);
+        searchResultRow.setTitle(title);
+        searchResultRow.setAuthor("author");
+        return searchResultRow;
+    }
+}
@@ -0,0 +1,254 @@
+package org.recap.service.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.util.JsonUtil;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class ItemChangeLogWriterUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    ItemChangeLogWriter itemChangeLogWriter;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    private Path spillDirectory;
+    private Path journalFile;
+    private Path checkpointFile;
+
+    @Before
+    public void setUpWriter() throws IOException {
+        spillDirectory = Files.createTempDirectory("item-change-log");
+        journalFile = spillDirectory.resolve(ItemChangeLogWriter.ITEM_CHANGE_LOG_JOURNAL_FILE);
+        checkpointFile = Path.of(journalFile + ".checkpoint");
+        ReflectionTestUtils.setField(itemChangeLogWriter, "bufferSize", 100);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "batchSize", 100);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "flushIntervalMillis", 10L);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "offerTimeoutMillis", 10L);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "spillDirectory", spillDirectory.toString());
+        ReflectionTestUtils.setField(itemChangeLogWriter, "maxAttempts", 5);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "replayIntervalMillis", 60000L);
+        ReflectionTestUtils.setField(itemChangeLogWriter, "journalTruncateBytes", 10485760L);
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        itemChangeLogWriter.stopWriter();
+        FileSystemUtils.deleteRecursively(spillDirectory);
+    }
+
+    @Test
+    public void writesSynchronouslyWhenNotStarted() {
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), argsCaptor.capture());
+        assertEquals(1, argsCaptor.getValue().size());
+        assertEquals(1, argsCaptor.getValue().get(0)[3]);
+    }
+
+    @Test
+    public void journalsEntriesAndWritesThemInBatchesPerTable() throws Exception {
+        CountDownLatch releaseDatabase = new CountDownLatch(1);
+        Mockito.when(jdbcTemplate.batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList())).thenAnswer(invocation -> {
+            releaseDatabase.await(5, TimeUnit.SECONDS);
+            return new int[0];
+        });
+        itemChangeLogWriter.startWriter();
+
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList());
+        for (int recordId = 2; recordId <= 5; recordId++) {
+            itemChangeLogWriter.saveItemChangeLog(recordId, "user", "operation", "notes");
+        }
+        itemChangeLogWriter.saveDeaccessionItemChangeLog(6, "user", new Date(), "Deaccession", "notes");
+        assertEquals(5, itemChangeLogWriter.getBufferedCount());
+        assertEquals(6, Files.readAllLines(journalFile).size());
+        releaseDatabase.countDown();
+
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000).times(2)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), argsCaptor.capture());
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000)).batchUpdate(eq(ItemChangeLogWriter.DEACCESSION_ITEM_CHANGE_LOG_INSERT), anyList());
+        assertEquals(4, argsCaptor.getAllValues().get(1).size());
+        awaitJournalTruncated();
+    }
+
+    @Test
+    public void keepsEntriesInJournalUntilDatabaseIsBack() throws Exception {
+        ReflectionTestUtils.setField(itemChangeLogWriter, "replayIntervalMillis", 50L);
+        Mockito.when(jdbcTemplate.batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(new int[]{1});
+        itemChangeLogWriter.startWriter();
+
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "line one\nline two");
+
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000).times(2)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), argsCaptor.capture());
+        assertEquals("line one\nline two", argsCaptor.getValue().get(0)[4]);
+        awaitJournalTruncated();
+        assertEquals("0", Files.readString(checkpointFile));
+    }
+
+    @Test
+    public void retriesFailedBatchRowByRowAndQuarantinesRowThatKeepsFailing() throws Exception {
+        ReflectionTestUtils.setField(itemChangeLogWriter, "maxAttempts", 2);
+        List<Object> insertedRecordIds = Collections.synchronizedList(new ArrayList<>());
+        Mockito.when(jdbcTemplate.batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(row -> Integer.valueOf(2).equals(row[3]))) {
+                throw new DataIntegrityViolationException("Data too long for column 'NOTES'");
+            }
+            args.forEach(row -> insertedRecordIds.add(row[3]));
+            return new int[args.size()];
+        });
+        Files.write(journalFile, getJournalLines(3));
+
+        itemChangeLogWriter.startWriter();
+
+        awaitJournalTruncated();
+        assertEquals(Arrays.asList(1, 3), insertedRecordIds);
+        List<String> quarantined = Files.readAllLines(Path.of(journalFile + ".quarantine"));
+        assertEquals(1, quarantined.size());
+        assertTrue(quarantined.get(0).contains("\"recordId\":2"));
+        assertTrue(quarantined.get(0).contains("\"attempts\":2"));
+    }
+
+    @Test
+    public void resumesJournalAfterCheckpoint() throws Exception {
+        List<String> lines = getJournalLines(3);
+        Files.write(journalFile, lines);
+        Files.writeString(checkpointFile, String.valueOf(lines.get(0).length() + lines.get(1).length() + 2));
+
+        itemChangeLogWriter.startWriter();
+
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), argsCaptor.capture());
+        assertEquals(1, argsCaptor.getValue().size());
+        assertEquals(3, argsCaptor.getValue().get(0)[3]);
+        awaitJournalTruncated();
+    }
+
+    @Test
+    public void dropsLineCutShortByCrash() throws Exception {
+        List<String> lines = getJournalLines(2);
+        Files.writeString(journalFile, lines.get(0) + "\n" + lines.get(1).substring(0, 10));
+
+        itemChangeLogWriter.startWriter();
+
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), argsCaptor.capture());
+        assertEquals(1, argsCaptor.getValue().size());
+        assertEquals(1, argsCaptor.getValue().get(0)[3]);
+        awaitJournalTruncated();
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList());
+    }
+
+    @Test
+    public void readsEntriesWhichDoNotFitInBufferFromJournal() throws Exception {
+        ReflectionTestUtils.setField(itemChangeLogWriter, "bufferSize", 1);
+        CountDownLatch releaseDatabase = new CountDownLatch(1);
+        List<Object> insertedRecordIds = Collections.synchronizedList(new ArrayList<>());
+        Mockito.when(jdbcTemplate.batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList())).thenAnswer(invocation -> {
+            releaseDatabase.await(5, TimeUnit.SECONDS);
+            invocation.<List<Object[]>>getArgument(1).forEach(row -> insertedRecordIds.add(row[3]));
+            return new int[0];
+        });
+        itemChangeLogWriter.startWriter();
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+        Mockito.verify(jdbcTemplate, Mockito.timeout(5000)).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList());
+
+        itemChangeLogWriter.saveItemChangeLog(2, "user", "operation", "notes");
+        itemChangeLogWriter.saveItemChangeLog(3, "user", "operation", "notes");
+
+        assertEquals(1, itemChangeLogWriter.getBufferedCount());
+        assertEquals(3, Files.readAllLines(journalFile).size());
+        releaseDatabase.countDown();
+        awaitJournalTruncated();
+        assertEquals(Arrays.asList(1, 2, 3), insertedRecordIds);
+    }
+
+    @Test
+    public void stopWriterWritesJournaledEntries() throws Exception {
+        itemChangeLogWriter.startWriter();
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+
+        itemChangeLogWriter.stopWriter();
+
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList());
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    @Test
+    public void writesSynchronouslyAfterStop() throws Exception {
+        itemChangeLogWriter.startWriter();
+        itemChangeLogWriter.stopWriter();
+
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList());
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    @Test(expected = DataAccessResourceFailureException.class)
+    public void throwsFailedWriteWithoutJournalDirectory() {
+        ReflectionTestUtils.setField(itemChangeLogWriter, "spillDirectory", "item-change-log");
+        Mockito.when(jdbcTemplate.batchUpdate(eq(ItemChangeLogWriter.ITEM_CHANGE_LOG_INSERT), anyList())).thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        itemChangeLogWriter.startWriter();
+        assertFalse(Files.exists(Path.of("item-change-log")));
+
+        itemChangeLogWriter.saveItemChangeLog(1, "user", "operation", "notes");
+    }
+
+    private List<String> getJournalLines(int count) throws IOException {
+        ItemChangeLogWriter.ItemChangeLog itemChangeLog = new ItemChangeLogWriter.ItemChangeLog();
+        List<String> lines = new ArrayList<>();
+        for (int recordId = 1; recordId <= count; recordId++) {
+            itemChangeLog.setRecordId(recordId);
+            lines.add(JsonUtil.OBJECT_WRITER.writeValueAsString(itemChangeLog));
+        }
+        return lines;
+    }
+
+    private void awaitJournalTruncated() throws Exception {
+        for (int attempt = 0; attempt < 500 && Files.size(journalFile) > 0; attempt++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, Files.size(journalFile));
+    }
+}
@@ -0,0 +1,285 @@
+package org.recap.service.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
+import org.recap.model.jpa.DeliveryCodeEntity;
+import org.recap.model.jpa.DeliveryCodeTranslationEntity;
+import org.recap.model.jpa.ImsLocationEntity;
+import org.recap.model.jpa.InstitutionEntity;
+import org.recap.model.jpa.ItemStatusEntity;
+import org.recap.model.jpa.OwnerCodeEntity;
+import org.recap.model.jpa.RequestStatusEntity;
+import org.recap.model.jpa.RequestTypeEntity;
+import org.recap.repository.jpa.CollectionGroupDetailsRepository;
+import org.recap.repository.jpa.DeliveryCodeDetailsRepository;
+import org.recap.repository.jpa.DeliveryCodeTranslationDetailsRepository;
+import org.recap.repository.jpa.ImsLocationDetailsRepository;
+import org.recap.repository.jpa.InstitutionDetailsRepository;
+import org.recap.repository.jpa.ItemStatusDetailsRepository;
+import org.recap.repository.jpa.OwnerCodeDetailsRepository;
+import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.repository.jpa.RequestTypeDetailsRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyChar;
+
+public class ReferenceDataCacheUT extends BaseTestCaseUT {
+
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
+    @Mock
+    InstitutionDetailsRepository institutionDetailsRepository;
+
+    @Mock
+    ItemStatusDetailsRepository itemStatusDetailsRepository;
+
+    @Mock
+    RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+
+    @Mock
+    RequestTypeDetailsRepository requestTypeDetailsRepository;
+
+    @Mock
+    ImsLocationDetailsRepository imsLocationDetailsRepository;
+
+    @Mock
+    CollectionGroupDetailsRepository collectionGroupDetailsRepository;
+
+    @Mock
+    DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
+
+    @Mock
+    DeliveryCodeTranslationDetailsRepository deliveryCodeTranslationDetailsRepository;
+
+    @Mock
+    OwnerCodeDetailsRepository ownerCodeDetailsRepository;
+
+    @After
+    public void tearDown() {
+        referenceDataCache.stopRefresh();
+    }
+
+    @Test
+    public void refreshIndexesReferenceData() {
+        InstitutionEntity institutionEntity = getInstitutionEntity(1, "PUL");
+        ItemStatusEntity itemStatusEntity = getItemStatusEntity(1, "Available");
+        ImsLocationEntity imsLocationEntity = getImsLocationEntity(2, "HD");
+        RequestStatusEntity requestStatusEntity = new RequestStatusEntity();
+        requestStatusEntity.setId(3);
+        requestStatusEntity.setRequestStatusCode("RETRIEVAL_ORDER_PLACED");
+        RequestTypeEntity requestTypeEntity = new RequestTypeEntity();
+        requestTypeEntity.setId(4);
+        requestTypeEntity.setRequestTypeCode("RETRIEVAL");
+        DeliveryCodeEntity deliveryCodeEntity = getDeliveryCodeEntity(5, "PA", 1, 'Y');
+        deliveryCodeEntity.setPickupLocation("Firestone");
+        mockReferenceData(institutionEntity, itemStatusEntity, imsLocationEntity, requestStatusEntity, requestTypeEntity, deliveryCodeEntity, getDeliveryCodeEntity(6, "PB", 1, 'N'));
+
+        assertTrue(referenceDataCache.refresh());
+
+        assertEquals(Integer.valueOf(1), referenceDataCache.getInstitutionIdsByCode().get("PUL"));
+        assertEquals("PUL", referenceDataCache.getInstitutionCodesById().get(1));
+        assertEquals(Integer.valueOf(1), referenceDataCache.getItemStatusIdsByCode().get("Available"));
+        assertEquals("Available", referenceDataCache.getItemStatusCodesById().get(1));
+        assertEquals("HD", referenceDataCache.getImsLocationCodesById().get(2));
+        assertEquals(Integer.valueOf(2), referenceDataCache.getImsLocationIdsByCode().get("HD"));
+        assertEquals(Integer.valueOf(3), referenceDataCache.getRequestStatusIdsByCode().get("RETRIEVAL_ORDER_PLACED"));
+        assertEquals(Integer.valueOf(4), referenceDataCache.getRequestTypeIdsByCode().get("RETRIEVAL"));
+        ReferenceDataCache.DeliveryCode deliveryCode = referenceDataCache.getActiveDeliveryCode("PA", 1);
+        assertEquals(Integer.valueOf(5), deliveryCode.getId());
+        assertEquals("PA", deliveryCode.getDeliveryCode());
+        assertEquals("Firestone", deliveryCode.getPickupLocation());
+        assertNull(referenceDataCache.getActiveDeliveryCode("PB", 1));
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode(any());
+        Mockito.verify(itemStatusDetailsRepository, Mockito.never()).findByStatusCode(any());
+        Mockito.verify(imsLocationDetailsRepository, Mockito.never()).findById(any());
+        Mockito.verify(deliveryCodeDetailsRepository, Mockito.times(1)).findByDeliveryCodeAndOwningInstitutionIdAndActive("PB", 1, 'Y');
+    }
+
+    @Test
+    public void lookupFallsBackToRepositoryBeforeFirstRefresh() {
+        Mockito.when(deliveryCodeDetailsRepository.findByDeliveryCodeAndOwningInstitutionIdAndActive("PA", 1, 'Y')).thenReturn(getDeliveryCodeEntity(5, "PA", 1, 'Y'));
+        Mockito.when(deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(1, 5, 2)).thenReturn(getDeliveryCodeTranslationEntity("HD"));
+
+        assertEquals(Integer.valueOf(5), referenceDataCache.getActiveDeliveryCode("PA", 1).getId());
+        assertEquals("HD", referenceDataCache.getImsLocationDeliveryCode(1, 5, 2));
+        assertEquals("HD", referenceDataCache.getImsLocationDeliveryCode(1, 5, 2));
+
+        Mockito.verify(deliveryCodeDetailsRepository, Mockito.times(1)).findByDeliveryCodeAndOwningInstitutionIdAndActive("PA", 1, 'Y');
+        Mockito.verify(deliveryCodeTranslationDetailsRepository, Mockito.times(2)).findByRequestingInstitutionandImsLocation(1, 5, 2);
+    }
+
+    @Test
+    public void mapLookupsFallBackToRepositoryOnMiss() {
+        mockReferenceData(getInstitutionEntity(1, "PUL"), getItemStatusEntity(1, "Available"), getImsLocationEntity(2, "HD"),
+                new RequestStatusEntity(), new RequestTypeEntity());
+        assertTrue(referenceDataCache.refresh());
+        Mockito.when(institutionDetailsRepository.findByInstitutionCode("HL")).thenReturn(getInstitutionEntity(4, "HL"));
+        Mockito.when(itemStatusDetailsRepository.findById(2)).thenReturn(Optional.of(getItemStatusEntity(2, "Not Available")));
+
+        assertEquals(Integer.valueOf(1), referenceDataCache.getInstitutionIdsByCode().get("PUL"));
+        assertEquals(Integer.valueOf(4), referenceDataCache.getInstitutionIdsByCode().get("HL"));
+        assertEquals("Not Available", referenceDataCache.getItemStatusCodesById().get(2));
+        assertNull(referenceDataCache.getCollectionGroupIdsByCode().get("Open"));
+        assertEquals(Collections.singleton("PUL"), referenceDataCache.getInstitutionIdsByCode().keySet());
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode("PUL");
+    }
+
+    @Test
+    public void translationsAreMemoizedUntilNextRefresh() {
+        Mockito.when(deliveryCodeTranslationDetailsRepository.findByRequestingInstitutionandImsLocation(1, 5, 2)).thenReturn(getDeliveryCodeTranslationEntity("HD"));
+        OwnerCodeEntity ownerCodeEntity = new OwnerCodeEntity();
+        ownerCodeEntity.setId(7);
+        Mockito.when(ownerCodeDetailsRepository.findByOwnerCodeAndOwningInstitutionCode("PA", "PUL")).thenReturn(ownerCodeEntity);
+        referenceDataCache.refresh();
+
+        assertEquals("HD", referenceDataCache.getImsLocationDeliveryCode(1, 5, 2));
+        assertEquals("HD", referenceDataCache.getImsLocationDeliveryCode(1, 5, 2));
+        assertNull(referenceDataCache.getImsLocationDeliveryCode(1, 6, 2));
+        assertNull(referenceDataCache.getImsLocationDeliveryCode(1, 6, 2));
+        assertFalse(referenceDataCache.isEddOwnerCode("PA", 1));
+        assertFalse(referenceDataCache.isEddOwnerCode("PA", 1));
+        assertEquals(Integer.valueOf(7), referenceDataCache.getOwnerCodeId("PA", "PUL"));
+        assertEquals(Integer.valueOf(7), referenceDataCache.getOwnerCodeId("PA", "PUL"));
+        assertEquals(Integer.valueOf(2), referenceDataCache.getSizes().get("deliveryCodeTranslations"));
+        Mockito.verify(deliveryCodeTranslationDetailsRepository, Mockito.times(1)).findByRequestingInstitutionandImsLocation(1, 5, 2);
+        Mockito.verify(deliveryCodeTranslationDetailsRepository, Mockito.times(1)).findByRequestingInstitutionandImsLocation(1, 6, 2);
+        Mockito.verify(ownerCodeDetailsRepository, Mockito.times(1)).findByOwnerCodeAndRecapDeliveryRestrictionLikeEDD("PA", 1);
+        Mockito.verify(ownerCodeDetailsRepository, Mockito.times(1)).findByOwnerCodeAndOwningInstitutionCode("PA", "PUL");
+
+        referenceDataCache.refresh();
+        referenceDataCache.getImsLocationDeliveryCode(1, 5, 2);
+        Mockito.verify(deliveryCodeTranslationDetailsRepository, Mockito.times(2)).findByRequestingInstitutionandImsLocation(1, 5, 2);
+    }
+
+    @Test
+    public void refreshKeepsSnapshotOnFailure() {
+        Mockito.when(institutionDetailsRepository.findAll())
+                .thenReturn(Arrays.asList(getInstitutionEntity(1, "PUL")))
+                .thenThrow(new IllegalStateException("database unavailable"));
+        assertTrue(referenceDataCache.refresh());
+
+        assertFalse(referenceDataCache.refresh());
+
+        assertEquals(Integer.valueOf(1), referenceDataCache.getInstitutionIdsByCode().get("PUL"));
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode(any());
+    }
+
+    @Test
+    public void readersSeeCompleteSnapshotsWhileRefreshing() throws Exception {
+        mockReferenceData(getInstitutionEntity(1, "PUL"), getItemStatusEntity(1, "Available"), getImsLocationEntity(2, "HD"), new RequestStatusEntity(), new RequestTypeEntity(), getDeliveryCodeEntity(5, "PA", 1, 'Y'));
+        referenceDataCache.refresh();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                readers.add(executorService.submit(() -> {
+                    for (int read = 0; read < 10000; read++) {
+                        if (referenceDataCache.getInstitutionIdsByCode().get("PUL") == null || referenceDataCache.getActiveDeliveryCode("PA", 1) == null) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            Future<?> refresher = executorService.submit(() -> {
+                for (int refresh = 0; refresh < 200; refresh++) {
+                    referenceDataCache.refresh();
+                }
+            });
+            refresher.get(30, TimeUnit.SECONDS);
+            for (Future<Boolean> reader : readers) {
+                assertTrue(reader.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Mockito.verify(institutionDetailsRepository, Mockito.never()).findByInstitutionCode(any());
+        Mockito.verify(deliveryCodeDetailsRepository, Mockito.never()).findByDeliveryCodeAndOwningInstitutionIdAndActive(any(), any(), anyChar());
+    }
+
+    @Test
+    public void startRefreshPublishesMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(referenceDataCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(referenceDataCache, "refreshIntervalMillis", 0L);
+        Mockito.when(institutionDetailsRepository.findAll()).thenReturn(Collections.singletonList(getInstitutionEntity(1, "PUL")));
+
+        referenceDataCache.startRefresh();
+        referenceDataCache.getInstitutionIdsByCode().get("PUL");
+        referenceDataCache.getInstitutionIdsByCode().get("CUL");
+
+        assertEquals(1, meterRegistry.get(ScsbConstants.REFERENCE_DATA_CACHE_METRIC).tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_HIT).functionCounter().count(), 0);
+        assertEquals(1, meterRegistry.get(ScsbConstants.REFERENCE_DATA_CACHE_METRIC).tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_MISS).functionCounter().count(), 0);
+        assertEquals(1, meterRegistry.get(ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_METRIC).tag(ScsbConstants.METRIC_TAG_RESULT, ScsbConstants.REFERENCE_DATA_CACHE_REFRESH_SUCCESS).functionCounter().count(), 0);
+        assertEquals(1, meterRegistry.get(ScsbConstants.REFERENCE_DATA_CACHE_SIZE_METRIC).tag(ScsbConstants.METRIC_TAG_TABLE, "institutions").gauge().value(), 0);
+    }
+
+    private void mockReferenceData(InstitutionEntity institutionEntity, ItemStatusEntity itemStatusEntity, ImsLocationEntity imsLocationEntity,
+                                   RequestStatusEntity requestStatusEntity, RequestTypeEntity requestTypeEntity, DeliveryCodeEntity... deliveryCodeEntities) {
+        Mockito.when(institutionDetailsRepository.findAll()).thenReturn(Collections.singletonList(institutionEntity));
+        Mockito.when(itemStatusDetailsRepository.findAll()).thenReturn(Collections.singletonList(itemStatusEntity));
+        Mockito.when(imsLocationDetailsRepository.findAll()).thenReturn(Collections.singletonList(imsLocationEntity));
+        Mockito.when(requestItemStatusDetailsRepository.findAll()).thenReturn(Collections.singletonList(requestStatusEntity));
+        Mockito.when(requestTypeDetailsRepository.findAll()).thenReturn(Collections.singletonList(requestTypeEntity));
+        Mockito.when(deliveryCodeDetailsRepository.findAll()).thenReturn(Arrays.asList(deliveryCodeEntities));
+    }
+
+    private InstitutionEntity getInstitutionEntity(Integer id, String institutionCode) {
+        InstitutionEntity institutionEntity = new InstitutionEntity();
+        institutionEntity.setId(id);
+        institutionEntity.setInstitutionCode(institutionCode);
+        institutionEntity.setInstitutionName(institutionCode);
+        return institutionEntity;
+    }
+
+    private ItemStatusEntity getItemStatusEntity(Integer id, String statusCode) {
+        ItemStatusEntity itemStatusEntity = new ItemStatusEntity();
+        itemStatusEntity.setId(id);
+        itemStatusEntity.setStatusCode(statusCode);
+        return itemStatusEntity;
+    }
+
+    private ImsLocationEntity getImsLocationEntity(Integer id, String imsLocationCode) {
+        ImsLocationEntity imsLocationEntity = new ImsLocationEntity();
+        imsLocationEntity.setId(id);
+        imsLocationEntity.setImsLocationCode(imsLocationCode);
+        return imsLocationEntity;
+    }
+
+    private DeliveryCodeTranslationEntity getDeliveryCodeTranslationEntity(String imsLocationDeliveryCode) {
+        DeliveryCodeTranslationEntity deliveryCodeTranslationEntity = new DeliveryCodeTranslationEntity();
+        deliveryCodeTranslationEntity.setImsLocationDeliveryCode(imsLocationDeliveryCode);
+        return deliveryCodeTranslationEntity;
+    }
+
+    private DeliveryCodeEntity getDeliveryCodeEntity(Integer id, String deliveryCode, Integer owningInstitutionId, char active) {
+        DeliveryCodeEntity deliveryCodeEntity = new DeliveryCodeEntity();
+        deliveryCodeEntity.setId(id);
+        deliveryCodeEntity.setDeliveryCode(deliveryCode);
+        deliveryCodeEntity.setOwningInstitutionId(owningInstitutionId);
+        deliveryCodeEntity.setActive(active);
+        return deliveryCodeEntity;
+    }
+}
@@ -13,8 +13,13 @@ import org.recap.model.jpa.CollectionGroupEntity;
 import org.recap.model.jpa.InstitutionEntity;
 import org.recap.model.jpa.ItemStatusEntity;
 import org.recap.repository.jpa.CollectionGroupDetailsRepository;
+import org.recap.repository.jpa.DeliveryCodeDetailsRepository;
+import org.recap.repository.jpa.ImsLocationDetailsRepository;
 import org.recap.repository.jpa.InstitutionDetailsRepository;
 import org.recap.repository.jpa.ItemStatusDetailsRepository;
+import org.recap.repository.jpa.RequestItemStatusDetailsRepository;
+import org.recap.repository.jpa.RequestTypeDetailsRepository;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Date;
@@ -32,8 +37,8 @@ public class SetupDataServiceUT {
     @InjectMocks
     private SetupDataService setupDataService;
 
-    @Mock
-    private RepositoryService repositoryService;
+    @InjectMocks
+    private ReferenceDataCache referenceDataCache;
 
     @Mock
     ItemStatusDetailsRepository itemStatusDetailsRepository;
@@ -44,15 +49,27 @@ public class SetupDataServiceUT {
     @Mock
     CollectionGroupDetailsRepository collectionGroupDetailsRepository;
 
+    @Mock
+    RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+
+    @Mock
+    RequestTypeDetailsRepository requestTypeDetailsRepository;
+
+    @Mock
+    ImsLocationDetailsRepository imsLocationDetailsRepository;
+
+    @Mock
+    DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
+
     @Before
     public  void setup(){
         MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(setupDataService, "referenceDataCache", referenceDataCache);
     }
     @Test
     public void getItemStatusIdCodeMap(){
         ItemStatusEntity itemStatusEntity = getItemStatusEntity();
-        Mockito.when(repositoryService.getItemStatusDetailsRepository()).thenReturn(itemStatusDetailsRepository);
-        Mockito.when(repositoryService.getItemStatusDetailsRepository().findAll()).thenReturn(Arrays.asList(itemStatusEntity));
+        Mockito.when(itemStatusDetailsRepository.findAll()).thenReturn(Arrays.asList(itemStatusEntity));
         Map<Integer,String> itemStatusIdCodeMap = setupDataService.getItemStatusIdCodeMap();
         assertNotNull(itemStatusIdCodeMap);
         String itemStatusCode = itemStatusIdCodeMap.get(1);
@@ -66,8 +83,7 @@ public class SetupDataServiceUT {
     @Test
     public void getItemStatusCodeIdMap(){
         ItemStatusEntity itemStatusEntity = getItemStatusEntity();
-        Mockito.when(repositoryService.getItemStatusDetailsRepository()).thenReturn(itemStatusDetailsRepository);
-        Mockito.when(repositoryService.getItemStatusDetailsRepository().findAll()).thenReturn(Arrays.asList(itemStatusEntity));
+        Mockito.when(itemStatusDetailsRepository.findAll()).thenReturn(Arrays.asList(itemStatusEntity));
         Map<String,Integer> itemStatusCodeIdMap = setupDataService.getItemStatusCodeIdMap();
         assertNotNull(itemStatusCodeIdMap);
         Integer itemStatusId = itemStatusCodeIdMap.get(ScsbCommonConstants.AVAILABLE);
@@ -81,8 +97,7 @@ public class SetupDataServiceUT {
     @Test
     public void getInstitutionIdCodeMap(){
         InstitutionEntity institutionEntity = getInstitutionEntity();
-        Mockito.when(repositoryService.getInstitutionDetailsRepository()).thenReturn(mockInstitutionDetailsRepository);
-        Mockito.when(repositoryService.getInstitutionDetailsRepository().findAll()).thenReturn(Arrays.asList(institutionEntity));
+        Mockito.when(mockInstitutionDetailsRepository.findAll()).thenReturn(Arrays.asList(institutionEntity));
         Map<Integer,String> institutionEntityMap = setupDataService.getInstitutionIdCodeMap();
         assertNotNull(institutionEntityMap);
         String itemStatusCode = institutionEntityMap.get(1);
@@ -96,8 +111,7 @@ public class SetupDataServiceUT {
     @Test
     public void getInstitutionCodeIdMap(){
         InstitutionEntity institutionEntity = getInstitutionEntity();
-        Mockito.when(repositoryService.getInstitutionDetailsRepository()).thenReturn(mockInstitutionDetailsRepository);
-        Mockito.when(repositoryService.getInstitutionDetailsRepository().findAll()).thenReturn(Arrays.asList(institutionEntity));
+        Mockito.when(mockInstitutionDetailsRepository.findAll()).thenReturn(Arrays.asList(institutionEntity));
         Map<String,Integer> institutionEntityMapId = setupDataService.getInstitutionCodeIdMap();
         assertNotNull(institutionEntityMapId);
         Integer itemStatusId = institutionEntityMapId.get(ScsbCommonConstants.PRINCETON);
@@ -111,8 +125,7 @@ public class SetupDataServiceUT {
     @Test
     public void getCollectionGroupMap(){
         CollectionGroupEntity collectionGroupEntity = getCollectionGroupEntity();
-        Mockito.when(repositoryService.getCollectionGroupDetailsRepository()).thenReturn(collectionGroupDetailsRepository);
-        Mockito.when(repositoryService.getCollectionGroupDetailsRepository().findAll()).thenReturn(Arrays.asList(collectionGroupEntity));
+        Mockito.when(collectionGroupDetailsRepository.findAll()).thenReturn(Arrays.asList(collectionGroupEntity));
         Map<String,Integer> collectionGroupMap = setupDataService.getCollectionGroupMap();
         assertNotNull(collectionGroupMap);
     }
@@ -1,10 +1,12 @@
 package org.recap.service.deaccession;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -28,14 +30,22 @@ import org.recap.model.deaccession.DeAccessionRequest;
 import org.recap.model.jpa.*;
 import org.recap.repository.jpa.*;
 import org.recap.service.RestHeaderService;
+import org.recap.service.common.ItemChangeLogWriter;
+import org.recap.service.common.ReferenceDataCache;
 import org.recap.util.CommonUtil;
 import org.recap.request.util.ItemRequestServiceUtil;
 import org.recap.util.PropertyUtil;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -69,7 +79,10 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
     CommonUtil commonUtil;
 
     @Mock
-    ReportDetailRepository reportDetailRepository;
+    JdbcTemplate jdbcTemplate;
+
+    @Spy
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Mock
     LASImsLocationConnectorFactory lasImsLocationConnectorFactory;
@@ -114,7 +127,7 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
     RestHeaderService restHeaderService;
 
     @Mock
-    DeaccesionItemChangeLogDetailsRepository deaccesionItemChangeLogDetailsRepository;
+    ItemChangeLogWriter itemChangeLogWriter;
 
     @Mock
     ItemEntity itemEntity;
@@ -122,8 +135,12 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
     @Mock
     UserDetailRepository userDetailRepository;
 
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
+
     @Before
     public void setup() {
+        ReflectionTestUtils.setField(deAccessionService, "referenceDataCache", referenceDataCache);
         Mockito.when(commonUtil.checkIfImsItemStatusIsAvailableOrNotAvailable(any(), any(), anyBoolean())).thenReturn(Boolean.TRUE);
     }
 
@@ -141,18 +158,12 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
         barcodeAndStopCodeMap.put("123456", "PA");
         Set<String> itemBarcodeList = barcodeAndStopCodeMap.keySet();
-        Map<Integer, String> itemIdAndMessageMap = new HashMap<>();
-        itemIdAndMessageMap.put(1, "LAS server is not reachable. Please contact ReCAP staff (<a href=\"mailto:null\">null</a>) for further assistance.");
         ItemInformationResponse itemInformationResponse = getItemInformationResponse();
-        List<DeaccessionItemChangeLog> itemChangeLogEntities = new ArrayList<>();
-        DeaccessionItemChangeLog deaccessionItemChangeLog = getDeaccessionItemChangeLog(itemIdAndMessageMap);
-        itemChangeLogEntities.add(deaccessionItemChangeLog);
         GFAPwdResponse gfaPwdResponse = getGFAPwdResponse();
         ItemHoldResponse itemHoldResponse = new ItemHoldResponse();
         itemHoldResponse.setSuccess(true);
         itemHoldResponse.setScreenMessage("Success");
-        when(gfaLasService.callGfaItemStatus(itemBarcode)).thenReturn("INC ON WO:");
-        when(itemDetailsRepository.findByBarcode(itemBarcode)).thenReturn(Arrays.asList(itemEntity));
+        when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap(itemBarcode, "INC ON WO:"));
         when(itemDetailsRepository.findByBarcodeIn(new ArrayList<>(itemBarcodeList))).thenReturn(Arrays.asList(itemEntity));
         when(requestItemDetailsRepository.findByItemBarcode(itemBarcode)).thenReturn(Arrays.asList(requestItemEntity));
         when(propertyUtil.getPropertyByImsLocationAndKey(any(), any())).thenReturn(Boolean.TRUE.toString());
@@ -161,7 +172,6 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         Mockito.when(requestItemController.cancelHoldItem(any(), any())).thenReturn(itemHoldResponse);
         Mockito.when(requestItemStatusDetailsRepository.findByRequestStatusCode(ScsbCommonConstants.REQUEST_STATUS_CANCELED)).thenReturn(getRequestItem().getRequestStatusEntity());
         Mockito.when(requestItemDetailsRepository.save(any())).thenReturn(requestItemEntity);
-        Mockito.when(deaccesionItemChangeLogDetailsRepository.saveAll(itemChangeLogEntities)).thenReturn(Arrays.asList(deaccessionItemChangeLog));
         Mockito.when(userDetailRepository.findInstitutionCodeByUserName(any())).thenReturn("PUL");
         Mockito.when(userDetailRepository.getUserRoles(any())).thenReturn(Arrays.asList("test"));
         Mockito.when(lasImsLocationConnectorFactory.getLasImsLocationConnector(any())).thenReturn(abstractLASImsLocationConnector);
@@ -197,16 +207,6 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         assertNotNull(result2);
     }
 
-    private DeaccessionItemChangeLog getDeaccessionItemChangeLog(Map<Integer, String> itemIdAndMessageMap) {
-        DeaccessionItemChangeLog deaccessionItemChangeLog = new DeaccessionItemChangeLog();
-        deaccessionItemChangeLog.setUpdatedBy("Test");
-        deaccessionItemChangeLog.setCreatedDate(new Date());
-        deaccessionItemChangeLog.setOperationType("Deaccession Rollback");
-        deaccessionItemChangeLog.setRecordId(1);
-        deaccessionItemChangeLog.setNotes(itemIdAndMessageMap.get(1) + " Hence, the transaction of deaccessioning item is rolled back.");
-        return deaccessionItemChangeLog;
-    }
-
     @Test
     public void checkAndCancelHolds() throws Exception {
         RequestItemEntity requestItemEntity = getMockRequestItemEntities().get(0);
@@ -404,6 +404,38 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         ReflectionTestUtils.invokeMethod(deAccessionService, "rollbackLASRejectedItems", deAccessionDBResponseEntities, username);
     }
 
+    @Test
+    public void checkGfaItemStatusInBatches() {
+        DeAccessionItem otherDeAccessionItem = getDeAccessionItem();
+        otherDeAccessionItem.setItemBarcode("654321");
+        DeAccessionItem missingDeAccessionItem = getDeAccessionItem();
+        missingDeAccessionItem.setItemBarcode("999999");
+        List<DeAccessionItem> deAccessionItems = Arrays.asList(getDeAccessionItem(), otherDeAccessionItem, missingDeAccessionItem);
+        ItemEntity itemEntity = getItemEntity();
+        itemEntity.setCatalogingStatus(ScsbCommonConstants.COMPLETE_STATUS);
+        itemEntity.getItemStatusEntity().setStatusCode(ScsbCommonConstants.AVAILABLE);
+        ItemEntity otherItemEntity = getItemEntity();
+        otherItemEntity.setBarcode("654321");
+        otherItemEntity.setCatalogingStatus(ScsbCommonConstants.COMPLETE_STATUS);
+        otherItemEntity.getImsLocationEntity().setImsLocationCode("HD");
+        List<DeAccessionDBResponseEntity> deAccessionDBResponseEntities = new ArrayList<>();
+        Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity, otherItemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", "IN"));
+
+        ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
+
+        Mockito.verify(itemDetailsRepository).findByBarcodeIn(Arrays.asList("123456", "654321", "999999"));
+        Mockito.verify(itemDetailsRepository, Mockito.never()).findByBarcode(any());
+        Mockito.verify(gfaLasService).callGfaItemStatuses(argThat(itemsStatusCheckModel -> itemsStatusCheckModel.size() == 2));
+        Mockito.verify(gfaLasService, Mockito.never()).callGfaItemStatus(any());
+        assertEquals(Collections.singletonMap("123456", "PB"), barcodeAndStopCodeMap);
+        assertEquals(2, deAccessionDBResponseEntities.size());
+        assertEquals("654321", deAccessionDBResponseEntities.get(0).getBarcode());
+        assertEquals("999999", deAccessionDBResponseEntities.get(1).getBarcode());
+        assertEquals(ScsbCommonConstants.ITEM_BARCDE_DOESNOT_EXIST, deAccessionDBResponseEntities.get(1).getReasonForFailure());
+    }
+
     @Test
     public void checkGfaItemStatusItemDeleted() {
         List<DeAccessionItem> deAccessionItems = new ArrayList<>();
@@ -415,7 +447,7 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -430,7 +462,7 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -445,8 +477,8 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(gfaLasService.callGfaItemStatus(any())).thenReturn("SCH ON REFILE WO:");
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", "SCH ON REFILE WO:"));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -462,8 +494,8 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(gfaLasService.callGfaItemStatus(any())).thenReturn(ScsbConstants.ILS_CONNECTION_FAILED);
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", ScsbConstants.ILS_CONNECTION_FAILED));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
     @Test
@@ -478,8 +510,8 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(gfaLasService.callGfaItemStatus(any())).thenReturn(ScsbConstants.ILS_CONNECTION_FAILED);
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", ScsbConstants.ILS_CONNECTION_FAILED));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -496,8 +528,8 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
         Mockito.when(commonUtil.checkIfImsItemStatusIsRequestableNotRetrievable(any(), any())).thenReturn(Boolean.TRUE);
-        Mockito.when(gfaLasService.callGfaItemStatus(any())).thenReturn(ScsbConstants.ILS_CONNECTION_FAILED);
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", ScsbConstants.ILS_CONNECTION_FAILED));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -512,8 +544,8 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(gfaLasService.callGfaItemStatus(any())).thenReturn("");
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Arrays.asList(itemEntity));
+        Mockito.when(gfaLasService.callGfaItemStatuses(any())).thenReturn(Collections.singletonMap("123456", ""));
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Arrays.asList(itemEntity));
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -526,7 +558,7 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         DeAccessionDBResponseEntity deAccessionDBResponseEntity = getDeAccessionDBResponseEntity();
         deAccessionDBResponseEntities.add(deAccessionDBResponseEntity);
         Map<String, String> barcodeAndStopCodeMap = new HashMap<>();
-        Mockito.when(itemDetailsRepository.findByBarcode(any())).thenReturn(Collections.EMPTY_LIST);
+        Mockito.when(itemDetailsRepository.findByBarcodeIn(any())).thenReturn(Collections.EMPTY_LIST);
         ReflectionTestUtils.invokeMethod(deAccessionService, "checkGfaItemStatus", deAccessionItems, deAccessionDBResponseEntities, barcodeAndStopCodeMap);
     }
 
@@ -727,6 +759,47 @@ public class DeAccessionServiceUT extends BaseTestCaseUT {
         deAccessionService.deAccessionItemsInSolr(deAccessionDBResponseEntities, resultMap);
     }
 
+    @Test
+    public void completeDeAccessionInSinglePass() throws Exception {
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        ResultSet generatedKeys = Mockito.mock(ResultSet.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(DeAccessionService.REPORT_INSERT, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.getGeneratedKeys()).thenReturn(generatedKeys);
+        when(generatedKeys.next()).thenReturn(true, true, false);
+        when(generatedKeys.getInt(1)).thenReturn(11, 12);
+        DeAccessionDBResponseEntity deAccessioned = new DeAccessionDBResponseEntity();
+        deAccessioned.setBarcode("123456");
+        deAccessioned.setStatus(ScsbCommonConstants.SUCCESS);
+        deAccessioned.setInstitutionCode("PUL");
+        deAccessioned.setBibliographicIds(Arrays.asList(1));
+        deAccessioned.setHoldingIds(Arrays.asList(1));
+        deAccessioned.setItemId(1);
+        DeAccessionDBResponseEntity failed = new DeAccessionDBResponseEntity();
+        failed.setBarcode("654321");
+        failed.setStatus(ScsbCommonConstants.FAILURE);
+        failed.setReasonForFailure(ScsbCommonConstants.ITEM_BARCDE_DOESNOT_EXIST);
+        DeAccessionRequest deAccessionRequest = new DeAccessionRequest();
+        deAccessionRequest.setNotes("test");
+        Map<String, String> resultMap = new HashMap<>();
+
+        ReflectionTestUtils.invokeMethod(deAccessionService, "completeDeAccession", deAccessionRequest, "Test", Arrays.asList(deAccessioned, failed), resultMap);
+
+        assertEquals(ScsbCommonConstants.SUCCESS, resultMap.get("123456"));
+        assertEquals(ScsbCommonConstants.FAILURE + " - " + ScsbCommonConstants.ITEM_BARCDE_DOESNOT_EXIST, resultMap.get("654321"));
+        Mockito.verify(preparedStatement, Mockito.times(2)).addBatch();
+        Mockito.verify(preparedStatement).executeBatch();
+        ArgumentCaptor<List<Object[]>> reportDataCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(DeAccessionService.REPORT_DATA_INSERT), reportDataCaptor.capture());
+        assertTrue(reportDataCaptor.getValue().stream().anyMatch(args -> "11".equals(args[2])));
+        assertTrue(reportDataCaptor.getValue().stream().anyMatch(args -> "12".equals(args[2])));
+        Mockito.verify(itemChangeLogWriter).saveDeaccessionItemChangeLog(eq(1), eq("Test"), any(), eq(ScsbCommonConstants.DEACCESSION), eq("test"));
+        Mockito.verifyNoMoreInteractions(itemChangeLogWriter);
+        assertEquals(1, meterRegistry.get(ScsbConstants.DEACCESSION_STAGE_METRIC).tag(ScsbConstants.METRIC_TAG_STAGE, ScsbConstants.DEACCESSION_STAGE_REPORT).timer().count());
+        assertEquals(1, meterRegistry.get(ScsbConstants.DEACCESSION_STAGE_METRIC).tag(ScsbConstants.METRIC_TAG_STAGE, ScsbConstants.DEACCESSION_STAGE_SOLR).timer().count());
+    }
+
     public ItemInformationResponse getItemInformationResponse() {
         ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
         itemInformationResponse.setCirculationStatus("test");
@@ -9,9 +9,12 @@ import org.mockito.MockitoAnnotations;
 import org.recap.BaseTestCaseUT;
 import org.recap.PropertyKeyConstants;
 import org.recap.ScsbCommonConstants;
+import org.recap.ScsbConstants;
 import org.recap.model.request.ItemRequestInformation;
 import org.recap.model.jpa.*;
 import org.recap.repository.jpa.*;
+import org.recap.service.common.ItemChangeLogWriter;
+import org.recap.service.common.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -43,7 +46,19 @@ public class CommonUtilUT extends BaseTestCaseUT {
     private PropertyUtil propertyUtil;
 
     @Mock
-    ItemChangeLogDetailsRepository itemChangeLogDetailsRepository;
+    ItemChangeLogWriter itemChangeLogWriter;
+
+    @Mock
+    RequestItemStatusDetailsRepository requestItemStatusDetailsRepository;
+
+    @Mock
+    RequestTypeDetailsRepository requestTypeDetailsRepository;
+
+    @Mock
+    DeliveryCodeDetailsRepository deliveryCodeDetailsRepository;
+
+    @InjectMocks
+    ReferenceDataCache referenceDataCache;
 
     @Value("${scsb.support.institution}")
     private String supportInstitution;
@@ -51,6 +66,7 @@ public class CommonUtilUT extends BaseTestCaseUT {
    @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(commonUtil, "referenceDataCache", referenceDataCache);
     }
 
     @Test
@@ -126,6 +142,7 @@ public class CommonUtilUT extends BaseTestCaseUT {
         String userName = "Test";
         Mockito.when(itemStatusDetailsRepository.findByStatusCode(ScsbCommonConstants.AVAILABLE)).thenReturn(getItemStatusEntity());
         commonUtil.rollbackUpdateItemAvailabilityStatus(itemEntity, userName);
+        Mockito.verify(itemChangeLogWriter, Mockito.times(1)).saveItemChangeLog(itemEntity.getId(), userName, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_UPDATE, ScsbConstants.REQUEST_ITEM_AVAILABILITY_STATUS_DATA_ROLLBACK);
     }
 
     @Test
@@ -150,18 +167,21 @@ public class CommonUtilUT extends BaseTestCaseUT {
         ItemStatusEntity itemStatusEntity = getItemStatusEntity();
         itemStatusEntities.add(itemStatusEntity);
         Mockito.when(itemStatusDetailsRepository.findAll()).thenReturn(itemStatusEntities);
-        commonUtil.getItemStatusMap();
+        Map<String, Integer> itemStatusMap = commonUtil.getItemStatusMap();
         commonUtil.getCollectionGroupMap();
         commonUtil.getInstitutionEntityMap();
-        CommonUtil commonUtil = new CommonUtil();
-        commonUtil.getItemStatusMap();
+        assertEquals(itemStatusEntity.getId(), itemStatusMap.get(itemStatusEntity.getStatusCode()));
+        Mockito.verify(itemStatusDetailsRepository, Mockito.times(1)).findAll();
     }
 
     @Test
     public void getItemStatusMapWithItemStatus() {
         Map<String, Integer> itemStatusMap = new HashMap<>();
         itemStatusMap.put("AVAILABLE",1);
-        ReflectionTestUtils.setField(commonUtil,"itemStatusMap",itemStatusMap);
+        ItemStatusEntity itemStatusEntity = getItemStatusEntity();
+        itemStatusEntity.setId(1);
+        itemStatusEntity.setStatusCode("AVAILABLE");
+        Mockito.when(itemStatusDetailsRepository.findAll()).thenReturn(Arrays.asList(itemStatusEntity));
         Map<String, Integer> map = commonUtil.getItemStatusMap();
         assertNotNull(map);
         assertEquals(itemStatusMap,map);
@@ -170,7 +190,10 @@ public class CommonUtilUT extends BaseTestCaseUT {
     public void getCollectionGroupMapAvailable() {
         Map<String, Integer> collectionGroupMap = new HashMap<>();
         collectionGroupMap.put("SHARED",1);
-        ReflectionTestUtils.setField(commonUtil,"collectionGroupMap",collectionGroupMap);
+        CollectionGroupEntity collectionGroupEntity = getCollectionGroupEntity();
+        collectionGroupEntity.setId(1);
+        collectionGroupEntity.setCollectionGroupCode("SHARED");
+        Mockito.when(collectionGroupDetailsRepository.findAll()).thenReturn(Arrays.asList(collectionGroupEntity));
         Map<String, Integer> map = commonUtil.getCollectionGroupMap();
         assertNotNull(map);
         assertEquals(collectionGroupMap,map);
@@ -179,7 +202,10 @@ public class CommonUtilUT extends BaseTestCaseUT {
     public void getInstitutionEntityMapAvailable() {
         Map<String, Integer> institutionEntityMap = new HashMap<>();
         institutionEntityMap.put("PUL",1);
-        ReflectionTestUtils.setField(commonUtil,"institutionEntityMap",institutionEntityMap);
+        InstitutionEntity institutionEntity = getInstitutionEntity();
+        institutionEntity.setId(1);
+        institutionEntity.setInstitutionCode("PUL");
+        Mockito.when(institutionDetailsRepository.findAll()).thenReturn(Arrays.asList(institutionEntity));
         Map<String, Integer> map = commonUtil.getInstitutionEntityMap();
         assertNotNull(map);
         assertEquals(institutionEntityMap,map);
@@ -0,0 +1,143 @@
+package org.recap.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+import org.recap.ScsbConstants;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateUtilUT extends BaseTestCaseUT {
+
+    private static final int THREADS = 8;
+    private static final int DATES_PER_THREAD = 2000;
+
+    @Test
+    public void formatAndParseRoundTrip() throws Exception {
+        Date date = DateUtil.toDate(LocalDateTime.of(2022, 3, 14, 15, 9, 26));
+
+        String formattedDate = DateUtil.format(date, DateUtil.DATE_FORMATTER);
+
+        assertEquals("03-14-2022 15:09:26", formattedDate);
+        assertEquals(date, DateUtil.parse(formattedDate, DateUtil.DATE_FORMATTER));
+        assertEquals(new SimpleDateFormat(ScsbConstants.DATE_FORMAT).parse(formattedDate), DateUtil.parse(formattedDate, DateUtil.DATE_FORMATTER));
+    }
+
+    @Test
+    public void parseDateWithoutTimeAtStartOfDay() throws Exception {
+        assertEquals(LocalDateTime.of(2022, 3, 14, 0, 0), DateUtil.parseLocalDateTime("2022-03-14", DateUtil.REST_HOLD_DATE_FORMATTER));
+    }
+
+    @Test
+    public void parseIgnoresTrailingText() throws Exception {
+        assertEquals(LocalDateTime.of(2022, 3, 14, 15, 9, 26), DateUtil.parseLocalDateTime("2022-03-14T15:09:26.000+05:00", DateUtil.REST_DATE_TIME_FORMATTER));
+    }
+
+    @Test
+    public void parseTwelveHourClockAsMorning() throws Exception {
+        String date = "14-03-2022 12:30";
+        assertEquals(LocalDateTime.of(2022, 3, 14, 0, 30), DateUtil.parseLocalDateTime(date, DateUtil.DEFAULT_DATE_FORMATTER));
+        assertEquals(new SimpleDateFormat(ScsbConstants.DEFAULT_DATE_FORMAT).parse(date), DateUtil.parse(date, DateUtil.DEFAULT_DATE_FORMATTER));
+    }
+
+    @Test
+    public void parseDatesWithoutZeroPaddingAsSimpleDateFormat() throws Exception {
+        assertParsedAsSimpleDateFormat("1-5-2021 10:00:00", ScsbConstants.DATE_FORMAT, DateUtil.DATE_FORMATTER, LocalDateTime.of(2021, 1, 5, 10, 0));
+        assertParsedAsSimpleDateFormat("9/3/2019 10:11:12", ScsbConstants.REQUEST_DATA_LOAD_DATE_FORMAT, DateUtil.REQUEST_DATA_LOAD_DATE_FORMATTER, LocalDateTime.of(2019, 9, 3, 10, 11, 12));
+        assertParsedAsSimpleDateFormat("05-01-2021 1:00", ScsbConstants.DEFAULT_DATE_FORMAT, DateUtil.DEFAULT_DATE_FORMATTER, LocalDateTime.of(2021, 1, 5, 1, 0));
+        assertParsedAsSimpleDateFormat("2021-1-5 9:5:7", "yyyy-MM-dd HH:mm:ss", DateUtil.CANCEL_REQUEST_DATE_FORMATTER, LocalDateTime.of(2021, 1, 5, 9, 5, 7));
+        assertEquals(LocalDateTime.of(2021, 1, 5, 0, 0), DateUtil.parseLocalDateTime("5Jan2021", DateUtil.REQUEST_INITIAL_FILE_DATE_FORMATTER));
+    }
+
+    @Test
+    public void formatKeepsZeroPadding() {
+        Date date = DateUtil.toDate(LocalDateTime.of(2021, 1, 5, 1, 2, 3));
+        assertEquals("01-05-2021 01:02:03", DateUtil.format(date, DateUtil.DATE_FORMATTER));
+        assertEquals("01/05/2021 01:02:03", DateUtil.format(date, DateUtil.REQUEST_DATA_LOAD_DATE_FORMATTER));
+        assertEquals("05-01-2021 01:02", DateUtil.format(date, DateUtil.DEFAULT_DATE_FORMATTER));
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseOutOfRangeField() throws Exception {
+        DateUtil.parse("13-5-2021 10:00:00", DateUtil.DATE_FORMATTER);
+    }
+
+    @Test
+    public void reformatSipDate() throws Exception {
+        assertEquals("03-14-2022 15:09:26", DateUtil.reformat("20220314    150926", DateUtil.SIP_DATE_TIME_FORMATTER, DateUtil.DATE_FORMATTER));
+        assertEquals("", DateUtil.reformat(" ", DateUtil.SIP_DATE_TIME_FORMATTER, DateUtil.DATE_FORMATTER));
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseInvalidDate() throws Exception {
+        DateUtil.parse("not a date", DateUtil.DATE_FORMATTER);
+    }
+
+    @Test
+    public void concurrentParsingOfExpirationDates() throws Exception {
+        assertEquals(0, countCorruptedExpirationDates(date -> DateUtil.parse(date, DateUtil.DATE_FORMATTER)));
+    }
+
+    /**
+     * Reproduces the corrupted expiration dates of the formatter previously shared by the request threads. The race is
+     * not deterministic, so the test is skipped rather than failed when no date happens to be corrupted.
+     */
+    @Test
+    public void concurrentParsingWithSharedSimpleDateFormatCorruptsExpirationDates() throws Exception {
+        SimpleDateFormat sharedDateFormat = new SimpleDateFormat(ScsbConstants.DATE_FORMAT);
+        int corruptedDates = countCorruptedExpirationDates(sharedDateFormat::parse);
+        Assume.assumeTrue("No expiration date was corrupted in this run", corruptedDates > 0);
+    }
+
+    private static void assertParsedAsSimpleDateFormat(String date, String pattern, DateTimeFormatter formatter, LocalDateTime expected) throws ParseException {
+        assertEquals(expected, DateUtil.parseLocalDateTime(date, formatter));
+        assertEquals(new SimpleDateFormat(pattern).parse(date), DateUtil.parse(date, formatter));
+    }
+
+    private int countCorruptedExpirationDates(DateParser dateParser) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int year = 2000 + thread;
+                futures.add(executorService.submit((Callable<Integer>) () -> {
+                    int corruptedDates = 0;
+                    for (int index = 0; index < DATES_PER_THREAD; index++) {
+                        LocalDateTime expirationDate = LocalDateTime.of(year, 1 + index % 12, 1 + index % 28, index % 24, index % 60, index % 60);
+                        try {
+                            if (!DateUtil.toDate(expirationDate).equals(dateParser.parse(DateUtil.DATE_FORMATTER.format(expirationDate)))) {
+                                corruptedDates++;
+                            }
+                        } catch (ParseException | RuntimeException e) {
+                            corruptedDates++;
+                        }
+                    }
+                    return corruptedDates;
+                }));
+            }
+            int corruptedDates = 0;
+            for (Future<Integer> future : futures) {
+                corruptedDates += future.get();
+            }
+            return corruptedDates;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private interface DateParser {
+        Date parse(String date) throws ParseException;
+    }
+}
@@ -0,0 +1,58 @@
+package org.recap.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.recap.BaseTestCaseUT;
+import org.recap.ims.model.GFARetrieveItemResponse;
+import org.recap.model.request.ItemRequestInformation;
+import org.recap.model.request.RequestInformation;
+import org.recap.model.response.ItemInformationResponse;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonUtilUT extends BaseTestCaseUT {
+
+    @Test
+    public void writesAsNewObjectMapper() throws Exception {
+        RequestInformation requestInformation = new RequestInformation();
+        requestInformation.setItemRequestInfo(getItemRequestInformation());
+        ItemInformationResponse itemInformationResponse = new ItemInformationResponse();
+        itemInformationResponse.setItemBarcode("33433001234567");
+        itemInformationResponse.setSuccess(true);
+        requestInformation.setItemResponseInformation(itemInformationResponse);
+
+        assertEquals(new ObjectMapper().writeValueAsString(requestInformation), JsonUtil.OBJECT_WRITER.writeValueAsString(requestInformation));
+    }
+
+    @Test
+    public void readsQueueMessages() throws Exception {
+        String itemRequestMessage = JsonUtil.OBJECT_WRITER.writeValueAsString(getItemRequestInformation());
+
+        ItemRequestInformation itemRequestInformation = JsonUtil.ITEM_REQUEST_INFORMATION_READER.readValue(itemRequestMessage);
+
+        assertEquals(Collections.singletonList("33433001234567"), itemRequestInformation.getItemBarcodes());
+        assertEquals("PUL", itemRequestInformation.getItemOwningInstitution());
+        assertEquals("RETRIEVAL", itemRequestInformation.getRequestType());
+    }
+
+    @Test
+    public void readsLasResponses() throws Exception {
+        GFARetrieveItemResponse gfaRetrieveItemResponse = new GFARetrieveItemResponse();
+        gfaRetrieveItemResponse.setSuccess(true);
+
+        GFARetrieveItemResponse readResponse = JsonUtil.GFA_RETRIEVE_ITEM_RESPONSE_READER.readValue(JsonUtil.OBJECT_WRITER.writeValueAsString(gfaRetrieveItemResponse));
+
+        assertTrue(readResponse.isSuccess());
+    }
+
+    private static ItemRequestInformation getItemRequestInformation() {
+        ItemRequestInformation itemRequestInformation = new ItemRequestInformation();
+        itemRequestInformation.setItemBarcodes(Collections.singletonList("33433001234567"));
+        itemRequestInformation.setItemOwningInstitution("PUL");
+        itemRequestInformation.setRequestType("RETRIEVAL");
+        return itemRequestInformation;
+    }
+}